@@ -0,0 +1,116 @@
+package sk.vava.royalmate.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import sk.vava.royalmate.util.AhoCorasickMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chat moderation throughput. One operation is one scanned character, so the
+ * reported score is characters per second.
+ * <p>
+ * The corpus is a stream of chat-like messages built from random lowercase words with
+ * a banned term mixed in every {@code hitEvery} messages, scanned message by message like
+ * ChatService does. {@code naiveScan} is the per-term indexOf loop the automaton replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModerationFilterBenchmark {
+
+    private static final int MESSAGE_COUNT = 10_000;
+    private static final int MESSAGE_LENGTH = 80;
+    private static final int TOTAL_CHARS = MESSAGE_COUNT * MESSAGE_LENGTH;
+
+    @Param({"50", "1000"})
+    public int termCount;
+
+    @Param({"20"})
+    public int hitEvery;
+
+    private AhoCorasickMatcher matcher;
+    private String[] terms;
+    private String[] messages;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<String> termList = new ArrayList<>(termCount);
+        for (int i = 0; i < termCount; i++) {
+            termList.add(randomWord(random, 4 + random.nextInt(6)));
+        }
+        terms = termList.toArray(new String[0]);
+        matcher = AhoCorasickMatcher.compile(termList);
+
+        messages = new String[MESSAGE_COUNT];
+        for (int m = 0; m < MESSAGE_COUNT; m++) {
+            StringBuilder sb = new StringBuilder(MESSAGE_LENGTH + 16);
+            if (m % hitEvery == 0) {
+                sb.append(terms[random.nextInt(terms.length)].toUpperCase()).append(' ');
+            }
+            while (sb.length() < MESSAGE_LENGTH) {
+                sb.append(randomWord(random, 2 + random.nextInt(8))).append(' ');
+            }
+            sb.setLength(MESSAGE_LENGTH);
+            messages[m] = sb.toString();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TOTAL_CHARS)
+    public void mask(Blackhole bh) {
+        for (String message : messages) {
+            bh.consume(matcher.mask(message, '*'));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TOTAL_CHARS)
+    public void containsAny(Blackhole bh) {
+        for (String message : messages) {
+            bh.consume(matcher.containsAny(message));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TOTAL_CHARS)
+    public void naiveScan(Blackhole bh) {
+        for (String message : messages) {
+            String lower = message.toLowerCase();
+            boolean hit = false;
+            for (String term : terms) {
+                if (lower.contains(term)) {
+                    hit = true;
+                    break;
+                }
+            }
+            bh.consume(hit);
+        }
+    }
+
+    private static String randomWord(Random random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+}
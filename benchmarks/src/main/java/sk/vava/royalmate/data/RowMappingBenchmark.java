@@ -0,0 +1,283 @@
+package sk.vava.royalmate.data;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import sk.vava.royalmate.model.AssetRef;
+import sk.vava.royalmate.model.Game;
+import sk.vava.royalmate.model.GameType;
+import sk.vava.royalmate.model.Gameplay;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-row mapping cost of the two hottest list queries, without a DB: the rows are served by an in-memory
+ * ResultSet with the same column labels as {@code GameplayDAO.findTopPlays} and {@code GameDAO.findAllActiveWithCovers}.
+ * One operation is one mapped row.
+ * <p>
+ * {@code *Compiled} use the DAOs' own mappers through a {@link MapperCache}, as the DAOs do.
+ * {@code *ByLabel} are the mappers they replaced: every column read by label and every optional column
+ * checked with a ResultSetMetaData scan, per row. {@link #setUp()} first checks that both map every row
+ * to equal objects and fails the run otherwise, so the two sides measure the same work.
+ * Lives in the data package because mappers and MapperCache are package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowMappingBenchmark {
+
+    private static final int ROWS = 1_000;
+
+    private static final String[] TOP_PLAYS_COLUMNS = {
+            "id", "account_id", "game_id", "stake_amount", "outcome", "payout_amount", "timestamp",
+            "username", "game_name", "cover_asset_id", "cover_hash", "cover_size", "multiplier"};
+    private static final String[] ACTIVE_GAMES_COLUMNS = {
+            "id", "name", "description", "game_type", "min_stake", "max_stake", "volatility", "background_color",
+            "created_by_admin_id", "is_active", "created_at", "admin_username",
+            "cover_asset_id", "cover_hash", "cover_size", "spin_count"};
+
+    private static final MapperCache<Gameplay> GAMEPLAY_MAPPERS = new MapperCache<>(GameplayDAO::compileGameplayMapper);
+    private static final MapperCache<Game> GAME_MAPPERS = new MapperCache<>(columns -> GameDAO.compileGameMapper(columns, false));
+
+    private Object[][] topPlayRows;
+    private Object[][] activeGameRows;
+
+    @Setup
+    public void setUp() throws SQLException {
+        Random random = new Random(42);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        topPlayRows = new Object[ROWS][];
+        activeGameRows = new Object[ROWS][];
+        for (int i = 0; i < ROWS; i++) {
+            BigDecimal stake = BigDecimal.valueOf(1 + random.nextInt(100), 1);
+            BigDecimal payout = stake.multiply(BigDecimal.valueOf(1 + random.nextInt(50)));
+            Integer cover = i % 10 == 0 ? null : 1000 + i; // Some games without a cover
+            topPlayRows[i] = new Object[]{
+                    (long) i, 1 + random.nextInt(500), 1 + random.nextInt(40), stake, "WIN", payout, now,
+                    "player" + i, "Game " + (i % 40), cover, cover != null ? hash(random) : null,
+                    cover != null ? 20_000L + random.nextInt(50_000) : null, payout.divide(stake, 6, RoundingMode.HALF_UP)};
+            activeGameRows[i] = new Object[]{
+                    i, "Game " + i, "Description of game " + i, GameType.values()[i % 3].name(),
+                    new BigDecimal("0.10"), new BigDecimal("100.00"), 1 + i % 3, "#1a1a1a",
+                    1, true, now, "admin",
+                    cover, cover != null ? hash(random) : null, cover != null ? 20_000L + random.nextInt(50_000) : null,
+                    (long) random.nextInt(100_000)};
+        }
+        verifyMappersAgree(TOP_PLAYS_COLUMNS, topPlayRows, GAMEPLAY_MAPPERS, "top-plays", RowMappingBenchmark::mapGameplayByLabel);
+        verifyMappersAgree(ACTIVE_GAMES_COLUMNS, activeGameRows, GAME_MAPPERS, "active-games", RowMappingBenchmark::mapGameByLabel);
+    }
+
+    private static <T> void verifyMappersAgree(String[] labels, Object[][] rows, MapperCache<T> mappers, String query,
+                                               RowMapper<T> byLabel) throws SQLException {
+        ResultSet compiledRs = resultSet(labels, rows);
+        ResultSet labelRs = resultSet(labels, rows);
+        RowMapper<T> compiled = mappers.forQuery(query, compiledRs);
+        for (int i = 0; compiledRs.next() && labelRs.next(); i++) {
+            T expected = byLabel.map(labelRs);
+            T actual = compiled.map(compiledRs);
+            if (!expected.equals(actual)) {
+                throw new IllegalStateException(query + " row " + i + " differs: by label " + expected + ", compiled " + actual);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void topPlaysCompiled(Blackhole bh) throws SQLException {
+        ResultSet rs = resultSet(TOP_PLAYS_COLUMNS, topPlayRows);
+        RowMapper<Gameplay> mapper = GAMEPLAY_MAPPERS.forQuery("top-plays", rs);
+        while (rs.next()) {
+            bh.consume(mapper.map(rs));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void topPlaysByLabel(Blackhole bh) throws SQLException {
+        ResultSet rs = resultSet(TOP_PLAYS_COLUMNS, topPlayRows);
+        while (rs.next()) {
+            bh.consume(mapGameplayByLabel(rs));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void activeGamesCompiled(Blackhole bh) throws SQLException {
+        ResultSet rs = resultSet(ACTIVE_GAMES_COLUMNS, activeGameRows);
+        RowMapper<Game> mapper = GAME_MAPPERS.forQuery("active-games", rs);
+        while (rs.next()) {
+            bh.consume(mapper.map(rs));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void activeGamesByLabel(Blackhole bh) throws SQLException {
+        ResultSet rs = resultSet(ACTIVE_GAMES_COLUMNS, activeGameRows);
+        while (rs.next()) {
+            bh.consume(mapGameByLabel(rs));
+        }
+    }
+
+    // --- Mappers as they were before MapperCache ---
+
+    private static Gameplay mapGameplayByLabel(ResultSet rs) throws SQLException {
+        Gameplay play = Gameplay.builder()
+                .id(rs.getLong("id"))
+                .accountId(rs.getInt("account_id"))
+                .gameId(rs.getInt("game_id"))
+                .stakeAmount(rs.getBigDecimal("stake_amount"))
+                .outcome(rs.getString("outcome"))
+                .payoutAmount(rs.getBigDecimal("payout_amount"))
+                .timestamp(rs.getTimestamp("timestamp"))
+                .build();
+        if (hasColumn(rs, "username")) { play.setUsername(rs.getString("username")); }
+        if (hasColumn(rs, "game_name")) { play.setGameName(rs.getString("game_name")); }
+        if (hasColumn(rs, "multiplier")) {
+            play.setMultiplier(rs.getBigDecimal("multiplier").setScale(2, RoundingMode.HALF_UP));
+        }
+        if (hasColumn(rs, "cover_asset_id")) {
+            int coverAssetId = rs.getInt("cover_asset_id");
+            if (!rs.wasNull()) {
+                play.setCoverAsset(AssetRef.builder()
+                        .assetId(coverAssetId)
+                        .contentHash(rs.getString("cover_hash"))
+                        .sizeBytes(rs.getLong("cover_size"))
+                        .build());
+            }
+        }
+        return play;
+    }
+
+    private static Game mapGameByLabel(ResultSet rs) throws SQLException {
+        Game game = Game.builder()
+                .id(rs.getInt("id"))
+                .name(rs.getString("name"))
+                .description(rs.getString("description"))
+                .gameType(GameType.valueOf(rs.getString("game_type")))
+                .minStake(rs.getBigDecimal("min_stake"))
+                .maxStake(rs.getBigDecimal("max_stake"))
+                .volatility(rs.getInt("volatility"))
+                .backgroundColor(rs.getString("background_color"))
+                .createdByAdminId(rs.getInt("created_by_admin_id"))
+                .isActive(rs.getBoolean("is_active"))
+                .createdAt(rs.getTimestamp("created_at"))
+                .build();
+        if (hasColumn(rs, "admin_username")) {
+            game.setCreatedByAdminUsername(rs.getString("admin_username"));
+        }
+        if (hasColumn(rs, "cover_asset_id")) {
+            int coverAssetId = rs.getInt("cover_asset_id");
+            if (!rs.wasNull()) {
+                game.setCoverAsset(AssetRef.builder()
+                        .assetId(coverAssetId)
+                        .contentHash(rs.getString("cover_hash"))
+                        .sizeBytes(rs.getLong("cover_size"))
+                        .build());
+            }
+        }
+        if (hasColumn(rs, "spin_count")) {
+            game.setTotalSpins(rs.getLong("spin_count"));
+        }
+        return game;
+    }
+
+    private static boolean hasColumn(ResultSet rs, String columnName) throws SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        for (int x = 1; x <= meta.getColumnCount(); x++) {
+            if (columnName.equalsIgnoreCase(meta.getColumnLabel(x))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // --- In-memory ResultSet ---
+
+    /**
+     * Forward-only ResultSet over rows of objects. Label lookups go through a case-insensitive map,
+     * as in the MySQL driver; unsupported methods throw.
+     */
+    private static ResultSet resultSet(String[] labels, Object[][] rows) {
+        Map<String, Integer> indices = new HashMap<>();
+        for (int i = 0; i < labels.length; i++) {
+            indices.putIfAbsent(labels[i].toLowerCase(Locale.ROOT), i + 1);
+        }
+        ResultSetMetaData meta = (ResultSetMetaData) Proxy.newProxyInstance(RowMappingBenchmark.class.getClassLoader(),
+                new Class<?>[]{ResultSetMetaData.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getColumnCount" -> labels.length;
+                    case "getColumnLabel", "getColumnName" -> labels[(Integer) args[0] - 1];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        int[] row = {-1};
+        boolean[] wasNull = {false};
+        return (ResultSet) Proxy.newProxyInstance(RowMappingBenchmark.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "next":
+                            return ++row[0] < rows.length;
+                        case "getMetaData":
+                            return meta;
+                        case "wasNull":
+                            return wasNull[0];
+                        case "findColumn":
+                            return column(indices, (String) args[0]);
+                        default:
+                            break;
+                    }
+                    if (!method.getName().startsWith("get") || args == null || args.length != 1) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    int column = args[0] instanceof String label ? column(indices, label) : (Integer) args[0];
+                    Object value = rows[row[0]][column - 1];
+                    wasNull[0] = value == null;
+                    return convert(value, method.getReturnType());
+                });
+    }
+
+    private static int column(Map<String, Integer> indices, String label) throws SQLException {
+        Integer index = indices.get(label.toLowerCase(Locale.ROOT));
+        if (index == null) {
+            throw new SQLException("Column '" + label + "' not found.");
+        }
+        return index;
+    }
+
+    private static Object convert(Object value, Class<?> type) {
+        if (type == int.class) return value == null ? 0 : ((Number) value).intValue();
+        if (type == long.class) return value == null ? 0L : ((Number) value).longValue();
+        if (type == boolean.class) return value != null && (Boolean) value;
+        return value;
+    }
+
+    private static String hash(Random random) {
+        StringBuilder sb = new StringBuilder(64);
+        for (int i = 0; i < 64; i++) {
+            sb.append(Character.forDigit(random.nextInt(16), 16));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,122 @@
+package sk.vava.royalmate.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import sk.vava.royalmate.model.Gameplay;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write and read throughput of the columnar gameplay export format. One operation is one play.
+ * <p>
+ * {@link #setUp()} first round-trips the generated plays through {@link GameplayColumnarWriter} and
+ * {@link GameplayColumnarReader} and fails the run if any field differs, so every benchmark run also
+ * checks the format. The rows span several blocks and include null decimals, outcomes and timestamps.
+ * Lives in the service package because the writer and reader are package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GameplayColumnarBenchmark {
+
+    private static final int ROWS = GameplayColumnarWriter.BLOCK_ROWS * 3 + 1_000;
+    private static final String[] OUTCOMES = {"WIN", "LOSS", "PUSH", "JACKPOT"};
+
+    private Gameplay[] plays;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        long id = 1;
+        long millis = 1_700_000_000_000L;
+        plays = new Gameplay[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            id += 1 + random.nextInt(3);
+            millis += random.nextInt(5_000);
+            BigDecimal stake = BigDecimal.valueOf(10 + random.nextInt(10_000), 2);
+            plays[i] = Gameplay.builder()
+                    .id(id)
+                    .accountId(1 + random.nextInt(50_000))
+                    .gameId(1 + random.nextInt(40))
+                    .stakeAmount(stake)
+                    .outcome(i % 997 == 0 ? null : OUTCOMES[random.nextInt(OUTCOMES.length)])
+                    .payoutAmount(i % 501 == 0 ? null : stake.multiply(BigDecimal.valueOf(random.nextInt(20))))
+                    .timestamp(i % 1_009 == 0 ? null : new Timestamp(millis))
+                    .build();
+        }
+        encoded = write(new ByteArrayOutputStream(ROWS * 16));
+        verifyRoundTrip();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void write(Blackhole bh) throws IOException {
+        bh.consume(write(OutputStream.nullOutputStream()));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void read(Blackhole bh) throws IOException {
+        GameplayColumnarReader reader = new GameplayColumnarReader(new ByteArrayInputStream(encoded));
+        Gameplay play;
+        while ((play = reader.next()) != null) {
+            bh.consume(play);
+        }
+    }
+
+    private byte[] write(OutputStream out) throws IOException {
+        GameplayColumnarWriter writer = new GameplayColumnarWriter(out);
+        for (Gameplay play : plays) {
+            writer.add(play);
+        }
+        writer.finish();
+        return out instanceof ByteArrayOutputStream bytes ? bytes.toByteArray() : null;
+    }
+
+    private void verifyRoundTrip() throws IOException {
+        GameplayColumnarReader reader = new GameplayColumnarReader(new ByteArrayInputStream(encoded));
+        for (int i = 0; i < ROWS; i++) {
+            Gameplay expected = plays[i];
+            Gameplay actual = reader.next();
+            if (actual == null
+                    || actual.getId() != expected.getId()
+                    || actual.getAccountId() != expected.getAccountId()
+                    || actual.getGameId() != expected.getGameId()
+                    || !sameDecimal(actual.getStakeAmount(), expected.getStakeAmount())
+                    || !sameDecimal(actual.getPayoutAmount(), expected.getPayoutAmount())
+                    || !Objects.equals(actual.getOutcome(), expected.getOutcome())
+                    || !Objects.equals(actual.getTimestamp(), expected.getTimestamp())) {
+                throw new IllegalStateException("Round trip differs at row " + i + ": wrote " + expected + ", read " + actual);
+            }
+        }
+        if (reader.next() != null || reader.rowsRead() != ROWS) {
+            throw new IllegalStateException("Round trip read " + reader.rowsRead() + " rows, wrote " + ROWS);
+        }
+    }
+
+    private static boolean sameDecimal(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+}
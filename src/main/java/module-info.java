@@ -4,11 +4,11 @@ module sk.vava.royalmate {
     // JavaFX modules needed for UI and FXML loading
     requires javafx.controls;
     requires javafx.fxml;
-    requires javafx.swing;
 
     // Standard Java module for logging
     requires java.logging;
 
+    // ImageIO/Java2D, used only by RenditionEncoder when creating renditions of uploaded assets (symbol atlases use JavaFX)
     requires java.desktop;
 
     // Standard Java module for JDBC database access
@@ -36,6 +36,9 @@ module sk.vava.royalmate {
     // so it can be launched, potentially by external tools or launchers.
     exports sk.vava.royalmate.app;
 
+    // Connector/J instantiates the data package's QueryFailureInterceptor by class name
+    exports sk.vava.royalmate.data to mysql.connector.j;
+
     // You generally DON'T need to export 'controller', 'service', 'data', 'util'
     // unless you intend for *other external modules* to directly use them,
     // which is unlikely for a self-contained application.
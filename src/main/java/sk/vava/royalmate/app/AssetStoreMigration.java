@@ -0,0 +1,50 @@
+package sk.vava.royalmate.app;
+
+import sk.vava.royalmate.data.AssetRenditionDAO;
+import sk.vava.royalmate.data.AssetStore;
+import sk.vava.royalmate.data.DatabaseSchema;
+import sk.vava.royalmate.data.FileAssetStore;
+import sk.vava.royalmate.data.GameAssetDAO;
+import sk.vava.royalmate.data.HomepageBannerDAO;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * One-off tool moving existing game asset, rendition and banner BLOBs into the file asset store.
+ * Usage: {@code AssetStoreMigration <store-dir> [batch-size]}. Safe to re-run; already migrated rows are skipped.
+ * Applies the pending schema changes first (see {@link SchemaMigration}), so it needs the same DDL-capable account.
+ * Clients must then be started with {@code -Droyalmate.assetstore.dir=<store-dir>} to read the migrated images.
+ */
+public class AssetStoreMigration {
+
+    private static final Logger LOGGER = Logger.getLogger(AssetStoreMigration.class.getName());
+    private static final int DEFAULT_BATCH_SIZE = 50;
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: AssetStoreMigration <store-dir> [batch-size]");
+            System.exit(2);
+        }
+        AssetStore store = new FileAssetStore(Paths.get(args[0]));
+        int batchSize = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_BATCH_SIZE;
+
+        Set<String> hashes = new HashSet<>();
+        try {
+            DatabaseSchema.migrate(); // Adds the content hash columns the move writes to
+            int assets = new GameAssetDAO(store).migrateToStore(store, batchSize, hashes);
+            int renditions = new AssetRenditionDAO(store).migrateToStore(store, batchSize, hashes);
+            int banners = new HomepageBannerDAO(store).migrateToStore(store, batchSize, hashes);
+            LOGGER.info("Migrated " + assets + " game assets, " + renditions + " renditions and " + banners
+                    + " banners into " + hashes.size() + " unique files in " + args[0]);
+        } catch (SQLException | IOException e) {
+            LOGGER.log(Level.SEVERE, "Asset store migration failed; committed batches stay migrated, re-run to continue.", e);
+            System.exit(1);
+        }
+    }
+}
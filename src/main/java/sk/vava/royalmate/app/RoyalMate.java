@@ -6,6 +6,8 @@ import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.image.Image; // Import Image class
 import javafx.stage.Stage;
+import sk.vava.royalmate.data.DatabaseManager;
+import sk.vava.royalmate.data.EntityCache;
 
 import java.io.IOException;
 import java.io.InputStream; // Import InputStream
@@ -46,6 +48,12 @@ public class RoyalMate extends Application {
         }
     }
 
+    @Override
+    public void stop() {
+        EntityCache.logAllStats(); // Hit ratios of the DAO caches for this session
+        DatabaseManager.logRoutingStats();
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
@@ -0,0 +1,26 @@
+package sk.vava.royalmate.app;
+
+import sk.vava.royalmate.data.DatabaseSchema;
+
+import java.sql.SQLException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * One-off tool applying the schema changes the client expects (see {@link DatabaseSchema}).
+ * Usage: {@code SchemaMigration}, with a {@code Config} whose account may ALTER and CREATE tables.
+ * Run it once per deployment before starting updated clients; it is safe to re-run.
+ */
+public class SchemaMigration {
+
+    private static final Logger LOGGER = Logger.getLogger(SchemaMigration.class.getName());
+
+    public static void main(String[] args) {
+        try {
+            DatabaseSchema.migrate();
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Schema migration failed; re-run once the cause is fixed.", e);
+            System.exit(1);
+        }
+    }
+}
@@ -13,7 +13,6 @@ import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
@@ -22,6 +21,10 @@ import javafx.stage.FileChooser;
 import javafx.util.StringConverter;
 import sk.vava.royalmate.model.*; // Import models
 import sk.vava.royalmate.service.AdminService;
+import sk.vava.royalmate.service.AssetIngestService;
+import sk.vava.royalmate.service.AsyncImageService;
+import sk.vava.royalmate.service.DatabaseExecutor;
+import sk.vava.royalmate.service.IngestedImage;
 import sk.vava.royalmate.util.ImageUtil; // Import ImageUtil helper
 import sk.vava.royalmate.util.LocaleManager;
 import sk.vava.royalmate.util.SessionManager;
@@ -41,6 +44,8 @@ import javax.xml.parsers.ParserConfigurationException;
 import java.io.File;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.text.MessageFormat; // For title formatting
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -48,6 +53,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -56,6 +62,9 @@ public class AddGameController {
 
     private static final Logger LOGGER = Logger.getLogger(AddGameController.class.getName());
     private static final int MAX_SYMBOLS = 6;
+    private static final double COVER_PREVIEW_WIDTH = 250;
+    private static final double COVER_PREVIEW_HEIGHT = 150;
+    private static final double SYMBOL_PREVIEW_SIZE = 60;
 
     // --- FXML Fields ---
     @FXML private BorderPane rootPane;
@@ -92,7 +101,11 @@ public class AddGameController {
     private Game gameToEdit = null; // If null, ADD mode; otherwise EDIT mode
     private final ObjectProperty<ImageDataHolder> coverImageData = new SimpleObjectProperty<>(null);
     private final Map<Integer, ObjectProperty<ImageDataHolder>> symbolImageDataMap = new HashMap<>(); // Index -> Property
-    // No need to store existingSymbolAssets map anymore, we fetch assets when needed
+    // Files still being ingested; a result is only applied if its file is still the latest choice for the slot
+    private Path pendingCoverFile;
+    private final Map<Integer, Path> pendingSymbolFiles = new HashMap<>();
+    private int pendingIngests;
+    private String existingCoverName; // Cover of gameToEdit when it was loaded, null if it had none
 
     // --- Data ---
     private final List<BigDecimal> minWagers = List.of(new BigDecimal("0.10"), new BigDecimal("0.50"), new BigDecimal("1.00"), new BigDecimal("2.00"));
@@ -112,7 +125,7 @@ public class AddGameController {
         public String getHexValue() { return hexValue; }
     }
     // Helper record to store image data and file info temporarily
-    private record ImageDataHolder(byte[] data, String format, String name) {}
+    private record ImageDataHolder(ByteBuffer data, String format, String name, String contentHash) {}
 
     // --- Constructor ---
     public AddGameController() {
@@ -155,8 +168,18 @@ public class AddGameController {
      */
     public void loadGameForEditing(int gameId) {
         LOGGER.info("Loading game data for editing, ID: " + gameId);
-        Optional<Game> gameOpt = adminService.getGameDetails(gameId);
+        rootPane.setDisable(true); // Until the game has loaded
+        DatabaseExecutor.getInstance().supplyOnFx(() -> adminService.getGameDetails(gameId))
+                .whenComplete((gameOpt, error) -> {
+                    rootPane.setDisable(false);
+                    if (error != null) {
+                        LOGGER.log(Level.SEVERE, "Loading game ID " + gameId + " for editing failed.", error);
+                    }
+                    showGameForEditing(gameId, error == null ? gameOpt : Optional.empty());
+                });
+    }
 
+    private void showGameForEditing(int gameId, Optional<Game> gameOpt) {
         if (gameOpt.isPresent()) {
             this.gameToEdit = gameOpt.get();
 
@@ -197,9 +220,27 @@ public class AddGameController {
         }
     }
 
-    /** Fetches and displays existing assets for the game being edited */
+    /** Fetches the existing assets of the game being edited on a DB worker; saving waits until they are shown. */
     private void loadAndDisplayExistingAssets(int gameId) {
-        List<GameAsset> assets = adminService.getGameAssets(gameId);
+        actionButton.setDisable(true);
+        DatabaseExecutor.getInstance().supplyOnFx(() -> adminService.getGameAssets(gameId))
+                .whenComplete((assets, error) -> {
+                    if (gameToEdit == null || gameToEdit.getId() != gameId) return; // Form was reset meanwhile
+                    actionButton.setDisable(false);
+                    if (error != null) {
+                        LOGGER.log(Level.SEVERE, "Loading assets of game ID " + gameId + " failed.", error);
+                        showGeneralMessage(LocaleManager.getString("admin.addgame.message.loaderror"), true);
+                        return;
+                    }
+                    displayExistingAssets(gameId, assets);
+                });
+    }
+
+    private void displayExistingAssets(int gameId, List<GameAsset> assets) {
+        existingCoverName = assets.stream()
+                .filter(a -> a.getAssetType() == AssetType.COVER)
+                .map(GameAsset::getAssetName)
+                .findFirst().orElse(null);
         clearSymbolUploads();
 
         // Load Cover
@@ -208,9 +249,8 @@ public class AddGameController {
                 .findFirst()
                 .ifPresent(cover -> {
                     try {
-                        Image img = ImageUtil.byteArrayToImage(cover.getImageData());
-                        coverImageView.setImage(img);
-                        coverImageData.set(new ImageDataHolder(cover.getImageData(), ImageUtil.getFileExtension(cover.getAssetName()), cover.getAssetName()));
+                        AsyncImageService.getInstance().decode(coverImageView, cover.getImageData(), COVER_PREVIEW_WIDTH, COVER_PREVIEW_HEIGHT);
+                        coverImageData.set(new ImageDataHolder(cover.getImageData(), ImageUtil.getFileExtension(cover.getAssetName()), cover.getAssetName(), cover.getContentHash()));
                         coverPromptLabel.setText(cover.getAssetName());
                     } catch (Exception e) {
                         LOGGER.log(Level.WARNING, "Failed to load existing cover image for game ID " + gameId, e);
@@ -232,7 +272,7 @@ public class AddGameController {
             ObjectProperty<ImageDataHolder> prop = symbolImageDataMap.get(i);
             if (prop != null) {
                 try {
-                    prop.set(new ImageDataHolder(symbol.getImageData(), ImageUtil.getFileExtension(symbol.getAssetName()), symbol.getAssetName()));
+                    prop.set(new ImageDataHolder(symbol.getImageData(), ImageUtil.getFileExtension(symbol.getAssetName()), symbol.getAssetName(), symbol.getContentHash()));
                     // Payout multiplier is no longer displayed/edited here
                 } catch (Exception e) {
                     LOGGER.log(Level.WARNING, "Failed to load existing symbol image " + i + " for game ID " + gameId, e);
@@ -351,16 +391,11 @@ public class AddGameController {
                         ? MessageFormat.format(LocaleManager.getString(labelKey), labelArgs)
                         : LocaleManager.getString(labelKey);
                 if (newHolder != null) {
-                    try {
-                        imageView.setImage(ImageUtil.byteArrayToImage(newHolder.data()));
-                        promptLabel.setText(newHolder.name()); // Show filename on load
-                        promptLabel.setTextAlignment(TextAlignment.CENTER);
-                    } catch (IOException e) {
-                        LOGGER.log(Level.WARNING, "Failed to display symbol image " + index, e);
-                        imageView.setImage(null);
-                        promptLabel.setText("Error");
-                    }
+                    AsyncImageService.getInstance().decode(imageView, newHolder.data(), SYMBOL_PREVIEW_SIZE, SYMBOL_PREVIEW_SIZE);
+                    promptLabel.setText(newHolder.name()); // Show filename on load
+                    promptLabel.setTextAlignment(TextAlignment.CENTER);
                 } else {
+                    AsyncImageService.getInstance().cancel(imageView);
                     imageView.setImage(null);
                     promptLabel.setText(defaultText); // Reset to default text when cleared
                 }
@@ -378,54 +413,92 @@ public class AddGameController {
         clearMessages();
         File selectedFile = imageFileChooser.showOpenDialog(rootPane.getScene().getWindow());
         if (selectedFile != null) {
-            try {
-                Image image = new Image(selectedFile.toURI().toString(), 250, 150, true, true);
-                String format = ImageUtil.getFileExtension(selectedFile.getName());
-                byte[] imageData = ImageUtil.imageToByteArray(image, format);
-
-                if (imageData != null) {
-                    coverImageData.set(new ImageDataHolder(imageData, format, selectedFile.getName()));
-                    coverImageView.setImage(image);
-                    coverPromptLabel.setText(selectedFile.getName()); // Show new filename
-                    coverErrorLabel.setVisible(false);
-                    coverErrorLabel.setManaged(false);
-                } else {
-                    coverImageData.set(null);
-                    showError(coverErrorLabel, "Failed to convert image.");
-                }
-            } catch (Exception e) {
-                LOGGER.log(Level.SEVERE, "Error processing cover image file: " + selectedFile.getPath(), e);
-                coverImageData.set(null);
-                showError(coverErrorLabel, "Error reading image file.");
-            }
+            Path file = selectedFile.toPath();
+            pendingCoverFile = file;
+            ingestStarted();
+            AssetIngestService.getInstance().ingest(file, COVER_PREVIEW_WIDTH, COVER_PREVIEW_HEIGHT)
+                    .whenComplete((ingested, error) -> Platform.runLater(() -> {
+                        ingestFinished();
+                        if (pendingCoverFile != file) return; // Another file was chosen meanwhile
+                        pendingCoverFile = null;
+                        if (error != null) {
+                            LOGGER.log(Level.WARNING, "Rejected cover image file: " + file, error.getCause());
+                            coverImageData.set(null);
+                            showError(coverErrorLabel, ingestErrorMessage(file, error.getCause()));
+                            return;
+                        }
+                        coverImageData.set(toHolder(ingested));
+                        AsyncImageService.getInstance().decode(coverImageView, ingested.getData(), COVER_PREVIEW_WIDTH, COVER_PREVIEW_HEIGHT);
+                        coverPromptLabel.setText(ingested.getFileName()); // Show new filename
+                        coverErrorLabel.setVisible(false);
+                        coverErrorLabel.setManaged(false);
+                    }));
         }
     }
 
+    /** Several files can be chosen at once; they fill the symbol slots starting at the clicked one. */
     private void handleUploadSymbolImage(int index, ImageView preview, Label prompt) {
         clearMessages();
-        File selectedFile = imageFileChooser.showOpenDialog(rootPane.getScene().getWindow());
-        if (selectedFile != null) {
-            try {
-                Image image = new Image(selectedFile.toURI().toString(), 60, 60, true, true);
-                String format = ImageUtil.getFileExtension(selectedFile.getName());
-                byte[] imageData = ImageUtil.imageToByteArray(image, format);
-
-                if (imageData != null) {
-                    symbolImageDataMap.get(index).set(new ImageDataHolder(imageData, format, selectedFile.getName()));
-                    symbolErrorLabel.setVisible(false); symbolErrorLabel.setManaged(false);
-                } else {
-                    symbolImageDataMap.get(index).set(null);
-                    showError(symbolErrorLabel, "Failed to convert symbol " + (index+1));
+        List<File> selectedFiles = imageFileChooser.showOpenMultipleDialog(rootPane.getScene().getWindow());
+        if (selectedFiles == null || selectedFiles.isEmpty()) {
+            return;
+        }
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < selectedFiles.size() && index + i < MAX_SYMBOLS; i++) {
+            files.add(selectedFiles.get(i).toPath());
+        }
+        List<CompletableFuture<IngestedImage>> ingests =
+                AssetIngestService.getInstance().ingestAll(files, SYMBOL_PREVIEW_SIZE, SYMBOL_PREVIEW_SIZE);
+        for (int i = 0; i < files.size(); i++) {
+            int slot = index + i;
+            Path file = files.get(i);
+            pendingSymbolFiles.put(slot, file);
+            ingestStarted();
+            ingests.get(i).whenComplete((ingested, error) -> Platform.runLater(() -> {
+                ingestFinished();
+                if (pendingSymbolFiles.get(slot) != file) return; // Slot got another file meanwhile
+                pendingSymbolFiles.remove(slot);
+                if (error != null) {
+                    LOGGER.log(Level.WARNING, "Rejected symbol image file: " + file, error.getCause());
+                    symbolImageDataMap.get(slot).set(null);
+                    showError(symbolErrorLabel, ingestErrorMessage(file, error.getCause()));
+                    return;
                 }
-            } catch (Exception e) {
-                LOGGER.log(Level.SEVERE, "Error processing symbol image file: " + selectedFile.getPath(), e);
-                symbolImageDataMap.get(index).set(null);
-                showError(symbolErrorLabel, "Error reading symbol " + (index+1));
-            }
+                symbolImageDataMap.get(slot).set(toHolder(ingested)); // Listener shows the preview
+            }));
+        }
+        if (selectedFiles.size() > files.size()) {
+            LOGGER.info("Ignored " + (selectedFiles.size() - files.size()) + " symbol files beyond the last slot.");
+        }
+    }
+
+    private static ImageDataHolder toHolder(IngestedImage ingested) {
+        return new ImageDataHolder(ByteBuffer.wrap(ingested.getData()).asReadOnlyBuffer(), ImageUtil.getFileExtension(ingested.getFileName()),
+                ingested.getFileName(), ingested.getContentHash());
+    }
+
+    private static String ingestErrorMessage(Path file, Throwable cause) {
+        if (cause instanceof AssetIngestService.ImageTooLargeException) {
+            return MessageFormat.format(LocaleManager.getString("admin.addgame.error.image.toolarge"), file.getFileName(),
+                    AssetIngestService.MAX_FILE_BYTES / (1024 * 1024), AssetIngestService.MAX_DIMENSION);
+        }
+        return MessageFormat.format(LocaleManager.getString("admin.addgame.error.image.invalid"), file.getFileName());
+    }
+
+    /** Saving is blocked while chosen files are still being processed. */
+    private void ingestStarted() {
+        pendingIngests++;
+        actionButton.setDisable(true);
+    }
+
+    private void ingestFinished() {
+        if (--pendingIngests == 0) {
+            actionButton.setDisable(false);
         }
     }
 
     private void clearSymbolUploads() {
+        pendingSymbolFiles.clear(); // Drop results of symbols still being ingested
         symbolImageDataMap.values().forEach(prop -> prop.set(null));
         // Listeners handle clearing UI
     }
@@ -442,43 +515,35 @@ public class AddGameController {
         Optional<GameAsset> newCoverAssetOpt = buildCoverAssetFromForm();
         List<GameAsset> symbolAssets = buildSymbolAssetsFromForm();
 
-        actionButton.setDisable(true);
-        boolean success = false;
-        try {
-            if (gameToEdit == null) { // ADD Mode
-                if (newCoverAssetOpt.isEmpty()) {
-                    showError(coverErrorLabel, LocaleManager.getString("admin.addgame.error.nocover"));
-                    actionButton.setDisable(false); // Re-enable on validation fail
-                    return; // Stop
-                }
-                success = adminService.createGame(gameData, newCoverAssetOpt.get(), symbolAssets);
-                if (success) {
-                    // Navigate back on success
-                    LOGGER.info("Game added successfully, navigating to game list.");
-                    navigateToGameList(); // <--- ADDED NAVIGATION
-                    // clearForm(); // No longer needed as we are navigating away
-                } else {
-                    showGeneralMessage(LocaleManager.getString("admin.addgame.message.error"), true);
-                    actionButton.setDisable(false); // Re-enable on failure
-                }
-            } else { // EDIT Mode
-                gameData.setId(gameToEdit.getId());
-                success = adminService.updateGame(gameData, newCoverAssetOpt, symbolAssets);
-                if (success) {
-                    // Navigate back on success
-                    LOGGER.info("Game updated successfully, navigating to game list.");
-                    navigateToGameList(); // <--- ADDED NAVIGATION
-                    // showGeneralMessage(LocaleManager.getString("admin.addgame.message.updatesuccess"), false); // Message not seen if we navigate immediately
-                } else {
-                    showGeneralMessage(LocaleManager.getString("admin.addgame.message.updateerror"), true);
-                    actionButton.setDisable(false); // Re-enable on failure
-                }
-            }
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Unexpected error saving/updating game", e);
-            showGeneralMessage(LocaleManager.getString("admin.addgame.message.error.exception"), true);
-            actionButton.setDisable(false); // Re-enable on exception
+        boolean adding = gameToEdit == null;
+        if (adding && newCoverAssetOpt.isEmpty()) {
+            showError(coverErrorLabel, LocaleManager.getString("admin.addgame.error.nocover"));
+            return; // Stop
         }
+        if (!adding) {
+            gameData.setId(gameToEdit.getId());
+        }
+
+        actionButton.setDisable(true);
+        // Asset BLOBs are written on a DB worker
+        DatabaseExecutor.getInstance().supplyOnFx(() -> adding
+                        ? adminService.createGame(gameData, newCoverAssetOpt.get(), symbolAssets)
+                        : adminService.updateGame(gameData, newCoverAssetOpt, symbolAssets))
+                .whenComplete((success, error) -> {
+                    if (error != null) {
+                        LOGGER.log(Level.SEVERE, "Unexpected error saving/updating game", error);
+                        showGeneralMessage(LocaleManager.getString("admin.addgame.message.error.exception"), true);
+                        actionButton.setDisable(false); // Re-enable on exception
+                    } else if (success) {
+                        // Navigate back on success
+                        LOGGER.info("Game " + (adding ? "added" : "updated") + " successfully, navigating to game list.");
+                        navigateToGameList();
+                    } else {
+                        showGeneralMessage(LocaleManager.getString(adding
+                                ? "admin.addgame.message.error" : "admin.addgame.message.updateerror"), true);
+                        actionButton.setDisable(false); // Re-enable on failure
+                    }
+                });
     }
 
     // --- NEW XML Import Logic ---
@@ -599,6 +664,8 @@ public class AddGameController {
 
         // Clear existing assets - Import only sets definition data
         coverImageData.set(null);
+        pendingCoverFile = null; // Drop the result of a cover still being ingested
+        AsyncImageService.getInstance().cancel(coverImageView);
         coverImageView.setImage(null);
         coverPromptLabel.setText(LocaleManager.getString("admin.addgame.label.uploadcover"));
         clearSymbolUploads();
@@ -640,6 +707,7 @@ public class AddGameController {
                 return Optional.of(GameAsset.builder()
                         .assetName("cover_" + gameNameField.getText().trim().replaceAll("\\s+", "_"))
                         .imageData(coverHolder.data())
+                        .contentHash(coverHolder.contentHash())
                         .assetType(AssetType.COVER)
                         .build());
             } else {
@@ -661,6 +729,7 @@ public class AddGameController {
                     symbols.add(GameAsset.builder()
                             .assetName("symbol_" + (i + 1)) // Simple name
                             .imageData(symbolHolder.data())
+                            .contentHash(symbolHolder.contentHash())
                             .assetType(AssetType.SYMBOL)
                             .symbolPayoutMultiplier(payoutMultiplier)
                             .build());
@@ -696,12 +765,8 @@ public class AddGameController {
 
         // Cover Image: Mandatory if adding OR if editing and no cover existed before.
         if (coverImageData.get() == null) {
-            boolean existedBefore = false;
-            if (gameToEdit != null) {
-                // Re-fetch assets to check if cover existed at the start of edit session
-                List<GameAsset> assets = adminService.getGameAssets(gameToEdit.getId());
-                existedBefore = assets.stream().anyMatch(a -> a.getAssetType() == AssetType.COVER);
-            }
+            // Editing a game that already had a cover keeps that cover
+            boolean existedBefore = gameToEdit != null && existingCoverName != null;
             if (!existedBefore) { // If adding OR editing and none existed -> Error
                 showError(coverErrorLabel, LocaleManager.getString("admin.addgame.error.nocover"));
                 valid = false;
@@ -731,13 +796,8 @@ public class AddGameController {
 
     private String getExistingAssetName(AssetType type) {
         if (gameToEdit == null) return null;
-        // Fetch assets specifically for this check if needed, or rely on initially loaded data
-        List<GameAsset> assets = adminService.getGameAssets(gameToEdit.getId());
         if (type == AssetType.COVER) {
-            return assets.stream()
-                    .filter(a -> a.getAssetType() == AssetType.COVER)
-                    .map(GameAsset::getAssetName)
-                    .findFirst().orElse(null);
+            return existingCoverName; // Recorded when the game was loaded for editing
         }
         // Add for symbols if more complex comparison needed
         return null;
@@ -753,6 +813,8 @@ public class AddGameController {
         volatilityComboBox.getSelectionModel().select(Integer.valueOf(3));
         bgColorComboBox.getSelectionModel().selectFirst();
         coverImageData.set(null);
+        pendingCoverFile = null; // Drop the result of a cover still being ingested
+        AsyncImageService.getInstance().cancel(coverImageView);
         coverImageView.setImage(null);
         coverPromptLabel.setText(LocaleManager.getString("admin.addgame.label.uploadcover")); // Reset prompt
         clearSymbolUploads();
@@ -2,10 +2,11 @@ package sk.vava.royalmate.controller;
 
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
-import javafx.embed.swing.SwingFXUtils; // Needed for Image -> BufferedImage
+import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
+import javafx.geometry.Side;
 import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
@@ -17,29 +18,41 @@ import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
 import javafx.stage.FileChooser;
 import javafx.util.StringConverter;
+import sk.vava.royalmate.data.GameplayFilter;
+import sk.vava.royalmate.data.PlayerPage;
 import sk.vava.royalmate.model.Account;
 import sk.vava.royalmate.model.ChatMessage; // Placeholder model
-import sk.vava.royalmate.model.HomepageBanner; // Placeholder model
+import sk.vava.royalmate.model.HomepageBanner;
 import sk.vava.royalmate.service.AdminService;
+import sk.vava.royalmate.service.AsyncImageService;
+import sk.vava.royalmate.service.DatabaseExecutor;
+import sk.vava.royalmate.service.GameplayExportService;
+import sk.vava.royalmate.service.ScreenLoader;
+import sk.vava.royalmate.util.ImageUtil;
 import sk.vava.royalmate.util.LocaleManager;
 import sk.vava.royalmate.util.SessionManager;
 
-import javax.imageio.ImageIO; // Needed for BufferedImage -> byte[]
-import java.awt.image.BufferedImage; // Needed for conversion
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.text.MessageFormat;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class AdminSettingsController {
 
     private static final Logger LOGGER = Logger.getLogger(AdminSettingsController.class.getName());
+    private static final DateTimeFormatter CHAT_SEARCH_TIME_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
+    private static final Duration LOAD_DEADLINE = Duration.ofSeconds(5);
+    private static final int MAX_PLAYER_SUGGESTIONS = 8;
 
     @FXML
     private BorderPane rootPane; // <-- Must be BorderPane and have @FXML
@@ -49,18 +62,45 @@ public class AdminSettingsController {
     @FXML private TextArea pinnedMessageArea;
     @FXML private Button updateChatButton;
     @FXML private Label chatMessageLabel;
+    @FXML private TextArea bannedTermsArea;
+    @FXML private Button updateBannedTermsButton;
+    @FXML private TextField chatSearchField;
+    @FXML private TextField chatSearchUserField;
+    @FXML private Button chatSearchButton;
+    @FXML private ListView<ChatMessage> chatSearchResultsList;
+    @FXML private TextField playerSearchField;
+    @FXML private Button playerSortButton;
     @FXML private ComboBox<Account> playerComboBox;
+    @FXML private Button morePlayersButton;
     @FXML private TextField amountField;
     @FXML private Button addFundsButton;
     @FXML private Button subtractFundsButton;
     @FXML private Button makeAdminButton;
     @FXML private Button removeAccountButton;
     @FXML private Label playerMessageLabel;
+    @FXML private DatePicker historyFromPicker;
+    @FXML private DatePicker historyToPicker;
+    @FXML private TextField historyGameIdField;
+    @FXML private TextField historyUsernameField;
+    @FXML private ComboBox<GameplayExportService.Format> historyFormatComboBox;
+    @FXML private Button historyExportButton;
+    @FXML private Label historyMessageLabel;
     @FXML private Button gameListButton;
     @FXML private Button addGameButton;
 
     private AdminService adminService;
     private FileChooser imageFileChooser;
+    private FileChooser historyFileChooser;
+    private final GameplayExportService gameplayExportService = new GameplayExportService();
+    private CancellableTaskButton historyExportButtonTask;
+
+    // Player list state: current filter/sort and where the next page starts
+    private final ContextMenu playerSuggestions = new ContextMenu();
+    private String playerPrefix = "";
+    private boolean playerSortDescending;
+    private PlayerPage.Cursor nextPlayerCursor;
+    private CompletableFuture<PlayerPage> pendingPlayerPage;
+    private CompletableFuture<List<String>> pendingSuggestions;
 
     public AdminSettingsController() {
         adminService = new AdminService();
@@ -74,6 +114,8 @@ public class AdminSettingsController {
             return;
         }
         configurePlayerComboBox();
+        configureChatSearch();
+        configureHistoryExport();
         loadInitialData();
         setupFileChooser();
         LOGGER.info("Admin Settings initialized.");
@@ -92,42 +134,152 @@ public class AdminSettingsController {
                 return null;
             }
         });
+        // Type-ahead from the in-memory username index; Enter (or picking a suggestion) filters the list
+        playerSearchField.textProperty().addListener((obs, oldText, newText) -> suggestPlayers(newText));
+        playerSearchField.setOnAction(e -> applyPlayerFilter(playerSearchField.getText()));
     }
 
-    private void loadInitialData() {
-        clearAllMessages();
+    private void suggestPlayers(String text) {
+        if (pendingSuggestions != null) {
+            pendingSuggestions.cancel(true);
+        }
+        String prefix = text == null ? "" : text.trim();
+        if (prefix.isEmpty()) {
+            playerSuggestions.hide();
+            return;
+        }
+        CompletableFuture<List<String>> request =
+                DatabaseExecutor.getInstance().supplyOnFx(() -> adminService.suggestUsernames(prefix, MAX_PLAYER_SUGGESTIONS));
+        pendingSuggestions = request;
+        request.thenAccept(names -> {
+            if (request != pendingSuggestions) return; // Superseded by a newer keystroke
+            playerSuggestions.getItems().setAll(names.stream().map(name -> {
+                MenuItem item = new MenuItem(name);
+                item.setOnAction(e -> {
+                    playerSearchField.setText(name);
+                    applyPlayerFilter(name);
+                });
+                return item;
+            }).toList());
+            if (names.isEmpty()) {
+                playerSuggestions.hide();
+            } else if (!playerSuggestions.isShowing() && playerSearchField.getScene() != null) {
+                playerSuggestions.show(playerSearchField, Side.BOTTOM, 0, 0);
+            }
+        });
+    }
+
+    private void applyPlayerFilter(String prefix) {
+        if (pendingSuggestions != null) {
+            pendingSuggestions.cancel(true);
+            pendingSuggestions = null;
+        }
+        playerSuggestions.hide();
+        playerPrefix = prefix == null ? "" : prefix.trim();
+        loadPlayerList();
+    }
+
+    @FXML
+    void handleTogglePlayerSort(ActionEvent event) {
+        playerSortDescending = !playerSortDescending;
+        playerSortButton.setText(LocaleManager.getString(playerSortDescending ? "admin.button.sortdesc" : "admin.button.sortasc"));
         loadPlayerList();
-        loadBanner();
-        loadPinnedMessage();
     }
 
+    @FXML
+    void handleMorePlayers(ActionEvent event) {
+        if (nextPlayerCursor != null) {
+            requestPlayerPage(nextPlayerCursor);
+        }
+    }
+
+    /** Reloads the player list from its first page with the current filter and sort. */
     private void loadPlayerList() {
-        List<Account> players = adminService.getAllPlayers();
-        playerComboBox.setItems(FXCollections.observableArrayList(players));
+        requestPlayerPage(null);
     }
 
-    private void loadBanner() {
-        Optional<HomepageBanner> bannerOpt = adminService.getMainBanner(); // Placeholder call
-        if (bannerOpt.isPresent() && bannerOpt.get().getImageData() != null) {
-            byte[] imgBytes = bannerOpt.get().getImageData();
-            try (ByteArrayInputStream bis = new ByteArrayInputStream(imgBytes)) {
-                Image image = new Image(bis);
-                bannerImageView.setImage(image);
-                showBannerMessage(LocaleManager.getString("admin.message.banner.select"), false); // Show default prompt
-            } catch (Exception e) {
-                LOGGER.log(Level.SEVERE, "Error loading banner image from DB data.", e);
-                bannerImageView.setImage(null); // Clear image on error
-                showBannerMessage(LocaleManager.getString("admin.message.banner.error"), true);
+    private void requestPlayerPage(PlayerPage.Cursor after) {
+        if (pendingPlayerPage != null) {
+            pendingPlayerPage.cancel(true); // Filter or sort changed before the previous page arrived
+        }
+        String prefix = playerPrefix;
+        boolean descending = playerSortDescending;
+        morePlayersButton.setDisable(true);
+        CompletableFuture<PlayerPage> request =
+                DatabaseExecutor.getInstance().supplyOnFx(() -> adminService.getPlayerPage(prefix, descending, after));
+        pendingPlayerPage = request;
+        request.whenComplete((page, error) -> {
+            if (request.isCancelled()) return;
+            pendingPlayerPage = null;
+            if (error != null) {
+                LOGGER.log(Level.SEVERE, "Loading player page failed.", error);
+                showPlayerMessage(LocaleManager.getString("admin.message.load.error"), true);
+                return;
             }
+            showPlayerPage(page, after != null);
+        });
+    }
+
+    private void showPlayerPage(PlayerPage page, boolean append) {
+        if (append) {
+            playerComboBox.getItems().addAll(page.getPlayers());
+        } else {
+            playerComboBox.setItems(FXCollections.observableArrayList(page.getPlayers()));
+        }
+        nextPlayerCursor = page.getNext();
+        morePlayersButton.setDisable(!page.hasMore());
+    }
+
+    private void configureChatSearch() {
+        adminService.prepareChatSearch(); // Index builds in the background
+        chatSearchField.setOnAction(e -> handleChatSearch(null));
+        chatSearchUserField.setOnAction(e -> handleChatSearch(null));
+        chatSearchResultsList.setCellFactory(list -> new ListCell<>() {
+            @Override
+            protected void updateItem(ChatMessage msg, boolean empty) {
+                super.updateItem(msg, empty);
+                if (empty || msg == null) {
+                    setText(null);
+                } else {
+                    String time = msg.getSentAt() != null ? CHAT_SEARCH_TIME_FORMATTER.format(msg.getSentAt().toLocalDateTime()) : "--";
+                    setText("[" + time + "] " + msg.getSenderUsername() + ": " + msg.getMessageText());
+                }
+            }
+        });
+    }
+
+    /** Fetches all settings sections concurrently; each renders as soon as its query returns. */
+    private void loadInitialData() {
+        clearAllMessages();
+        ScreenLoader.open("admin-settings", LOAD_DEADLINE)
+                .fork("players", () -> adminService.getPlayerPage(playerPrefix, playerSortDescending, null),
+                        page -> showPlayerPage(page, false),
+                        error -> showPlayerMessage(LocaleManager.getString("admin.message.load.error"), true))
+                .fork("banner", adminService::getMainBanner, this::showBanner,
+                        error -> showBannerMessage(LocaleManager.getString("admin.message.load.error"), true))
+                .fork("pinnedMessage", adminService::getPinnedMessage,
+                        pinnedOpt -> pinnedMessageArea.setText(pinnedOpt.map(ChatMessage::getMessageText).orElse("")),
+                        error -> showChatMessage(LocaleManager.getString("admin.message.load.error"), true))
+                .fork("bannedTerms", adminService::getBannedChatTerms,
+                        terms -> bannedTermsArea.setText(String.join("\n", terms)),
+                        error -> showChatMessage(LocaleManager.getString("admin.message.load.error"), true))
+                .closeWhenDetached(rootPane);
+    }
+
+    private void showBanner(Optional<HomepageBanner> bannerOpt) {
+        if (bannerOpt.isPresent() && bannerOpt.get().getImageData() != null) {
+            // Full-size preview decoded off the FX thread
+            AsyncImageService.getInstance().decode(bannerImageView, bannerOpt.get().getImageData(), 0, 0);
+            showBannerMessage(LocaleManager.getString("admin.message.banner.select"), false); // Show default prompt
         } else {
             bannerImageView.setImage(null); // Clear if no banner
             showBannerMessage(LocaleManager.getString("admin.message.banner.nodata"), false);
         }
     }
 
-    private void loadPinnedMessage() {
-        Optional<ChatMessage> pinnedOpt = adminService.getPinnedMessage(); // Placeholder call
-        pinnedMessageArea.setText(pinnedOpt.map(ChatMessage::getMessageText).orElse(""));
+    private void loadBannedTerms() {
+        DatabaseExecutor.getInstance().supplyOnFx(adminService::getBannedChatTerms)
+                .thenAccept(terms -> bannedTermsArea.setText(String.join("\n", terms)));
     }
 
     private void setupFileChooser() {
@@ -139,72 +291,142 @@ public class AdminSettingsController {
         );
     }
 
+    private void configureHistoryExport() {
+        historyExportButtonTask = new CancellableTaskButton(historyExportButton, "admin.button.history.export", "admin.export.cancel");
+        historyFormatComboBox.setItems(FXCollections.observableArrayList(GameplayExportService.Format.values()));
+        historyFormatComboBox.setConverter(new StringConverter<>() {
+            @Override public String toString(GameplayExportService.Format format) {
+                return format == null ? "" : LocaleManager.getString("admin.history.format." + format.name().toLowerCase());
+            }
+            @Override public GameplayExportService.Format fromString(String string) { return null; }
+        });
+        historyFormatComboBox.getSelectionModel().select(GameplayExportService.Format.CSV);
+
+        historyFileChooser = new FileChooser();
+        historyFileChooser.setTitle(LocaleManager.getString("admin.history.title"));
+    }
+
     // --- Event Handlers ---
 
     @FXML
     void handleUploadBanner(ActionEvent event) {
         clearBannerMessage();
         File selectedFile = imageFileChooser.showOpenDialog(rootPane.getScene().getWindow());
+        if (selectedFile == null) {
+            LOGGER.fine("Banner upload cancelled by user.");
+            return;
+        }
 
-        if (selectedFile != null) {
-            try {
-                Image image = new Image(selectedFile.toURI().toString());
-                // Convert JavaFX Image to byte[] for DB
-                byte[] imageData = imageToByteArray(image, selectedFile.getName().toLowerCase().endsWith("png") ? "png" : "jpg");
-
-                if (imageData != null) {
-                    // Use a default name or allow admin to set one? Using default for now.
-                    boolean success = adminService.updateMainBanner("main_banner", imageData); // Placeholder call
-                    if (success) {
-                        bannerImageView.setImage(image); // Update UI immediately
-                        showBannerMessage(LocaleManager.getString("admin.message.banner.success"), false);
-                    } else {
-                        showBannerMessage(LocaleManager.getString("admin.message.banner.error"), true);
-                    }
-                } else {
-                    showBannerMessage("Failed to convert image data.", true);
-                }
-
-            } catch (Exception e) {
-                LOGGER.log(Level.SEVERE, "Error processing selected image file: " + selectedFile.getPath(), e);
+        uploadBannerButton.setDisable(true);
+        // Decoding, PNG re-encoding and the upload all run on a DB worker
+        DatabaseExecutor.getInstance().supplyOnFx(() -> {
+            Image image = new Image(selectedFile.toURI().toString());
+            // Convert JavaFX Image to byte[] for DB
+            byte[] imageData = ImageUtil.imageToByteArray(image, ImageUtil.getFileExtension(selectedFile.getName()));
+            if (imageData == null) {
+                throw new IOException("Failed to convert image data.");
+            }
+            // Use a default name or allow admin to set one? Using default for now.
+            return adminService.updateMainBanner("main_banner", imageData) ? image : null;
+        }).whenComplete((image, error) -> {
+            uploadBannerButton.setDisable(false);
+            if (error != null) {
+                LOGGER.log(Level.SEVERE, "Error processing selected image file: " + selectedFile.getPath(), error);
                 showBannerMessage("Error reading or processing image file.", true);
+            } else if (image != null) {
+                AsyncImageService.getInstance().cancel(bannerImageView);
+                bannerImageView.setImage(image); // Update UI immediately
+                showBannerMessage(LocaleManager.getString("admin.message.banner.success"), false);
+            } else {
+                showBannerMessage(LocaleManager.getString("admin.message.banner.error"), true);
             }
-        } else {
-            LOGGER.fine("Banner upload cancelled by user.");
-        }
+        });
     }
 
     @FXML
     void handleUpdatePinnedMessage(ActionEvent event) {
         clearChatMessage();
         String messageText = pinnedMessageArea.getText();
-        boolean success = adminService.updatePinnedMessage(messageText); // Placeholder call
-        if(success) {
-            showChatMessage(LocaleManager.getString("admin.message.chat.success"), false);
-        } else {
-            showChatMessage(LocaleManager.getString("admin.message.chat.error"), true);
-        }
+        updateChatButton.setDisable(true);
+        DatabaseExecutor.getInstance().supplyOnFx(() -> adminService.updatePinnedMessage(messageText))
+                .whenComplete((success, error) -> {
+                    updateChatButton.setDisable(false);
+                    if (error != null) {
+                        LOGGER.log(Level.SEVERE, "Updating the pinned message failed.", error);
+                    }
+                    if (error == null && success) {
+                        showChatMessage(LocaleManager.getString("admin.message.chat.success"), false);
+                    } else {
+                        showChatMessage(LocaleManager.getString("admin.message.chat.error"), true);
+                    }
+                });
+    }
+
+    @FXML
+    void handleUpdateBannedTerms(ActionEvent event) {
+        clearChatMessage();
+        List<String> terms = List.of(bannedTermsArea.getText().split("\\R")); // One term per line
+        updateBannedTermsButton.setDisable(true);
+        DatabaseExecutor.getInstance().supplyOnFx(() -> adminService.updateBannedChatTerms(terms))
+                .whenComplete((success, error) -> {
+                    updateBannedTermsButton.setDisable(false);
+                    if (error != null) {
+                        LOGGER.log(Level.SEVERE, "Updating banned chat terms failed.", error);
+                    }
+                    if (error == null && success) {
+                        loadBannedTerms(); // Show the cleaned-up list
+                        showChatMessage(LocaleManager.getString("admin.message.bannedterms.success"), false);
+                    } else {
+                        showChatMessage(LocaleManager.getString("admin.message.bannedterms.error"), true);
+                    }
+                });
+    }
+
+    @FXML
+    void handleChatSearch(ActionEvent event) {
+        clearChatMessage();
+        String query = chatSearchField.getText();
+        String user = chatSearchUserField.getText();
+        chatSearchButton.setDisable(true);
+
+        Task<List<ChatMessage>> searchTask = new Task<>() {
+            @Override protected List<ChatMessage> call() { return adminService.searchChatMessages(query, user); }
+        };
+        searchTask.setOnSucceeded(e -> {
+            List<ChatMessage> results = searchTask.getValue();
+            chatSearchResultsList.setItems(FXCollections.observableArrayList(results));
+            if (results.isEmpty()) {
+                showChatMessage(LocaleManager.getString("admin.message.chatsearch.noresults"), false);
+            }
+            chatSearchButton.setDisable(false);
+        });
+        searchTask.setOnFailed(e -> {
+            LOGGER.log(Level.SEVERE, "Chat search failed.", searchTask.getException());
+            showChatMessage(LocaleManager.getString("admin.message.chatsearch.error"), true);
+            chatSearchButton.setDisable(false);
+        });
+        DatabaseExecutor.getInstance().execute(searchTask);
     }
 
     @FXML
     void handleAddFunds(ActionEvent event) {
         executePlayerAction((account, amount) -> adminService.addFundsToPlayer(account.getId(), amount),
                 LocaleManager.getString("admin.message.player.addsuccess"),
-                LocaleManager.getString("admin.message.player.adderror"), true);
+                LocaleManager.getString("admin.message.player.adderror"), true, false);
     }
 
     @FXML
     void handleSubtractFunds(ActionEvent event) {
         executePlayerAction((account, amount) -> adminService.subtractFundsFromPlayer(account.getId(), amount),
                 LocaleManager.getString("admin.message.player.subsuccess"),
-                LocaleManager.getString("admin.message.player.suberror"), true);
+                LocaleManager.getString("admin.message.player.suberror"), true, false);
     }
 
     @FXML
     void handleMakeAdmin(ActionEvent event) {
         executePlayerAction((account, amount) -> adminService.setPlayerAdminStatus(account.getId(), !account.isAdmin()), // Toggle status
                 LocaleManager.getString("admin.message.player.adminsetsuccess"),
-                LocaleManager.getString("admin.message.player.adminseterror"), false); // Amount not needed
+                LocaleManager.getString("admin.message.player.adminseterror"), false, true); // Amount not needed; list shows the admin flag
     }
 
     @FXML
@@ -226,15 +448,16 @@ public class AdminSettingsController {
             // Proceed with deletion
             executePlayerAction((account, amount) -> adminService.deletePlayerAccount(account.getId()),
                     LocaleManager.getString("admin.message.player.removesuccess"),
-                    LocaleManager.getString("admin.message.player.removeerror"), false); // Amount not needed
-            loadPlayerList(); // Refresh list after deletion
+                    LocaleManager.getString("admin.message.player.removeerror"), false, true); // Amount not needed
         } else {
             LOGGER.info("Account removal cancelled by admin for user: " + selectedAccount.getUsername());
         }
     }
 
     // --- Helper for Player Actions ---
-    private void executePlayerAction(PlayerAction action, String successMsg, String errorMsg, boolean requiresAmount) {
+    /** Validates the input, then runs the action on a DB worker; reloads the player list after a success if asked to. */
+    private void executePlayerAction(PlayerAction action, String successMsg, String errorMsg, boolean requiresAmount,
+                                     boolean reloadList) {
         clearPlayerMessage();
         Account selectedAccount = playerComboBox.getValue();
         BigDecimal amount = null;
@@ -258,25 +481,31 @@ public class AdminSettingsController {
             }
         }
 
-        try {
-            boolean success = action.execute(selectedAccount, amount);
-            if (success) {
-                showPlayerMessage(successMsg, false);
-                amountField.clear(); // Clear amount field on success
-                // Optionally refresh specific player data if needed, or full list on delete
-                if (action.toString().contains("deletePlayerAccount")) { // Hacky check - better ways exist
-                    loadPlayerList();
-                } else {
-                    // Optionally refresh the selected player details or the whole list
-                }
+        BigDecimal actionAmount = amount;
+        setPlayerActionsDisabled(true);
+        DatabaseExecutor.getInstance().supplyOnFx(() -> action.execute(selectedAccount, actionAmount))
+                .whenComplete((success, error) -> {
+                    setPlayerActionsDisabled(false);
+                    if (error != null) {
+                        LOGGER.log(Level.SEVERE, "Error executing player action for " + selectedAccount.getUsername(), error);
+                        showPlayerMessage(errorMsg + " (Exception)", true);
+                    } else if (success) {
+                        showPlayerMessage(successMsg, false);
+                        amountField.clear(); // Clear amount field on success
+                        if (reloadList) {
+                            loadPlayerList();
+                        }
+                    } else {
+                        showPlayerMessage(errorMsg, true);
+                    }
+                });
+    }
 
-            } else {
-                showPlayerMessage(errorMsg, true);
-            }
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Error executing player action for " + selectedAccount.getUsername(), e);
-            showPlayerMessage(errorMsg + " (Exception)", true);
-        }
+    private void setPlayerActionsDisabled(boolean disabled) {
+        addFundsButton.setDisable(disabled);
+        subtractFundsButton.setDisable(disabled);
+        makeAdminButton.setDisable(disabled);
+        removeAccountButton.setDisable(disabled);
     }
 
     // Functional interface for player actions
@@ -288,6 +517,95 @@ public class AdminSettingsController {
     // --- Placeholder Game Button Handlers ---
 // ... inside AdminSettingsController ...
 
+    @FXML
+    void handleExportHistory(ActionEvent event) {
+        if (historyExportButtonTask.cancelRunning()) {
+            return;
+        }
+        clearHistoryMessage();
+
+        // Date range is inclusive in the UI; the filter's upper bound is exclusive, so use the next midnight
+        LocalDate fromDate = historyFromPicker.getValue();
+        LocalDate toDate = historyToPicker.getValue();
+        Integer gameId;
+        try {
+            String gameIdText = historyGameIdField.getText().trim();
+            gameId = gameIdText.isEmpty() ? null : Integer.valueOf(gameIdText);
+        } catch (NumberFormatException e) {
+            showHistoryMessage(LocaleManager.getString("admin.history.error.filter"), true);
+            return;
+        }
+        if (fromDate != null && toDate != null && toDate.isBefore(fromDate)) {
+            showHistoryMessage(LocaleManager.getString("admin.history.error.filter"), true);
+            return;
+        }
+        String username = historyUsernameField.getText().trim();
+        GameplayExportService.Format format = Objects.requireNonNullElse(
+                historyFormatComboBox.getValue(), GameplayExportService.Format.CSV);
+
+        String extension = format == GameplayExportService.Format.CSV ? ".csv" : ".rmgp";
+        historyFileChooser.getExtensionFilters().setAll(format == GameplayExportService.Format.CSV
+                ? List.of(new FileChooser.ExtensionFilter("CSV Files (*.csv, *.csv.gz)", "*.csv", "*.csv.gz"))
+                : List.of(new FileChooser.ExtensionFilter("RoyalMate Gameplay Files (*.rmgp, *.rmgp.gz)", "*.rmgp", "*.rmgp.gz")));
+        historyFileChooser.setInitialFileName("royalmate_gameplay_export" + extension);
+        File selectedFile = historyFileChooser.showSaveDialog(rootPane.getScene().getWindow());
+        if (selectedFile == null) {
+            LOGGER.info("Gameplay history export cancelled by user.");
+            return;
+        }
+        String lowerName = selectedFile.getName().toLowerCase();
+        boolean gzip = lowerName.endsWith(".gz");
+        if (!gzip && !lowerName.endsWith(extension)) {
+            selectedFile = new File(selectedFile.getParentFile(), selectedFile.getName() + extension);
+        }
+        GameplayFilter.GameplayFilterBuilder filter = GameplayFilter.builder()
+                .from(fromDate != null ? Timestamp.valueOf(fromDate.atStartOfDay()) : null)
+                .to(toDate != null ? Timestamp.valueOf(toDate.plusDays(1).atStartOfDay()) : null)
+                .gameId(gameId);
+        startHistoryExport(selectedFile, format, gzip, filter, username);
+    }
+
+    /** Streams the history export on the bulk DB worker; progress goes to the history message label. */
+    private void startHistoryExport(File file, GameplayExportService.Format format, boolean gzip,
+                                    GameplayFilter.GameplayFilterBuilder filter, String username) {
+        Task<Long> task = new Task<>() {
+            @Override
+            protected Long call() throws Exception {
+                if (!username.isEmpty()) {
+                    Account player = adminService.findPlayerByUsername(username).orElseThrow(() -> new IllegalArgumentException(
+                            MessageFormat.format(LocaleManager.getString("admin.history.error.player"), username)));
+                    filter.accountId(player.getId());
+                }
+                return gameplayExportService.exportPlays(file.toPath(), format, gzip, filter.build(),
+                        (exported, total) -> updateMessage(
+                                MessageFormat.format(LocaleManager.getString("admin.history.progress"), exported)),
+                        this::isCancelled);
+            }
+        };
+        historyExportButtonTask.start(task, msg -> showHistoryMessage(msg, false), new CancellableTaskButton.Outcome<>() {
+            @Override
+            public void succeeded(Long exported) {
+                showHistoryMessage(MessageFormat.format(LocaleManager.getString("admin.history.success"),
+                        exported, file.getName()), false);
+            }
+
+            @Override
+            public void cancelled() {
+                showHistoryMessage(LocaleManager.getString("admin.export.cancelled"), false);
+            }
+
+            @Override
+            public void failed(Throwable error) {
+                if (error instanceof IllegalArgumentException) {
+                    showHistoryMessage(error.getMessage(), true);
+                    return;
+                }
+                LOGGER.log(Level.SEVERE, "Error exporting gameplay history to: " + file.getAbsolutePath(), error);
+                showHistoryMessage(MessageFormat.format(LocaleManager.getString("admin.history.error.write"), error.getMessage()), true);
+            }
+        });
+    }
+
     @FXML void handleGameList(ActionEvent event) {
         LOGGER.info("Open Game List clicked");
         navigateTo(event, "/sk/vava/royalmate/view/game-list-view.fxml");
@@ -321,14 +639,17 @@ public class AdminSettingsController {
         clearBannerMessage();
         clearChatMessage();
         clearPlayerMessage();
+        clearHistoryMessage();
     }
     private void clearBannerMessage() { bannerMessageLabel.setVisible(false); bannerMessageLabel.setManaged(false); }
     private void clearChatMessage() { chatMessageLabel.setVisible(false); chatMessageLabel.setManaged(false); }
     private void clearPlayerMessage() { playerMessageLabel.setVisible(false); playerMessageLabel.setManaged(false); }
+    private void clearHistoryMessage() { historyMessageLabel.setVisible(false); historyMessageLabel.setManaged(false); }
 
     private void showBannerMessage(String msg, boolean isError) { showMessage(bannerMessageLabel, msg, isError); }
     private void showChatMessage(String msg, boolean isError) { showMessage(chatMessageLabel, msg, isError); }
     private void showPlayerMessage(String msg, boolean isError) { showMessage(playerMessageLabel, msg, isError); }
+    private void showHistoryMessage(String msg, boolean isError) { showMessage(historyMessageLabel, msg, isError); }
 
     private void showMessage(Label label, String message, boolean isError) {
         Platform.runLater(()-> {
@@ -338,14 +659,4 @@ public class AdminSettingsController {
             label.setManaged(true);
         });
     }
-
-    // --- Image Conversion Helper ---
-    private byte[] imageToByteArray(Image image, String format) throws IOException {
-        BufferedImage bImage = SwingFXUtils.fromFXImage(image, null);
-        if (bImage == null) return null;
-        try (ByteArrayOutputStream s = new ByteArrayOutputStream()) {
-            ImageIO.write(bImage, format, s); // format should be "png" or "jpg"
-            return s.toByteArray();
-        }
-    }
 }
\ No newline at end of file
@@ -0,0 +1,81 @@
+package sk.vava.royalmate.controller;
+
+import javafx.concurrent.Task;
+import javafx.scene.control.Button;
+import sk.vava.royalmate.service.DatabaseExecutor;
+import sk.vava.royalmate.util.LocaleManager;
+
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+
+/**
+ * A button that starts a long bulk job (export, import) and doubles as its "cancel" button while it runs.
+ * The job runs on the bulk DB worker and its messages go to a progress callback. The outcome is reported
+ * only after the worker has stopped, also after a cancel, so follow-up work never overlaps the job.
+ */
+final class CancellableTaskButton {
+
+    /** Outcome callbacks; run on the FX thread once the worker has stopped. */
+    interface Outcome<T> {
+        void succeeded(T value);
+
+        /** The button was clicked again, or the job gave up with a CancellationException. */
+        void cancelled();
+
+        void failed(Throwable error);
+    }
+
+    private final Button button;
+    private final String idleTextKey;
+    private final String cancelTextKey;
+    private Task<?> running;
+
+    CancellableTaskButton(Button button, String idleTextKey, String cancelTextKey) {
+        this.button = button;
+        this.idleTextKey = idleTextKey;
+        this.cancelTextKey = cancelTextKey;
+    }
+
+    /**
+     * Cancels the running job, if any. The button stays disabled until the worker has stopped.
+     *
+     * @return true if a job was running (the click was a "cancel").
+     */
+    boolean cancelRunning() {
+        if (running == null) return false;
+        button.setDisable(true);
+        running.cancel();
+        return true;
+    }
+
+    /**
+     * Starts a job; the button shows its cancel text until the outcome is reported.
+     *
+     * @param task     The job; reports progress with updateMessage and should poll isCancelled.
+     * @param progress Gets each non-empty message until the job is cancelled.
+     * @param outcome  Gets the result.
+     */
+    <T> void start(Task<T> task, Consumer<String> progress, Outcome<T> outcome) {
+        task.messageProperty().addListener((obs, oldMsg, msg) -> {
+            if (msg != null && !msg.isEmpty() && !task.isCancelled()) progress.accept(msg);
+        });
+        running = task;
+        button.setText(LocaleManager.getString(cancelTextKey));
+        DatabaseExecutor.getBulkInstance().execute(task, () -> {
+            running = null;
+            button.setText(LocaleManager.getString(idleTextKey));
+            button.setDisable(false);
+            switch (task.getState()) {
+                case SUCCEEDED -> outcome.succeeded(task.getValue());
+                case FAILED -> {
+                    if (task.getException() instanceof CancellationException) {
+                        outcome.cancelled();
+                    } else {
+                        outcome.failed(task.getException());
+                    }
+                }
+                default -> outcome.cancelled();
+            }
+        });
+    }
+}
@@ -3,7 +3,6 @@ package sk.vava.royalmate.controller;
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
 import javafx.application.Platform;
-import javafx.concurrent.Task;
 import javafx.event.ActionEvent; // Keep for handleSendMessage if needed via Enter key
 import javafx.fxml.FXML;
 import javafx.geometry.Insets; // Keep for padding if needed elsewhere
@@ -19,6 +18,7 @@ import javafx.util.Duration;
 import sk.vava.royalmate.model.Account;
 import sk.vava.royalmate.model.ChatMessage;
 import sk.vava.royalmate.service.ChatService;
+import sk.vava.royalmate.service.DatabaseExecutor;
 import sk.vava.royalmate.util.LocaleManager;
 import sk.vava.royalmate.util.SessionManager;
 
@@ -28,6 +28,8 @@ import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Objects; // Keep for resource loading
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -54,6 +56,9 @@ public class ChatController {
     private Timeline refreshTimeline;
     private boolean initialLoadComplete = false;
     private Account currentUser;
+    private CompletableFuture<ChatRefresh> pendingRefresh; // FX thread only
+
+    private record ChatRefresh(Optional<ChatMessage> pinned, List<ChatMessage> recent) {}
 
     public ChatController() {
         this.chatService = new ChatService();
@@ -97,24 +102,31 @@ public class ChatController {
             refreshTimeline.stop();
             LOGGER.info("Chat polling stopped.");
         }
+        if (pendingRefresh != null) {
+            pendingRefresh.cancel(true);
+        }
     }
 
-    // Using the simplified sequential fetch for clarity now
+    /** Loads pinned and recent messages on a DB worker; a poll is skipped while the previous one is still running */
     private void refreshChat(boolean isInitial) {
-        LOGGER.fine("Refreshing chat data (simplified)...");
-        try {
-            Optional<ChatMessage> pinnedOpt = chatService.getPinnedMessage();
-            List<ChatMessage> recentMsgs = chatService.getRecentMessages(); // Gets newest first
-
-            Platform.runLater(() -> {
-                updatePinnedMessageUI(pinnedOpt);
-                updateRecentMessagesUI(recentMsgs, isInitial);
-                LOGGER.fine("Chat refresh UI update complete.");
-            });
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Error during synchronous chat refresh", e);
-            // Consider showing error
+        if (pendingRefresh != null && !pendingRefresh.isDone()) {
+            LOGGER.fine("Previous chat refresh still running, skipping this one.");
+            return;
         }
+        LOGGER.fine("Refreshing chat data...");
+        CompletableFuture<ChatRefresh> refresh = DatabaseExecutor.getInstance()
+                .supplyOnFx(() -> new ChatRefresh(chatService.getPinnedMessage(), chatService.getRecentMessages())); // Gets newest first
+        pendingRefresh = refresh;
+        refresh.whenComplete((result, error) -> {
+            if (refresh.isCancelled()) return; // Chat was closed
+            if (error != null) {
+                LOGGER.log(Level.SEVERE, "Error during chat refresh", error);
+                return;
+            }
+            updatePinnedMessageUI(result.pinned());
+            updateRecentMessagesUI(result.recent(), isInitial);
+            LOGGER.fine("Chat refresh UI update complete.");
+        });
     }
 
     private void updatePinnedMessageUI(Optional<ChatMessage> pinnedOpt) {
@@ -212,23 +224,25 @@ public class ChatController {
         sendButton.setDisable(true);
         messageInputField.setDisable(true);
 
-        Task<Boolean> sendTask = new Task<>() {
-            @Override protected Boolean call() throws Exception { return chatService.sendMessage(text); }
-        };
-        sendTask.setOnSucceeded(e -> {
-            boolean success = sendTask.getValue();
-            if (success) {
+        // Queued for the next batched insert - no extra thread per message
+        chatService.sendMessageAsync(text).whenComplete((success, ex) -> Platform.runLater(() -> {
+            if (ex != null) {
+                Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                if (cause instanceof IllegalStateException) {
+                    LOGGER.fine("Message rejected by chat rate limiter.");
+                    showErrorAlert("chat.message.ratelimited");
+                } else {
+                    LOGGER.log(Level.SEVERE, "Failed to send message (exception).", cause);
+                    showSendErrorAlert();
+                }
+            } else if (Boolean.TRUE.equals(success)) {
                 messageInputField.clear();
                 refreshChat(false); // Refresh immediately after sending
-            } else { showSendErrorAlert(); }
-            reenableInput();
-        });
-        sendTask.setOnFailed(e -> {
-            LOGGER.log(Level.SEVERE, "Failed to send message (exception).", sendTask.getException());
-            showSendErrorAlert();
+            } else {
+                showSendErrorAlert();
+            }
             reenableInput();
-        });
-        new Thread(sendTask).start();
+        }));
     }
 
     private void reenableInput() {
@@ -240,8 +254,12 @@ public class ChatController {
     }
 
     private void showSendErrorAlert() {
+        showErrorAlert("chat.message.send.error");
+    }
+
+    private void showErrorAlert(String messageKey) {
         Platform.runLater(() -> {
-            Alert errorAlert = new Alert(Alert.AlertType.ERROR, LocaleManager.getString("chat.message.send.error"));
+            Alert errorAlert = new Alert(Alert.AlertType.ERROR, LocaleManager.getString(messageKey));
             errorAlert.showAndWait();
         });
     }
@@ -25,6 +25,7 @@ import javafx.util.Duration;
 import sk.vava.royalmate.model.Account;
 import sk.vava.royalmate.model.Game;
 import sk.vava.royalmate.model.Gameplay;
+import sk.vava.royalmate.service.DatabaseExecutor;
 import sk.vava.royalmate.service.GameService;
 import sk.vava.royalmate.util.LocaleManager;
 import sk.vava.royalmate.util.SessionManager;
@@ -364,7 +365,7 @@ public class CoinflipGameController {
             LOGGER.log(Level.SEVERE, "Placing bet task failed.", placeBetTask.getException());
             finishFlip(false, "slot.error.betfailed");
         });
-        new Thread(placeBetTask).start();
+        DatabaseExecutor.getInstance().execute(placeBetTask);
     }
 
     private void startFlipAnimation(long gameplayId, BigDecimal stakeAmount) {
@@ -481,7 +482,7 @@ public class CoinflipGameController {
             // spinCompleted = true; // No longer needed
             finishFlip(true, null); // Re-enable controls even on record fail
         });
-        new Thread(recordTask).start();
+        DatabaseExecutor.getInstance().execute(recordTask);
     }
 
     // --- Blinking Logic ---
@@ -608,7 +609,7 @@ public class CoinflipGameController {
             });
         });
         loadTask.setOnFailed(e -> LOGGER.log(Level.SEVERE, "Failed to load recent wins leaderboard.", loadTask.getException()));
-        new Thread(loadTask).start();
+        DatabaseExecutor.getInstance().execute(loadTask);
     }
 
     private Node createLeaderboardCard(Gameplay win) {
@@ -0,0 +1,78 @@
+package sk.vava.royalmate.controller;
+
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.util.Duration;
+import sk.vava.royalmate.data.DatabaseHealth;
+import sk.vava.royalmate.data.DatabaseManager;
+import sk.vava.royalmate.util.LocaleManager;
+
+import java.text.MessageFormat;
+import java.util.function.Consumer;
+
+/**
+ * Keeps a label showing the database health published by {@link DatabaseManager}: the failover endpoint,
+ * or while the database is down a reconnect countdown that ticks every second (the probe only publishes
+ * when it retries). The label, or the node it sits in, is hidden while the preferred endpoint is up.
+ * Health is followed only while the label is in a scene, so screens navigated away from do not stay registered.
+ */
+final class DatabaseHealthLabel {
+
+    private final Label label;
+    private final Node shownWith;
+    private final String keyPrefix;
+    private final Timeline countdown = new Timeline(new KeyFrame(Duration.seconds(1), e -> updateText()));
+    private final Consumer<DatabaseHealth> healthListener = health -> Platform.runLater(() -> show(health));
+    private DatabaseHealth health = DatabaseHealth.UNKNOWN_HEALTH;
+    private long retryAtMillis;
+
+    /**
+     * @param label     Gets the text.
+     * @param shownWith Shown and hidden with the text (the label itself, or e.g. a bar around it).
+     * @param keyPrefix Bundle key prefix; {@code .failover} and {@code .retry} are appended.
+     */
+    DatabaseHealthLabel(Label label, Node shownWith, String keyPrefix) {
+        this.label = label;
+        this.shownWith = shownWith;
+        this.keyPrefix = keyPrefix;
+        countdown.setCycleCount(Timeline.INDEFINITE);
+        updateText();
+        label.sceneProperty().addListener((obs, oldScene, scene) -> {
+            if (scene != null && oldScene == null) {
+                DatabaseManager.addHealthListener(healthListener);
+            } else if (scene == null) {
+                DatabaseManager.removeHealthListener(healthListener);
+                countdown.stop();
+            }
+        });
+        if (label.getScene() != null) {
+            DatabaseManager.addHealthListener(healthListener);
+        }
+    }
+
+    private void show(DatabaseHealth newHealth) {
+        health = newHealth;
+        retryAtMillis = System.currentTimeMillis() + newHealth.getRetryInMillis();
+        if (newHealth.getStatus() == DatabaseHealth.Status.DOWN) {
+            countdown.play();
+        } else {
+            countdown.stop();
+        }
+        updateText();
+    }
+
+    private void updateText() {
+        String text = switch (health.getStatus()) {
+            case FAILOVER -> MessageFormat.format(LocaleManager.getString(keyPrefix + ".failover"), health.getEndpoint());
+            case DOWN -> MessageFormat.format(LocaleManager.getString(keyPrefix + ".retry"),
+                    Math.max(1, (retryAtMillis - System.currentTimeMillis() + 999) / 1000)); // Stays at 1 until the probe reports
+            default -> null;
+        };
+        label.setText(text != null ? text : "");
+        shownWith.setVisible(text != null);
+        shownWith.setManaged(text != null);
+    }
+}
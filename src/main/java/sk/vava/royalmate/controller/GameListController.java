@@ -1,6 +1,7 @@
 package sk.vava.royalmate.controller;
 
 import javafx.application.Platform;
+import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -12,68 +13,77 @@ import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.ScrollPane;
+import javafx.scene.control.TextArea;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import sk.vava.royalmate.model.Game;
+import sk.vava.royalmate.model.AssetRef;
 import sk.vava.royalmate.service.AdminService;
-import sk.vava.royalmate.util.ImageUtil;
+import sk.vava.royalmate.service.AsyncImageService;
+import sk.vava.royalmate.service.DatabaseExecutor;
+import sk.vava.royalmate.service.GameExportService;
+import sk.vava.royalmate.service.GameImportService;
 import sk.vava.royalmate.util.LocaleManager;
 import sk.vava.royalmate.util.SessionManager;
 import javafx.stage.FileChooser; // Import FileChooser
 import javafx.stage.Window; // Import Window
-import org.w3c.dom.Document; // Import DOM Document
-import org.w3c.dom.Element; // Import DOM Element
 
 import java.io.IOException;
-import java.sql.Timestamp;
 import java.text.MessageFormat; // For confirmation message formatting
-import java.time.ZoneId;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import javax.xml.parsers.DocumentBuilder; // Import DocumentBuilder
-import javax.xml.parsers.DocumentBuilderFactory; // Import DocumentBuilderFactory
-import javax.xml.parsers.ParserConfigurationException; // Import ParserConfigurationException
-import javax.xml.transform.*; // Import Transformer classes
-import javax.xml.transform.dom.DOMSource; // Import DOMSource
-import javax.xml.transform.stream.StreamResult; // Import StreamResult
 import java.io.File; // Import File
-import java.io.FileOutputStream; // Import FileOutputStream
 import java.io.IOException;
-import java.io.OutputStreamWriter; // Import OutputStreamWriter
-import java.math.BigDecimal; // Import BigDecimal
-import java.nio.charset.StandardCharsets; // Import StandardCharsets
 import java.text.MessageFormat;
-import java.time.format.DateTimeFormatter; // Import DateTimeFormatter for timestamp
 
 
 
 public class GameListController {
 
     private static final Logger LOGGER = Logger.getLogger(GameListController.class.getName());
-    private static final DateTimeFormatter XML_TIMESTAMP_FORMAT = DateTimeFormatter.ISO_OFFSET_DATE_TIME; // ISO 8601 format
+    private static final double THUMBNAIL_WIDTH = 90;
+    private static final double THUMBNAIL_HEIGHT = 60;
 
 
     @FXML private BorderPane rootPane;
     @FXML private Button addNewGameButton;
     @FXML private Button exportDataButton; // <-- Inject new button
+    @FXML private CheckBox exportAssetsCheckBox;
+    @FXML private Button importGamesButton;
     @FXML private ScrollPane scrollPane;
     @FXML private VBox gameListContainer;
     @FXML private Label messageLabel;
 
     private final AdminService adminService;
+    private final AsyncImageService asyncImageService;
     private FileChooser xmlFileChooser;
+    private FileChooser.ExtensionFilter gzipFilter;
+    private final GameExportService exportService;
+    private CancellableTaskButton exportButtonTask;
+    private FileChooser importFileChooser;
+    private final GameImportService importService;
+    private CancellableTaskButton importButtonTask;
+    private CompletableFuture<List<Game>> pendingGames; // List reload in flight, if any
 
 
     public GameListController() {
         this.adminService = new AdminService();
+        this.asyncImageService = AsyncImageService.getInstance();
+        this.exportService = new GameExportService();
+        this.importService = new GameImportService();
     }
 
     @FXML
@@ -87,6 +97,8 @@ public class GameListController {
         messageLabel.setVisible(false);
         messageLabel.setManaged(false);
         setupFileChooser(); // Setup file chooser
+        exportButtonTask = new CancellableTaskButton(exportDataButton, "admin.button.export", "admin.export.cancel");
+        importButtonTask = new CancellableTaskButton(importGamesButton, "admin.button.importgames", "admin.gameimport.cancel");
         loadGameList();
         LOGGER.info("Game List Controller initialized.");
     }
@@ -94,19 +106,42 @@ public class GameListController {
     private void setupFileChooser() {
         xmlFileChooser = new FileChooser();
         xmlFileChooser.setTitle(LocaleManager.getString("admin.export.title"));
-        xmlFileChooser.getExtensionFilters().add(
-                new FileChooser.ExtensionFilter("XML Files (*.xml)", "*.xml")
+        gzipFilter = new FileChooser.ExtensionFilter("Gzipped XML Files (*.xml.gz)", "*.xml.gz");
+        xmlFileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("XML Files (*.xml)", "*.xml"),
+                gzipFilter
         );
         xmlFileChooser.setInitialFileName("royalmate_games_export.xml"); // Suggest a filename
+
+        importFileChooser = new FileChooser();
+        importFileChooser.setTitle(LocaleManager.getString("admin.gameimport.title"));
+        importFileChooser.getExtensionFilters().add(
+                new FileChooser.ExtensionFilter("XML Files (*.xml, *.xml.gz)", "*.xml", "*.xml.gz"));
     }
 
 
+    /** Fetches the games on a DB worker and rebuilds the list when they arrive. */
     private void loadGameList() {
         LOGGER.fine("Loading game list...");
-        gameListContainer.getChildren().clear(); // Clear previous list
-        hideMessage();
+        if (pendingGames != null) {
+            pendingGames.cancel(true); // Superseded by this reload
+        }
+        CompletableFuture<List<Game>> request = DatabaseExecutor.getInstance().supplyOnFx(adminService::getAllGames);
+        pendingGames = request;
+        request.whenComplete((games, error) -> {
+            if (request.isCancelled()) return;
+            pendingGames = null;
+            if (error != null) {
+                LOGGER.log(Level.SEVERE, "Loading game list failed.", error);
+                showMessage(LocaleManager.getString("admin.gamelist.message.load.error"), true);
+                return;
+            }
+            showGameList(games);
+        });
+    }
 
-        List<Game> games = adminService.getAllGames();
+    private void showGameList(List<Game> games) {
+        gameListContainer.getChildren().clear(); // Clear previous list
 
         if (games.isEmpty()) {
             LOGGER.info("No games found in the database.");
@@ -118,10 +153,12 @@ public class GameListController {
         }
 
         LOGGER.fine("Found " + games.size() + " games. Creating UI rows...");
+        Map<ImageView, AssetRef> thumbnails = new HashMap<>(); // Filled by createGameRow, loaded in the background
+
         boolean alternate = false;
         for (Game game : games) {
             try {
-                Node gameRow = createGameRow(game);
+                Node gameRow = createGameRow(game, thumbnails);
                 // Apply alternating row style
                 if (alternate) {
                     gameRow.getStyleClass().add("game-row-alt");
@@ -135,31 +172,21 @@ public class GameListController {
                 // Optionally add an error placeholder row
             }
         }
+        asyncImageService.loadAll(thumbnails, THUMBNAIL_WIDTH, THUMBNAIL_HEIGHT);
     }
 
     /** Creates a UI node (HBox) representing a single game row. */
-    private Node createGameRow(Game game) throws IOException {
+    private Node createGameRow(Game game, Map<ImageView, AssetRef> thumbnails) throws IOException {
         HBox row = new HBox(20); // Spacing between elements
         row.setAlignment(Pos.CENTER_LEFT);
         row.getStyleClass().add("game-row-base"); // Base style for padding etc.
 
         // 1. Thumbnail
         ImageView thumbnail = new ImageView();
-        thumbnail.setFitHeight(60);
-        thumbnail.setFitWidth(90); // ~16:9 aspect ratio
+        thumbnail.setFitHeight(THUMBNAIL_HEIGHT);
+        thumbnail.setFitWidth(THUMBNAIL_WIDTH); // ~16:9 aspect ratio
         thumbnail.setPreserveRatio(true);
-        if (game.getCoverImageData() != null) {
-            try {
-                thumbnail.setImage(ImageUtil.byteArrayToImage(game.getCoverImageData()));
-            } catch (IOException e) {
-                LOGGER.log(Level.WARNING, "Failed to load cover image for game: " + game.getName(), e);
-                thumbnail.setImage(null); // Set placeholder or default image?
-                // Add a placeholder rectangle maybe?
-                // thumbnail.getParent().getChildren().add(new javafx.scene.shape.Rectangle(90, 60, Color.DARKGREY));
-            }
-        } else {
-            thumbnail.setImage(null); // Or set default placeholder image
-        }
+        thumbnails.put(thumbnail, game.getCoverAsset()); // Null cover leaves the view empty
 
         // 2. Game Info (Name, Type, Creator, Spins)
         VBox infoBox = new VBox(2);
@@ -213,150 +240,154 @@ public class GameListController {
     // --- NEW Export Handler ---
     @FXML
     private void handleExportData(ActionEvent event) {
-        hideMessage();
-        LOGGER.info("Export Data button clicked.");
-
-        // 1. Fetch Data (Use background task if potentially slow)
-        // For simplicity, doing it directly now. Wrap in Task if needed.
-        List<Game> gamesToExport;
-        try {
-            gamesToExport = adminService.getAllGamesWithStats(); // Get games with stats
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Failed to fetch game data for export.", e);
-            showMessage(LocaleManager.getString("admin.export.error.fetch"), true);
+        if (exportButtonTask.cancelRunning()) {
             return;
         }
+        hideMessage();
+        LOGGER.info("Export Data button clicked.");
 
-        if (gamesToExport == null || gamesToExport.isEmpty()) {
-            LOGGER.info("No game data found to export.");
-            showMessage(LocaleManager.getString("admin.export.nodata"), false); // Not an error, just info
+        Window window = rootPane.getScene().getWindow();
+        File selectedFile = xmlFileChooser.showSaveDialog(window);
+        if (selectedFile == null) {
+            LOGGER.info("XML Export cancelled by user.");
             return;
         }
-
-        // 2. Generate XML
-        Document xmlDoc;
-        try {
-            xmlDoc = createGamesXmlDocument(gamesToExport);
-        } catch (ParserConfigurationException e) {
-            LOGGER.log(Level.SEVERE, "Error creating XML document.", e);
-            showMessage(LocaleManager.getString("admin.export.error.generate"), true);
-            return;
+        String lowerName = selectedFile.getName().toLowerCase();
+        boolean gzip = lowerName.endsWith(".gz") || xmlFileChooser.getSelectedExtensionFilter() == gzipFilter;
+        // Ensure file has the right extension
+        if (gzip && !lowerName.endsWith(".gz")) {
+            selectedFile = new File(selectedFile.getParentFile(), selectedFile.getName() + (lowerName.endsWith(".xml") ? ".gz" : ".xml.gz"));
+        } else if (!gzip && !lowerName.endsWith(".xml")) {
+            selectedFile = new File(selectedFile.getParentFile(), selectedFile.getName() + ".xml");
         }
+        startExport(selectedFile, gzip);
+    }
 
-        // 3. Show File Chooser
-        Window window = rootPane.getScene().getWindow();
-        File selectedFile = xmlFileChooser.showSaveDialog(window);
+    /** Streams the export on the bulk DB worker; progress goes to the message label. */
+    private void startExport(File file, boolean gzip) {
+        boolean withAssets = exportAssetsCheckBox.isSelected();
+        Task<Long> task = new Task<>() {
+            @Override
+            protected Long call() throws Exception {
+                return exportService.exportGames(file.toPath(), gzip, withAssets, (exported, total) -> {
+                    updateProgress(exported, total);
+                    updateMessage(total >= 0
+                            ? MessageFormat.format(LocaleManager.getString("admin.export.progress"), exported, total)
+                            : MessageFormat.format(LocaleManager.getString("admin.export.progress.unknown"), exported));
+                }, this::isCancelled);
+            }
+        };
+        importGamesButton.setDisable(true);
+        exportButtonTask.start(task, msg -> showMessage(msg, false), new CancellableTaskButton.Outcome<>() {
+            @Override
+            public void succeeded(Long exported) {
+                importGamesButton.setDisable(false);
+                if (exported == 0) {
+                    showMessage(LocaleManager.getString("admin.export.nodata"), false); // Not an error, just info
+                    return;
+                }
+                showMessage(MessageFormat.format(LocaleManager.getString("admin.export.success"), file.getName()), false);
+                LOGGER.info("Successfully exported game data to: " + file.getAbsolutePath());
+            }
 
-        if (selectedFile != null) {
-            // Ensure file has .xml extension
-            if (!selectedFile.getName().toLowerCase().endsWith(".xml")) {
-                selectedFile = new File(selectedFile.getParentFile(), selectedFile.getName() + ".xml");
+            @Override
+            public void cancelled() {
+                importGamesButton.setDisable(false);
+                showMessage(LocaleManager.getString("admin.export.cancelled"), false);
             }
 
-            // 4. Write XML to File
-            if (writeXmlToFile(xmlDoc, selectedFile)) {
-                String successMsg = MessageFormat.format(LocaleManager.getString("admin.export.success"), selectedFile.getName());
-                showMessage(successMsg, false);
-                LOGGER.info("Successfully exported game data to: " + selectedFile.getAbsolutePath());
+            @Override
+            public void failed(Throwable error) {
+                importGamesButton.setDisable(false);
+                LOGGER.log(Level.SEVERE, "Error exporting XML file: " + file.getAbsolutePath(), error);
+                showMessage(MessageFormat.format(LocaleManager.getString("admin.export.error.write"), error.getMessage()), true);
             }
-            // Error message shown inside writeXmlToFile if it fails
-        } else {
-            LOGGER.info("XML Export cancelled by user.");
-        }
+        });
     }
+    // --- END Export Logic ---
 
-    /** Generates the DOM Document for the game list */
-    private Document createGamesXmlDocument(List<Game> games) throws ParserConfigurationException {
-        DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
-        Document doc = docBuilder.newDocument();
-
-        // Root element <games>
-        Element rootElement = doc.createElement("games");
-        doc.appendChild(rootElement);
-
-        for (Game game : games) {
-            // <game> element
-            Element gameElement = doc.createElement("game");
-            // Add attributes
-            gameElement.setAttribute("id", String.valueOf(game.getId()));
-            gameElement.setAttribute("name", game.getName() != null ? game.getName() : "");
-            gameElement.setAttribute("type", game.getGameType() != null ? game.getGameType().name() : "");
-            gameElement.setAttribute("active", String.valueOf(game.isActive()));
-            rootElement.appendChild(gameElement);
-
-            // Add child elements for details
-            appendChildElement(doc, gameElement, "description", game.getDescription());
-            appendChildElement(doc, gameElement, "minStake", formatBigDecimal(game.getMinStake()));
-            appendChildElement(doc, gameElement, "maxStake", formatBigDecimal(game.getMaxStake()));
-            appendChildElement(doc, gameElement, "volatility", String.valueOf(game.getVolatility()));
-            appendChildElement(doc, gameElement, "backgroundColor", game.getBackgroundColor());
-            appendChildElement(doc, gameElement, "createdByAdminUsername", game.getCreatedByAdminUsername()); // Using username
-            appendChildElement(doc, gameElement, "createdAt", formatTimestamp(game.getCreatedAt()));
-            // Stats
-            appendChildElement(doc, gameElement, "totalSpins", String.valueOf(game.getTotalSpins()));
-            appendChildElement(doc, gameElement, "maxPayout", formatBigDecimal(game.getMaxPayout()));
+    // --- Import Logic ---
+    @FXML
+    private void handleImportGames(ActionEvent event) {
+        if (importButtonTask.cancelRunning()) {
+            return;
         }
-        return doc;
-    }
-
-    /** Helper to append a child element with text content */
-    private void appendChildElement(Document doc, Element parent, String tagName, String textContent) {
-        if (textContent != null) { // Only add if not null
-            Element element = doc.createElement(tagName);
-            element.appendChild(doc.createTextNode(textContent));
-            parent.appendChild(element);
+        hideMessage();
+        File selectedFile = importFileChooser.showOpenDialog(rootPane.getScene().getWindow());
+        if (selectedFile == null) {
+            LOGGER.info("Game import cancelled by user.");
+            return;
         }
+        startImport(selectedFile);
     }
 
-    /** Formats BigDecimal for XML (plain string, 2 decimal places) */
-    private String formatBigDecimal(BigDecimal value) {
-        if (value == null) return "0.00";
-        return value.setScale(2, BigDecimal.ROUND_HALF_UP).toPlainString();
-    }
+    /**
+     * Streams the import on the bulk DB worker; progress goes to the message label.
+     * The list is reloaded once the worker has stopped, so it shows whatever was saved, also after a cancel or failure.
+     */
+    private void startImport(File file) {
+        Task<GameImportService.Result> task = new Task<>() {
+            @Override
+            protected GameImportService.Result call() throws Exception {
+                return importService.importGames(file.toPath(), (imported, total) -> updateMessage(
+                        MessageFormat.format(LocaleManager.getString("admin.gameimport.progress"), imported)),
+                        this::isCancelled);
+            }
+        };
+        exportDataButton.setDisable(true);
+        importButtonTask.start(task, msg -> showMessage(msg, false), new CancellableTaskButton.Outcome<>() {
+            @Override
+            public void succeeded(GameImportService.Result result) {
+                finishImport();
+                String summary = MessageFormat.format(LocaleManager.getString("admin.gameimport.success"),
+                        result.imported(), result.skipped());
+                if (result.reassigned() > 0) {
+                    summary += " " + MessageFormat.format(LocaleManager.getString("admin.gameimport.reassigned"), result.reassigned());
+                }
+                showMessage(summary, result.imported() == 0 && result.skipped() > 0);
+                if (!result.errors().isEmpty()) {
+                    showImportErrors(result);
+                }
+            }
 
-    /** Formats Timestamp for XML (ISO 8601 format) */
-    private String formatTimestamp(Timestamp timestamp) {
-        if (timestamp == null) return null;
-        // Convert to ZonedDateTime and format
-        return timestamp.toInstant()
-                .atZone(ZoneId.systemDefault()) // Or use UTC ZoneId.of("UTC")
-                .format(XML_TIMESTAMP_FORMAT);
-    }
+            @Override
+            public void cancelled() {
+                finishImport();
+                showMessage(LocaleManager.getString("admin.gameimport.cancelled"), false);
+            }
 
-    /** Writes the DOM Document to the specified file */
-    private boolean writeXmlToFile(Document xmlDoc, File file) {
-        try {
-            // Create Transformer
-            TransformerFactory transformerFactory = TransformerFactory.newInstance();
-            // Prevent XXE attacks (optional but good practice)
-            transformerFactory.setAttribute(javax.xml.XMLConstants.ACCESS_EXTERNAL_DTD, "");
-            transformerFactory.setAttribute(javax.xml.XMLConstants.ACCESS_EXTERNAL_STYLESHEET, "");
-            Transformer transformer = transformerFactory.newTransformer();
-
-            // Configure output properties (pretty print)
-            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-            transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "4");
-            transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8"); // Ensure UTF-8
-
-            DOMSource source = new DOMSource(xmlDoc);
-
-            // Write to file using UTF-8 encoding explicitly
-            try (FileOutputStream fos = new FileOutputStream(file);
-                 OutputStreamWriter writer = new OutputStreamWriter(fos, StandardCharsets.UTF_8)) {
-                StreamResult result = new StreamResult(writer);
-                transformer.transform(source, result);
-                return true;
+            @Override
+            public void failed(Throwable error) {
+                finishImport();
+                LOGGER.log(Level.SEVERE, "Error importing games from: " + file.getAbsolutePath(), error);
+                showMessage(MessageFormat.format(LocaleManager.getString("admin.gameimport.error"), error.getMessage()), true);
             }
+        });
+    }
 
-        } catch (TransformerException | IOException e) {
-            LOGGER.log(Level.SEVERE, "Error writing XML file: " + file.getAbsolutePath(), e);
-            String errorMsg = MessageFormat.format(LocaleManager.getString("admin.export.error.write"), e.getMessage());
-            showMessage(errorMsg, true);
-            return false;
-        }
+    private void finishImport() {
+        exportDataButton.setDisable(false);
+        loadGameList();
     }
-    // --- END Export Logic ---
+
+    /** Lists the records that were not imported. */
+    private void showImportErrors(GameImportService.Result result) {
+        String lines = result.errors().stream()
+                .map(error -> MessageFormat.format(LocaleManager.getString("admin.gameimport.error.record"),
+                        error.record(), Objects.requireNonNullElse(error.name(), "-"), error.message()))
+                .collect(Collectors.joining("\n"));
+        TextArea details = new TextArea(lines);
+        details.setEditable(false);
+        details.setWrapText(true);
+        details.setPrefRowCount(15);
+
+        Alert alert = new Alert(Alert.AlertType.WARNING);
+        alert.setTitle(LocaleManager.getString("admin.gameimport.errors.title"));
+        alert.setHeaderText(MessageFormat.format(LocaleManager.getString("admin.gameimport.errors.header"), result.skipped()));
+        alert.getDialogPane().setContent(details);
+        alert.show();
+    }
+    // --- END Import Logic ---
 
 
     private void handleDeleteGame(Game game) {
@@ -374,13 +405,18 @@ public class GameListController {
         Optional<ButtonType> result = confirmation.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
             LOGGER.info("Deletion confirmed for game: " + game.getName());
-            boolean success = adminService.deleteGame(game.getId());
-            if (success) {
-                showMessage(LocaleManager.getString("admin.gamelist.message.delete.success"), false);
-                loadGameList(); // Refresh the list after deletion
-            } else {
-                showMessage(LocaleManager.getString("admin.gamelist.message.delete.error"), true);
-            }
+            DatabaseExecutor.getInstance().supplyOnFx(() -> adminService.deleteGame(game.getId()))
+                    .whenComplete((success, error) -> {
+                        if (error != null) {
+                            LOGGER.log(Level.SEVERE, "Deleting game ID " + game.getId() + " failed.", error);
+                        }
+                        if (error == null && success) {
+                            showMessage(LocaleManager.getString("admin.gamelist.message.delete.success"), false);
+                            loadGameList(); // Refresh the list after deletion
+                        } else {
+                            showMessage(LocaleManager.getString("admin.gamelist.message.delete.error"), true);
+                        }
+                    });
         } else {
             LOGGER.info("Deletion cancelled for game: " + game.getName());
         }
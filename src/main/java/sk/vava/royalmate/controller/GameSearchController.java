@@ -1,7 +1,9 @@
 package sk.vava.royalmate.controller;
 
+import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.beans.Observable;
+import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -15,24 +17,32 @@ import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.*;
+import javafx.util.Duration;
+import sk.vava.royalmate.model.AssetRef;
 import sk.vava.royalmate.model.AssetType;
 import sk.vava.royalmate.model.Game;
 import sk.vava.royalmate.model.GameAsset;
 import sk.vava.royalmate.model.GameType;
+import sk.vava.royalmate.service.AsyncImageService;
+import sk.vava.royalmate.service.GameSearchIndex;
+import sk.vava.royalmate.service.DatabaseExecutor;
 import sk.vava.royalmate.service.GameService;
-import sk.vava.royalmate.util.ImageUtil;
 import sk.vava.royalmate.util.LocaleManager;
 import sk.vava.royalmate.util.SessionManager;
+import sk.vava.royalmate.util.TextNormalizer;
 
 import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
-import java.util.stream.Collectors;
 
 
 public class GameSearchController {
@@ -44,15 +54,51 @@ public class GameSearchController {
     @FXML private ToggleButton slotsFilterButton;
     @FXML private ToggleButton rouletteFilterButton;
     @FXML private ToggleButton coinflipFilterButton;
+    @FXML private CheckBox regexModeCheckBox; // Advanced: treat search text as a regular expression
     @FXML private Label gameCountLabel;
     @FXML private TilePane gameGridPane; // Changed to TilePane
 
+    private static final Duration SEARCH_DEBOUNCE = Duration.millis(150);
+    private static final double COVER_WIDTH = 200;
+    private static final double COVER_HEIGHT = 112;
+    // Cards kept for reuse beyond the ones currently shown, least recently shown dropped first
+    private static final int CARD_CACHE_SIZE = 200;
+    private static final long REGEX_SEARCH_BUDGET_MILLIS = 500; // Per query; a slower pattern finds nothing
+    // One shared worker for all search screens; queries run strictly one after another
+    private static final ExecutorService SEARCH_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "game-search-worker");
+        t.setDaemon(true);
+        return t;
+    });
+
     private final GameService gameService;
-    private List<Game> allGames = new ArrayList<>(); // Cache all games
-    private Pattern searchPattern = null;
+    private final AsyncImageService asyncImageService;
+    private volatile GameSearchIndex searchIndex = GameSearchIndex.build(Collections.emptyList());
+
+    // --- Search pipeline state ---
+    private final PauseTransition searchDebounce = new PauseTransition(SEARCH_DEBOUNCE);
+    private final AtomicLong searchGeneration = new AtomicLong(); // Newer query supersedes older ones
+    private Future<?> pendingSearch; // FX thread only
+    // Worker-thread only: last computed query, used to narrow extended queries
+    private GameSearchIndex.Result lastResult;
+    private GameSearchIndex lastResultIndex;
+    private String lastFoldedQuery;
+    private Set<GameType> lastTypes;
+
+    // --- Rendering caches ---
+    private int shownCardCount; // FX thread only; shown cards are never evicted
+    private GameSearchIndex cardCacheIndex; // FX thread only; the catalog snapshot the cached cards were built from
+    private final Map<Integer, Node> cardCache = new LinkedHashMap<>(64, 0.75f, true) { // FX thread only
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Node> eldest) {
+            return size() > Math.max(CARD_CACHE_SIZE, shownCardCount);
+        }
+    };
+    private Label noGamesLabel;
 
     public GameSearchController() {
         this.gameService = new GameService();
+        this.asyncImageService = AsyncImageService.getInstance();
     }
 
     @FXML
@@ -68,11 +114,13 @@ public class GameSearchController {
         rouletteFilterButton.setSelected(true);
         coinflipFilterButton.setSelected(true);
 
-        // Add listeners for search and filters
-        searchTextField.textProperty().addListener(this::onFilterChanged);
+        // Add listeners for search and filters (typing is debounced, toggles apply immediately)
+        searchDebounce.setOnFinished(e -> scheduleSearch());
+        searchTextField.textProperty().addListener(obs -> searchDebounce.playFromStart());
         slotsFilterButton.selectedProperty().addListener(this::onFilterChanged);
         rouletteFilterButton.selectedProperty().addListener(this::onFilterChanged);
         coinflipFilterButton.selectedProperty().addListener(this::onFilterChanged);
+        regexModeCheckBox.selectedProperty().addListener(this::onFilterChanged);
 
         // Load all games initially
         loadAllGamesAndDisplay();
@@ -92,87 +140,130 @@ public class GameSearchController {
     }
 
 
-    /** Listener method called when search text or filter toggles change */
+    /** Listener method called when filter toggles or the regex mode change */
     private void onFilterChanged(Observable observable) {
-        updateSearchPattern();
-        updateDisplayedGames();
+        searchDebounce.stop();
+        scheduleSearch();
     }
 
-    /** Updates the regex pattern based on search text */
-    private void updateSearchPattern() {
-        String searchText = searchTextField.getText().trim();
-        if (searchText.isEmpty()) {
-            searchPattern = null; // No search pattern needed
-        } else {
+    /** Picks up the catalog's prebuilt search index off the FX thread, then runs the current search */
+    private void loadAllGamesAndDisplay() {
+        SEARCH_EXECUTOR.submit(() -> {
+            searchIndex = gameService.getActiveGamesIndex();
+            LOGGER.fine("Using catalog search index with " + searchIndex.size() + " active games.");
+            Platform.runLater(this::scheduleSearch);
+        });
+    }
+
+    /**
+     * Captures the current query on the FX thread and runs it on the search worker.
+     * Any query still pending is cancelled (a running regex search is interrupted); results of superseded
+     * queries are never published. Each query picks up the current catalog snapshot's index.
+     */
+    private void scheduleSearch() {
+        String queryText = searchTextField.getText();
+        Set<GameType> selectedTypes = getSelectedGameTypes();
+        boolean regexMode = regexModeCheckBox.isSelected();
+        long generation = searchGeneration.incrementAndGet();
+
+        if (pendingSearch != null) {
+            pendingSearch.cancel(true); // Skip it if queued, interrupt it if running
+        }
+        pendingSearch = SEARCH_EXECUTOR.submit(() -> {
+            if (generation != searchGeneration.get()) return; // Superseded while queued
+            GameSearchIndex index = gameService.getActiveGamesIndex(); // Same instance until the catalog changes
+            searchIndex = index;
+            List<Game> results;
             try {
-                // Simple contains search, case-insensitive, escapes special regex chars
-                // Use Pattern.quote for safety if user input shouldn't be regex
-                // String quotedSearchText = Pattern.quote(searchText);
-                // searchPattern = Pattern.compile(quotedSearchText, Pattern.CASE_INSENSITIVE);
+                results = regexMode
+                        ? runRegexSearch(index, queryText, selectedTypes)
+                        : runIndexedSearch(index, queryText, selectedTypes);
+            } catch (CancellationException e) {
+                if (generation != searchGeneration.get()) return; // Interrupted by a newer query
+                LOGGER.warning("Regex search gave up after " + REGEX_SEARCH_BUDGET_MILLIS + " ms: " + queryText);
+                results = List.of();
+            }
+            LOGGER.fine("Filtering resulted in " + results.size() + " games.");
+            List<Game> shown = results;
+            Platform.runLater(() -> {
+                if (generation == searchGeneration.get()) {
+                    publishResults(shown, index);
+                }
+            });
+        });
+    }
 
-                // If allowing basic regex-like features from user (e.g., word boundary, start/end)
-                // Be cautious with user-provided regex patterns for security/performance
-                searchPattern = Pattern.compile(searchText, Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
-                LOGGER.fine("Search pattern updated: " + searchPattern.pattern());
+    /** Worker thread: trigram search, narrowing the previous result when the query was only extended */
+    private List<Game> runIndexedSearch(GameSearchIndex index, String queryText, Set<GameType> types) {
+        String folded = TextNormalizer.fold(queryText).trim();
+        GameSearchIndex.Result narrowFrom = null;
+        if (lastResult != null && lastResultIndex == index && !lastFoldedQuery.isEmpty()
+                && folded.startsWith(lastFoldedQuery) && lastTypes.containsAll(types)) {
+            narrowFrom = lastResult; // Extended query can only match a subset
+        }
+        GameSearchIndex.Result result = index.query(folded, types, narrowFrom);
+        lastResult = result;
+        lastResultIndex = index;
+        lastFoldedQuery = folded;
+        lastTypes = types;
+        return result.getGames();
+    }
 
+    /**
+     * Worker thread: advanced regex mode, compiled off the FX thread as well.
+     * Throws CancellationException when interrupted or over {@link #REGEX_SEARCH_BUDGET_MILLIS}.
+     */
+    private List<Game> runRegexSearch(GameSearchIndex index, String queryText, Set<GameType> types) {
+        String searchText = queryText.trim();
+        if (!searchText.isEmpty()) {
+            try {
+                // Be cautious with user-provided regex patterns for security/performance
+                Pattern pattern = Pattern.compile(searchText, Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+                return index.searchRegex(pattern, types, REGEX_SEARCH_BUDGET_MILLIS);
             } catch (PatternSyntaxException e) {
                 LOGGER.log(Level.WARNING, "Invalid regex pattern entered: " + searchText, e);
-                searchPattern = null; // Treat invalid regex as no search for now
-                // Optionally show feedback to the user about invalid pattern
+                // Treat invalid regex as no search
             }
         }
+        return index.search("", types);
     }
 
-    /** Fetches all games from the service and updates the display */
-    private void loadAllGamesAndDisplay() {
-        // Consider doing this in a background task if loading takes time
-        this.allGames = gameService.getAllActiveGamesWithCovers();
-        LOGGER.fine("Loaded " + allGames.size() + " active games from service.");
-        updateDisplayedGames(); // Display initially loaded games
-    }
-
-    /** Filters the cached game list and updates the UI grid */
-    private void updateDisplayedGames() {
-        Set<GameType> selectedTypes = getSelectedGameTypes();
-        List<Game> filteredGames;
-
-        // Filter logic
-        filteredGames = allGames.stream()
-                .filter(game -> {
-                    // Type filter: must match one of the selected types
-                    boolean typeMatch = selectedTypes.contains(game.getGameType());
-                    if (!typeMatch) return false;
-
-                    // Search filter: must match pattern if pattern exists
-                    if (searchPattern != null) {
-                        Matcher nameMatcher = searchPattern.matcher(game.getName() != null ? game.getName() : "");
-                        Matcher descMatcher = searchPattern.matcher(game.getDescription() != null ? game.getDescription() : "");
-                        if (!nameMatcher.find() && !descMatcher.find()) { // Check if pattern is found anywhere
-                            return false;
-                        }
-                    }
-                    return true; // Passed all filters
-                })
-                .collect(Collectors.toList());
-
-        LOGGER.fine("Filtering resulted in " + filteredGames.size() + " games.");
-
-        // Update UI (must run on JavaFX thread)
-        Platform.runLater(() -> {
-            updateGameCountLabel(filteredGames.size());
-            gameGridPane.getChildren().clear(); // Clear previous cards
-
-            if (filteredGames.isEmpty()) {
-                Label noGamesMsg = new Label(LocaleManager.getString("gamesearch.nogames.found"));
-                noGamesMsg.getStyleClass().add("message-label");
-                gameGridPane.getChildren().add(noGamesMsg); // Add message directly to TilePane
-            } else {
-                for (Game game : filteredGames) {
-                    Node gameCard = createGameCardNode(game);
-                    gameGridPane.getChildren().add(gameCard);
-                }
+    /** FX thread: applies only the difference between the shown cards and the new result list */
+    private void publishResults(List<Game> games, GameSearchIndex index) {
+        if (index != cardCacheIndex) {
+            cardCache.clear(); // Cards show names, covers and stats of the snapshot they were built from
+            cardCacheIndex = index;
+        }
+        updateGameCountLabel(games.size());
+        shownCardCount = games.size();
+        ObservableList<Node> children = gameGridPane.getChildren();
+
+        if (games.isEmpty()) {
+            if (noGamesLabel == null) {
+                noGamesLabel = new Label(LocaleManager.getString("gamesearch.nogames.found"));
+                noGamesLabel.getStyleClass().add("message-label");
             }
-        });
+            children.setAll(noGamesLabel);
+            return;
+        }
+
+        List<Node> target = new ArrayList<>(games.size());
+        Map<ImageView, AssetRef> newCovers = new HashMap<>();
+        for (Game game : games) {
+            target.add(cardCache.computeIfAbsent(game.getId(), id -> createGameCardNode(game, newCovers)));
+        }
+        Set<Node> targetSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        targetSet.addAll(target);
+
+        children.removeIf(node -> !targetSet.contains(node)); // Drop cards that no longer match
+        for (int i = 0; i < target.size(); i++) {
+            Node node = target.get(i);
+            if (i < children.size() && children.get(i) == node) continue; // Already in place
+            children.remove(node); // No-op for new cards, moves re-ranked ones
+            children.add(i, node);
+        }
+        // Covers of cards filtered out before their image arrived pause and resume once shown again
+        asyncImageService.loadAll(newCovers, COVER_WIDTH, COVER_HEIGHT);
     }
 
     /** Gets the set of currently selected GameTypes from the toggle buttons */
@@ -191,8 +282,8 @@ public class GameSearchController {
         gameCountLabel.setText(message.toUpperCase()); // Make text uppercase as per design
     }
 
-    /** Creates a clickable card node for a single game */
-    private Node createGameCardNode(Game game) {
+    /** Creates a clickable card node for a single game; its cover view is added to newCovers for loading */
+    private Node createGameCardNode(Game game, Map<ImageView, AssetRef> newCovers) {
         StackPane cellPane = new StackPane();
         cellPane.getStyleClass().add("game-grid-cell"); // Use existing style from homepage
         cellPane.setAlignment(Pos.CENTER);
@@ -200,21 +291,13 @@ public class GameSearchController {
 
         ImageView coverImageView = new ImageView();
         // Consistent size with homepage grid cards
-        coverImageView.setFitHeight(112);
-        coverImageView.setFitWidth(200);
+        coverImageView.setFitHeight(COVER_HEIGHT);
+        coverImageView.setFitWidth(COVER_WIDTH);
         coverImageView.setPreserveRatio(false);
         coverImageView.getStyleClass().add("game-cover-image");
 
-        if (game.getCoverImageData() != null) {
-            try {
-                coverImageView.setImage(ImageUtil.byteArrayToImage(game.getCoverImageData()));
-            } catch (IOException e) {
-                LOGGER.log(Level.WARNING, "Failed to load cover image for game grid: " + game.getName(), e);
-                coverImageView.setImage(null);
-                Label errorLabel = new Label("!");
-                errorLabel.getStyleClass().add("error-label");
-                cellPane.getChildren().add(errorLabel);
-            }
+        if (game.getCoverAsset() != null) {
+            newCovers.put(coverImageView, game.getCoverAsset());
         } else {
             coverImageView.setImage(null);
             Label noImageLabel = new Label(game.getName());
@@ -224,7 +307,6 @@ public class GameSearchController {
 
         cellPane.getChildren().add(0, coverImageView);
         cellPane.setOnMouseClicked(event -> handleGameClick(game, event));
-
         return cellPane;
     }
 
@@ -239,7 +321,6 @@ public class GameSearchController {
         if (game == null) return;
 
         String fxmlPath;
-        Object controllerInstance;
 
         switch (game.getGameType()) {
             case SLOT:
@@ -256,17 +337,24 @@ public class GameSearchController {
                 return;
         }
 
-        // Fetch assets only if needed (Slots)
-        List<GameAsset> assets = Collections.emptyList();
-        if(game.getGameType() == GameType.SLOT) {
-            assets = gameService.getGameAssets(game.getId(), AssetType.SYMBOL);
-            if (assets.isEmpty()) {
-                LOGGER.severe("Cannot load game " + game.getName() + ": No SYMBOL assets found.");
-                new Alert(Alert.AlertType.ERROR, "Failed to load game assets.").showAndWait();
-                return;
-            }
+        // Fetch assets only if needed (Slots), on a DB worker
+        if (game.getGameType() != GameType.SLOT) {
+            openGame(game, fxmlPath, Collections.emptyList());
+            return;
         }
+        DatabaseExecutor.getInstance().supplyOnFx(() -> gameService.getGameAssets(game.getId(), AssetType.SYMBOL))
+                .whenComplete((assets, error) -> {
+                    if (error != null || assets.isEmpty()) {
+                        LOGGER.log(Level.SEVERE, "Cannot load game " + game.getName() + ": No SYMBOL assets found.", error);
+                        new Alert(Alert.AlertType.ERROR, "Failed to load game assets.").showAndWait();
+                        return;
+                    }
+                    openGame(game, fxmlPath, assets);
+                });
+    }
 
+    private void openGame(Game game, String fxmlPath, List<GameAsset> assets) {
+        Object controllerInstance;
         try {
             Scene scene = rootPane.getScene();
             if (scene == null) { LOGGER.severe("Cannot get scene."); return; }
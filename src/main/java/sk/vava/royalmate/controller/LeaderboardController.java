@@ -14,19 +14,23 @@ import javafx.scene.image.Image; // Import Image
 import javafx.scene.image.ImageView; // Import ImageView
 import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
+import sk.vava.royalmate.model.AssetRef;
 import sk.vava.royalmate.model.GameType;
 import sk.vava.royalmate.model.Gameplay;
+import sk.vava.royalmate.service.AssetImageService;
+import sk.vava.royalmate.service.AsyncImageService;
 import sk.vava.royalmate.service.LeaderboardService;
-import sk.vava.royalmate.util.ImageUtil; // Import ImageUtil
 import sk.vava.royalmate.util.LocaleManager;
 import sk.vava.royalmate.util.SessionManager;
 
-import java.io.IOException; // Import IOException
 import java.math.BigDecimal;
 import java.text.NumberFormat;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.logging.Level;
@@ -36,6 +40,8 @@ public class LeaderboardController {
 
     private static final Logger LOGGER = Logger.getLogger(LeaderboardController.class.getName());
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+    private static final double COVER_WIDTH = 70;
+    private static final double COVER_HEIGHT = 45;
 
     @FXML private BorderPane rootPane;
     @FXML private ToggleButton payoutSortButton;
@@ -45,6 +51,8 @@ public class LeaderboardController {
     @FXML private VBox coinflipColumnContent;
 
     private final LeaderboardService leaderboardService;
+    private final AssetImageService assetImageService;
+    private final AsyncImageService asyncImageService;
     private ToggleGroup sortToggleGroup;
     private boolean sortByPayout = true;
 
@@ -56,6 +64,8 @@ public class LeaderboardController {
 
     public LeaderboardController() {
         this.leaderboardService = new LeaderboardService();
+        this.assetImageService = AssetImageService.getInstance();
+        this.asyncImageService = AsyncImageService.getInstance();
     }
 
     @FXML
@@ -101,11 +111,16 @@ public class LeaderboardController {
             @Override
             protected List<Gameplay> call() throws Exception {
                 LOGGER.fine("Background task started for " + gameType + ", sorting by " + (sortByPayout ? "Payout" : "Multiplier"));
-                if (sortByPayout) {
-                    return leaderboardService.getTopPayouts(gameType);
-                } else {
-                    return leaderboardService.getTopMultipliers(gameType);
+                List<Gameplay> plays = sortByPayout
+                        ? leaderboardService.getTopPayouts(gameType)
+                        : leaderboardService.getTopMultipliers(gameType);
+                // Warm the image cache with this column's covers (one query) so the FX thread only reads it
+                List<AssetRef> coverRefs = new ArrayList<>();
+                for (Gameplay play : plays) {
+                    coverRefs.add(play.getCoverAsset());
                 }
+                assetImageService.loadAll(coverRefs, COVER_WIDTH, COVER_HEIGHT);
+                return plays;
             }
         };
 
@@ -138,9 +153,10 @@ public class LeaderboardController {
             LOGGER.info("No data found or returned for column: " + columnVBox.getId());
         } else {
             LOGGER.fine("Populating UI for column " + columnVBox.getId() + " with " + topPlays.size() + " entries.");
+            Map<ImageView, AssetRef> covers = new HashMap<>();
             for (Gameplay play : topPlays) {
                 try {
-                    Node card = createLeaderboardCardNode(play, sortByPayout);
+                    Node card = createLeaderboardCardNode(play, sortByPayout, covers);
                     columnVBox.getChildren().add(card);
                 } catch (Exception e) {
                     LOGGER.log(Level.SEVERE, "Error creating leaderboard card for play ID: " + play.getId(), e);
@@ -149,29 +165,26 @@ public class LeaderboardController {
                     columnVBox.getChildren().add(errorCard);
                 }
             }
+            // Normally all cached by the load task; covers evicted since then are fetched again
+            asyncImageService.loadAll(covers, COVER_WIDTH, COVER_HEIGHT);
         }
     }
 
     /** Creates the UI node (HBox) for a single leaderboard entry (NO LABELS, Uses Cover Image) */
-    private Node createLeaderboardCardNode(Gameplay play, boolean showPayout) {
+    private Node createLeaderboardCardNode(Gameplay play, boolean showPayout, Map<ImageView, AssetRef> covers) {
         HBox card = new HBox(10); // Spacing between elements
         card.getStyleClass().add("leaderboard-card-new");
         card.setAlignment(Pos.CENTER_LEFT);
 
         // Column 1: Game Cover Image
         ImageView coverImageView = new ImageView();
-        coverImageView.setFitHeight(45); // Adjust size as needed
-        coverImageView.setFitWidth(70);  // Adjust size ~16:9
+        coverImageView.setFitHeight(COVER_HEIGHT); // Adjust size as needed
+        coverImageView.setFitWidth(COVER_WIDTH);  // Adjust size ~16:9
         coverImageView.setPreserveRatio(false); // Allow minor distortion if needed
         coverImageView.getStyleClass().add("leaderboard-cover-image"); // Add style class if needed
 
-        if (play.getCoverImageData() != null) {
-            try {
-                coverImageView.setImage(ImageUtil.byteArrayToImage(play.getCoverImageData()));
-            } catch (IOException e) {
-                LOGGER.log(Level.WARNING, "Failed to load cover image for leaderboard entry, game: " + play.getGameName(), e);
-                coverImageView.setImage(null); // Or set a placeholder
-            }
+        if (play.getCoverAsset() != null) {
+            covers.put(coverImageView, play.getCoverAsset()); // Set by the caller once the card is shown
         } else {
             coverImageView.setImage(null); // No cover available
         }
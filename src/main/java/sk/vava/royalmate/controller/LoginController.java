@@ -9,12 +9,12 @@ import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
 import sk.vava.royalmate.model.Account;
 import sk.vava.royalmate.service.AuthService;
+import sk.vava.royalmate.service.DatabaseExecutor;
 // Make sure this import points to YOUR LocaleManager
 import sk.vava.royalmate.util.LocaleManager;
 import sk.vava.royalmate.util.SessionManager;
 
 import java.io.IOException;
-import java.util.Optional;
 import java.util.ResourceBundle; // Keep for FXMLLoader type
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -59,19 +59,23 @@ public class LoginController {
         errorLabel.setVisible(false);
         errorLabel.setManaged(false);
 
-        Optional<Account> accountOpt = authService.authenticate(username, password);
-
-        signInButton.setDisable(false);
-
-        if (accountOpt.isPresent()) {
-            LOGGER.info("Login successful for: " + username);
-            Account loggedInAccount = accountOpt.get();
-            SessionManager.setCurrentAccount(loggedInAccount);
-            navigateTo("/sk/vava/royalmate/view/main-menu-view.fxml");
-        } else {
-            LOGGER.warning("Login failed for: " + username);
-            showError("login.error.invalidCredentials"); // Use key
-        }
+        // Password hashing and the DB lookup run on a DB worker; the button stays disabled until they finish
+        DatabaseExecutor.getInstance().supplyOnFx(() -> authService.authenticate(username, password))
+                .whenComplete((accountOpt, error) -> {
+                    signInButton.setDisable(false);
+                    if (error != null) {
+                        LOGGER.log(Level.SEVERE, "Login failed due to an unexpected error.", error);
+                        showError("error.unexpected");
+                    } else if (accountOpt.isPresent()) {
+                        LOGGER.info("Login successful for: " + username);
+                        Account loggedInAccount = accountOpt.get();
+                        SessionManager.setCurrentAccount(loggedInAccount);
+                        navigateTo("/sk/vava/royalmate/view/main-menu-view.fxml");
+                    } else {
+                        LOGGER.warning("Login failed for: " + username);
+                        showError("login.error.invalidCredentials"); // Use key
+                    }
+                });
     }
 
     @FXML
@@ -14,20 +14,24 @@ import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.*;
 import sk.vava.royalmate.model.*; // Import all models needed
+import sk.vava.royalmate.service.AsyncImageService;
+import sk.vava.royalmate.service.DatabaseExecutor;
 import sk.vava.royalmate.service.GameService; // Import GameService
 import sk.vava.royalmate.service.HomepageService;
-import sk.vava.royalmate.util.ImageUtil;
+import sk.vava.royalmate.service.ScreenLoader;
 import sk.vava.royalmate.util.LocaleManager;
 import sk.vava.royalmate.util.SessionManager;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -37,6 +41,9 @@ import java.util.logging.Logger;
 public class MainMenuController {
 
     private static final Logger LOGGER = Logger.getLogger(MainMenuController.class.getName());
+    private static final double COVER_WIDTH = 220;
+    private static final double COVER_HEIGHT = 124;
+    private static final Duration LOAD_DEADLINE = Duration.ofSeconds(5);
 
     @FXML private BorderPane rootPane;
     @FXML private StackPane bannerPane;
@@ -50,10 +57,12 @@ public class MainMenuController {
 
     private final HomepageService homepageService;
     private final GameService gameService; // Add GameService
+    private final AsyncImageService asyncImageService;
 
     public MainMenuController() {
         this.homepageService = new HomepageService();
         this.gameService = new GameService(); // Instantiate GameService
+        this.asyncImageService = AsyncImageService.getInstance();
     }
 
     @FXML
@@ -63,106 +72,105 @@ public class MainMenuController {
             Platform.runLater(this::navigateToLogin);
             return;
         }
-        loadBanner();
-        loadTopGames();
+        loadScreenData();
         LOGGER.info("MainMenuController (Homepage) initialized.");
     }
 
-    private void loadBanner() {
-        // ... (keep existing implementation) ...
+    /** Fetches the banner and the top games concurrently; each part renders as soon as it arrives. */
+    private void loadScreenData() {
         bannerErrorLabel.setVisible(false);
         bannerErrorLabel.setManaged(false);
-        try {
-            Optional<HomepageBanner> bannerOpt = homepageService.getMainBanner();
-            if (bannerOpt.isPresent() && bannerOpt.get().getImageData() != null) {
-                Image bannerImage = ImageUtil.byteArrayToImage(bannerOpt.get().getImageData());
-                bannerImageView.setImage(bannerImage);
-                bannerImageView.setVisible(true);
-            } else {
-                LOGGER.info("No main banner found or banner has no image data.");
-                bannerImageView.setImage(null);
-                bannerImageView.setVisible(false);
-                bannerErrorLabel.setText(LocaleManager.getString("homepage.banner.missing"));
-                bannerErrorLabel.setVisible(true);
-                bannerErrorLabel.setManaged(true);
-            }
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Error loading banner image.", e);
+        topGamesGridPane.getChildren().clear();
+        ScreenLoader.open("homepage", LOAD_DEADLINE)
+                .fork("banner", homepageService::getMainBanner, this::showBanner, error -> showBannerError())
+                .fork("topGames", homepageService::getTopGames, this::showTopGames, error -> showTopGamesError())
+                .closeWhenDetached(rootPane);
+    }
+
+    private void showBanner(Optional<HomepageBanner> bannerOpt) {
+        if (bannerOpt.isPresent() && bannerOpt.get().getImageData() != null) {
+            asyncImageService.decode(bannerImageView, bannerOpt.get().getImageData(), 0, 0); // Decoded off the FX thread
+            bannerImageView.setVisible(true);
+        } else {
+            LOGGER.info("No main banner found or banner has no image data.");
             bannerImageView.setImage(null);
             bannerImageView.setVisible(false);
-            bannerErrorLabel.setText("Error loading banner.");
+            bannerErrorLabel.setText(LocaleManager.getString("homepage.banner.missing"));
             bannerErrorLabel.setVisible(true);
             bannerErrorLabel.setManaged(true);
         }
     }
 
-    /** Loads and displays the top games grid (updated for 4x4) */
-    private void loadTopGames() {
+    private void showBannerError() {
+        bannerImageView.setImage(null);
+        bannerImageView.setVisible(false);
+        bannerErrorLabel.setText("Error loading banner.");
+        bannerErrorLabel.setVisible(true);
+        bannerErrorLabel.setManaged(true);
+    }
+
+    /** Displays the top games grid (updated for 4x4) */
+    private void showTopGames(List<Game> topGames) {
         topGamesGridPane.getChildren().clear();
-        try {
-            // Service already fetches 16 games due to constant change
-            List<Game> topGames = homepageService.getTopGames();
-            if (topGames.isEmpty()) {
-                LOGGER.info("No top games found to display.");
-                Label noGamesMsg = new Label("No games available yet.");
-                noGamesMsg.getStyleClass().add("message-label");
-                // Adjust span for 4 columns
-                topGamesGridPane.add(noGamesMsg, 0, 0, 4, 1);
-                return;
-            }
+        // Service already fetches 16 games due to constant change
+        if (topGames.isEmpty()) {
+            LOGGER.info("No top games found to display.");
+            Label noGamesMsg = new Label("No games available yet.");
+            noGamesMsg.getStyleClass().add("message-label");
+            // Adjust span for 4 columns
+            topGamesGridPane.add(noGamesMsg, 0, 0, 4, 1);
+            return;
+        }
 
-            int col = 0;
-            int row = 0;
-            int columnsInGrid = topGamesGridPane.getColumnConstraints().size(); // Get actual column count
-            for (Game game : topGames) {
-                if (col >= columnsInGrid) { // Use actual column count
-                    col = 0;
-                    row++;
-                }
-                // Break if we exceed 4 rows (index 3)
-                if (row >= 4) break;
-
-                Node gameNode = createGameGridNode(game);
-                topGamesGridPane.add(gameNode, col, row);
-
-                // --- Center the node within the GridPane cell ---
-                GridPane.setHalignment(gameNode, HPos.CENTER);
-                GridPane.setValignment(gameNode, VPos.CENTER);
-                // ------------------------------------------------
-
-                col++;
+        // Covers are fetched with one query and decoded in the background; placeholders until then
+        Map<ImageView, AssetRef> coverViews = new HashMap<>();
+
+        int col = 0;
+        int row = 0;
+        int columnsInGrid = topGamesGridPane.getColumnConstraints().size(); // Get actual column count
+        for (Game game : topGames) {
+            if (col >= columnsInGrid) { // Use actual column count
+                col = 0;
+                row++;
             }
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Error loading top games.", e);
-            Label errorMsg = new Label("Error loading top games.");
-            errorMsg.getStyleClass().add("error-label");
-            // Adjust span for 4 columns
-            topGamesGridPane.add(errorMsg, 0, 0, 4, 1);
+            // Break if we exceed 4 rows (index 3)
+            if (row >= 4) break;
+
+            ImageView gameNode = createGameGridNode(game);
+            coverViews.put(gameNode, game.getCoverAsset());
+            topGamesGridPane.add(gameNode, col, row);
+
+            // --- Center the node within the GridPane cell ---
+            GridPane.setHalignment(gameNode, HPos.CENTER);
+            GridPane.setValignment(gameNode, VPos.CENTER);
+            // ------------------------------------------------
+
+            col++;
         }
+        asyncImageService.loadAll(coverViews, COVER_WIDTH, COVER_HEIGHT);
+    }
+
+    private void showTopGamesError() {
+        topGamesGridPane.getChildren().clear();
+        Label errorMsg = new Label("Error loading top games.");
+        errorMsg.getStyleClass().add("error-label");
+        // Adjust span for 4 columns
+        topGamesGridPane.add(errorMsg, 0, 0, 4, 1);
     }
 
     /** Creates a clickable ImageView for the game grid (larger) */
-    private Node createGameGridNode(Game game) {
+    private ImageView createGameGridNode(Game game) {
         ImageView coverImageView = new ImageView();
         // --- Increased Size ---
-        coverImageView.setFitHeight(124); // Larger image height
-        coverImageView.setFitWidth(220); // Larger image width (adjust ratio if needed)
+        coverImageView.setFitHeight(COVER_HEIGHT); // Larger image height
+        coverImageView.setFitWidth(COVER_WIDTH); // Larger image width (adjust ratio if needed)
         // ----------------------
         coverImageView.setPreserveRatio(false);
         coverImageView.getStyleClass().add("game-cover-image");
         coverImageView.setCursor(Cursor.HAND);
 
-        if (game.getCoverImageData() != null) {
-            try {
-                coverImageView.setImage(ImageUtil.byteArrayToImage(game.getCoverImageData()));
-            } catch (IOException e) {
-                LOGGER.log(Level.WARNING, "Failed to load cover image for game grid: " + game.getName(), e);
-                coverImageView.setImage(null);
-            }
-        } else {
+        if (game.getCoverAsset() == null) {
             LOGGER.warning("Missing cover image for game: " + game.getName());
-            coverImageView.setImage(null);
-            // Add placeholder text/graphic within the ImageView size if needed
         }
 
         // Add click handler directly to the ImageView
@@ -207,7 +215,6 @@ public class MainMenuController {
         if (game == null) return;
 
         String fxmlPath;
-        Object controllerInstance;
 
         switch (game.getGameType()) {
             case SLOT: fxmlPath = "/sk/vava/royalmate/view/slot-game-view.fxml"; break;
@@ -216,13 +223,24 @@ public class MainMenuController {
             default: LOGGER.severe("Unknown game type for navigation: " + game.getGameType()); return;
         }
 
-        // Fetch assets if needed (only Slots currently)
-        List<GameAsset> assets = Collections.emptyList();
-        if(game.getGameType() == GameType.SLOT) {
-            assets = gameService.getGameAssets(game.getId(), AssetType.SYMBOL);
-            if (assets.isEmpty()) { LOGGER.severe("Cannot load game " + game.getName() + ": No SYMBOL assets found."); new Alert(Alert.AlertType.ERROR, "Failed to load game assets.").showAndWait(); return; }
+        // Fetch assets only if needed (Slots), on a DB worker
+        if (game.getGameType() != GameType.SLOT) {
+            openGame(game, fxmlPath, Collections.emptyList());
+            return;
         }
+        DatabaseExecutor.getInstance().supplyOnFx(() -> gameService.getGameAssets(game.getId(), AssetType.SYMBOL))
+                .whenComplete((assets, error) -> {
+                    if (error != null || assets.isEmpty()) {
+                        LOGGER.log(Level.SEVERE, "Cannot load game " + game.getName() + ": No SYMBOL assets found.", error);
+                        new Alert(Alert.AlertType.ERROR, "Failed to load game assets.").showAndWait();
+                        return;
+                    }
+                    openGame(game, fxmlPath, assets);
+                });
+    }
 
+    private void openGame(Game game, String fxmlPath, List<GameAsset> assets) {
+        Object controllerInstance;
         try {
             Scene scene = rootPane.getScene(); if (scene == null) { LOGGER.severe("Cannot get scene."); return; }
             FXMLLoader loader = new FXMLLoader(Objects.requireNonNull(getClass().getResource(fxmlPath)), LocaleManager.getBundle());
@@ -59,6 +59,9 @@ public class NavbarController {
     @FXML private Hyperlink serverLink; // Inject server link
     @FXML private Label serverSeparator; // Inject separator
 
+    @FXML private HBox dbHealthBar;    // Failover endpoint or reconnect countdown
+    @FXML private Label dbHealthLabel;
+
     private ChangeListener<Account> sessionAccountListener;
 
     @FXML
@@ -80,6 +83,7 @@ public class NavbarController {
         checkWofEligibilityAndUpdateUI();
         addNavigationClickHandlers();
         setupAdminFeatures(); // Initial setup for admin features
+        new DatabaseHealthLabel(dbHealthLabel, dbHealthBar, "navbar.health");
 
         LOGGER.info("Navbar initialized and listener added for session changes.");
     }
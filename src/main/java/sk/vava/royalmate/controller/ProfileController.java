@@ -19,6 +19,8 @@ import javafx.scene.paint.Color;
 import sk.vava.royalmate.model.Account;
 import sk.vava.royalmate.model.UserStatistics;
 import sk.vava.royalmate.service.AuthService; // Using AuthService for now
+import sk.vava.royalmate.service.DatabaseExecutor;
+import sk.vava.royalmate.service.ScreenLoader;
 import sk.vava.royalmate.util.LocaleManager;
 import sk.vava.royalmate.util.SessionManager;
 
@@ -26,6 +28,7 @@ import java.io.IOException;
 import java.math.BigDecimal;
 import java.text.NumberFormat;
 import java.text.SimpleDateFormat;
+import java.time.Duration;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.Locale;
@@ -41,6 +44,7 @@ public class ProfileController {
     private static final Logger LOGGER = Logger.getLogger(ProfileController.class.getName());
     // Date formatter - adjust pattern as needed
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+    private static final Duration LOAD_DEADLINE = Duration.ofSeconds(5);
 
 
     // FXML Injections
@@ -97,7 +101,7 @@ public class ProfileController {
         setupTabs();
         loadProfileHeader();
         loadBalanceTab();
-        loadStatsTab();
+        loadScreenData();
 
         loadSettingsTab();
         LOGGER.info("ProfileController initialized for user: " + currentUser.getUsername());
@@ -180,51 +184,80 @@ public class ProfileController {
         withdrawAmountField.clear();
     }
 
-    // --- UPDATED loadStatsTab Method ---
+    /** Fetches the fresh account and the statistics concurrently; each part renders as soon as it arrives. */
+    private void loadScreenData() {
+        resetStatsLabels();
+        String username = currentUser.getUsername();
+        int userId = currentUser.getId();
+        ScreenLoader.open("profile", LOAD_DEADLINE)
+                .fork("account", () -> authService.reloadAccount(username), this::showAccount,
+                        error -> LOGGER.warning("Showing cached account data for " + username + "."))
+                .fork("stats", () -> authService.getUserStatistics(userId), this::showStats, error -> showStats(Optional.empty()))
+                .closeWhenDetached(rootPane);
+    }
+
+    private void showAccount(Optional<Account> accountOpt) {
+        accountOpt.ifPresent(account -> {
+            SessionManager.setCurrentAccount(account); // Navbar balance follows the session
+            currentUser = account;
+            loadProfileHeader();
+            loadBalanceTab();
+        });
+    }
+
     private void loadStatsTab() {
         if (currentUser == null) return; // Should not happen if initialized correctly
         LOGGER.fine("Loading statistics tab for user ID: " + currentUser.getId());
+        resetStatsLabels();
 
+        // Fetch stats on a DB worker; the labels are updated on the FX thread
+        int userId = currentUser.getId();
+        DatabaseExecutor.getInstance().supplyOnFx(() -> authService.getUserStatistics(userId)).whenComplete((result, error) -> {
+            if (error != null) {
+                LOGGER.log(Level.SEVERE, "Loading statistics failed for user ID: " + userId, error);
+            }
+            showStats(error == null ? result : Optional.empty());
+        });
+    }
+
+    private void resetStatsLabels() {
         // Reset labels to avoid showing old data during load
         totalSpinsValueLabel.setText("...");
         totalWageredValueLabel.setText("...");
         totalWinsValueLabel.setText("...");
         gamesPlayedValueLabel.setText("...");
+    }
 
-        // Fetch stats using the service (Consider background task if slow)
-        Optional<UserStatistics> statsOpt = authService.getUserStatistics(currentUser.getId());
-
-        Platform.runLater(() -> { // Ensure UI updates happen on the FX thread
-            if (statsOpt.isPresent()) {
-                UserStatistics stats = statsOpt.get();
-                LOGGER.fine("Statistics data received: " + stats);
+    private void showStats(Optional<UserStatistics> statsOpt) {
+        if (statsOpt.isPresent()) {
+            UserStatistics stats = statsOpt.get();
+            LOGGER.fine("Statistics data received: " + stats);
 
-                // Update value labels with fetched data
-                totalSpinsValueLabel.setText(String.valueOf(stats.getTotalSpins()));
+            // Update value labels with fetched data
+            totalSpinsValueLabel.setText(String.valueOf(stats.getTotalSpins()));
 
-                NumberFormat currencyFormatter = NumberFormat.getNumberInstance(LocaleManager.getCurrentLocale());
-                currencyFormatter.setMinimumFractionDigits(2);
-                currencyFormatter.setMaximumFractionDigits(2);
+            NumberFormat currencyFormatter = NumberFormat.getNumberInstance(LocaleManager.getCurrentLocale());
+            currencyFormatter.setMinimumFractionDigits(2);
+            currencyFormatter.setMaximumFractionDigits(2);
 
-                // Set Total Wagered Value
-                totalWageredValueLabel.setText(currencyFormatter.format(stats.getTotalWagered()) + " €");
+            // Set Total Wagered Value
+            totalWageredValueLabel.setText(currencyFormatter.format(stats.getTotalWagered()) + " €");
 
-                // Set Total Won Value
-                totalWinsValueLabel.setText(currencyFormatter.format(stats.getTotalWon()) + " €");
+            // Set Total Won Value
+            totalWinsValueLabel.setText(currencyFormatter.format(stats.getTotalWon()) + " €");
 
-                // Set Games Played Value
-                gamesPlayedValueLabel.setText(String.valueOf(stats.getDistinctGamesPlayed()));
+            // Set Games Played Value
+            gamesPlayedValueLabel.setText(String.valueOf(stats.getDistinctGamesPlayed()));
 
-            } else {
-                // Handle case where statistics couldn't be loaded
-                LOGGER.warning("Could not load statistics for user ID: " + currentUser.getId());
-                String errorMsg = "Error"; // Short error message
-                totalSpinsValueLabel.setText(errorMsg);
-                totalWageredValueLabel.setText(errorMsg);
-                totalWinsValueLabel.setText(errorMsg);
-                gamesPlayedValueLabel.setText(errorMsg);
-            }
-        });
+        } else {
+            // Handle case where statistics couldn't be loaded
+            LOGGER.warning("Could not load statistics for user ID: " + currentUser.getId());
+            String errorMsg = "Error"; // Short error message
+            totalSpinsValueLabel.setText(errorMsg);
+            totalWageredValueLabel.setText(errorMsg);
+            totalWinsValueLabel.setText(errorMsg);
+            gamesPlayedValueLabel.setText(errorMsg);
+        }
     }
 
     private void loadSettingsTab() {
@@ -248,8 +281,24 @@ public class ProfileController {
             if (amount.scale() > 2) {
                 throw new NumberFormatException("Too many decimal places.");
             }
-            boolean success = authService.withdrawFunds(currentUser.getId(), amount);
-            if (success) {
+        } catch (NumberFormatException e) {
+            LOGGER.warning("Invalid withdrawal amount format: " + amountText);
+            showBalanceMessage(LocaleManager.getString("profile.message.withdraw.invalidamount"), true);
+            withdrawAmountField.clear();
+            return;
+        }
+
+        withdrawButton.setDisable(true);
+        int userId = currentUser.getId();
+        DatabaseExecutor.getInstance().supplyOnFx(() -> authService.withdrawFunds(userId, amount)).whenComplete((success, error) -> {
+            withdrawButton.setDisable(false);
+            if (error instanceof IllegalArgumentException || error instanceof IllegalStateException) {
+                LOGGER.log(Level.WARNING, "Withdrawal failed: " + error.getMessage());
+                showBalanceMessage(error.getMessage(), true);
+            } else if (error != null) {
+                LOGGER.log(Level.SEVERE, "Unexpected error during withdrawal for user " + userId, error);
+                showBalanceMessage(LocaleManager.getString("profile.message.withdraw.error"), true);
+            } else if (success) {
                 showBalanceMessage(LocaleManager.getString("profile.message.withdraw.success"), false);
                 loadBalanceTab(); // Refresh balance display
                 // Refresh navbar balance too (requires communication or event bus ideally)
@@ -266,13 +315,7 @@ public class ProfileController {
                     showBalanceMessage(LocaleManager.getString("profile.message.withdraw.error"), true);
                 }
             }
-        } catch (NumberFormatException e) {
-            LOGGER.warning("Invalid withdrawal amount format: " + amountText);
-            showBalanceMessage(LocaleManager.getString("profile.message.withdraw.invalidamount"), true);
-        } catch (IllegalArgumentException | IllegalStateException e) {
-            LOGGER.log(Level.WARNING, "Withdrawal failed: " + e.getMessage());
-            showBalanceMessage(e.getMessage(), true);
-        }
+        });
         withdrawAmountField.clear();
     }
 
@@ -294,9 +337,19 @@ public class ProfileController {
             return;
         }
 
-        try {
-            boolean success = authService.changePassword(currentUser.getId(), oldPass, newPass);
-            if (success) {
+        // Password hashing and the DB update run on a DB worker
+        changePasswordButton.setDisable(true);
+        int userId = currentUser.getId();
+        DatabaseExecutor.getInstance().supplyOnFx(() -> authService.changePassword(userId, oldPass, newPass)).whenComplete((success, error) -> {
+            changePasswordButton.setDisable(false);
+            if (error instanceof IllegalArgumentException) {
+                // Should catch empty new password here too if service throws it
+                showPasswordMessage(error.getMessage(), true);
+            } else if (error != null) {
+                // Catch potential DB errors or other issues
+                LOGGER.log(Level.SEVERE, "Unexpected error changing password for user " + userId, error);
+                showPasswordMessage(LocaleManager.getString("profile.message.password.error"), true);
+            } else if (success) {
                 showPasswordMessage(LocaleManager.getString("profile.message.password.success"), false);
                 oldPasswordField.clear();
                 newPasswordField.clear();
@@ -305,14 +358,7 @@ public class ProfileController {
                 // Service returned false, likely incorrect old password
                 showPasswordMessage(LocaleManager.getString("profile.message.password.incorrectold"), true);
             }
-        } catch (IllegalArgumentException e) {
-            // Should catch empty new password here too if service throws it
-            showPasswordMessage(e.getMessage(), true);
-        } catch (Exception e) {
-            // Catch potential DB errors or other issues
-            LOGGER.log(Level.SEVERE, "Unexpected error changing password for user " + currentUser.getId(), e);
-            showPasswordMessage(LocaleManager.getString("profile.message.password.error"), true);
-        }
+        });
     }
 
     // --- Locale Handlers ---
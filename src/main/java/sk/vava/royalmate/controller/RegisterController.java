@@ -8,13 +8,12 @@ import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
-import sk.vava.royalmate.model.Account;
 import sk.vava.royalmate.service.AuthService;
+import sk.vava.royalmate.service.DatabaseExecutor;
 // Make sure this import points to YOUR LocaleManager
 import sk.vava.royalmate.util.LocaleManager;
 
 import java.io.IOException;
-import java.util.Optional;
 import java.util.ResourceBundle; // Keep for FXMLLoader type
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -74,31 +73,29 @@ public class RegisterController {
 
         createAccountButton.setDisable(true);
 
-        try {
-            Optional<Account> newAccountOpt = authService.register(email, username, password);
-
-            if (newAccountOpt.isPresent()) {
-                LOGGER.info("Registration successful for: " + username);
-                showMessage("register.success.accountCreated", false); // Use key
-                createAccountButton.setDisable(true);
-
-            } else {
-                LOGGER.warning("Registration failed for: " + username + " or " + email + " (likely duplicate)");
-                showMessage("register.error.duplicateUserOrEmail", true); // Use key
-                createAccountButton.setDisable(false);
-            }
-
-        } catch (IllegalArgumentException e) {
-            LOGGER.log(Level.WARNING, "Registration validation error: " + e.getMessage());
-            // Show service message directly, assuming it's user-friendly
-            // OR map specific exception messages to keys if possible/needed
-            showMessageDirect(e.getMessage(), true);
-            createAccountButton.setDisable(false);
-        } catch (RuntimeException e) {
-            LOGGER.log(Level.SEVERE, "Registration failed due to runtime exception.", e);
-            showMessage("error.unexpected", true); // Use key
-            createAccountButton.setDisable(false);
-        }
+        // Hashing and the inserts run on a DB worker; the button stays disabled until they finish
+        DatabaseExecutor.getInstance().supplyOnFx(() -> authService.register(email, username, password))
+                .whenComplete((newAccountOpt, error) -> {
+                    if (error instanceof IllegalArgumentException e) {
+                        LOGGER.log(Level.WARNING, "Registration validation error: " + e.getMessage());
+                        // Show service message directly, assuming it's user-friendly
+                        // OR map specific exception messages to keys if possible/needed
+                        showMessageDirect(e.getMessage(), true);
+                        createAccountButton.setDisable(false);
+                    } else if (error != null) {
+                        LOGGER.log(Level.SEVERE, "Registration failed due to runtime exception.", error);
+                        showMessage("error.unexpected", true); // Use key
+                        createAccountButton.setDisable(false);
+                    } else if (newAccountOpt.isPresent()) {
+                        LOGGER.info("Registration successful for: " + username);
+                        showMessage("register.success.accountCreated", false); // Use key
+                        // Stays disabled: the account exists
+                    } else {
+                        LOGGER.warning("Registration failed for: " + username + " or " + email + " (likely duplicate)");
+                        showMessage("register.error.duplicateUserOrEmail", true); // Use key
+                        createAccountButton.setDisable(false);
+                    }
+                });
     }
 
 
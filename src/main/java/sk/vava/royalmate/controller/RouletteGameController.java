@@ -32,6 +32,7 @@ import javafx.util.Duration;
 import sk.vava.royalmate.model.Account;
 import sk.vava.royalmate.model.Game;
 import sk.vava.royalmate.model.Gameplay;
+import sk.vava.royalmate.service.DatabaseExecutor;
 import sk.vava.royalmate.service.GameService;
 import sk.vava.royalmate.util.LocaleManager;
 import sk.vava.royalmate.util.SessionManager;
@@ -343,7 +344,7 @@ public class RouletteGameController {
             LOGGER.log(Level.SEVERE, "Placing bet task failed.", placeBetTask.getException());
             finishSpin(false, "slot.error.betfailed");
         });
-        new Thread(placeBetTask).start();
+        DatabaseExecutor.getInstance().execute(placeBetTask);
     }
 
     /** Starts the flashing result animation */
@@ -537,7 +538,7 @@ public class RouletteGameController {
             showWinLossMessage(LocaleManager.getString("slot.error.resultfailed"), true, true); // Generic error with effect
             finishSpin(true, null); // Still finish spin, but log error
         });
-        new Thread(recordTask).start();
+        DatabaseExecutor.getInstance().execute(recordTask);
     }
 
 
@@ -636,7 +637,7 @@ public class RouletteGameController {
             });
         });
         loadTask.setOnFailed(e -> LOGGER.log(Level.SEVERE, "Failed to load recent wins leaderboard.", loadTask.getException()));
-        new Thread(loadTask).start();
+        DatabaseExecutor.getInstance().execute(loadTask);
     }
 
     private Node createLeaderboardCard(Gameplay win) {
@@ -27,8 +27,10 @@ import sk.vava.royalmate.model.Account;
 import sk.vava.royalmate.model.Game;
 import sk.vava.royalmate.model.GameAsset;
 import sk.vava.royalmate.model.Gameplay;
+import sk.vava.royalmate.service.DatabaseExecutor;
 import sk.vava.royalmate.service.GameService;
-import sk.vava.royalmate.util.ImageUtil;
+import sk.vava.royalmate.service.SymbolAtlas;
+import sk.vava.royalmate.service.SymbolAtlasService;
 import sk.vava.royalmate.util.LocaleManager;
 import sk.vava.royalmate.util.SessionManager;
 
@@ -99,6 +101,7 @@ public class SlotGameController {
     private final GameService gameService;
     private Game currentGame;
     private List<GameAsset> symbolAssets; // Sorted by ID (rarity)
+    private SymbolAtlas symbolAtlas; // All symbols in one texture, cells switch viewports
     private final ImageView[][] symbolImageViews = new ImageView[GRID_SIZE][GRID_SIZE];
     private final Rectangle[][] symbolBackgrounds = new Rectangle[GRID_SIZE][GRID_SIZE];
     private final List<Position> winningLineCoords = new ArrayList<>(); // Stores coords of currently highlighted cells
@@ -129,7 +132,24 @@ public class SlotGameController {
             LOGGER.warning("Payout multiplier map size ("+PAYOUT_MULTIPLIERS.size()+") is less than number of symbols ("+this.symbolAssets.size()+"). Some symbols may have 0 payout.");
         }
 
-        Platform.runLater(this::populateUI);
+        // Pack/decode the symbol atlas off the FX thread, then build the UI
+        List<GameAsset> symbolsForAtlas = List.copyOf(this.symbolAssets);
+        Task<SymbolAtlas> atlasTask = new Task<>() {
+            @Override protected SymbolAtlas call() throws Exception {
+                return SymbolAtlasService.getInstance().getAtlas(symbolsForAtlas);
+            }
+        };
+        atlasTask.setOnSucceeded(e -> {
+            symbolAtlas = atlasTask.getValue();
+            populateUI();
+        });
+        atlasTask.setOnFailed(e -> {
+            LOGGER.log(Level.SEVERE, "Failed to build symbol atlas.", atlasTask.getException());
+            handleInitializationError("Symbol images could not be loaded.");
+        });
+        Thread atlasThread = new Thread(atlasTask, "slot-atlas-loader");
+        atlasThread.setDaemon(true);
+        atlasThread.start();
     }
 
     @FXML
@@ -145,7 +165,7 @@ public class SlotGameController {
 
     /** Populates UI elements once game data is available */
     private void populateUI() {
-        if (currentGame == null || symbolAssets == null) return;
+        if (currentGame == null || symbolAssets == null || symbolAtlas == null) return;
 
         gameTitleLabel.setText(currentGame.getName());
         descriptionLabel.setText(currentGame.getDescription());
@@ -218,23 +238,22 @@ public class SlotGameController {
         }
     }
 
-    /** Sets the initial (or placeholder) images in the grid */
+    /** Attaches the shared atlas to every cell and shows the first symbol */
     private void setInitialGridImages() {
-        Image initialImage = null;
-        if (!symbolAssets.isEmpty() && symbolAssets.get(0).getImageData() != null) {
-            try {
-                initialImage = ImageUtil.byteArrayToImage(symbolAssets.get(0).getImageData());
-            } catch (IOException e) { LOGGER.warning("Failed to load initial symbol image."); }
-        }
-
         for (int row = 0; row < GRID_SIZE; row++) {
             for (int col = 0; col < GRID_SIZE; col++) {
-                symbolImageViews[row][col].setImage(initialImage);
+                symbolImageViews[row][col].setImage(symbolAtlas.getImage()); // Same texture for all cells
+                showSymbol(row, col, symbolAssets.get(0));
                 resetCellHighlight(row, col);
             }
         }
     }
 
+    /** Shows a symbol in a cell by moving the cell's viewport within the atlas */
+    private void showSymbol(int row, int col, GameAsset symbol) {
+        symbolImageViews[row][col].setViewport(symbolAtlas.getViewport(symbol.getId()));
+    }
+
     /** Configures stake buttons and initial stake display */
     private void setupStakeControls() {
         availableStakes = BASE_ALLOWED_STAKES.stream()
@@ -364,7 +383,7 @@ public class SlotGameController {
             finishSpin(false);
         });
 
-        new Thread(placeBetTask).start();
+        DatabaseExecutor.getInstance().execute(placeBetTask);
     }
 
     /** Starts the visual spinning animation */
@@ -398,9 +417,7 @@ public class SlotGameController {
     private void displayRandomSymbol(int row, int col) {
         if (symbolAssets == null || symbolAssets.isEmpty()) return;
         GameAsset randomSymbol = symbolAssets.get(random.nextInt(symbolAssets.size()));
-        try {
-            symbolImageViews[row][col].setImage(ImageUtil.byteArrayToImage(randomSymbol.getImageData()));
-        } catch (Exception e) { /* Ignore error during fast flashing */ }
+        showSymbol(row, col, randomSymbol);
     }
 
     /** Generates the final 3x3 grid based on weighted randomness including volatility */
@@ -481,12 +498,7 @@ public class SlotGameController {
     private void displayFinalGrid(GameAsset[][] finalGrid) {
         for (int r = 0; r < GRID_SIZE; r++) {
             for (int c = 0; c < GRID_SIZE; c++) {
-                try {
-                    symbolImageViews[r][c].setImage(ImageUtil.byteArrayToImage(finalGrid[r][c].getImageData()));
-                } catch (Exception e) {
-                    LOGGER.log(Level.WARNING, "Failed to display final symbol at " + r + "," + c, e);
-                    symbolImageViews[r][c].setImage(null);
-                }
+                showSymbol(r, c, finalGrid[r][c]);
             }
         }
     }
@@ -567,7 +579,7 @@ public class SlotGameController {
             showWinLossMessage(LocaleManager.getString("slot.error.resultfailed"), true, true);
             finishSpin(true);
         });
-        new Thread(recordTask).start();
+        DatabaseExecutor.getInstance().execute(recordTask);
     }
 
     /** Finds the index of a symbol in the sorted symbolAssets list */
@@ -730,7 +742,7 @@ public class SlotGameController {
             });
         });
         loadTask.setOnFailed(e -> LOGGER.log(Level.SEVERE, "Failed to load recent wins leaderboard.", loadTask.getException()));
-        new Thread(loadTask).start();
+        DatabaseExecutor.getInstance().execute(loadTask);
     }
 
     /** Creates a styled HBox card for a leaderboard entry */
@@ -1,7 +1,5 @@
 package sk.vava.royalmate.controller;
 
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
 import javafx.application.Platform;
 import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
@@ -19,7 +17,7 @@ import javafx.scene.layout.StackPane; // Import StackPane for root element acces
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
-import javafx.util.Duration;
+import sk.vava.royalmate.data.DatabaseHealth;
 import sk.vava.royalmate.data.DatabaseManager;
 import sk.vava.royalmate.util.LocaleManager; // Import LocaleManager
 
@@ -27,6 +25,7 @@ import java.io.IOException; // Need for reload
 import java.util.Locale;
 import java.util.Objects; // Need for reload null check
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -38,7 +37,6 @@ public class SplashController {
     private static final String SECONDARY_BUTTON_COLOR = "#FDEED2";
     private static final String TEXT_COLOR_DARK = "black";
     private static final String TEXT_COLOR_ACCENT = PRIMARY_BUTTON_COLOR;
-    private static final Duration POLLING_INTERVAL = Duration.seconds(15);
 
     @FXML private StackPane rootPane; // Inject the root pane
     @FXML private ImageView backgroundImageView;
@@ -47,9 +45,11 @@ public class SplashController {
     @FXML private Button enButton; // Inject language buttons
     @FXML private Button skButton;
 
-    private Timeline connectionCheckTimeline;
     private final AtomicBoolean isCheckingConnection = new AtomicBoolean(false);
     private boolean currentlyConnected = false;
+    private Label healthDetailLabel; // Failover endpoint or reconnect countdown under the status, see DatabaseHealthLabel
+    // Health pushed by DatabaseManager (its reconnect probe retries with backoff), instead of polling with new connections
+    private final Consumer<DatabaseHealth> healthListener = health -> Platform.runLater(() -> showHealth(health));
 
     @FXML
     public void initialize() {
@@ -57,16 +57,18 @@ public class SplashController {
         statusContainer.getChildren().clear();
         // Use LocaleManager for initial text
         Label initialLabel = createStyledLabel(LocaleManager.getString("splash.connecting"), Color.WHITE, 16);
-        statusContainer.getChildren().add(initialLabel);
+        healthDetailLabel = createStyledLabel("", Color.WHITE, 12);
+        new DatabaseHealthLabel(healthDetailLabel, healthDetailLabel, "splash.health");
+        statusContainer.getChildren().addAll(initialLabel, healthDetailLabel);
 
         // Update button text based on current locale (they are static in FXML for now, but could be set here)
         // enButton.setText(LocaleManager.getString("button.en"));
         // skButton.setText(LocaleManager.getString("button.sk"));
         updateLocaleButtonStyles(); // Highlight current language button
 
-        // Start connection check and polling
+        // Initial connection check, then follow the health published by DatabaseManager
         checkConnection(true);
-        setupPeriodicConnectionCheck();
+        DatabaseManager.addHealthListener(healthListener);
     }
 
     // --- Locale Change Handlers ---
@@ -151,6 +153,12 @@ public class SplashController {
         new Thread(connectionTask) {{ setDaemon(true); start(); }};
     }
 
+    /** Shows health changes; UNKNOWN is left to the initial check. The detail text is kept by DatabaseHealthLabel. */
+    private void showHealth(DatabaseHealth health) {
+        if (health.getStatus() == DatabaseHealth.Status.UNKNOWN) return;
+        updateUIBasedOnConnection(health.isAvailable(), false);
+    }
+
     // --- Update UI (Use LocaleManager for text) ---
     private void updateUIBasedOnConnection(boolean connected, boolean isInitialCheck) {
         if (connected != currentlyConnected || isInitialCheck) {
@@ -173,6 +181,7 @@ public class SplashController {
                     Label errorLabel = createStyledLabel(LocaleManager.getString("splash.required.internet"), Color.web(TEXT_COLOR_ACCENT), 18);
                     statusContainer.getChildren().add(errorLabel);
                 }
+                statusContainer.getChildren().add(healthDetailLabel);
             });
         } else {
             LOGGER.finer("Connection status unchanged. UI update skipped.");
@@ -236,10 +245,8 @@ public class SplashController {
 
     // --- Utility Methods ---
     public void stopPolling() {
-        if (connectionCheckTimeline != null) {
-            connectionCheckTimeline.stop();
-            LOGGER.info("Periodic connection check stopped.");
-        }
+        DatabaseManager.removeHealthListener(healthListener);
+        LOGGER.fine("Stopped following database health.");
     }
 
     // Optional: Style the active language button
@@ -258,16 +265,4 @@ public class SplashController {
             button.setDisable(false);
         }
     }
-
-    private void setupPeriodicConnectionCheck() {
-        connectionCheckTimeline = new Timeline(new KeyFrame(POLLING_INTERVAL, event -> checkConnection(false)));
-        connectionCheckTimeline.setCycleCount(Timeline.INDEFINITE);
-        Timeline startPollingDelay = new Timeline(new KeyFrame(Duration.seconds(2), e -> {
-            if(connectionCheckTimeline != null && connectionCheckTimeline.getStatus() != Timeline.Status.RUNNING){
-                connectionCheckTimeline.play();
-                LOGGER.info("Periodic connection check started (every " + POLLING_INTERVAL.toSeconds() + "s).");
-            }
-        }));
-        startPollingDelay.play();
-    }
 }
\ No newline at end of file
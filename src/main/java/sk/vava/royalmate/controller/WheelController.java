@@ -17,6 +17,7 @@ import javafx.scene.layout.StackPane;
 import javafx.scene.paint.Color;
 import javafx.util.Duration;
 import sk.vava.royalmate.model.Account;
+import sk.vava.royalmate.service.DatabaseExecutor;
 import sk.vava.royalmate.service.WheelService;
 import sk.vava.royalmate.util.LocaleManager;
 import sk.vava.royalmate.util.SessionManager;
@@ -175,7 +176,7 @@ public class WheelController {
             // Keep button disabled until navigation
         });
 
-        new Thread(spinTask).start();
+        DatabaseExecutor.getInstance().execute(spinTask);
     }
 
 
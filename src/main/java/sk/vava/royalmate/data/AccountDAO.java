@@ -4,7 +4,9 @@ import sk.vava.royalmate.model.Account;
 
 import java.math.BigDecimal;
 import java.sql.*;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -14,6 +16,15 @@ import java.util.List; // Import List
 public class AccountDAO {
 
     private static final Logger LOGGER = Logger.getLogger(AccountDAO.class.getName());
+    private static final int CACHE_MAX_ENTRIES = 1024;
+    private static final long CACHE_TTL_SECONDS = 30;
+    private static final long CACHE_NEGATIVE_TTL_SECONDS = 5;
+
+    // Shared by all AccountDAO instances; entries are invalidated by the writes below
+    private static final EntityCache<String, Account> BY_USERNAME = new EntityCache<>("accounts.byUsername",
+            CACHE_MAX_ENTRIES, CACHE_TTL_SECONDS, CACHE_NEGATIVE_TTL_SECONDS, TimeUnit.SECONDS, a -> a.toBuilder().build());
+    private static final EntityCache<String, Account> BY_EMAIL = new EntityCache<>("accounts.byEmail",
+            CACHE_MAX_ENTRIES, CACHE_TTL_SECONDS, CACHE_NEGATIVE_TTL_SECONDS, TimeUnit.SECONDS, a -> a.toBuilder().build());
 
     // SQL Queries (using constants is good practice)
     private static final String FIND_BY_USERNAME_SQL = "SELECT * FROM accounts WHERE username = ?";
@@ -23,34 +34,27 @@ public class AccountDAO {
     private static final String UPDATE_LAST_WOF_SPIN_SQL = "UPDATE accounts SET last_wof_spin_at = CURRENT_TIMESTAMP WHERE id = ?"; // <-- NEW SQL
     private static final String UPDATE_BALANCE_SQL = "UPDATE accounts SET balance = balance + ? WHERE id = ?"; // <-- NEW SQL
     private static final String UPDATE_PASSWORD_HASH_SQL = "UPDATE accounts SET password_hash = ? WHERE id = ?"; // <-- NEW SQL
-    private static final String FIND_ALL_SQL = "SELECT * FROM accounts ORDER BY username ASC"; // <-- NEW SQL
+    // Admin player list: only the listed columns, keyset-paginated on (username, id)
+    private static final String PLAYER_PAGE_SELECT = "SELECT id, username, email, balance, is_admin FROM accounts";
+    private static final String PREFIX_FILTER = "(username LIKE ? ESCAPE '!' OR email LIKE ? ESCAPE '!')";
+    private static final String AFTER_CURSOR_ASC = "(username > ? OR (username = ? AND id > ?))";
+    private static final String AFTER_CURSOR_DESC = "(username < ? OR (username = ? AND id < ?))";
+    private static final String FIND_ALL_USERNAMES_SQL = "SELECT username FROM accounts";
     private static final String UPDATE_ADMIN_STATUS_SQL = "UPDATE accounts SET is_admin = ? WHERE id = ?"; // <-- NEW SQL
     private static final String DELETE_ACCOUNT_SQL = "DELETE FROM accounts WHERE id = ?"; // <-- NEW SQL
 
     /**
-     * Finds an account by its username.
+     * Finds an account by its username. Served from a short-lived cache shared by all AccountDAOs;
+     * use {@link #findByUsernameFresh(String)} where the balance or password hash must be current.
      *
      * @param username The username to search for.
      * @return An Optional containing the Account if found, otherwise empty.
      */
     public Optional<Account> findByUsername(String username) {
         LOGGER.fine("Attempting to find account by username: " + username);
-        // Use try-with-resources for Connection and PreparedStatement
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(FIND_BY_USERNAME_SQL)) {
-
-            pstmt.setString(1, username);
-
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    Account account = mapResultSetToAccount(rs);
-                    LOGGER.fine("Account found for username: " + username);
-                    return Optional.of(account);
-                } else {
-                    LOGGER.fine("No account found for username: " + username);
-                    return Optional.empty();
-                }
-            }
+        if (username == null) return Optional.empty();
+        try {
+            return BY_USERNAME.get(cacheKey(username), key -> queryOne(FIND_BY_USERNAME_SQL, username));
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error finding account by username: " + username, e);
             return Optional.empty(); // Return empty on error
@@ -58,34 +62,69 @@ public class AccountDAO {
     }
 
     /**
-     * Finds an account by its email address.
+     * Finds an account by its username, always reading the database (and refreshing the cache).
+     *
+     * @param username The username to search for.
+     * @return An Optional containing the Account if found, otherwise empty.
+     */
+    public Optional<Account> findByUsernameFresh(String username) {
+        LOGGER.fine("Reading account by username from DB: " + username);
+        if (username == null) return Optional.empty();
+        try {
+            Optional<Account> account = queryOne(FIND_BY_USERNAME_SQL, username);
+            account.ifPresentOrElse(a -> BY_USERNAME.put(cacheKey(a.getUsername()), a),
+                    () -> BY_USERNAME.invalidate(cacheKey(username)));
+            return account;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error finding account by username: " + username, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Finds an account by its email address (cached like {@link #findByUsername(String)}).
      *
      * @param email The email to search for.
      * @return An Optional containing the Account if found, otherwise empty.
      */
     public Optional<Account> findByEmail(String email) {
         LOGGER.fine("Attempting to find account by email: " + email);
+        if (email == null) return Optional.empty();
+        try {
+            return BY_EMAIL.get(cacheKey(email), key -> queryOne(FIND_BY_EMAIL_SQL, email));
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error finding account by email: " + email, e);
+            return Optional.empty();
+        }
+    }
+
+    /** @return Counters of the account caches (by username, by email). */
+    public static List<EntityCache.Stats> cacheStats() {
+        return List.of(BY_USERNAME.stats(), BY_EMAIL.stats());
+    }
+
+    private Optional<Account> queryOne(String sql, String value) throws SQLException {
         try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(FIND_BY_EMAIL_SQL)) {
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            pstmt.setString(1, email);
+            pstmt.setString(1, value);
 
             try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    Account account = mapResultSetToAccount(rs);
-                    LOGGER.fine("Account found for email: " + email);
-                    return Optional.of(account);
-                } else {
-                    LOGGER.fine("No account found for email: " + email);
-                    return Optional.empty();
-                }
+                return rs.next() ? Optional.of(mapResultSetToAccount(rs)) : Optional.empty();
             }
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Error finding account by email: " + email, e);
-            return Optional.empty();
         }
     }
 
+    /** Usernames and emails compare case-insensitively in the DB, so cache keys do too. */
+    private static String cacheKey(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    /** Drops cached copies of an account after a write through this DAO. */
+    private static void invalidate(int accountId) {
+        BY_USERNAME.invalidateIf(account -> account.getId() == accountId);
+        BY_EMAIL.invalidateIf(account -> account.getId() == accountId);
+    }
 
     /**
      * Saves a new account to the database.
@@ -114,6 +153,11 @@ public class AccountDAO {
             pstmt.setTimestamp(7, new Timestamp(System.currentTimeMillis())); // Set creation time
 
             int affectedRows = pstmt.executeUpdate();
+            // Drop cached "not found" results for the new name and email
+            BY_USERNAME.invalidate(cacheKey(account.getUsername()));
+            if (account.getEmail() != null) {
+                BY_EMAIL.invalidate(cacheKey(account.getEmail()));
+            }
 
             if (affectedRows > 0) {
                 LOGGER.info("Successfully saved new account for username: " + account.getUsername());
@@ -148,6 +192,7 @@ public class AccountDAO {
 
             pstmt.setInt(1, accountId);
             int affectedRows = pstmt.executeUpdate();
+            invalidate(accountId);
 
             if (affectedRows > 0) {
                 LOGGER.fine("Successfully updated last login time for account ID: " + accountId);
@@ -177,6 +222,7 @@ public class AccountDAO {
 
             pstmt.setInt(1, accountId);
             int affectedRows = pstmt.executeUpdate();
+            invalidate(accountId);
 
             if (affectedRows > 0) {
                 LOGGER.fine("Successfully updated last WoF spin time for account ID: " + accountId);
@@ -216,6 +262,7 @@ public class AccountDAO {
             pstmt.setInt(2, accountId);
 
             int affectedRows = pstmt.executeUpdate();
+            invalidate(accountId);
 
             if (affectedRows > 0) {
                 LOGGER.fine("Successfully updated balance for account ID: " + accountId);
@@ -253,6 +300,7 @@ public class AccountDAO {
             pstmt.setInt(2, accountId);
 
             int affectedRows = pstmt.executeUpdate();
+            invalidate(accountId);
 
             if (affectedRows > 0) {
                 LOGGER.info("Successfully updated password hash for account ID: " + accountId);
@@ -271,27 +319,87 @@ public class AccountDAO {
     // --- NEW METHODS ---
 
     /**
-     * Retrieves all accounts from the database, ordered by username.
+     * Reads one page of the admin player list, sorted by username (then id).
      *
-     * @return A List of Account objects. Returns an empty list on error.
+     * @param prefix     Case-insensitive prefix of the username or email; null or blank for all players.
+     * @param descending true for Z to A.
+     * @param after      Cursor of the previous page, or null for the first page.
+     * @param pageSize   Maximum number of players on the page.
+     * @return The page; an empty last page on error.
      */
-    public List<Account> findAll() {
-        LOGGER.fine("Attempting to find all accounts.");
-        List<Account> accounts = new ArrayList<>();
+    public PlayerPage findPlayerPage(String prefix, boolean descending, PlayerPage.Cursor after, int pageSize) {
+        LOGGER.fine("Finding player page, prefix='" + prefix + "', descending=" + descending + ", after=" + after);
+        boolean filtered = prefix != null && !prefix.isBlank();
+        List<String> conditions = new ArrayList<>(2);
+        if (filtered) conditions.add(PREFIX_FILTER);
+        if (after != null) conditions.add(descending ? AFTER_CURSOR_DESC : AFTER_CURSOR_ASC);
+        String order = descending ? " ORDER BY username DESC, id DESC" : " ORDER BY username ASC, id ASC";
+        String sql = PLAYER_PAGE_SELECT + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions))
+                + order + " LIMIT ?";
+
         try (Connection conn = DatabaseManager.getConnection();
-             Statement stmt = conn.createStatement(); // Simple query, Statement is fine
-             ResultSet rs = stmt.executeQuery(FIND_ALL_SQL)) {
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            while (rs.next()) {
-                accounts.add(mapResultSetToAccount(rs));
+            int param = 1;
+            if (filtered) {
+                String pattern = escapeLike(prefix.trim()) + "%";
+                pstmt.setString(param++, pattern);
+                pstmt.setString(param++, pattern);
+            }
+            if (after != null) {
+                pstmt.setString(param++, after.username());
+                pstmt.setString(param++, after.username());
+                pstmt.setInt(param++, after.id());
+            }
+            pstmt.setInt(param, pageSize + 1); // One extra row tells whether another page follows
+
+            List<Account> players = new ArrayList<>(pageSize);
+            boolean hasMore = false;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    if (players.size() == pageSize) {
+                        hasMore = true;
+                        break;
+                    }
+                    players.add(Account.builder()
+                            .id(rs.getInt(1))
+                            .username(rs.getString(2))
+                            .email(rs.getString(3))
+                            .balance(rs.getBigDecimal(4))
+                            .isAdmin(rs.getBoolean(5))
+                            .build());
+                }
             }
-            LOGGER.fine("Found " + accounts.size() + " accounts.");
+            Account last = hasMore ? players.get(players.size() - 1) : null;
+            return new PlayerPage(players, last != null ? new PlayerPage.Cursor(last.getUsername(), last.getId()) : null);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error finding player page, prefix='" + prefix + "'", e);
+            return new PlayerPage(List.of(), null);
+        }
+    }
 
+    /**
+     * Retrieves every username, e.g. to build a type-ahead index.
+     *
+     * @return The usernames, unordered. Returns an empty list on error.
+     */
+    public List<String> findAllUsernames() {
+        List<String> usernames = new ArrayList<>();
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(FIND_ALL_USERNAMES_SQL)) {
+
+            while (rs.next()) {
+                usernames.add(rs.getString(1));
+            }
         } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Error finding all accounts", e);
-            // Return empty list on error, don't throw exception up usually for find operations
+            LOGGER.log(Level.SEVERE, "Error finding all usernames", e);
         }
-        return accounts;
+        return usernames;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
     }
 
     /**
@@ -310,6 +418,7 @@ public class AccountDAO {
             pstmt.setInt(2, accountId);
 
             int affectedRows = pstmt.executeUpdate();
+            invalidate(accountId);
 
             if (affectedRows > 0) {
                 LOGGER.info("Successfully updated admin status for account ID: " + accountId);
@@ -339,6 +448,7 @@ public class AccountDAO {
 
             pstmt.setInt(1, accountId);
             int affectedRows = pstmt.executeUpdate();
+            invalidate(accountId);
 
             if (affectedRows > 0) {
                 LOGGER.info("Successfully deleted account ID: " + accountId);
@@ -0,0 +1,550 @@
+package sk.vava.royalmate.data;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Client-side cache of encoded asset images that survives restarts, keyed by content hash (plus rendition).
+ * Image bytes are appended to a pack file that is read through memory mappings of fixed-size segments;
+ * an index log records which region and SHA-256 digest belongs to each key.
+ * Entries are verified against their digest on first read, and the least recently used ones are evicted
+ * once the cache exceeds its size cap. While running, new entries and evictions are only appended to the
+ * index log; on close the index is rewritten in least-recently-used order and dead space left by evictions
+ * is reclaimed by rewriting the pack into a new generation file. The same compaction runs in the background
+ * once the pack grows past twice the cap, so a long session does not grow the pack without bound.
+ * <p>
+ * One process owns the directory through a lock file. Another instance (e.g. a second client started by
+ * the same user) opens the cache read-only: it serves what was cached when it started and adds nothing.
+ * <p>
+ * Location and cap can be changed with the {@value #CACHE_DIR_PROPERTY} and {@value #CACHE_MAX_BYTES_PROPERTY}
+ * system properties. All methods are thread-safe.
+ */
+public class AssetDiskCache {
+
+    private static final Logger LOGGER = Logger.getLogger(AssetDiskCache.class.getName());
+    public static final String CACHE_DIR_PROPERTY = "royalmate.cache.dir";
+    public static final String CACHE_MAX_BYTES_PROPERTY = "royalmate.cache.maxBytes";
+    private static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+    private static final long MIN_COMPACT_BYTES = 8L * 1024 * 1024;
+    private static final int SEGMENT_SIZE = 64 * 1024 * 1024; // Entries never span segments, so each maps on its own
+
+    private static final int INDEX_MAGIC = 0x524D4958; // "RMIX"
+    private static final int INDEX_VERSION = 2;
+    private static final byte RECORD_PUT = 1;
+    private static final byte RECORD_REMOVE = 2;
+    private static final ExecutorService COMPACTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "asset-cache-compact");
+        t.setDaemon(true);
+        return t;
+    });
+    private static final String INDEX_FILE = "assets.idx";
+    private static final String LOCK_FILE = "cache.lock";
+    private static final String PACK_PREFIX = "assets-";
+    private static final String PACK_SUFFIX = ".pack";
+    private static final int DIGEST_LENGTH = 32;
+
+    private static final class Entry {
+        final long offset;
+        final int length;
+        final byte[] digest;
+        boolean verified; // Digest checked during this run
+
+        Entry(long offset, int length, byte[] digest) {
+            this.offset = offset;
+            this.length = length;
+            this.digest = digest;
+        }
+    }
+
+    private final Path dir;
+    private final long maxBytes;
+    private final LinkedHashMap<String, Entry> index = new LinkedHashMap<>(256, 0.75f, true); // Eldest first
+    private final Map<Long, MappedByteBuffer> segments = new HashMap<>();
+    private final ByteArrayOutputStream pendingRecords = new ByteArrayOutputStream();
+    private final DataOutputStream journal = new DataOutputStream(pendingRecords);
+    private FileChannel lockChannel;
+    private FileLock lock; // Null when opened read-only
+    private FileChannel indexLog; // Append-only, null when read-only
+    private long generation;
+    private FileChannel pack;
+    private long packEnd;
+    private long liveBytes;
+    private boolean compactionQueued;
+    private long compactAfter; // Pack size that triggers the next background compaction after a failed one
+
+    private AssetDiskCache(Path dir, long maxBytes) {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+    }
+
+    private static final class SharedHolder {
+        static final AssetDiskCache SHARED = openDefault();
+    }
+
+    /**
+     * Gets the cache in the configured (or default per-user) location, opened once per run
+     * and flushed on JVM exit. Every user of the cache must share this instance.
+     * @return The cache, or null if it could not be opened (images are then always fetched from the DB).
+     */
+    public static AssetDiskCache getShared() {
+        return SharedHolder.SHARED;
+    }
+
+    private static AssetDiskCache openDefault() {
+        String dirProperty = System.getProperty(CACHE_DIR_PROPERTY);
+        Path cacheDir = dirProperty != null && !dirProperty.isBlank()
+                ? Paths.get(dirProperty.trim())
+                : Paths.get(System.getProperty("user.home"), ".royalmate", "cache");
+        long cap = Long.getLong(CACHE_MAX_BYTES_PROPERTY, DEFAULT_MAX_BYTES);
+        try {
+            AssetDiskCache cache = open(cacheDir, cap);
+            Runtime.getRuntime().addShutdownHook(new Thread(cache::close, "asset-cache-flush"));
+            return cache;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Asset disk cache unavailable at " + cacheDir + ", continuing without it.", e);
+            return null;
+        }
+    }
+
+    /**
+     * Opens (or creates) a cache directory. If another process holds the directory's lock,
+     * the cache is opened read-only.
+     *
+     * @param dir      The cache directory.
+     * @param maxBytes Size cap for cached content.
+     * @return The opened cache.
+     * @throws IOException if the directory or pack file cannot be used.
+     */
+    public static AssetDiskCache open(Path dir, long maxBytes) throws IOException {
+        AssetDiskCache cache = new AssetDiskCache(dir, maxBytes);
+        Files.createDirectories(dir);
+        cache.acquireLock();
+        try {
+            cache.load();
+        } catch (IOException | RuntimeException e) {
+            cache.closeIndexLog();
+            cache.closePack();
+            cache.releaseLock();
+            throw e;
+        }
+        return cache;
+    }
+
+    /** @return true if another process owns the cache directory and this instance never writes to it. */
+    public synchronized boolean isReadOnly() {
+        return lock == null;
+    }
+
+    /**
+     * Gets cached content.
+     *
+     * @param key The cache key (content hash, optionally with a rendition suffix).
+     * @return A read-only buffer over the mapped pack file, or null on a miss or a corrupt entry.
+     */
+    public synchronized ByteBuffer get(String key) {
+        Entry entry = index.get(key);
+        if (entry == null || pack == null) {
+            return null;
+        }
+        try {
+            ByteBuffer data = slice(entry);
+            if (!entry.verified) {
+                if (!Arrays.equals(entry.digest, digest(data.duplicate()))) {
+                    LOGGER.warning("Cached asset " + key + " failed verification, dropping it.");
+                    remove(key, entry);
+                    return null;
+                }
+                entry.verified = true;
+            }
+            return data;
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to read cached asset " + key, e);
+            remove(key, entry);
+            return null;
+        }
+    }
+
+    /**
+     * Adds content unless the key is already cached. Entries too large for the cap are ignored,
+     * as is everything when the cache is read-only. The index log is appended on {@link #flush()}.
+     *
+     * @param key  The cache key.
+     * @param data The encoded bytes (position and limit are not changed).
+     */
+    public synchronized void put(String key, ByteBuffer data) {
+        int length = data.remaining();
+        if (isReadOnly() || pack == null || length == 0 || length > Math.min(maxBytes / 16, SEGMENT_SIZE)
+                || index.containsKey(key)) {
+            return;
+        }
+        try {
+            byte[] contentDigest = digest(data.duplicate());
+            long offset = alignedOffset(packEnd, length);
+            ByteBuffer source = data.duplicate();
+            long position = offset;
+            while (source.hasRemaining()) {
+                position += pack.write(source, position);
+            }
+            packEnd = position;
+            Entry entry = new Entry(offset, length, contentDigest);
+            entry.verified = true;
+            index.put(key, entry);
+            liveBytes += length;
+            writeRecord(journal, RECORD_PUT, key, entry);
+            evictIfNeeded();
+            queueCompactionIfNeeded();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to cache asset " + key, e);
+        }
+    }
+
+    /**
+     * Appends index records for entries added or dropped since the last flush. Nothing is forced to disk:
+     * a record that outlives its data after a crash fails verification on first read and is dropped.
+     */
+    public synchronized void flush() {
+        if (indexLog == null || pendingRecords.size() == 0) {
+            return;
+        }
+        try {
+            ByteBuffer records = ByteBuffer.wrap(pendingRecords.toByteArray());
+            while (records.hasRemaining()) {
+                indexLog.write(records);
+            }
+            pendingRecords.reset();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to append to the asset cache index.", e);
+        }
+    }
+
+    /** Compacts the pack and index (unless read-only) and releases the files and the directory lock. */
+    public synchronized void close() {
+        if (!isReadOnly() && pack != null) {
+            try {
+                compactIfNeeded();
+                writeIndex(); // Also persists recency order, which the log does not track
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to compact the asset disk cache, flushing the index log instead.", e);
+                flush();
+            }
+        }
+        closeIndexLog();
+        closePack();
+        releaseLock();
+    }
+
+    // --- Internals (called with the monitor held) ---
+
+    private void acquireLock() throws IOException {
+        lockChannel = FileChannel.open(dir.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null; // Already open in this JVM
+        }
+        if (lock == null) {
+            LOGGER.info("Asset disk cache at " + dir + " is in use by another instance, opening it read-only.");
+            releaseLock();
+        }
+    }
+
+    private void load() throws IOException {
+        Path indexPath = dir.resolve(INDEX_FILE);
+        if (Files.exists(indexPath)) {
+            readIndex(indexPath);
+        }
+
+        Path packPath = packPath(generation);
+        if (!isReadOnly()) {
+            pack = FileChannel.open(packPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } else if (Files.exists(packPath)) {
+            pack = FileChannel.open(packPath, StandardOpenOption.READ);
+        }
+        packEnd = pack != null ? pack.size() : 0;
+        // Drop entries pointing past the end of the pack (e.g. pack replaced or truncated)
+        index.values().removeIf(e -> e.offset + e.length > packEnd);
+        liveBytes = index.values().stream().mapToLong(e -> e.length).sum();
+
+        if (!isReadOnly()) {
+            compactIfNeeded();
+            writeIndex(); // Drops a torn tail and records superseded by later ones
+            deleteStalePacks();
+        }
+        LOGGER.info("Asset disk cache opened at " + dir + (isReadOnly() ? " (read-only)" : "") + " with "
+                + index.size() + " entries (" + liveBytes + " bytes).");
+    }
+
+    private void readIndex(Path indexPath) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexPath)))) {
+            if (in.readInt() != INDEX_MAGIC || in.readInt() != INDEX_VERSION) {
+                LOGGER.warning("Unknown asset cache index format, starting with an empty cache.");
+                return;
+            }
+            generation = in.readLong();
+            while (true) {
+                int op = in.read();
+                if (op == -1) {
+                    break;
+                }
+                String key = in.readUTF();
+                if (op == RECORD_PUT) {
+                    long offset = in.readLong();
+                    int length = in.readInt();
+                    byte[] contentDigest = new byte[DIGEST_LENGTH];
+                    in.readFully(contentDigest);
+                    index.put(key, new Entry(offset, length, contentDigest));
+                } else if (op == RECORD_REMOVE) {
+                    index.remove(key);
+                } else {
+                    LOGGER.warning("Asset cache index has an unknown record, ignoring the rest of it.");
+                    break;
+                }
+            }
+        } catch (EOFException e) {
+            LOGGER.fine("Asset cache index ends in a partial record (interrupted write), ignoring it.");
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Asset cache index is unreadable, starting with an empty cache.", e);
+            index.clear();
+        }
+    }
+
+    private ByteBuffer slice(Entry entry) throws IOException {
+        long segment = entry.offset / SEGMENT_SIZE;
+        int within = (int) (entry.offset % SEGMENT_SIZE);
+        MappedByteBuffer mapped = segments.get(segment);
+        if (mapped == null || mapped.capacity() < within + entry.length) {
+            // Only the last segment grows; full ones are mapped once
+            long start = segment * SEGMENT_SIZE;
+            mapped = pack.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SEGMENT_SIZE, pack.size() - start));
+            segments.put(segment, mapped);
+        }
+        return mapped.slice(within, entry.length).asReadOnlyBuffer();
+    }
+
+    /** @return The offset at which an entry of this length fits without crossing a segment boundary. */
+    private static long alignedOffset(long end, int length) {
+        long within = end % SEGMENT_SIZE;
+        return within + length > SEGMENT_SIZE ? end - within + SEGMENT_SIZE : end;
+    }
+
+    private void remove(String key, Entry entry) {
+        if (index.remove(key, entry)) {
+            liveBytes -= entry.length;
+            if (!isReadOnly()) {
+                writeRemove(key);
+            }
+        }
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<String, Entry>> it = index.entrySet().iterator();
+        while (liveBytes > maxBytes && index.size() > 1 && it.hasNext()) {
+            Map.Entry<String, Entry> eldest = it.next();
+            liveBytes -= eldest.getValue().length;
+            it.remove();
+            writeRemove(eldest.getKey());
+        }
+    }
+
+    /** Queues a background compaction once evicted entries have left the pack at over twice the cap. */
+    private void queueCompactionIfNeeded() {
+        if (compactionQueued || packEnd <= Math.max(Math.max(MIN_COMPACT_BYTES, 2 * maxBytes), compactAfter)) {
+            return;
+        }
+        compactionQueued = true;
+        COMPACTOR.execute(this::compactInBackground);
+    }
+
+    private synchronized void compactInBackground() {
+        compactionQueued = false;
+        if (isReadOnly() || pack == null) {
+            return; // Closed meanwhile
+        }
+        try {
+            compactIfNeeded();
+        } catch (IOException e) {
+            compactAfter = packEnd + maxBytes;
+            LOGGER.log(Level.WARNING, "Failed to compact the asset disk cache, will retry when it grows further.", e);
+        }
+    }
+
+    private void compactIfNeeded() throws IOException {
+        if (packEnd > MIN_COMPACT_BYTES && packEnd > 2 * liveBytes) {
+            compact();
+        }
+    }
+
+    /** Copies live entries into a new pack generation and deletes the old one. */
+    private void compact() throws IOException {
+        long newGeneration = generation + 1;
+        Path newPath = packPath(newGeneration);
+        List<Map.Entry<String, Entry>> live = new ArrayList<>(index.entrySet());
+        LinkedHashMap<String, Entry> moved = new LinkedHashMap<>();
+        FileChannel newPack = FileChannel.open(newPath, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long position = 0;
+        try {
+            for (Map.Entry<String, Entry> e : live) {
+                ByteBuffer data = slice(e.getValue());
+                position = alignedOffset(position, e.getValue().length);
+                Entry copy = new Entry(position, e.getValue().length, e.getValue().digest);
+                copy.verified = e.getValue().verified;
+                while (data.hasRemaining()) {
+                    position += newPack.write(data, position);
+                }
+                moved.put(e.getKey(), copy);
+            }
+            newPack.force(true);
+        } catch (IOException e) {
+            newPack.close();
+            Files.deleteIfExists(newPath);
+            throw e;
+        }
+
+        Path oldPath = packPath(generation);
+        closePack();
+        pack = newPack;
+        packEnd = position;
+        generation = newGeneration;
+        index.clear();
+        index.putAll(moved); // Same recency order
+        writeIndex(); // Switch to the new generation before the old pack disappears
+        try {
+            Files.deleteIfExists(oldPath);
+        } catch (IOException e) {
+            LOGGER.fine("Old asset cache pack still in use, it will be removed on next start: " + oldPath);
+        }
+        LOGGER.info("Compacted asset disk cache to generation " + generation + " (" + liveBytes + " bytes).");
+    }
+
+    /** Replaces the index log with one PUT record per live entry, in recency order, and reopens it for appending. */
+    private void writeIndex() throws IOException {
+        pack.force(false); // Data must be on disk before the index points to it
+        closeIndexLog();
+        Path indexPath = dir.resolve(INDEX_FILE);
+        Path temp = Files.createTempFile(dir, INDEX_FILE, ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(INDEX_MAGIC);
+                out.writeInt(INDEX_VERSION);
+                out.writeLong(generation);
+                for (Map.Entry<String, Entry> e : index.entrySet()) {
+                    writeRecord(out, RECORD_PUT, e.getKey(), e.getValue());
+                }
+            }
+            Files.move(temp, indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        pendingRecords.reset(); // Covered by the rewrite
+        indexLog = FileChannel.open(indexPath, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static void writeRecord(DataOutputStream out, byte op, String key, Entry entry) throws IOException {
+        out.writeByte(op);
+        out.writeUTF(key);
+        if (op == RECORD_PUT) {
+            out.writeLong(entry.offset);
+            out.writeInt(entry.length);
+            out.write(entry.digest);
+        }
+    }
+
+    private void writeRemove(String key) {
+        try {
+            writeRecord(journal, RECORD_REMOVE, key, null);
+        } catch (IOException e) {
+            throw new IllegalStateException("In-memory write failed", e); // ByteArrayOutputStream does not throw
+        }
+    }
+
+    private void closeIndexLog() {
+        if (indexLog != null) {
+            try {
+                indexLog.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "Error closing asset cache index.", e);
+            }
+            indexLog = null;
+        }
+    }
+
+    private void closePack() {
+        segments.clear(); // Unmapped once collected
+        if (pack != null) {
+            try {
+                pack.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "Error closing asset cache pack.", e);
+            }
+            pack = null;
+        }
+    }
+
+    private void releaseLock() {
+        if (lockChannel != null) {
+            try {
+                lockChannel.close(); // Also releases the lock
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "Error releasing asset cache lock.", e);
+            }
+            lockChannel = null;
+        }
+    }
+
+    private void deleteStalePacks() {
+        Path current = packPath(generation);
+        try (DirectoryStream<Path> packs = Files.newDirectoryStream(dir, PACK_PREFIX + "*" + PACK_SUFFIX)) {
+            for (Path p : packs) {
+                if (!p.equals(current)) {
+                    Files.deleteIfExists(p);
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Could not remove stale asset cache packs.", e);
+        }
+    }
+
+    private Path packPath(long gen) {
+        return dir.resolve(PACK_PREFIX + gen + PACK_SUFFIX);
+    }
+
+    private static byte[] digest(ByteBuffer data) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            md.update(data);
+            return md.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package sk.vava.royalmate.data;
+
+import sk.vava.royalmate.model.AssetRendition;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.sql.*;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class AssetRenditionDAO {
+
+    private static final Logger LOGGER = Logger.getLogger(AssetRenditionDAO.class.getName());
+    // Table is not part of the original schema; AssetSchema checks it was created by the migration tool
+    private static final String TABLE_NAME = AssetSchema.RENDITIONS_TABLE;
+    private static final String ASSET_TABLE_NAME = "game_assets";
+
+    private static final String UPSERT_SQL = "INSERT INTO " + TABLE_NAME + " (asset_id, rendition, image_data, content_hash) " +
+            "VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE image_data = VALUES(image_data), " +
+            "content_hash = VALUES(content_hash), created_at = CURRENT_TIMESTAMP";
+    // Falls back to the original upload for assets without this rendition (older uploads, tiny images).
+    // Either one is read from the asset store when it has no BLOB
+    private static final String FIND_IMAGE_DATA_BY_IDS_SQL_PREFIX =
+            "SELECT ga.id, " +
+                    "CASE WHEN r.asset_id IS NOT NULL THEN r.image_data ELSE ga.image_data END as image_data, " +
+                    "CASE WHEN r.asset_id IS NOT NULL THEN r.content_hash ELSE ga.content_hash END as content_hash, " +
+                    "r.asset_id IS NOT NULL as has_rendition " +
+                    "FROM " + ASSET_TABLE_NAME + " ga " +
+                    "LEFT JOIN " + TABLE_NAME + " r ON r.asset_id = ga.id AND r.rendition = ? " +
+                    "WHERE ga.id IN (";
+    private static final int SAVE_BATCH_ROWS = 50; // Keeps each batch well below max_allowed_packet
+    private static final String FIND_RENDITION_DATA_BY_IDS_SQL_PREFIX =
+            "SELECT asset_id, image_data, content_hash FROM " + TABLE_NAME + " WHERE rendition = ? AND asset_id IN (";
+
+    /**
+     * Image bytes of one asset.
+     *
+     * @param data      The encoded image.
+     * @param rendition true if these are the requested rendition, false if the original upload was returned instead.
+     */
+    public record ImageData(ByteBuffer data, boolean rendition) {}
+
+    private final AssetStore assetStore; // Null when images are kept as BLOBs
+
+    public AssetRenditionDAO() {
+        this(FileAssetStore.configured());
+    }
+
+    // Constructor for testing/DI
+    public AssetRenditionDAO(AssetStore assetStore) {
+        this.assetStore = assetStore;
+    }
+
+    /**
+     * Stores (or replaces) the renditions of an asset in a single batch. With an asset store configured the
+     * bytes go to the store and the row keeps only their content hash.
+     *
+     * @param assetId    The asset ID.
+     * @param renditions Encoded bytes per rendition.
+     * @return true if successful, false otherwise.
+     */
+    public boolean saveAll(int assetId, Map<AssetRendition, byte[]> renditions) {
+        if (renditions == null || renditions.isEmpty()) {
+            return true;
+        }
+        try (Connection conn = AssetSchema.getConnection()) {
+            try (PreparedStatement pstmt = conn.prepareStatement(UPSERT_SQL)) {
+                for (Map.Entry<AssetRendition, byte[]> entry : renditions.entrySet()) {
+                    bindUpsert(pstmt, assetId, entry.getKey(), entry.getValue());
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+            LOGGER.fine("Saved " + renditions.size() + " renditions for asset ID: " + assetId);
+            return true;
+        } catch (SQLException | IOException e) {
+            LOGGER.log(Level.SEVERE, "Error saving renditions for asset ID: " + assetId, e);
+            return false;
+        }
+    }
+
+    /**
+     * Stores (or replaces) the renditions of several assets over one connection, in batches of
+     * {@value #SAVE_BATCH_ROWS} rows. Used by imports, which generate renditions a chunk at a time.
+     *
+     * @param renditionsByAsset Encoded bytes per rendition, per asset ID.
+     * @return true if successful, false otherwise.
+     */
+    public boolean saveAll(Map<Integer, Map<AssetRendition, byte[]>> renditionsByAsset) {
+        if (renditionsByAsset == null || renditionsByAsset.isEmpty()) {
+            return true;
+        }
+        int rows = 0;
+        try (Connection conn = AssetSchema.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(UPSERT_SQL)) {
+            int batched = 0;
+            for (Map.Entry<Integer, Map<AssetRendition, byte[]>> asset : renditionsByAsset.entrySet()) {
+                for (Map.Entry<AssetRendition, byte[]> entry : asset.getValue().entrySet()) {
+                    bindUpsert(pstmt, asset.getKey(), entry.getKey(), entry.getValue());
+                    pstmt.addBatch();
+                    if (++batched == SAVE_BATCH_ROWS) {
+                        pstmt.executeBatch();
+                        rows += batched;
+                        batched = 0;
+                    }
+                }
+            }
+            if (batched > 0) {
+                pstmt.executeBatch();
+                rows += batched;
+            }
+            LOGGER.fine("Saved " + rows + " renditions for " + renditionsByAsset.size() + " assets");
+            return true;
+        } catch (SQLException | IOException e) {
+            LOGGER.log(Level.SEVERE, "Error saving renditions for " + renditionsByAsset.size() + " assets (" + rows
+                    + " rows saved)", e);
+            return false;
+        }
+    }
+
+    /**
+     * Fetches the image bytes of the given assets in the requested rendition,
+     * or the original upload where that rendition does not exist.
+     *
+     * @param assetIds  The asset IDs.
+     * @param rendition The rendition to fetch.
+     * @return Map of asset ID to image bytes (memory-mapped for images in the asset store), flagged with
+     *         whether they are the rendition or the original; missing assets are absent. Empty on error.
+     */
+    public Map<Integer, ImageData> findImageDataByIds(Collection<Integer> assetIds, AssetRendition rendition) {
+        Map<Integer, ImageData> images = new HashMap<>();
+        if (assetIds == null || assetIds.isEmpty()) {
+            return images;
+        }
+
+        try (Connection conn = AssetSchema.getConnection()) {
+            try (PreparedStatement pstmt = conn.prepareStatement(inClause(FIND_IMAGE_DATA_BY_IDS_SQL_PREFIX, assetIds.size()))) {
+                int paramIndex = 1;
+                pstmt.setString(paramIndex++, rendition.name());
+                for (Integer id : assetIds) {
+                    pstmt.setInt(paramIndex++, id);
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        int assetId = rs.getInt("id");
+                        boolean hasRendition = rs.getBoolean("has_rendition");
+                        ByteBuffer data = readBlob(rs.getBlob("image_data"));
+                        if (data == null) {
+                            data = readFromStore(rs.getString("content_hash"), assetId);
+                        }
+                        if (data != null) {
+                            images.put(assetId, new ImageData(data, hasRendition));
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error fetching " + rendition + " images for " + assetIds.size() + " assets", e);
+        }
+        return images;
+    }
+
+    /**
+     * Fetches only the stored renditions of the given assets, without falling back to originals.
+     * Used when the caller already holds the originals and only needs to learn whether a rendition exists.
+     *
+     * @param assetIds  The asset IDs.
+     * @param rendition The rendition to fetch.
+     * @return Map of asset ID to rendition bytes (memory-mapped when in the asset store); assets without
+     *         the rendition are absent. Empty on error.
+     */
+    public Map<Integer, ByteBuffer> findRenditionDataByIds(Collection<Integer> assetIds, AssetRendition rendition) {
+        Map<Integer, ByteBuffer> images = new HashMap<>();
+        if (assetIds == null || assetIds.isEmpty()) {
+            return images;
+        }
+
+        try (Connection conn = AssetSchema.getConnection()) {
+            try (PreparedStatement pstmt = conn.prepareStatement(inClause(FIND_RENDITION_DATA_BY_IDS_SQL_PREFIX, assetIds.size()))) {
+                int paramIndex = 1;
+                pstmt.setString(paramIndex++, rendition.name());
+                for (Integer id : assetIds) {
+                    pstmt.setInt(paramIndex++, id);
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        int assetId = rs.getInt("asset_id");
+                        ByteBuffer data = readBlob(rs.getBlob("image_data"));
+                        if (data == null) {
+                            data = readFromStore(rs.getString("content_hash"), assetId);
+                        }
+                        if (data != null) {
+                            images.put(assetId, data);
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error fetching stored " + rendition + " renditions for " + assetIds.size() + " assets", e);
+        }
+        return images;
+    }
+
+    private static String inClause(String prefix, int count) {
+        StringBuilder sql = new StringBuilder(prefix);
+        for (int i = 0; i < count; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        return sql.append(")").toString();
+    }
+
+    /**
+     * Moves rendition BLOBs into the given store (one-off migration, see {@link AssetSchema#migrateRenditions}).
+     *
+     * @param store     The target store.
+     * @param batchSize Rows per transaction.
+     * @param hashes    Collects the content hashes written.
+     * @return Number of renditions migrated.
+     * @throws SQLException if a batch could not be read or committed (earlier batches stay migrated).
+     * @throws IOException  if a file could not be written.
+     */
+    public int migrateToStore(AssetStore store, int batchSize, Set<String> hashes) throws SQLException, IOException {
+        return AssetSchema.migrateRenditions(store, batchSize, hashes);
+    }
+
+    private void bindUpsert(PreparedStatement pstmt, int assetId, AssetRendition rendition, byte[] data)
+            throws SQLException, IOException {
+        pstmt.setInt(1, assetId);
+        pstmt.setString(2, rendition.name());
+        if (assetStore != null) {
+            // File is written first; a failed upsert only leaves an unreferenced (deduplicated) file
+            pstmt.setNull(3, Types.BLOB);
+            pstmt.setString(4, assetStore.put(data));
+        } else {
+            pstmt.setBinaryStream(3, new ByteArrayInputStream(data), data.length);
+            pstmt.setNull(4, Types.CHAR);
+        }
+    }
+
+    private static ByteBuffer readBlob(Blob blob) throws SQLException {
+        if (blob == null) {
+            return null;
+        }
+        try {
+            return ByteBuffer.wrap(blob.getBytes(1, (int) blob.length())).asReadOnlyBuffer();
+        } finally {
+            blob.free();
+        }
+    }
+
+    private ByteBuffer readFromStore(String contentHash, int assetId) {
+        if (contentHash == null || assetStore == null) {
+            return null;
+        }
+        try {
+            return assetStore.read(contentHash);
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.log(Level.WARNING, "Could not read asset ID " + assetId + " from the asset store.", e);
+            return null;
+        }
+    }
+}
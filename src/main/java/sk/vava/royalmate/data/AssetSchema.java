@@ -0,0 +1,308 @@
+package sk.vava.royalmate.data;
+
+import java.io.IOException;
+import java.sql.Blob;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * The content-addressing columns ({@code content_hash}, {@code content_size}) of the image tables, and a
+ * nullable {@code image_data}, so rows can reference an {@link AssetStore} file instead of a BLOB,
+ * plus the {@code game_asset_renditions} table holding pre-scaled copies of each asset (as a BLOB, or
+ * likewise as a {@code content_hash} into the store).
+ * The columns and table are added by {@link DatabaseSchema#migrate()}, run once per deployment; clients only
+ * check that they exist, once per application run, before the first query touching them.
+ */
+final class AssetSchema {
+
+    private static final Logger LOGGER = Logger.getLogger(AssetSchema.class.getName());
+    private static final List<String> IMAGE_TABLES = List.of("game_assets", "homepage_banners");
+    static final String RENDITIONS_TABLE = "game_asset_renditions";
+    private static final String CREATE_RENDITIONS_TABLE_SQL = "CREATE TABLE IF NOT EXISTS " + RENDITIONS_TABLE + " (" +
+            "asset_id INT NOT NULL, " +
+            "rendition VARCHAR(16) NOT NULL, " +
+            "image_data MEDIUMBLOB NULL, " +
+            "content_hash CHAR(64) NULL, " +
+            "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+            "PRIMARY KEY (asset_id, rendition), " +
+            "FOREIGN KEY (asset_id) REFERENCES game_assets(id) ON DELETE CASCADE)";
+
+    private static final long RECHECK_INTERVAL_MILLIS = 60_000;
+    private static final int BACKFILL_CHUNK_ROWS = 200;
+
+    private static volatile boolean schemaChecked = false;
+    private static long lastFailedCheckMillis; // Guarded by AssetSchema.class
+    private static String lastCheckFailure;     // Guarded by AssetSchema.class
+
+    /**
+     * Gets a connection with the asset columns guaranteed to exist.
+     * @return A new connection (caller closes it).
+     * @throws SQLException if connecting fails or the schema has not been migrated.
+     */
+    static Connection getConnection() throws SQLException {
+        Connection conn = DatabaseManager.getConnection();
+        try {
+            ensure(conn);
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+        return conn;
+    }
+
+    /**
+     * Gets a connection for a replica-safe read with the asset columns guaranteed to exist. The schema
+     * is checked on the primary; replicas receive it through replication.
+     * @return A new connection (caller closes it).
+     * @throws SQLException if connecting fails or the schema has not been migrated.
+     */
+    static Connection getReadConnection() throws SQLException {
+        if (!schemaChecked) {
+            getConnection().close();
+        }
+        return DatabaseManager.getReadConnection();
+    }
+
+    /**
+     * Checks that the asset columns and the renditions table exist. Read-only, so clients need no DDL privileges.
+     * A failed check is remembered for a minute instead of querying the metadata on every call.
+     *
+     * @param conn A connection to the primary.
+     * @throws SQLException naming the missing column if the schema has not been migrated.
+     */
+    static void ensure(Connection conn) throws SQLException {
+        if (schemaChecked) return;
+        synchronized (AssetSchema.class) {
+            if (schemaChecked) return;
+            if (lastCheckFailure != null && System.currentTimeMillis() - lastFailedCheckMillis < RECHECK_INTERVAL_MILLIS) {
+                throw new SQLException(lastCheckFailure);
+            }
+            DatabaseMetaData meta = conn.getMetaData();
+            for (String table : IMAGE_TABLES) {
+                for (String column : List.of("content_hash", "content_size")) {
+                    if (!hasColumn(meta, conn.getCatalog(), table, column)) {
+                        failCheck(table + "." + column);
+                    }
+                }
+            }
+            if (!hasColumn(meta, conn.getCatalog(), RENDITIONS_TABLE, "content_hash")) {
+                failCheck(RENDITIONS_TABLE + ".content_hash"); // Also when the table itself is missing
+            }
+            lastCheckFailure = null;
+            schemaChecked = true;
+        }
+    }
+
+    private static void failCheck(String missing) throws SQLException {
+        lastCheckFailure = DatabaseSchema.outOfDate(missing);
+        lastFailedCheckMillis = System.currentTimeMillis();
+        LOGGER.severe(lastCheckFailure);
+        throw new SQLException(lastCheckFailure);
+    }
+
+    /**
+     * Adds the content hash columns, makes {@code image_data} nullable and creates the renditions table
+     * (or adds its content hash column) where that has not happened yet.
+     * Needs ALTER privileges; only called by {@link DatabaseSchema#migrate()}.
+     *
+     * @param conn A connection to the primary.
+     * @throws SQLException if a statement fails.
+     */
+    static void migrate(Connection conn) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        try (Statement stmt = conn.createStatement()) {
+            for (String table : IMAGE_TABLES) {
+                if (!hasColumn(meta, conn.getCatalog(), table, "content_hash")) {
+                    stmt.execute("ALTER TABLE " + table + " ADD COLUMN content_hash CHAR(64) NULL, ADD COLUMN content_size INT NULL");
+                    LOGGER.info("Added content hash columns to " + table);
+                }
+                try (ResultSet rs = meta.getColumns(conn.getCatalog(), null, table, "image_data")) {
+                    if (rs.next() && "NO".equals(rs.getString("IS_NULLABLE"))) {
+                        // Rows stored in the file store keep no BLOB
+                        stmt.execute("ALTER TABLE " + table + " MODIFY image_data " + rs.getString("TYPE_NAME") + " NULL");
+                        LOGGER.info("Made " + table + ".image_data nullable");
+                    }
+                }
+            }
+            stmt.execute(CREATE_RENDITIONS_TABLE_SQL);
+            if (!hasColumn(meta, conn.getCatalog(), RENDITIONS_TABLE, "content_hash")) {
+                // Created before renditions could live in the file store
+                stmt.execute("ALTER TABLE " + RENDITIONS_TABLE + " ADD COLUMN content_hash CHAR(64) NULL, "
+                        + "MODIFY image_data MEDIUMBLOB NULL");
+                LOGGER.info("Added content hash column to " + RENDITIONS_TABLE);
+            }
+        }
+    }
+
+    /**
+     * Hashes rows saved before the content columns existed, server side (no BLOB transfer),
+     * so every image has a hash usable for caching and conditional fetches. Runs in small
+     * autocommitted chunks so no single statement locks a whole table.
+     * Only called by {@link DatabaseSchema#migrate()}; until it has run, readers fall back
+     * to computing a hash in the query.
+     *
+     * @param conn A connection to the primary.
+     * @throws SQLException if an update fails; chunks already done stay done.
+     */
+    static void backfillHashes(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            for (String table : IMAGE_TABLES) {
+                int total = 0;
+                int updated;
+                do {
+                    updated = stmt.executeUpdate("UPDATE " + table + " SET content_hash = SHA2(image_data, 256), " +
+                            "content_size = LENGTH(image_data) WHERE content_hash IS NULL AND image_data IS NOT NULL " +
+                            "LIMIT " + BACKFILL_CHUNK_ROWS);
+                    total += updated;
+                } while (updated > 0);
+                if (total > 0) {
+                    LOGGER.info("Computed content hashes for " + total + " rows of " + table);
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves the BLOBs of one image table into the store in batches, one transaction per batch.
+     * Files are written before their batch commits, so an interrupted run can simply be restarted.
+     *
+     * @param table     The image table (one of the tables managed here).
+     * @param store     The target store.
+     * @param batchSize Rows per batch.
+     * @param hashes    Collects the content hashes written (to report deduplication).
+     * @return Number of rows migrated.
+     */
+    static int migrateTable(String table, AssetStore store, int batchSize, Set<String> hashes) throws SQLException, IOException {
+        if (!IMAGE_TABLES.contains(table)) {
+            throw new IllegalArgumentException("Not an image table: " + table);
+        }
+        String selectSql = "SELECT id, image_data FROM " + table + " WHERE image_data IS NOT NULL AND id > ? ORDER BY id LIMIT ?";
+        String updateSql = "UPDATE " + table + " SET content_hash = ?, content_size = ?, image_data = NULL WHERE id = ?";
+        int migrated = 0;
+        int lastId = 0;
+        try (Connection conn = getConnection();
+             PreparedStatement select = conn.prepareStatement(selectSql);
+             PreparedStatement update = conn.prepareStatement(updateSql)) {
+            DatabaseManager.disableQueryTimeout(conn);
+            conn.setAutoCommit(false);
+            try {
+                while (true) {
+                    int batchRows = 0;
+                    select.setInt(1, lastId);
+                    select.setInt(2, batchSize);
+                    try (ResultSet rs = select.executeQuery()) {
+                        while (rs.next()) {
+                            lastId = rs.getInt("id");
+                            Blob blob = rs.getBlob("image_data");
+                            byte[] data;
+                            try {
+                                data = blob.getBytes(1, (int) blob.length());
+                            } finally {
+                                blob.free();
+                            }
+                            String contentHash = store.put(data);
+                            hashes.add(contentHash);
+                            update.setString(1, contentHash);
+                            update.setInt(2, data.length);
+                            update.setInt(3, lastId);
+                            update.addBatch();
+                            batchRows++;
+                        }
+                    }
+                    if (batchRows == 0) break;
+                    update.executeBatch();
+                    conn.commit();
+                    migrated += batchRows;
+                    LOGGER.info("Migrated " + migrated + " rows of " + table + " to the asset store (up to ID " + lastId + ")");
+                }
+            } catch (SQLException | IOException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        return migrated;
+    }
+
+    /**
+     * Moves the rendition BLOBs into the store in batches, like {@link #migrateTable}, walking the
+     * (asset_id, rendition) key.
+     *
+     * @param store     The target store.
+     * @param batchSize Rows per batch.
+     * @param hashes    Collects the content hashes written (to report deduplication).
+     * @return Number of renditions migrated.
+     */
+    static int migrateRenditions(AssetStore store, int batchSize, Set<String> hashes) throws SQLException, IOException {
+        String selectSql = "SELECT asset_id, rendition, image_data FROM " + RENDITIONS_TABLE
+                + " WHERE image_data IS NOT NULL AND (asset_id > ? OR (asset_id = ? AND rendition > ?))"
+                + " ORDER BY asset_id, rendition LIMIT ?";
+        String updateSql = "UPDATE " + RENDITIONS_TABLE + " SET content_hash = ?, image_data = NULL"
+                + " WHERE asset_id = ? AND rendition = ?";
+        int migrated = 0;
+        int lastAssetId = 0;
+        String lastRendition = "";
+        try (Connection conn = getConnection();
+             PreparedStatement select = conn.prepareStatement(selectSql);
+             PreparedStatement update = conn.prepareStatement(updateSql)) {
+            DatabaseManager.disableQueryTimeout(conn);
+            conn.setAutoCommit(false);
+            try {
+                while (true) {
+                    int batchRows = 0;
+                    select.setInt(1, lastAssetId);
+                    select.setInt(2, lastAssetId);
+                    select.setString(3, lastRendition);
+                    select.setInt(4, batchSize);
+                    try (ResultSet rs = select.executeQuery()) {
+                        while (rs.next()) {
+                            lastAssetId = rs.getInt("asset_id");
+                            lastRendition = rs.getString("rendition");
+                            Blob blob = rs.getBlob("image_data");
+                            byte[] data;
+                            try {
+                                data = blob.getBytes(1, (int) blob.length());
+                            } finally {
+                                blob.free();
+                            }
+                            String contentHash = store.put(data);
+                            hashes.add(contentHash);
+                            update.setString(1, contentHash);
+                            update.setInt(2, lastAssetId);
+                            update.setString(3, lastRendition);
+                            update.addBatch();
+                            batchRows++;
+                        }
+                    }
+                    if (batchRows == 0) break;
+                    update.executeBatch();
+                    conn.commit();
+                    migrated += batchRows;
+                    LOGGER.info("Migrated " + migrated + " renditions to the asset store (up to asset ID " + lastAssetId + ")");
+                }
+            } catch (SQLException | IOException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        return migrated;
+    }
+
+    private static boolean hasColumn(DatabaseMetaData meta, String catalog, String table, String column) throws SQLException {
+        try (ResultSet rs = meta.getColumns(catalog, null, table, column)) {
+            return rs.next();
+        }
+    }
+
+    private AssetSchema() {}
+}
@@ -0,0 +1,46 @@
+package sk.vava.royalmate.data;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Content-addressed storage for image bytes. Images are identified by the hex SHA-256 of their
+ * content, so the same image is only ever stored once and the DB only needs to keep the hash.
+ */
+public interface AssetStore {
+
+    /**
+     * Stores the content unless identical content is already present.
+     *
+     * @param data The image bytes (position and limit are not changed).
+     * @return The content hash (lowercase hex SHA-256) to keep in the DB.
+     * @throws IOException if the bytes could not be persisted.
+     */
+    String put(ByteBuffer data) throws IOException;
+
+    /**
+     * Stores the bytes unless identical content is already present.
+     *
+     * @param data The image bytes.
+     * @return The content hash (lowercase hex SHA-256) to keep in the DB.
+     * @throws IOException if the bytes could not be persisted.
+     */
+    default String put(byte[] data) throws IOException {
+        return put(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Reads stored content without copying it onto the heap where the implementation allows it.
+     *
+     * @param contentHash The hash returned by {@link #put(ByteBuffer)}.
+     * @return A read-only buffer positioned at the start of the content.
+     * @throws IOException if the content is missing or unreadable.
+     */
+    ByteBuffer read(String contentHash) throws IOException;
+
+    /**
+     * @param contentHash The content hash.
+     * @return true if the content is present in the store.
+     */
+    boolean contains(String contentHash);
+}
@@ -0,0 +1,110 @@
+package sk.vava.royalmate.data;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class BannedTermDAO {
+
+    private static final Logger LOGGER = Logger.getLogger(BannedTermDAO.class.getName());
+    private static final String TABLE_NAME = "chat_banned_terms";
+
+    // Table is not part of the original schema; created by DatabaseSchema.migrate(), clients only check it exists
+    private static final String CREATE_TABLE_SQL = "CREATE TABLE IF NOT EXISTS " + TABLE_NAME + " (" +
+            "id INT AUTO_INCREMENT PRIMARY KEY, " +
+            "term VARCHAR(100) NOT NULL UNIQUE, " +
+            "added_by_admin_id INT NULL, " +
+            "added_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)";
+    private static final String FIND_ALL_SQL = "SELECT term FROM " + TABLE_NAME + " ORDER BY term ASC";
+    private static final String DELETE_ALL_SQL = "DELETE FROM " + TABLE_NAME;
+    private static final String INSERT_SQL = "INSERT INTO " + TABLE_NAME + " (term, added_by_admin_id) VALUES (?, ?)";
+
+    private static volatile boolean tableChecked = false;
+
+    /**
+     * Retrieves all banned chat terms.
+     *
+     * @return List of terms ordered alphabetically. Empty list on error.
+     */
+    public List<String> findAllTerms() {
+        LOGGER.fine("Finding all banned chat terms.");
+        List<String> terms = new ArrayList<>();
+        try (Connection conn = DatabaseManager.getConnection()) {
+            ensureTable(conn);
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(FIND_ALL_SQL)) {
+                while (rs.next()) {
+                    terms.add(rs.getString("term"));
+                }
+            }
+            LOGGER.fine("Found " + terms.size() + " banned terms.");
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error finding banned chat terms", e);
+        }
+        return terms;
+    }
+
+    /**
+     * Replaces the whole banned term list in a single transaction.
+     *
+     * @param terms   The new list of terms (already trimmed, folded with {@link sk.vava.royalmate.util.AhoCorasickMatcher#fold} and de-duplicated).
+     * @param adminId The ID of the admin making the change.
+     * @return true if successful, false otherwise (old list is kept on failure).
+     */
+    public boolean replaceAll(Collection<String> terms, int adminId) {
+        LOGGER.info("Replacing banned chat terms (" + terms.size() + " terms) by admin ID: " + adminId);
+        try (Connection conn = DatabaseManager.getConnection()) {
+            ensureTable(conn);
+            conn.setAutoCommit(false);
+            try (Statement deleteStmt = conn.createStatement();
+                 PreparedStatement insertStmt = conn.prepareStatement(INSERT_SQL)) {
+                deleteStmt.executeUpdate(DELETE_ALL_SQL);
+                for (String term : terms) {
+                    insertStmt.setString(1, term);
+                    insertStmt.setInt(2, adminId);
+                    insertStmt.addBatch();
+                }
+                insertStmt.executeBatch();
+                conn.commit();
+                LOGGER.info("Banned chat terms replaced successfully.");
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error replacing banned chat terms", e);
+            return false;
+        }
+    }
+
+    private static void ensureTable(Connection conn) throws SQLException {
+        if (tableChecked) {
+            return;
+        }
+        try (ResultSet rs = conn.getMetaData().getTables(conn.getCatalog(), null, TABLE_NAME, new String[]{"TABLE"})) {
+            if (!rs.next()) {
+                throw new SQLException(DatabaseSchema.outOfDate(TABLE_NAME));
+            }
+        }
+        tableChecked = true;
+    }
+
+    /**
+     * Creates the banned term table if it does not exist yet. Needs CREATE privileges;
+     * only called by {@link DatabaseSchema#migrate()}.
+     *
+     * @param conn A connection to the primary.
+     * @throws SQLException if the statement fails.
+     */
+    static void createTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(CREATE_TABLE_SQL);
+        }
+    }
+}
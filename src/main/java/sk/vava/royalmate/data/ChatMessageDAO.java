@@ -5,6 +5,7 @@ import sk.vava.royalmate.model.ChatMessage;
 
 import java.sql.*;
 import java.util.ArrayList; // Import ArrayList
+import java.util.Collection;
 import java.util.List; // Import List
 import java.util.Optional;
 import java.util.logging.Level;
@@ -13,6 +14,7 @@ import java.util.logging.Logger;
 public class ChatMessageDAO {
 
     private static final Logger LOGGER = Logger.getLogger(ChatMessageDAO.class.getName());
+    private static final MapperCache<ChatMessage> MESSAGE_MAPPERS = new MapperCache<>(ChatMessageDAO::compileMessageMapper);
     private static final String PINNED_MESSAGE_FUTURE_DATE = "2030-01-19 03:14:07"; // Marker date
     private static final String TABLE_NAME = "chat_messages"; // Underscore version if your table uses it
     private static final String ACCOUNT_TABLE_NAME = "accounts";
@@ -25,6 +27,14 @@ public class ChatMessageDAO {
     private static final String FIND_RECENT_SQL = "SELECT cm.*, a.username as sender_username FROM " + TABLE_NAME + " cm JOIN " + ACCOUNT_TABLE_NAME + " a ON cm.sender_id = a.id WHERE cm.sent_at < ? ORDER BY cm.sent_at DESC LIMIT ?";
     // --------------------------------------------------------------------
     private static final String INSERT_REGULAR_SQL = "INSERT INTO " + TABLE_NAME + " (sender_id, message_text, sent_at) VALUES (?, ?, CURRENT_TIMESTAMP)";
+    // Multi-row variant, one "(?, ?, CURRENT_TIMESTAMP)" group is appended per message
+    private static final String INSERT_REGULAR_BATCH_PREFIX = "INSERT INTO " + TABLE_NAME + " (sender_id, message_text, sent_at) VALUES ";
+    private static final String INSERT_REGULAR_BATCH_ROW = "(?, ?, CURRENT_TIMESTAMP)";
+
+    // Keyset scan over regular messages, used to build/catch up the chat search index
+    private static final String FIND_REGULAR_AFTER_ID_SQL = "SELECT cm.*, a.username as sender_username FROM " + TABLE_NAME + " cm JOIN " + ACCOUNT_TABLE_NAME + " a ON cm.sender_id = a.id WHERE cm.id > ? AND cm.sent_at < ? ORDER BY cm.id ASC LIMIT ?";
+    private static final String FIND_MAX_ID_SQL = "SELECT MAX(id) FROM " + TABLE_NAME;
+    private static final String FIND_BY_IDS_SQL_PREFIX = "SELECT cm.*, a.username as sender_username FROM " + TABLE_NAME + " cm JOIN " + ACCOUNT_TABLE_NAME + " a ON cm.sender_id = a.id WHERE cm.id IN (";
 
 
     // --- Existing methods (findPinnedMessage, updatePinnedMessage, insertPinnedMessage) ---
@@ -37,7 +47,7 @@ public class ChatMessageDAO {
 
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return Optional.of(mapResultSetToChatMessage(rs)); // Use updated mapper
+                    return Optional.of(MESSAGE_MAPPERS.forQuery(FIND_PINNED_SQL, rs).map(rs));
                 } else {
                     LOGGER.fine("No pinned chat message found.");
                     return Optional.empty();
@@ -132,8 +142,9 @@ public class ChatMessageDAO {
             pstmt.setInt(2, limit); // Correctly applying limit
 
             try (ResultSet rs = pstmt.executeQuery()) {
+                RowMapper<ChatMessage> mapper = MESSAGE_MAPPERS.forQuery(FIND_RECENT_SQL, rs);
                 while (rs.next()) {
-                    messages.add(mapResultSetToChatMessage(rs));
+                    messages.add(mapper.map(rs));
                 }
             }
             LOGGER.fine("Found " + messages.size() + " recent messages.");
@@ -178,37 +189,155 @@ public class ChatMessageDAO {
             return false;
         }
     }
-    // --- END NEW METHODS ---
 
+    /**
+     * Inserts several regular chat messages with a single multi-row INSERT statement.
+     * Only senderId and messageText of each message are used. On success the generated IDs
+     * are written back into the given message objects.
+     *
+     * @param messages The messages to insert. Empty/blank messages must be filtered out by the caller.
+     * @return true if all rows were inserted, false otherwise.
+     */
+    public boolean insertRegularMessages(List<ChatMessage> messages) {
+        if (messages == null || messages.isEmpty()) {
+            return true; // Nothing to do
+        }
+        LOGGER.fine("Attempting batch insert of " + messages.size() + " regular chat messages.");
 
-    /** Helper method to map ResultSet to ChatMessage object (MODIFIED) */
-    private ChatMessage mapResultSetToChatMessage(ResultSet rs) throws SQLException {
-        ChatMessage msg = ChatMessage.builder()
-                .id(rs.getLong("id"))
-                .senderId(rs.getInt("sender_id")) // Use underscore if needed
-                .messageText(rs.getString("message_text")) // Use underscore if needed
-                .sentAt(rs.getTimestamp("sent_at")) // Use underscore if needed
-                .build();
+        StringBuilder sql = new StringBuilder(INSERT_REGULAR_BATCH_PREFIX);
+        for (int i = 0; i < messages.size(); i++) {
+            if (i > 0) sql.append(", ");
+            sql.append(INSERT_REGULAR_BATCH_ROW);
+        }
 
-        // Check if the joined username column exists and add it
-        if (hasColumn(rs, "sender_username")) {
-            msg.setSenderUsername(rs.getString("sender_username"));
-        } else {
-            msg.setSenderUsername("Unknown"); // Fallback if join fails or column missing
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString(), Statement.RETURN_GENERATED_KEYS)) {
+
+            int paramIndex = 1;
+            for (ChatMessage msg : messages) {
+                pstmt.setInt(paramIndex++, msg.getSenderId());
+                pstmt.setString(paramIndex++, msg.getMessageText().trim());
+            }
+
+            int affectedRows = pstmt.executeUpdate();
+            if (affectedRows == messages.size()) {
+                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                    // Keys come back in insertion order for multi-row INSERTs
+                    for (int i = 0; i < messages.size() && generatedKeys.next(); i++) {
+                        messages.get(i).setId(generatedKeys.getLong(1));
+                    }
+                }
+                LOGGER.fine("Successfully inserted " + affectedRows + " chat messages in one batch.");
+                return true;
+            } else {
+                LOGGER.warning("Chat batch insert affected " + affectedRows + " rows, expected " + messages.size());
+                return false;
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error inserting batch of " + messages.size() + " chat messages", e);
+            return false;
         }
+    }
+
+    /**
+     * Fetches regular (non-pinned) messages with an ID greater than the given one, oldest first.
+     * Used for keyset-paged scans of the whole chat history.
+     *
+     * @param afterId Only messages with a greater ID are returned (use 0 to start).
+     * @param limit   The maximum number of messages to retrieve.
+     * @return List of ChatMessage objects ordered by ID ascending. Empty list on error.
+     */
+    public List<ChatMessage> findRegularMessagesAfterId(long afterId, int limit) {
+        LOGGER.fine("Finding up to " + limit + " regular chat messages after ID " + afterId);
+        List<ChatMessage> messages = new ArrayList<>();
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(FIND_REGULAR_AFTER_ID_SQL)) {
 
-        return msg;
+            pstmt.setLong(1, afterId);
+            pstmt.setTimestamp(2, Timestamp.valueOf(PINNED_MESSAGE_FUTURE_DATE));
+            pstmt.setInt(3, limit);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                RowMapper<ChatMessage> mapper = MESSAGE_MAPPERS.forQuery(FIND_REGULAR_AFTER_ID_SQL, rs);
+                while (rs.next()) {
+                    messages.add(mapper.map(rs));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error finding chat messages after ID " + afterId, e);
+        }
+        return messages;
     }
 
-    /** Utility to check if a column exists in the ResultSet metadata */
-    private boolean hasColumn(ResultSet rs, String columnName) throws SQLException {
-        ResultSetMetaData rsmd = rs.getMetaData();
-        int columns = rsmd.getColumnCount();
-        for (int x = 1; x <= columns; x++) {
-            if (columnName.equalsIgnoreCase(rsmd.getColumnLabel(x))) {
-                return true;
+    /**
+     * Gets the highest message ID (pinned messages included), an upper bound for keyset scans.
+     *
+     * @return The highest ID, 0 if there are no messages, -1 on error.
+     */
+    public long findMaxId() {
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(FIND_MAX_ID_SQL)) {
+            return rs.next() ? rs.getLong(1) : 0; // MAX of no rows is NULL, read as 0
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error finding the highest chat message ID", e);
+            return -1;
+        }
+    }
+
+    /**
+     * Fetches messages by their IDs, including the sender's username.
+     *
+     * @param ids The message IDs.
+     * @return List of found messages (in no particular order). Empty list on error.
+     */
+    public List<ChatMessage> findByIds(Collection<Long> ids) {
+        List<ChatMessage> messages = new ArrayList<>();
+        if (ids == null || ids.isEmpty()) {
+            return messages;
+        }
+        StringBuilder sql = new StringBuilder(FIND_BY_IDS_SQL_PREFIX);
+        for (int i = 0; i < ids.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(")");
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+
+            int paramIndex = 1;
+            for (Long id : ids) {
+                pstmt.setLong(paramIndex++, id);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                RowMapper<ChatMessage> mapper = MESSAGE_MAPPERS.forQuery(FIND_BY_IDS_SQL_PREFIX, rs); // Same shape for any number of IDs
+                while (rs.next()) {
+                    messages.add(mapper.map(rs));
+                }
             }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error finding " + ids.size() + " chat messages by ID", e);
         }
-        return false;
+        return messages;
+    }
+    // --- END NEW METHODS ---
+
+
+    /** Compiles the ChatMessage mapper for one query shape; indices are resolved once here, not per row */
+    private static RowMapper<ChatMessage> compileMessageMapper(ColumnIndex columns) throws SQLException {
+        int id = columns.require("id");
+        int senderId = columns.require("sender_id");
+        int messageText = columns.require("message_text");
+        int sentAt = columns.require("sent_at");
+        int senderUsername = columns.find("sender_username");
+
+        return rs -> ChatMessage.builder()
+                .id(rs.getLong(id))
+                .senderId(rs.getInt(senderId))
+                .messageText(rs.getString(messageText))
+                .sentAt(rs.getTimestamp(sentAt))
+                // Fallback if join fails or column missing
+                .senderUsername(senderUsername > 0 ? rs.getString(senderUsername) : "Unknown")
+                .build();
     }
 }
\ No newline at end of file
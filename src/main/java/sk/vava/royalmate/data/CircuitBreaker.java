@@ -0,0 +1,121 @@
+package sk.vava.royalmate.data;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker for one database endpoint. After {@code failureThreshold} consecutive connect
+ * failures it opens: callers are refused immediately instead of waiting for a connect timeout. Once
+ * the backoff has elapsed, a single trial (made by the reconnect probe, never by a user action) may
+ * try the endpoint; success closes the breaker, failure reopens it with twice the backoff (capped),
+ * randomized so several clients do not retry in lockstep. Communication failures during queries on
+ * established connections count too: {@code failureThreshold} of them within a window open the breaker,
+ * even if connecting in between still works. Thread-safe.
+ */
+final class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, TRIAL }
+
+    private final int failureThreshold;
+    private final long baseBackoffNanos;
+    private final long maxBackoffNanos;
+    private final long queryFailureWindowNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private int openings;        // Times opened since the last success; drives the backoff
+    private long retryAtNanos;   // When OPEN: earliest time for the next trial
+    private int queryFailures;   // Query-phase failures in the current window
+    private long queryWindowStartNanos;
+
+    CircuitBreaker(int failureThreshold, long baseBackoff, long maxBackoff, long queryFailureWindow, TimeUnit unit) {
+        this.failureThreshold = failureThreshold;
+        this.baseBackoffNanos = unit.toNanos(baseBackoff);
+        this.maxBackoffNanos = unit.toNanos(maxBackoff);
+        this.queryFailureWindowNanos = unit.toNanos(queryFailureWindow);
+    }
+
+    /** @return true if a normal call may use the endpoint (the breaker is closed). */
+    synchronized boolean allowsCalls() {
+        return state == State.CLOSED;
+    }
+
+    /**
+     * Starts the trial of an open breaker whose backoff has elapsed. The caller must report the
+     * outcome with {@link #onSuccess()} or {@link #onFailure()}.
+     * @return true if the caller should make the trial.
+     */
+    synchronized boolean tryBeginTrial() {
+        if (state != State.OPEN || System.nanoTime() < retryAtNanos) {
+            return false;
+        }
+        state = State.TRIAL;
+        return true;
+    }
+
+    synchronized void onSuccess() {
+        if (state != State.CLOSED) {
+            queryFailures = 0; // Recovered; query failures from before the outage no longer count
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        openings = 0;
+    }
+
+    /** @return true if this failure opened the breaker. */
+    synchronized boolean onFailure() {
+        return onFailure(false);
+    }
+
+    /**
+     * @param openNow true to open on this failure regardless of the threshold, e.g. when the endpoint
+     *                has never been reached, so the probe takes over the retries.
+     * @return true if this failure opened the breaker.
+     */
+    synchronized boolean onFailure(boolean openNow) {
+        consecutiveFailures++;
+        if (state == State.TRIAL || (state == State.CLOSED && (openNow || consecutiveFailures >= failureThreshold))) {
+            boolean opened = state == State.CLOSED;
+            open();
+            return opened;
+        }
+        return false;
+    }
+
+    /**
+     * Records a communication failure during a query on an established connection. Successful connects
+     * do not reset these, or a server that accepts connections but drops them mid-query would never open the breaker.
+     * @return true if this failure opened the breaker.
+     */
+    synchronized boolean onQueryFailure() {
+        long now = System.nanoTime();
+        if (queryFailures == 0 || now - queryWindowStartNanos > queryFailureWindowNanos) {
+            queryFailures = 0;
+            queryWindowStartNanos = now;
+        }
+        queryFailures++;
+        if (state == State.CLOSED && queryFailures >= failureThreshold) {
+            open();
+            return true;
+        }
+        return false;
+    }
+
+    private void open() {
+        openings++;
+        long backoff = Math.min(maxBackoffNanos, baseBackoffNanos << Math.min(openings - 1, 30));
+        // "Equal jitter": half the backoff fixed, half random
+        retryAtNanos = System.nanoTime() + backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+        state = State.OPEN;
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    /** @return Milliseconds until the next trial is due (0 if due or not open). */
+    synchronized long retryInMillis() {
+        long remaining = retryAtNanos - System.nanoTime();
+        return state == State.OPEN && remaining > 0 ? (remaining + 999_999) / 1_000_000 : 0; // Rounded up, so a wait never ends early
+    }
+}
@@ -0,0 +1,50 @@
+package sk.vava.royalmate.data;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Column label to index lookup of one query shape, built once from the ResultSet metadata.
+ * Labels are matched case-insensitively; for duplicate labels the first column wins (like ResultSet.findColumn).
+ */
+final class ColumnIndex {
+
+    private final Map<String, Integer> indices;
+    private final int columnCount;
+
+    ColumnIndex(ResultSetMetaData meta) throws SQLException {
+        this.columnCount = meta.getColumnCount();
+        this.indices = new HashMap<>(columnCount * 2);
+        for (int i = 1; i <= columnCount; i++) {
+            indices.putIfAbsent(meta.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+        }
+    }
+
+    /**
+     * @param label Column label.
+     * @return 1-based index of the column.
+     * @throws SQLException if the query has no such column.
+     */
+    int require(String label) throws SQLException {
+        int index = find(label);
+        if (index == 0) {
+            throw new SQLException("Column '" + label + "' not found in query result.");
+        }
+        return index;
+    }
+
+    /**
+     * @param label Column label.
+     * @return 1-based index of the column, or 0 if the query has no such column.
+     */
+    int find(String label) {
+        return indices.getOrDefault(label.toLowerCase(Locale.ROOT), 0);
+    }
+
+    int columnCount() {
+        return columnCount;
+    }
+}
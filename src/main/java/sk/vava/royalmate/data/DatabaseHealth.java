@@ -0,0 +1,31 @@
+package sk.vava.royalmate.data;
+
+import lombok.Value;
+
+/** Snapshot of the database connection state, as published by {@link DatabaseManager}. */
+@Value
+public class DatabaseHealth {
+
+    public enum Status {
+        /** Nothing known yet (no connection attempted). */
+        UNKNOWN,
+        /** Connected to the first (preferred) endpoint. */
+        UP,
+        /** The preferred endpoint is down; connected to a failover endpoint. */
+        FAILOVER,
+        /** No endpoint reachable; calls fail fast until the reconnect probe succeeds. */
+        DOWN
+    }
+
+    Status status;
+    String endpoint;      // host:port in use, null when DOWN or UNKNOWN
+    long retryInMillis;   // When DOWN: time until the next reconnect attempt
+    String lastError;     // When DOWN: why the last attempt failed
+
+    public static final DatabaseHealth UNKNOWN_HEALTH = new DatabaseHealth(Status.UNKNOWN, null, 0, null);
+
+    /** @return true if database calls can currently succeed. */
+    public boolean isAvailable() {
+        return status == Status.UP || status == Status.FAILOVER;
+    }
+}
@@ -4,15 +4,98 @@ import sk.vava.royalmate.util.Config;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLSyntaxErrorException;
 import java.sql.Statement;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+/**
+ * Hands out JDBC connections. Writes and reads that must see the latest data use the primary
+ * ({@link #getConnection()}); queries marked replica-safe use {@link #getReadConnection()}, which
+ * routes to a read replica when one is configured via {@value #REPLICAS_PROPERTY} and is fresh enough.
+ * Read-your-writes is checked with GTIDs, so replica routing of reads after a write needs {@code gtid_mode=ON}.
+ * <p>
+ * The primary is an ordered list of endpoints ({@code Config.DB_URL}, then {@value #FAILOVER_PROPERTY}),
+ * each behind a {@link CircuitBreaker}: an endpoint that keeps failing is skipped without a connect
+ * attempt, and when all are down calls fail in microseconds. Connection losses during queries count
+ * too (see {@link QueryFailureInterceptor}). A background probe retries open endpoints with jittered
+ * exponential backoff; the resulting {@link DatabaseHealth} is published to listeners for the UI.
+ * <p>
+ * Every wait on the server is bounded by the interactive timeout ({@value #QUERY_TIMEOUT_PROPERTY});
+ * bulk work lifts it per connection with {@link #disableQueryTimeout(Connection)}.
+ */
 public class DatabaseManager {
 
     private static final Logger LOGGER = Logger.getLogger(DatabaseManager.class.getName());
 
+    /** Comma-separated JDBC URLs of read replicas (same credentials as the primary). Unset: no replicas. */
+    public static final String REPLICAS_PROPERTY = "royalmate.db.replicas";
+    /** Replicas further behind than this many seconds get no reads (default 5). */
+    public static final String MAX_LAG_PROPERTY = "royalmate.db.replicaMaxLagSeconds";
+    private static final long DEFAULT_MAX_LAG_SECONDS = 5;
+    private static final long MONITOR_INTERVAL_MILLIS = 2000;
+    /** Comma-separated JDBC URLs tried in order after {@code Config.DB_URL} (same credentials). */
+    public static final String FAILOVER_PROPERTY = "royalmate.db.failover";
+    /** Connect timeout per attempt in milliseconds (default 3000). */
+    public static final String CONNECT_TIMEOUT_PROPERTY = "royalmate.db.connectTimeoutMillis";
+    private static final int DEFAULT_CONNECT_TIMEOUT_MILLIS = 3000;
+    /** Longest wait for the server during a query in milliseconds (default 30000); bulk work lifts it. */
+    public static final String QUERY_TIMEOUT_PROPERTY = "royalmate.db.queryTimeoutMillis";
+    private static final int DEFAULT_QUERY_TIMEOUT_MILLIS = 30_000;
+    private static final int MONITOR_SOCKET_TIMEOUT_MILLIS = 5000; // Replica lag sampling
+    private static final int MONITOR_QUERY_TIMEOUT_SECONDS = 2;
+    private static final long QUERY_FAILURE_WINDOW_MILLIS = 10_000; // Query-phase failures that open a breaker must fall within this
+    private static final int FAILURE_THRESHOLD = 2;         // Consecutive connect failures that open a breaker
+    private static final long BASE_BACKOFF_MILLIS = 500;
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+    private static final int PROBE_VALID_TIMEOUT_SECONDS = 2;
+
+    // Separate threads, so a replica that hangs during sampling cannot delay the primary's reconnect probe
+    private static final ScheduledExecutorService PROBE = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "db-probe");
+        t.setDaemon(true);
+        return t;
+    });
+    private static final ScheduledExecutorService REPLICA_MONITOR = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "db-replica-monitor");
+        t.setDaemon(true);
+        return t;
+    });
+    private static final ThreadLocal<Boolean> CONNECTING = new ThreadLocal<>();
+    private static final List<Endpoint> ENDPOINTS = new ArrayList<>();
+    private static final List<Consumer<DatabaseHealth>> healthListeners = new CopyOnWriteArrayList<>();
+    private static final AtomicBoolean probeScheduled = new AtomicBoolean(false);
+    private static volatile boolean endpointsConfigured = false;
+    private static volatile DatabaseHealth health = DatabaseHealth.UNKNOWN_HEALTH;
+    private static volatile Endpoint activeEndpoint; // Endpoint of the last successful connect
+    private static Properties connectionProperties; // Replica reads; primary endpoints add their own on top
+    private static Properties monitorProperties;
+
+    private static final List<Replica> REPLICAS = new ArrayList<>();
+    private static final AtomicInteger nextReplica = new AtomicInteger();
+    private static final AtomicLong replicaReads = new AtomicLong();
+    private static final AtomicLong primaryReads = new AtomicLong();
+    private static volatile boolean replicasConfigured = false;
+    private static long maxLagMillis;
+    private static volatile WriteMark lastWrite; // This session's last write to the primary, null before the first
+    private static final AtomicBoolean gtidWarningLogged = new AtomicBoolean(false);
+
     // Ensure the JDBC driver is loaded when the class is initialized.
     static {
         try {
@@ -27,13 +110,431 @@ public class DatabaseManager {
     }
 
     /**
-     * Gets a connection to the database.
+     * Gets a connection to the primary: the first endpoint whose breaker is closed.
      *
      * @return A Connection object.
-     * @throws SQLException if a database access error occurs.
+     * @throws SQLException if a database access error occurs; a {@link SQLTransientConnectionException}
+     *                      without any connect attempt if every endpoint's breaker is open.
      */
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(Config.DB_URL, Config.DB_USER, Config.DB_PASSWORD);
+        configureEndpoints();
+        SQLException lastError = null;
+        for (Endpoint endpoint : ENDPOINTS) {
+            if (!endpoint.breaker.allowsCalls()) continue;
+            try {
+                Connection conn = connect(endpoint);
+                endpoint.breaker.onSuccess();
+                connected(endpoint);
+                return conn;
+            } catch (SQLException e) {
+                lastError = e;
+                // While nothing is reachable (at startup, or already DOWN) one failure is enough: only
+                // an open breaker gets the probe's retries and a published DOWN for the UI
+                if (endpoint.breaker.onFailure(!health.isAvailable())) {
+                    LOGGER.log(Level.WARNING, "Database endpoint " + endpoint.label + " is failing, circuit opened.", e);
+                    scheduleProbe();
+                }
+            }
+        }
+        if (lastError != null && anyBreakerClosed()) {
+            throw lastError; // Failed, but not yet often enough to open every breaker
+        }
+        DatabaseHealth down = downHealth(lastError);
+        if (health.getStatus() != DatabaseHealth.Status.DOWN) {
+            publishHealth(down); // Later retry times are published by the probe
+        }
+        scheduleProbe();
+        throw new SQLTransientConnectionException("Database unavailable, next reconnect attempt in "
+                + down.getRetryInMillis() + " ms.", "08001", lastError);
+    }
+
+    /** @return The current database health. */
+    public static DatabaseHealth getHealth() {
+        return health;
+    }
+
+    /**
+     * Registers a listener for health changes, called on the thread that noticed the change
+     * (UI listeners must hop to the FX thread themselves).
+     * @param listener The listener; also called right away with the current health.
+     */
+    public static void addHealthListener(Consumer<DatabaseHealth> listener) {
+        healthListeners.add(listener);
+        listener.accept(health);
+    }
+
+    /** @param listener A listener added with {@link #addHealthListener(Consumer)}. */
+    public static void removeHealthListener(Consumer<DatabaseHealth> listener) {
+        healthListeners.remove(listener);
+    }
+
+    private static void configureEndpoints() {
+        if (endpointsConfigured) return;
+        synchronized (DatabaseManager.class) {
+            if (endpointsConfigured) return;
+            connectionProperties = new Properties();
+            connectionProperties.setProperty("user", Config.DB_USER);
+            connectionProperties.setProperty("password", Config.DB_PASSWORD);
+            // Bounds the wait for an unreachable host
+            connectionProperties.setProperty("connectTimeout",
+                    String.valueOf(Integer.getInteger(CONNECT_TIMEOUT_PROPERTY, DEFAULT_CONNECT_TIMEOUT_MILLIS)));
+            // Bounds every wait for the server during a query, so a hung server cannot block a worker indefinitely
+            connectionProperties.setProperty("socketTimeout",
+                    String.valueOf(Integer.getInteger(QUERY_TIMEOUT_PROPERTY, DEFAULT_QUERY_TIMEOUT_MILLIS)));
+            monitorProperties = new Properties();
+            monitorProperties.putAll(connectionProperties);
+            monitorProperties.setProperty("socketTimeout", String.valueOf(MONITOR_SOCKET_TIMEOUT_MILLIS));
+
+            ENDPOINTS.add(new Endpoint(Config.DB_URL, 0));
+            String failover = System.getProperty(FAILOVER_PROPERTY);
+            if (failover != null) {
+                for (String url : failover.split(",")) {
+                    if (!url.isBlank()) ENDPOINTS.add(new Endpoint(url.trim(), ENDPOINTS.size()));
+                }
+            }
+            if (ENDPOINTS.size() > 1) {
+                LOGGER.info("Database endpoints in failover order: " + ENDPOINTS.stream().map(e -> e.label).toList());
+            }
+            endpointsConfigured = true;
+        }
+    }
+
+    /** Connects to a primary endpoint; driver errors while connecting are not counted as query failures. */
+    private static Connection connect(Endpoint endpoint) throws SQLException {
+        CONNECTING.set(Boolean.TRUE);
+        try {
+            return DriverManager.getConnection(endpoint.url, endpoint.properties);
+        } finally {
+            CONNECTING.remove();
+        }
+    }
+
+    /** @return true while this thread is connecting to a primary endpoint. */
+    static boolean isConnecting() {
+        return CONNECTING.get() != null;
+    }
+
+    /**
+     * Counts a connection lost during a query (SQLState class 08) against the endpoint's breaker.
+     * Called by {@link QueryFailureInterceptor} on the thread that ran the query.
+     */
+    static void queryFailed(int endpointIndex, SQLException error) {
+        if (endpointIndex >= ENDPOINTS.size()) return;
+        Endpoint endpoint = ENDPOINTS.get(endpointIndex);
+        if (endpoint.breaker.onQueryFailure()) {
+            LOGGER.log(Level.WARNING, "Database endpoint " + endpoint.label + " keeps dropping queries, circuit opened.", error);
+            if (!anyBreakerClosed()) {
+                publishHealth(downHealth(error));
+            }
+            scheduleProbe();
+        }
+    }
+
+    /**
+     * Lifts the interactive query timeout ({@value #QUERY_TIMEOUT_PROPERTY}) on a connection, for bulk work
+     * (streamed exports, imports, migrations) whose statements may legitimately wait longer.
+     */
+    public static void disableQueryTimeout(Connection conn) throws SQLException {
+        conn.setNetworkTimeout(Runnable::run, 0);
+    }
+
+    private static boolean anyBreakerClosed() {
+        for (Endpoint endpoint : ENDPOINTS) {
+            if (endpoint.breaker.allowsCalls()) return true;
+        }
+        return false;
+    }
+
+    private static void connected(Endpoint endpoint) {
+        activeEndpoint = endpoint;
+        DatabaseHealth.Status status = endpoint.index == 0 ? DatabaseHealth.Status.UP : DatabaseHealth.Status.FAILOVER;
+        DatabaseHealth current = health;
+        if (current.getStatus() != status || !endpoint.label.equals(current.getEndpoint())) {
+            publishHealth(new DatabaseHealth(status, endpoint.label, 0, null));
+        }
+    }
+
+    private static DatabaseHealth downHealth(SQLException error) {
+        long retryIn = Long.MAX_VALUE;
+        for (Endpoint endpoint : ENDPOINTS) {
+            retryIn = Math.min(retryIn, endpoint.breaker.retryInMillis());
+        }
+        String message = error != null ? error.getMessage() : health.getLastError();
+        return new DatabaseHealth(DatabaseHealth.Status.DOWN, null, retryIn, message);
+    }
+
+    private static void publishHealth(DatabaseHealth newHealth) {
+        DatabaseHealth previous = health;
+        health = newHealth;
+        if (previous.getStatus() != newHealth.getStatus() || !Objects.equals(previous.getEndpoint(), newHealth.getEndpoint())) {
+            LOGGER.info("Database health: " + newHealth.getStatus()
+                    + (newHealth.getEndpoint() != null ? " (" + newHealth.getEndpoint() + ")" : ""));
+        }
+        for (Consumer<DatabaseHealth> listener : healthListeners) {
+            try {
+                listener.accept(newHealth);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Database health listener failed.", e);
+            }
+        }
+    }
+
+    /** Schedules the reconnect probe for when the earliest open breaker allows a trial. */
+    private static void scheduleProbe() {
+        if (!probeScheduled.compareAndSet(false, true)) return;
+        long delay = Long.MAX_VALUE;
+        for (Endpoint endpoint : ENDPOINTS) {
+            if (endpoint.breaker.state() == CircuitBreaker.State.OPEN) {
+                delay = Math.min(delay, endpoint.breaker.retryInMillis());
+            }
+        }
+        if (delay == Long.MAX_VALUE) {
+            probeScheduled.set(false);
+            return;
+        }
+        PROBE.schedule(DatabaseManager::probe, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /** Tries every open endpoint whose backoff has elapsed, in failover order. */
+    private static void probe() {
+        probeScheduled.set(false);
+        SQLException lastError = null;
+        for (Endpoint endpoint : ENDPOINTS) {
+            if (!endpoint.breaker.tryBeginTrial()) continue;
+            try (Connection conn = connect(endpoint)) {
+                if (!conn.isValid(PROBE_VALID_TIMEOUT_SECONDS)) {
+                    throw new SQLException("Connection to " + endpoint.label + " is not valid.");
+                }
+                endpoint.breaker.onSuccess();
+                LOGGER.info("Database endpoint " + endpoint.label + " is reachable again, circuit closed.");
+                Endpoint active = activeEndpoint;
+                if (!health.isAvailable() || active == null || endpoint.index < active.index) {
+                    connected(endpoint); // Back up, or failing back to a preferred endpoint
+                }
+            } catch (SQLException | RuntimeException e) { // Any failure must end the trial, or the breaker stays stuck
+                lastError = e instanceof SQLException sqlError ? sqlError : new SQLException(e);
+                endpoint.breaker.onFailure();
+                LOGGER.fine("Reconnect to " + endpoint.label + " failed, next try in "
+                        + endpoint.breaker.retryInMillis() + " ms: " + e.getMessage());
+            }
+        }
+        if (!anyBreakerClosed()) {
+            publishHealth(downHealth(lastError)); // Updated retry time for the UI
+        }
+        scheduleProbe();
+    }
+
+    /** One primary endpoint and its breaker. */
+    private static final class Endpoint {
+        final String url;
+        final int index;    // Position in failover order, 0 = preferred
+        final String label; // host:port, for logs and the UI
+        final Properties properties = new Properties(); // Connection properties, with the query failure interceptor
+        final CircuitBreaker breaker = new CircuitBreaker(FAILURE_THRESHOLD, BASE_BACKOFF_MILLIS, MAX_BACKOFF_MILLIS,
+                QUERY_FAILURE_WINDOW_MILLIS, TimeUnit.MILLISECONDS);
+
+        Endpoint(String url, int index) {
+            this.url = url;
+            this.index = index;
+            properties.putAll(connectionProperties);
+            properties.setProperty("exceptionInterceptors", QueryFailureInterceptor.class.getName());
+            properties.setProperty(QueryFailureInterceptor.ENDPOINT_PROPERTY, String.valueOf(index));
+            String rest = url.replaceFirst("^jdbc:[^:]+://", "");
+            int end = rest.indexOf('/');
+            this.label = end >= 0 ? rest.substring(0, end) : rest;
+        }
+    }
+
+    /**
+     * Gets a connection for a replica-safe read: a query that may see data a few seconds old, except
+     * for this session's own writes. Goes to a healthy replica that is at most the configured lag
+     * behind and has executed the GTIDs of the last {@link #recordWrite(Connection) recorded write};
+     * otherwise to the primary. Replica connections are read-only.
+     *
+     * @return A Connection object (read-only use).
+     * @throws SQLException if no replica qualifies and the primary cannot be reached.
+     */
+    public static Connection getReadConnection() throws SQLException {
+        configureEndpoints();
+        configureReplicas();
+        int count = REPLICAS.size();
+        WriteMark mustInclude = lastWrite;
+        if (mustInclude != null && mustInclude.gtids() == null) {
+            count = 0; // Our last write cannot be checked on a replica
+        }
+        int start = count > 0 ? Math.floorMod(nextReplica.getAndIncrement(), count) : 0;
+        for (int i = 0; i < count; i++) {
+            Replica replica = REPLICAS.get((start + i) % count);
+            if (!replica.canServe()) continue;
+            Connection conn = null;
+            try {
+                conn = DriverManager.getConnection(replica.url, connectionProperties);
+                conn.setReadOnly(true);
+                if (mustInclude != null && !replica.hasExecuted(conn, mustInclude.gtids())) {
+                    conn.close(); // Has not applied our last write yet
+                    continue;
+                }
+                replicaReads.incrementAndGet();
+                return conn;
+            } catch (SQLException e) {
+                closeConnection(conn);
+                replica.markDown(e); // Until the monitor reaches it again
+            }
+        }
+        primaryReads.incrementAndGet();
+        return getConnection();
+    }
+
+    /**
+     * Records that this session just wrote to the primary (e.g. placed a bet); call it on the writing
+     * connection once the write is committed. Reads the primary's executed GTID set, which then contains
+     * the write: replica-safe reads only go to replicas that have executed that set (read-your-writes).
+     * If the GTIDs cannot be read (GTIDs off, or the query failed), reads go to the primary until
+     * the next write whose GTIDs can be.
+     *
+     * @param conn The connection that made the write, still open.
+     */
+    public static void recordWrite(Connection conn) {
+        configureReplicas();
+        if (REPLICAS.isEmpty()) return; // Every read goes to the primary anyway
+        String gtids = null;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT @@GLOBAL.gtid_executed")) {
+            if (rs.next()) gtids = rs.getString(1);
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Could not read the GTIDs of a write, reads go to the primary.", e);
+        }
+        if (gtids != null && gtids.isBlank()) {
+            gtids = null;
+            if (gtidWarningLogged.compareAndSet(false, true)) {
+                LOGGER.warning("The primary has no GTIDs (gtid_mode is not ON); reads after a write go to the primary.");
+            }
+        }
+        lastWrite = new WriteMark(gtids);
+    }
+
+    /** A write to the primary: the primary's executed GTID set right after it, or null if unknown. */
+    private record WriteMark(String gtids) {
+    }
+
+    /** Logs how replica-safe reads were routed in this session. */
+    public static void logRoutingStats() {
+        if (REPLICAS.isEmpty()) return;
+        long onReplica = replicaReads.get();
+        long onPrimary = primaryReads.get();
+        LOGGER.info(String.format("Replica-safe reads: %d on replicas, %d on the primary (%.1f%% offloaded).",
+                onReplica, onPrimary, onReplica + onPrimary == 0 ? 0.0 : 100.0 * onReplica / (onReplica + onPrimary)));
+    }
+
+    private static void configureReplicas() {
+        if (replicasConfigured) return;
+        synchronized (DatabaseManager.class) {
+            if (replicasConfigured) return;
+            String urls = System.getProperty(REPLICAS_PROPERTY);
+            if (urls != null) {
+                for (String url : urls.split(",")) {
+                    if (!url.isBlank()) REPLICAS.add(new Replica(url.trim()));
+                }
+            }
+            maxLagMillis = TimeUnit.SECONDS.toMillis(Long.getLong(MAX_LAG_PROPERTY, DEFAULT_MAX_LAG_SECONDS));
+            if (!REPLICAS.isEmpty()) {
+                REPLICA_MONITOR.scheduleWithFixedDelay(() -> REPLICAS.forEach(Replica::sample),
+                        0, MONITOR_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                LOGGER.info("Routing replica-safe reads over " + REPLICAS.size() + " replica(s), max lag "
+                        + maxLagMillis / 1000 + " s.");
+            }
+            replicasConfigured = true;
+        }
+    }
+
+    /**
+     * A read replica and its last observed state. Only the monitor thread samples; readers see the
+     * latest sample through the volatile fields.
+     */
+    private static final class Replica {
+        final String url;
+        private Connection monitorConnection; // Kept open between samples (monitor thread only)
+        private boolean legacyStatusSyntax;   // MySQL before 8.0.22 only knows SHOW SLAVE STATUS
+        volatile boolean healthy;             // False until the first successful sample
+        volatile long lagMillis;
+        volatile String executedGtids;        // A GTID set this replica is known to have executed
+
+        Replica(String url) {
+            this.url = url;
+        }
+
+        boolean canServe() {
+            return healthy && lagMillis <= maxLagMillis;
+        }
+
+        /**
+         * Checks on a connection to this replica whether it has executed a GTID set. The last set that
+         * passed is remembered, so reads between two writes ask only once.
+         */
+        boolean hasExecuted(Connection conn, String gtids) throws SQLException {
+            if (gtids.equals(executedGtids)) return true;
+            try (PreparedStatement pstmt = conn.prepareStatement("SELECT GTID_SUBSET(?, @@GLOBAL.gtid_executed)")) {
+                pstmt.setString(1, gtids);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next() && rs.getInt(1) == 1) {
+                        executedGtids = gtids;
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        void markDown(SQLException e) {
+            if (healthy) {
+                LOGGER.log(Level.WARNING, "Replica " + url + " unreachable, reads fall back to the primary.", e);
+            }
+            healthy = false;
+        }
+
+        void sample() {
+            try {
+                if (monitorConnection == null || monitorConnection.isClosed()) {
+                    monitorConnection = DriverManager.getConnection(url, monitorProperties);
+                }
+                Long lagSeconds = readLagSeconds();
+                if (lagSeconds == null) { // Not replicating (stopped, broken, or not a replica at all)
+                    if (healthy) LOGGER.warning("Replica " + url + " is not replicating, reads fall back to the primary.");
+                    healthy = false;
+                    return;
+                }
+                // Lag is reported in whole seconds; count the partial second too
+                lagMillis = TimeUnit.SECONDS.toMillis(lagSeconds + 1);
+                if (!healthy) LOGGER.info("Replica " + url + " is serving reads (lag " + lagSeconds + " s).");
+                healthy = true;
+            } catch (SQLException e) {
+                markDown(e);
+                closeConnection(monitorConnection);
+                monitorConnection = null;
+            }
+        }
+
+        private Long readLagSeconds() throws SQLException {
+            try (Statement stmt = monitorConnection.createStatement()) {
+                stmt.setQueryTimeout(MONITOR_QUERY_TIMEOUT_SECONDS);
+                if (!legacyStatusSyntax) {
+                    try (ResultSet rs = stmt.executeQuery("SHOW REPLICA STATUS")) {
+                        return lag(rs, "Seconds_Behind_Source");
+                    } catch (SQLSyntaxErrorException e) {
+                        legacyStatusSyntax = true;
+                    }
+                }
+                try (ResultSet rs = stmt.executeQuery("SHOW SLAVE STATUS")) {
+                    return lag(rs, "Seconds_Behind_Master");
+                }
+            }
+        }
+
+        private static Long lag(ResultSet rs, String column) throws SQLException {
+            if (!rs.next()) return null;
+            long seconds = rs.getLong(column);
+            return rs.wasNull() ? null : seconds;
+        }
     }
 
     /**
@@ -52,6 +553,9 @@ public class DatabaseManager {
             LOGGER.info("Database connection successful.");
             return true;
 
+        } catch (SQLTransientConnectionException e) {
+            LOGGER.fine("Database connection test skipped: " + e.getMessage()); // Circuit open, nothing was tried
+            return false;
         } catch (SQLException e) {
             // Log the specific SQL error
             LOGGER.log(Level.SEVERE, "Database connection failed! URL: " + Config.DB_URL + ", User: " + Config.DB_USER, e);
@@ -84,5 +588,19 @@ public class DatabaseManager {
             }
         }
     }
+
+    /**
+     * Cancels the statement's running query (Connector/J sends KILL QUERY on a separate connection).
+     * Used when a streamed result is abandoned early: closing it would otherwise read every remaining row.
+     */
+    public static void cancelStatement(Statement stmt) {
+        if (stmt != null) {
+            try {
+                stmt.cancel();
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "Error cancelling statement.", e);
+            }
+        }
+    }
     // Add similar for PreparedStatement and ResultSet if needed
 }
\ No newline at end of file
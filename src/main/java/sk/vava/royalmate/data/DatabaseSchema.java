@@ -0,0 +1,40 @@
+package sk.vava.royalmate.data;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.logging.Logger;
+
+/**
+ * Schema changes made on top of the original database layout. They are applied once per deployment
+ * by the {@code SchemaMigration} tool, with an account allowed to run DDL. The desktop clients never
+ * change the schema; they only check that the columns and tables they use exist.
+ * Every step is idempotent, so the tool can be re-run safely.
+ */
+public final class DatabaseSchema {
+
+    private static final Logger LOGGER = Logger.getLogger(DatabaseSchema.class.getName());
+
+    /**
+     * Applies every schema change still missing on the primary.
+     * @throws SQLException if connecting or a DDL statement fails; steps already applied stay applied.
+     */
+    public static void migrate() throws SQLException {
+        try (Connection conn = DatabaseManager.getConnection()) {
+            DatabaseManager.disableQueryTimeout(conn); // DDL on large tables
+            AssetSchema.migrate(conn);
+            AssetSchema.backfillHashes(conn);
+            BannedTermDAO.createTable(conn);
+        }
+        LOGGER.info("Database schema is up to date.");
+    }
+
+    /**
+     * @param missing The missing table or column.
+     * @return The error message a client check reports when the migration has not been run.
+     */
+    static String outOfDate(String missing) {
+        return "Database schema is out of date: " + missing + " is missing. Run the SchemaMigration tool against this database.";
+    }
+
+    private DatabaseSchema() {}
+}
@@ -0,0 +1,194 @@
+package sk.vava.royalmate.data;
+
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.logging.Logger;
+
+/**
+ * Read-through cache of DAO lookups, shared by all instances of a DAO. Entries are bounded by count
+ * (least recently used go first) and by age; "not found" results can be cached too, with their own,
+ * usually shorter, lifetime. Lookups that failed with an SQLException are never cached.
+ * <p>
+ * The owning DAO invalidates entries on its own writes. Writes made elsewhere (another client, the
+ * admin console) only show up once the entry expires, so reads that must see the database state,
+ * like a balance check before a bet, should bypass the cache.
+ * <p>
+ * Cached values are copied on the way in and out, so callers may modify what they get.
+ * All methods are thread-safe.
+ */
+public final class EntityCache<K, V> {
+
+    private static final Logger LOGGER = Logger.getLogger(EntityCache.class.getName());
+    private static final List<EntityCache<?, ?>> REGISTRY = new CopyOnWriteArrayList<>();
+
+    /** Loads a value; an empty result means "not found". */
+    @FunctionalInterface
+    public interface Loader<K, V> {
+        Optional<V> load(K key) throws SQLException;
+    }
+
+    /** Counters of one cache since startup. */
+    public record Stats(String name, long hits, long negativeHits, long misses, long evictions, int size) {
+        /** @return Share of lookups answered from the cache (0 if there were none). */
+        public double hitRatio() {
+            long lookups = hits + negativeHits + misses;
+            return lookups == 0 ? 0 : (double) (hits + negativeHits) / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %.1f%% hit (%d hits, %d negative, %d misses, %d evictions, %d entries)",
+                    name, hitRatio() * 100, hits, negativeHits, misses, evictions, size);
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAtNanos) {} // Null value = cached "not found"
+
+    private final String name;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final UnaryOperator<V> copier;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private long invalidations; // Guarded by this; loads started before an invalidation are not stored
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param name        Name shown in the stats.
+     * @param maxEntries  Maximum number of cached keys.
+     * @param ttl         Lifetime of an entry.
+     * @param negativeTtl Lifetime of a "not found" entry; 0 disables negative caching.
+     * @param unit        Unit of both lifetimes.
+     * @param copier      Makes an independent copy of a value.
+     */
+    public EntityCache(String name, int maxEntries, long ttl, long negativeTtl, TimeUnit unit, UnaryOperator<V> copier) {
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = unit.toNanos(ttl);
+        this.negativeTtlNanos = unit.toNanos(negativeTtl);
+        this.copier = copier;
+        this.entries = new LinkedHashMap<>(Math.min(maxEntries, 1024) * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > EntityCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        REGISTRY.add(this);
+    }
+
+    /**
+     * Returns the cached value of the key, loading (and caching) it on a miss.
+     *
+     * @param key    The key.
+     * @param loader Loads the value from the database.
+     * @return The value, or empty if not found.
+     * @throws SQLException if the loader failed; nothing is cached then.
+     */
+    public Optional<V> get(K key, Loader<K, V> loader) throws SQLException {
+        long generation;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.expiresAtNanos() - System.nanoTime() > 0) {
+                if (entry.value() == null) {
+                    negativeHits.increment();
+                    return Optional.empty();
+                }
+                hits.increment();
+                return Optional.of(copier.apply(entry.value()));
+            }
+            if (entry != null) {
+                entries.remove(key); // Expired
+            }
+            generation = invalidations;
+        }
+        misses.increment();
+        Optional<V> loaded = loader.load(key);
+        store(key, loaded.orElse(null), generation);
+        return loaded;
+    }
+
+    /**
+     * Caches a value read elsewhere, e.g. by a query that bypassed the cache.
+     * @param key   The key.
+     * @param value The current value.
+     */
+    public void put(K key, V value) {
+        long generation;
+        synchronized (this) {
+            generation = invalidations;
+        }
+        store(key, value, generation);
+    }
+
+    /** @param key Key whose entry (including a "not found" entry) is dropped. */
+    public synchronized void invalidate(K key) {
+        invalidations++;
+        entries.remove(key);
+    }
+
+    /** @param stale Selects the cached values to drop; "not found" entries are kept. */
+    public synchronized void invalidateIf(Predicate<? super V> stale) {
+        invalidations++;
+        Iterator<Entry<V>> it = entries.values().iterator();
+        while (it.hasNext()) {
+            V value = it.next().value();
+            if (value != null && stale.test(value)) {
+                it.remove();
+            }
+        }
+    }
+
+    /** Drops all entries. */
+    public synchronized void clear() {
+        invalidations++;
+        entries.clear();
+    }
+
+    /** @return Counters of this cache. */
+    public Stats stats() {
+        int size;
+        synchronized (this) {
+            size = entries.size();
+        }
+        return new Stats(name, hits.sum(), negativeHits.sum(), misses.sum(), evictions.sum(), size);
+    }
+
+    /** @return Counters of every cache created so far, e.g. for logging or an admin view. */
+    public static List<Stats> allStats() {
+        return REGISTRY.stream().<Stats>map(EntityCache::stats).toList();
+    }
+
+    /** Logs the counters of every cache at INFO level. */
+    public static void logAllStats() {
+        allStats().forEach(stats -> LOGGER.info("Entity cache " + stats));
+    }
+
+    private void store(K key, V value, long generation) {
+        if (value == null && negativeTtlNanos <= 0) return;
+        V copy = value != null ? copier.apply(value) : null;
+        long expiresAt = System.nanoTime() + (value != null ? ttlNanos : negativeTtlNanos);
+        synchronized (this) {
+            if (generation != invalidations) {
+                return; // Written meanwhile; the loaded value may already be stale
+            }
+            entries.put(key, new Entry<>(copy, expiresAt));
+        }
+    }
+}
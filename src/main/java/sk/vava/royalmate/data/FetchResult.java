@@ -0,0 +1,59 @@
+package sk.vava.royalmate.data;
+
+/**
+ * Result of a conditional fetch: the caller passes the content hash it already holds and the DAO
+ * only transfers the content when it differs (the JDBC equivalent of an HTTP ETag check).
+ *
+ * @param <T> The fetched entity type.
+ */
+public final class FetchResult<T> {
+
+    public enum Status {
+        /** Content differs from the caller's hash (or the caller had none); the value carries it. */
+        CHANGED,
+        /** Caller's copy is current; the value carries metadata only, without content. */
+        UNCHANGED,
+        /** No such row. */
+        NOT_FOUND,
+        /** The query failed; the caller should keep what it has. */
+        FAILED
+    }
+
+    private static final FetchResult<?> NOT_FOUND_RESULT = new FetchResult<>(Status.NOT_FOUND, null);
+    private static final FetchResult<?> FAILED_RESULT = new FetchResult<>(Status.FAILED, null);
+
+    private final Status status;
+    private final T value;
+
+    private FetchResult(Status status, T value) {
+        this.status = status;
+        this.value = value;
+    }
+
+    public static <T> FetchResult<T> changed(T value) {
+        return new FetchResult<>(Status.CHANGED, value);
+    }
+
+    public static <T> FetchResult<T> unchanged(T metadata) {
+        return new FetchResult<>(Status.UNCHANGED, metadata);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> FetchResult<T> notFound() {
+        return (FetchResult<T>) NOT_FOUND_RESULT;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> FetchResult<T> failed() {
+        return (FetchResult<T>) FAILED_RESULT;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /** @return The entity for CHANGED (with content) and UNCHANGED (metadata only), otherwise null. */
+    public T getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,142 @@
+package sk.vava.royalmate.data;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * {@link AssetStore} keeping each image in its own file named by its SHA-256, sharded into
+ * two directory levels ({@code ab/cd/abcd...}) so no directory grows too large.
+ * Files are written to a temp file and atomically moved into place, so concurrent uploads of the
+ * same image from several clients are safe. Reads are memory-mapped.
+ * <p>
+ * The store is enabled by pointing the {@value #STORE_DIR_PROPERTY} system property at a directory
+ * all clients can reach (e.g. a shared network mount). Without it assets stay in DB BLOBs.
+ */
+public class FileAssetStore implements AssetStore {
+
+    private static final Logger LOGGER = Logger.getLogger(FileAssetStore.class.getName());
+    public static final String STORE_DIR_PROPERTY = "royalmate.assetstore.dir";
+    private static final Pattern HASH_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    private static volatile AssetStore configured;
+    private static volatile boolean configurationChecked = false;
+
+    private final Path root;
+
+    public FileAssetStore(Path root) {
+        this.root = root;
+    }
+
+    /**
+     * Gets the store configured via {@value #STORE_DIR_PROPERTY}.
+     * @return The shared store, or null if file storage is not enabled.
+     */
+    public static AssetStore configured() {
+        if (!configurationChecked) {
+            synchronized (FileAssetStore.class) {
+                if (!configurationChecked) {
+                    String dir = System.getProperty(STORE_DIR_PROPERTY);
+                    if (dir != null && !dir.isBlank()) {
+                        configured = new FileAssetStore(Paths.get(dir.trim()));
+                        LOGGER.info("Using file asset store at " + dir.trim());
+                    }
+                    configurationChecked = true;
+                }
+            }
+        }
+        return configured;
+    }
+
+    /**
+     * Computes the content hash used as the file name.
+     * @param data The content.
+     * @return Lowercase hex SHA-256.
+     */
+    public static String hash(byte[] data) {
+        return hash(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Computes the content hash used as the file name.
+     * @param data The content (position and limit are not changed).
+     * @return Lowercase hex SHA-256.
+     */
+    public static String hash(ByteBuffer data) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(data.duplicate());
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e); // Mandatory in every JRE
+        }
+    }
+
+    @Override
+    public String put(ByteBuffer data) throws IOException {
+        String contentHash = hash(data);
+        Path target = pathFor(contentHash);
+        if (Files.exists(target)) {
+            return contentHash; // Deduplicated: identical image already stored
+        }
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), contentHash, ".tmp");
+        try {
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer source = data.duplicate();
+                while (source.hasRemaining()) {
+                    out.write(source);
+                }
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException | AtomicMoveNotSupportedException e) {
+                // Another client stored the same content meanwhile (or the FS can't replace atomically)
+                if (!Files.exists(target)) {
+                    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return contentHash;
+    }
+
+    @Override
+    public ByteBuffer read(String contentHash) throws IOException {
+        try (FileChannel channel = FileChannel.open(pathFor(contentHash), StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    @Override
+    public boolean contains(String contentHash) {
+        try {
+            return Files.exists(pathFor(contentHash));
+        } catch (IllegalArgumentException e) {
+            LOGGER.log(Level.WARNING, "Invalid content hash: " + contentHash, e);
+            return false;
+        }
+    }
+
+    private Path pathFor(String contentHash) {
+        if (contentHash == null || !HASH_PATTERN.matcher(contentHash).matches()) {
+            throw new IllegalArgumentException("Invalid content hash: " + contentHash);
+        }
+        return root.resolve(contentHash.substring(0, 2)).resolve(contentHash.substring(2, 4)).resolve(contentHash);
+    }
+}
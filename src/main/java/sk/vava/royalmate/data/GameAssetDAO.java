@@ -2,12 +2,15 @@ package sk.vava.royalmate.data;
 
 import sk.vava.royalmate.model.AssetType;
 import sk.vava.royalmate.model.GameAsset;
+import sk.vava.royalmate.util.ByteBufferInputStream;
 
-import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.math.BigDecimal; // Import BigDecimal
@@ -20,8 +23,8 @@ public class GameAssetDAO {
 
     // Updated INSERT_ASSET_SQL with underscored column names
     private static final String INSERT_ASSET_SQL = "INSERT INTO " + TABLE_NAME +
-            " (game_id, asset_type, asset_name, image_data, symbol_payout_multiplier, uploaded_at) " +
-            "VALUES (?, ?, ?, ?, ?, ?)";
+            " (game_id, asset_type, asset_name, image_data, content_hash, content_size, symbol_payout_multiplier, uploaded_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
 
     // Updated FIND_BY_GAME_SQL with underscored column names
     private static final String FIND_BY_GAME_SQL = "SELECT * FROM " + TABLE_NAME + " WHERE game_id = ?";
@@ -32,53 +35,118 @@ public class GameAssetDAO {
     // Updated DELETE_BY_GAME_AND_TYPE_SQL with underscored column names
     private static final String DELETE_BY_GAME_AND_TYPE_SQL = "DELETE FROM " + TABLE_NAME + " WHERE game_id = ? AND asset_type = ?";
     // Add delete by ID if needed for individual asset removal in future
+    // Same as FIND_BY_GAME_AND_TYPE_SQL without the image itself; hash computed server side for rows saved before content hashes
+    private static final String FIND_METADATA_BY_GAME_AND_TYPE_SQL =
+            "SELECT id, game_id, asset_type, asset_name, symbol_payout_multiplier, uploaded_at, " +
+                    "COALESCE(content_hash, SHA2(image_data, 256)) as content_hash " +
+                    "FROM " + TABLE_NAME + " WHERE game_id = ? AND asset_type = ?";
+
+    private final AssetStore assetStore; // Null when images are kept as BLOBs
+
+    public GameAssetDAO() {
+        this(FileAssetStore.configured());
+    }
+
+    // Constructor for testing/DI
+    public GameAssetDAO(AssetStore assetStore) {
+        this.assetStore = assetStore;
+    }
 
     /**
      * Saves a new game asset (image).
      *
-     * @param asset The GameAsset to save (gameId must be set).
+     * @param asset The GameAsset to save (gameId must be set). Its ID is set on success.
      * @return true if successful, false otherwise.
      */
     public boolean save(GameAsset asset) {
-        LOGGER.fine("Attempting to save game asset for game ID: " + asset.getGameId() + ", Type: " + asset.getAssetType());
-        if (asset.getGameId() <= 0 || asset.getImageData() == null || asset.getImageData().length == 0) {
-            LOGGER.warning("Cannot save asset: Invalid game ID or empty image data.");
-            return false;
-        }
-
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(INSERT_ASSET_SQL)) {
-
-            pstmt.setInt(1, asset.getGameId());
-            pstmt.setString(2, asset.getAssetType().name());
-            pstmt.setString(3, asset.getAssetName());
+        return saveAll(List.of(asset));
+    }
 
-            try (ByteArrayInputStream bis = new ByteArrayInputStream(asset.getImageData())) {
-                pstmt.setBinaryStream(4, bis, asset.getImageData().length);
+    /**
+     * Saves several new game assets with one batched insert in a single transaction (all or none).
+     * A content hash already set on an asset (e.g. computed during upload) is reused.
+     *
+     * @param assets The GameAssets to save (gameId must be set). Their IDs are set on success.
+     * @return true if all were saved, false otherwise.
+     */
+    public boolean saveAll(List<GameAsset> assets) {
+        if (assets.isEmpty()) {
+            return true;
+        }
+        for (GameAsset asset : assets) {
+            if (asset.getGameId() <= 0 || asset.getImageData() == null || !asset.getImageData().hasRemaining()) {
+                LOGGER.warning("Cannot save assets: Invalid game ID or empty image data.");
+                return false;
             }
+        }
+        LOGGER.fine("Attempting to save " + assets.size() + " game assets for game ID: " + assets.get(0).getGameId());
 
-            if (asset.getAssetType() == AssetType.SYMBOL && asset.getSymbolPayoutMultiplier() != null) {
-                pstmt.setBigDecimal(5, asset.getSymbolPayoutMultiplier());
-            } else {
-                pstmt.setNull(5, Types.DECIMAL);
+        try (Connection conn = AssetSchema.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                insertAll(conn, assets);
+                conn.commit();
+                DatabaseManager.recordWrite(conn);
+                LOGGER.fine("Successfully saved " + assets.size() + " game assets.");
+                return true;
+            } catch (SQLException | IOException e) {
+                conn.rollback();
+                throw e;
             }
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error saving game assets for game ID: " + assets.get(0).getGameId(), e);
+            return false;
+        }
+    }
 
-            pstmt.setTimestamp(6, new Timestamp(System.currentTimeMillis()));
+    /**
+     * Inserts assets with one batched statement on the caller's connection (and transaction), which
+     * must come from {@link AssetSchema#getConnection()}. The assets must be valid; their IDs are set.
+     */
+    void insertAll(Connection conn, List<GameAsset> assets) throws SQLException, IOException {
+        try (PreparedStatement pstmt = conn.prepareStatement(INSERT_ASSET_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            Timestamp uploadedAt = new Timestamp(System.currentTimeMillis());
+            for (GameAsset asset : assets) {
+                bindInsert(pstmt, asset, uploadedAt);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
 
-            int affectedRows = pstmt.executeUpdate();
+            int index = 0;
+            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                while (generatedKeys.next() && index < assets.size()) {
+                    assets.get(index++).setId(generatedKeys.getInt(1)); // Needed to attach renditions
+                }
+            }
+        }
+    }
 
-            if (affectedRows > 0) {
-                LOGGER.fine("Successfully saved game asset.");
-                return true;
-            } else {
-                LOGGER.warning("Failed to save game asset, no rows affected.");
-                return false;
+    private void bindInsert(PreparedStatement pstmt, GameAsset asset, Timestamp uploadedAt) throws SQLException, IOException {
+        pstmt.setInt(1, asset.getGameId());
+        pstmt.setString(2, asset.getAssetType().name());
+        pstmt.setString(3, asset.getAssetName());
+
+        ByteBuffer imageData = asset.getImageData();
+        if (assetStore != null) {
+            // File is written first; a failed insert only leaves an unreferenced (deduplicated) file
+            pstmt.setNull(4, Types.BLOB);
+            asset.setContentHash(assetStore.put(imageData));
+        } else {
+            pstmt.setBinaryStream(4, new ByteBufferInputStream(imageData), imageData.remaining());
+            if (asset.getContentHash() == null) {
+                asset.setContentHash(FileAssetStore.hash(imageData));
             }
+        }
+        pstmt.setString(5, asset.getContentHash());
+        pstmt.setInt(6, imageData.remaining());
 
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Error saving game asset for game ID: " + asset.getGameId(), e);
-            return false;
+        if (asset.getAssetType() == AssetType.SYMBOL && asset.getSymbolPayoutMultiplier() != null) {
+            pstmt.setBigDecimal(7, asset.getSymbolPayoutMultiplier());
+        } else {
+            pstmt.setNull(7, Types.DECIMAL);
         }
+
+        pstmt.setTimestamp(8, uploadedAt);
     }
 
     /**
@@ -89,13 +157,13 @@ public class GameAssetDAO {
      */
     public Optional<GameAsset> findCoverByGameId(int gameId) {
         LOGGER.fine("Finding cover asset for game ID: " + gameId);
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = AssetSchema.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(FIND_COVER_BY_GAME_SQL)) {
 
             pstmt.setInt(1, gameId);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return Optional.of(mapResultSetToGameAsset(rs));
+                    return Optional.of(mapResultSetToGameAsset(rs, true));
                 }
             }
         } catch (SQLException e) {
@@ -114,7 +182,7 @@ public class GameAssetDAO {
     public List<GameAsset> findByGameIdAndType(int gameId, AssetType type) {
         LOGGER.fine("Finding assets for game ID: " + gameId + ", Type: " + type);
         List<GameAsset> assets = new ArrayList<>();
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = AssetSchema.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(FIND_BY_GAME_AND_TYPE_SQL)) {
 
             pstmt.setInt(1, gameId);
@@ -122,7 +190,7 @@ public class GameAssetDAO {
 
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    assets.add(mapResultSetToGameAsset(rs));
+                    assets.add(mapResultSetToGameAsset(rs, true));
                 }
             }
         } catch (SQLException e) {
@@ -131,31 +199,73 @@ public class GameAssetDAO {
         return assets;
     }
 
+    /**
+     * Finds all assets of a specific type for a given game without their image data,
+     * so callers can fetch the images through caches keyed by {@link GameAsset#getContentHash()}.
+     *
+     * @param gameId The game ID.
+     * @param type   The AssetType (e.g., SYMBOL).
+     * @return A List of GameAsset objects with null image data (might be empty).
+     */
+    public List<GameAsset> findMetadataByGameIdAndType(int gameId, AssetType type) {
+        LOGGER.fine("Finding asset metadata for game ID: " + gameId + ", Type: " + type);
+        List<GameAsset> assets = new ArrayList<>();
+        try (Connection conn = AssetSchema.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(FIND_METADATA_BY_GAME_AND_TYPE_SQL)) {
+
+            pstmt.setInt(1, gameId);
+            pstmt.setString(2, type.name());
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    assets.add(mapResultSetToGameAsset(rs, false));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error finding asset metadata for game ID: " + gameId + ", Type: " + type, e);
+        }
+        return assets;
+    }
+
     /**
      * Finds ALL assets associated with a specific game ID.
      * @param gameId The ID of the game.
-     * @return A List of GameAsset objects.
+     * @return A List of GameAsset objects; empty on DB error.
      */
     public List<GameAsset> findByGameId(int gameId) {
+        try {
+            return findByGameIdChecked(gameId);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error finding all assets for game ID: " + gameId, e);
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Like {@link #findByGameId}, but a DB error is thrown instead of read as "no assets",
+     * for bulk jobs (exports) that must not drop data silently.
+     *
+     * @param gameId The ID of the game.
+     * @return A List of GameAsset objects.
+     * @throws SQLException if the query failed.
+     */
+    public List<GameAsset> findByGameIdChecked(int gameId) throws SQLException {
         LOGGER.fine("Finding all assets for game ID: " + gameId);
         List<GameAsset> assets = new ArrayList<>();
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = AssetSchema.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(FIND_BY_GAME_SQL)) { // Use FIND_BY_GAME_SQL
 
             pstmt.setInt(1, gameId);
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    assets.add(mapResultSetToGameAsset(rs));
+                    assets.add(mapResultSetToGameAsset(rs, true));
                 }
             }
             LOGGER.fine("Found " + assets.size() + " assets for game ID: " + gameId);
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Error finding all assets for game ID: " + gameId, e);
         }
         return assets;
     }
 
-
     /**
      * Deletes all assets of a specific type for a given game.
      * Useful for replacing all symbols when updating a Slot game.
@@ -184,8 +294,22 @@ public class GameAssetDAO {
     }
 
 
-    /** Helper to map ResultSet to GameAsset object */
-    private GameAsset mapResultSetToGameAsset(ResultSet rs) throws SQLException {
+    /**
+     * Moves all asset BLOBs still stored in the DB into the given store, keeping only their hash.
+     *
+     * @param store     The target store.
+     * @param batchSize Rows per transaction.
+     * @param hashes    Collects the content hashes written (identical images share one).
+     * @return Number of assets migrated.
+     * @throws SQLException if a batch could not be read or committed (earlier batches stay migrated).
+     * @throws IOException  if a file could not be written.
+     */
+    public int migrateToStore(AssetStore store, int batchSize, Set<String> hashes) throws SQLException, IOException {
+        return AssetSchema.migrateTable(TABLE_NAME, store, batchSize, hashes);
+    }
+
+    /** Helper to map ResultSet to GameAsset object, optionally without the image data */
+    private GameAsset mapResultSetToGameAsset(ResultSet rs, boolean withImageData) throws SQLException {
         GameAsset asset = GameAsset.builder()
                 .id(rs.getInt("id")) // 'id' doesn't have an underscore
                 .gameId(rs.getInt("game_id")) // Updated
@@ -193,17 +317,39 @@ public class GameAssetDAO {
                 .assetName(rs.getString("asset_name")) // Updated
                 .symbolPayoutMultiplier(rs.getBigDecimal("symbol_payout_multiplier")) // Updated
                 .uploadedAt(rs.getTimestamp("uploaded_at")) // Updated
+                .contentHash(rs.getString("content_hash"))
                 .build();
+        if (!withImageData) {
+            return asset;
+        }
 
         // Retrieve BLOB data
         Blob imageBlob = rs.getBlob("image_data"); // Updated
         if (imageBlob != null) {
             try {
-                asset.setImageData(imageBlob.getBytes(1, (int) imageBlob.length()));
+                asset.setImageData(ByteBuffer.wrap(imageBlob.getBytes(1, (int) imageBlob.length())).asReadOnlyBuffer());
             } finally {
                 imageBlob.free();
             }
+        } else {
+            asset.setImageData(readFromStore(asset.getContentHash(), asset.getId()));
         }
         return asset;
     }
+
+    private ByteBuffer readFromStore(String contentHash, int assetId) {
+        if (contentHash == null) {
+            return null;
+        }
+        if (assetStore == null) {
+            LOGGER.warning("Asset ID " + assetId + " is kept in the asset store, but no store is configured (" + FileAssetStore.STORE_DIR_PROPERTY + ").");
+            return null;
+        }
+        try {
+            return assetStore.read(contentHash); // Mapped, not copied onto the heap
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.log(Level.WARNING, "Could not read asset ID " + assetId + " from the asset store.", e);
+            return null;
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package sk.vava.royalmate.data;
 
+import sk.vava.royalmate.model.AssetRef;
 import sk.vava.royalmate.model.Game;
 import sk.vava.royalmate.model.GameType;
 
@@ -7,6 +8,8 @@ import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.math.BigDecimal; // Import BigDecimal
@@ -16,6 +19,11 @@ import java.math.RoundingMode; // Import RoundingMode
 public class GameDAO {
 
     private static final Logger LOGGER = Logger.getLogger(GameDAO.class.getName());
+    private static final MapperCache<Game> GAME_MAPPERS = new MapperCache<>(columns -> compileGameMapper(columns, false));
+    private static final MapperCache<Game> STATS_MAPPERS = new MapperCache<>(columns -> compileGameMapper(columns, true));
+    // Game details by ID, shared by all GameDAO instances; no negative caching since IDs only appear through save()
+    private static final EntityCache<Integer, Game> BY_ID = new EntityCache<>("games.byId",
+            256, 5, 0, TimeUnit.MINUTES, g -> g.toBuilder().build());
 
     // Use exact table/column names from your schema
     private static final String TABLE_NAME = "games";
@@ -23,16 +31,21 @@ public class GameDAO {
     private static final String ACCOUNT_TABLE_NAME = "accounts"; // Assuming accounts
     private static final String GAMEPLAYS_TABLE_NAME = "game_plays"; // <-- NEW
 
+    // Cover reference instead of the BLOB itself; hash and size are only computed server side for rows saved before content hashes
+    private static final String COVER_REF_COLUMNS =
+            "ga.id as cover_asset_id, COALESCE(ga.content_hash, SHA2(ga.image_data, 256)) as cover_hash, " +
+                    "COALESCE(ga.content_size, LENGTH(ga.image_data)) as cover_size";
+
 
     // Updated INSERT_GAME_SQL with underscored column names
-    private static final String INSERT_GAME_SQL = "INSERT INTO " + TABLE_NAME +
+    static final String INSERT_GAME_SQL = "INSERT INTO " + TABLE_NAME +
             " (name, description, game_type, min_stake, max_stake, volatility, background_color, created_by_admin_id, is_active, created_at) " +
             "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
     // Updated FIND_ALL_SORTED_SQL with underscored column names in SELECT, JOIN, and ORDER BY
     private static final String FIND_ALL_SORTED_SQL =
             "SELECT g.id, g.name, g.description, g.game_type, g.min_stake, g.max_stake, g.volatility, g.background_color, g.created_by_admin_id, g.is_active, g.created_at, " +
-                    "a.username as admin_username, ga.image_data as cover_image " + // Use image_data for the alias
+                    "a.username as admin_username, " + COVER_REF_COLUMNS + " " +
                     "FROM " + TABLE_NAME + " g " +
                     "JOIN " + ACCOUNT_TABLE_NAME + " a ON g.created_by_admin_id = a.id " +
                     "LEFT JOIN " + ASSET_TABLE_NAME + " ga ON g.id = ga.game_id AND ga.asset_type = 'COVER' " + // Use game_id and asset_type
@@ -54,12 +67,13 @@ public class GameDAO {
 
     private static final String DELETE_GAME_SQL = "DELETE FROM " + TABLE_NAME + " WHERE id = ?";
 
-    // Find top N active games ordered by play count, joining for cover image and admin username
+    // Find top N active games ordered by play count, joining for cover reference and admin username
     // Use ANY_VALUE() for non-aggregated columns not in GROUP BY
     private static final String FIND_TOP_GAMES_SQL =
             "SELECT g.id, g.name, g.description, g.game_type, g.min_stake, g.max_stake, g.volatility, g.background_color, g.created_by_admin_id, g.is_active, g.created_at, " +
                     "ANY_VALUE(a.username) as admin_username, " + // <-- Use ANY_VALUE()
-                    "ANY_VALUE(ga.image_data) as cover_image, " + // <-- Use ANY_VALUE()
+                    "ANY_VALUE(ga.id) as cover_asset_id, ANY_VALUE(COALESCE(ga.content_hash, SHA2(ga.image_data, 256))) as cover_hash, " +
+                    "ANY_VALUE(COALESCE(ga.content_size, LENGTH(ga.image_data))) as cover_size, " +
                     "COUNT(gp.id) as spin_count " +
                     "FROM " + TABLE_NAME + " g " +
                     "JOIN " + ACCOUNT_TABLE_NAME + " a ON g.created_by_admin_id = a.id " +
@@ -70,11 +84,11 @@ public class GameDAO {
                     "ORDER BY spin_count DESC " +
                     "LIMIT ?";
 
-    // Find ALL ACTIVE games, joining for cover image and admin username (order can be added if needed)
+    // Find ALL ACTIVE games, joining for cover reference and admin username (order can be added if needed)
     private static final String FIND_ALL_ACTIVE_WITH_COVERS_SQL =
             "SELECT g.id, g.name, g.description, g.game_type, g.min_stake, g.max_stake, g.volatility, g.background_color, g.created_by_admin_id, g.is_active, g.created_at, " +
                     "a.username as admin_username, " +
-                    "ga.image_data as cover_image, " +
+                    COVER_REF_COLUMNS + ", " +
                     "COALESCE(gc.play_count, 0) as spin_count " + // Use COALESCE for games with 0 plays
                     "FROM " + TABLE_NAME + " g " +
                     "JOIN " + ACCOUNT_TABLE_NAME + " a ON g.created_by_admin_id = a.id " +
@@ -85,9 +99,23 @@ public class GameDAO {
                     "ORDER BY g.name ASC"; // Default sort by name
 
 
+    // All games (active or not) with cover, admin username and play count in one query, newest first
+    private static final String FIND_ALL_FOR_CATALOG_SQL =
+            "SELECT g.id, g.name, g.description, g.game_type, g.min_stake, g.max_stake, g.volatility, g.background_color, g.created_by_admin_id, g.is_active, g.created_at, " +
+                    "a.username as admin_username, " +
+                    COVER_REF_COLUMNS + ", " +
+                    "COALESCE(gc.play_count, 0) as spin_count " +
+                    "FROM " + TABLE_NAME + " g " +
+                    "JOIN " + ACCOUNT_TABLE_NAME + " a ON g.created_by_admin_id = a.id " +
+                    "LEFT JOIN " + ASSET_TABLE_NAME + " ga ON g.id = ga.game_id AND ga.asset_type = 'COVER' " +
+                    "LEFT JOIN (SELECT game_id, COUNT(id) as play_count FROM " + GAMEPLAYS_TABLE_NAME + " GROUP BY game_id) gc ON g.id = gc.game_id " +
+                    "ORDER BY g.created_at DESC";
+
     // --- NEW SQL for Export ---
     // Fetches ALL games (active or inactive) with aggregated stats and admin username
     // Does NOT fetch cover image blob for export efficiency
+    private static final String COUNT_ALL_SQL = "SELECT COUNT(*) FROM " + TABLE_NAME;
+
     private static final String FIND_ALL_WITH_STATS_SQL =
             "SELECT g.id, g.name, g.description, g.game_type, g.min_stake, g.max_stake, g.volatility, g.background_color, g.created_by_admin_id, g.is_active, g.created_at, " +
                     "a.username as admin_username, " +
@@ -118,18 +146,10 @@ public class GameDAO {
         try (Connection conn = DatabaseManager.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(INSERT_GAME_SQL, Statement.RETURN_GENERATED_KEYS)) {
 
-            pstmt.setString(1, game.getName());
-            pstmt.setString(2, game.getDescription());
-            pstmt.setString(3, game.getGameType().name());
-            pstmt.setBigDecimal(4, game.getMinStake());
-            pstmt.setBigDecimal(5, game.getMaxStake());
-            pstmt.setInt(6, game.getVolatility());
-            pstmt.setString(7, game.getBackgroundColor());
-            pstmt.setInt(8, game.getCreatedByAdminId());
-            pstmt.setBoolean(9, game.isActive());
-            pstmt.setTimestamp(10, new Timestamp(System.currentTimeMillis()));
+            bindInsert(pstmt, game, new Timestamp(System.currentTimeMillis()));
 
             int affectedRows = pstmt.executeUpdate();
+            DatabaseManager.recordWrite(conn);
 
             if (affectedRows > 0) {
                 generatedKeys = pstmt.getGeneratedKeys();
@@ -153,6 +173,20 @@ public class GameDAO {
         }
     }
 
+    /** Binds a game to the parameters of {@link #INSERT_GAME_SQL}. */
+    static void bindInsert(PreparedStatement pstmt, Game game, Timestamp createdAt) throws SQLException {
+        pstmt.setString(1, game.getName());
+        pstmt.setString(2, game.getDescription());
+        pstmt.setString(3, game.getGameType().name());
+        pstmt.setBigDecimal(4, game.getMinStake());
+        pstmt.setBigDecimal(5, game.getMaxStake());
+        pstmt.setInt(6, game.getVolatility());
+        pstmt.setString(7, game.getBackgroundColor());
+        pstmt.setInt(8, game.getCreatedByAdminId());
+        pstmt.setBoolean(9, game.isActive());
+        pstmt.setTimestamp(10, createdAt);
+    }
+
     /**
      * Retrieves all games, ordered by creation date descending.
      * Includes creator username and cover image data.
@@ -162,12 +196,13 @@ public class GameDAO {
     public List<Game> findAllSortedByDateDesc() {
         LOGGER.fine("Finding all games sorted by date desc.");
         List<Game> games = new ArrayList<>();
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = AssetSchema.getConnection(); // Cover columns need the content hash schema
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(FIND_ALL_SORTED_SQL)) {
 
+            RowMapper<Game> mapper = GAME_MAPPERS.forQuery(FIND_ALL_SORTED_SQL, rs);
             while (rs.next()) {
-                games.add(mapResultSetToGame(rs, true)); // Map extra JOINed data
+                games.add(mapper.map(rs)); // Map extra JOINed data
             }
             LOGGER.fine("Found " + games.size() + " games.");
 
@@ -179,23 +214,36 @@ public class GameDAO {
 
     /**
      * Finds a single game by its ID, including the creator's username.
+     * Served from a cache shared by all GameDAOs, invalidated by {@link #update(Game)} and {@link #delete(int)}.
      *
      * @param gameId The ID of the game.
      * @return Optional containing the Game if found.
      */
     public Optional<Game> findById(int gameId) {
         LOGGER.fine("Finding game by ID: " + gameId);
+        try {
+            return BY_ID.get(gameId, this::queryById);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error finding game by ID: " + gameId, e);
+        }
+        return Optional.empty();
+    }
+
+    /** @return Counters of the game cache. */
+    public static EntityCache.Stats cacheStats() {
+        return BY_ID.stats();
+    }
+
+    private Optional<Game> queryById(int gameId) throws SQLException {
         try (Connection conn = DatabaseManager.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(FIND_BY_ID_SQL)) {
 
             pstmt.setInt(1, gameId);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return Optional.of(mapResultSetToGame(rs, true)); // Map joined username
+                    return Optional.of(GAME_MAPPERS.forQuery(FIND_BY_ID_SQL, rs).map(rs)); // Map joined username
                 }
             }
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Error finding game by ID: " + gameId, e);
         }
         return Optional.empty();
     }
@@ -227,6 +275,8 @@ public class GameDAO {
             pstmt.setInt(9, game.getId()); // WHERE clause
 
             int affectedRows = pstmt.executeUpdate();
+            DatabaseManager.recordWrite(conn);
+            BY_ID.invalidate(game.getId());
             if (affectedRows > 0) {
                 LOGGER.info("Successfully updated game ID: " + game.getId());
                 return true;
@@ -254,6 +304,8 @@ public class GameDAO {
 
             pstmt.setInt(1, gameId);
             int affectedRows = pstmt.executeUpdate();
+            DatabaseManager.recordWrite(conn);
+            BY_ID.invalidate(gameId);
 
             if (affectedRows > 0) {
                 LOGGER.info("Successfully deleted game ID: " + gameId);
@@ -280,15 +332,16 @@ public class GameDAO {
     public List<Game> findTopGames(int limit) {
         LOGGER.fine("Finding top " + limit + " games by play count.");
         List<Game> games = new ArrayList<>();
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = AssetSchema.getReadConnection(); // Cover columns need the content hash schema
              PreparedStatement pstmt = conn.prepareStatement(FIND_TOP_GAMES_SQL)) {
 
             pstmt.setInt(1, limit); // Set the LIMIT parameter
 
             try (ResultSet rs = pstmt.executeQuery()) {
+                RowMapper<Game> mapper = GAME_MAPPERS.forQuery(FIND_TOP_GAMES_SQL, rs);
                 while (rs.next()) {
                     // Map including the new spin_count alias
-                    games.add(mapResultSetToGame(rs, true));
+                    games.add(mapper.map(rs));
                 }
             }
             LOGGER.fine("Found " + games.size() + " top games.");
@@ -310,12 +363,13 @@ public class GameDAO {
     public List<Game> findAllActiveWithCovers() {
         LOGGER.fine("Finding all active games with covers.");
         List<Game> games = new ArrayList<>();
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = AssetSchema.getConnection(); // Cover columns need the content hash schema
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(FIND_ALL_ACTIVE_WITH_COVERS_SQL)) {
 
+            RowMapper<Game> mapper = GAME_MAPPERS.forQuery(FIND_ALL_ACTIVE_WITH_COVERS_SQL, rs);
             while (rs.next()) {
-                games.add(mapResultSetToGame(rs, true)); // Map includes cover, username, spins
+                games.add(mapper.map(rs)); // Map includes cover, username, spins
             }
             LOGGER.fine("Found " + games.size() + " active games.");
 
@@ -326,97 +380,156 @@ public class GameDAO {
     }
     // --- END NEW METHOD ---
 
-// --- NEW METHOD for Export ---
     /**
-     * Retrieves ALL games with aggregated statistics (total spins, max payout)
-     * and creator username, suitable for export. Excludes BLOB data.
+     * Retrieves ALL games (active or not) with creator username, cover reference and play count.
+     * Used to build the shared catalog snapshot. Ordered by creation date, newest first.
      *
-     * @return List of Game objects with stats.
+     * @return List of Game objects, empty on error.
      */
-    public List<Game> findAllWithStats() {
-        LOGGER.fine("Finding all games with stats for export.");
+    public List<Game> findAllForCatalog() {
+        LOGGER.fine("Finding all games for catalog.");
         List<Game> games = new ArrayList<>();
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = AssetSchema.getConnection(); // Cover columns need the content hash schema
              Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(FIND_ALL_WITH_STATS_SQL)) {
+             ResultSet rs = stmt.executeQuery(FIND_ALL_FOR_CATALOG_SQL)) {
 
+            RowMapper<Game> mapper = GAME_MAPPERS.forQuery(FIND_ALL_FOR_CATALOG_SQL, rs);
             while (rs.next()) {
-                // Map using a flag to indicate stats should be included, but not cover image
-                games.add(mapResultSetToGame(rs, true, true)); // includeJoinData=true, includeStatsData=true
+                games.add(mapper.map(rs)); // Map includes cover, username, spins
             }
-            LOGGER.fine("Found " + games.size() + " games with stats.");
+            LOGGER.fine("Found " + games.size() + " games for catalog.");
 
         } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Error finding all games with stats", e);
+            LOGGER.log(Level.SEVERE, "Error finding games for catalog", e);
         }
         return games;
     }
-    // --- END NEW METHOD ---
 
-
-    /** Overloaded Helper to map ResultSet to Game object (MODIFIED) */
-    private Game mapResultSetToGame(ResultSet rs, boolean includeJoinData) throws SQLException {
-        // Calls the new helper, excluding stats by default for existing calls
-        return mapResultSetToGame(rs, includeJoinData, false);
-    }
-
-    /** Main Helper to map ResultSet to Game object (NEW OVERLOAD) */
-    private Game mapResultSetToGame(ResultSet rs, boolean includeJoinData, boolean includeStatsData) throws SQLException {
-        Game game = Game.builder()
-                .id(rs.getInt("id"))
-                .name(rs.getString("name"))
-                .description(rs.getString("description"))
-                .gameType(GameType.valueOf(rs.getString("game_type")))
-                .minStake(rs.getBigDecimal("min_stake"))
-                .maxStake(rs.getBigDecimal("max_stake"))
-                .volatility(rs.getInt("volatility"))
-                .backgroundColor(rs.getString("background_color"))
-                .createdByAdminId(rs.getInt("created_by_admin_id"))
-                .isActive(rs.getBoolean("is_active"))
-                .createdAt(rs.getTimestamp("created_at"))
-                .build();
-
-        if (includeJoinData) {
-            if (hasColumn(rs, "admin_username")) {
-                game.setCreatedByAdminUsername(rs.getString("admin_username"));
-            }
-            // Only map cover if needed (not for stats export)
-            if (!includeStatsData && hasColumn(rs, "cover_image")) {
-                Blob coverBlob = rs.getBlob("cover_image");
-                if (coverBlob != null) {
-                    try { game.setCoverImageData(coverBlob.getBytes(1, (int) coverBlob.length())); }
-                    finally { coverBlob.free(); }
+// --- NEW METHOD for Export ---
+    /**
+     * Streams all games with their stats, one row at a time: the driver is asked for a forward-only,
+     * row-by-row result set, so memory use does not grow with the number of games.
+     * The connection is busy until the stream ends, so the visitor must not query the DB itself.
+     *
+     * @param visitor Gets each game (a new object per row); returns false to stop early.
+     * @return Number of games visited, or -1 on DB error.
+     */
+    public long streamAllWithStats(Predicate<Game> visitor) {
+        LOGGER.fine("Streaming all games with stats.");
+        long visited = 0;
+        boolean stopped = false;
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(FIND_ALL_WITH_STATS_SQL,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            pstmt.setFetchSize(Integer.MIN_VALUE); // Connector/J: stream rows instead of buffering the result
+            DatabaseManager.disableQueryTimeout(conn); // The stats aggregate may take long to send its first row
+            try (ResultSet rs = pstmt.executeQuery()) {
+                RowMapper<Game> mapper = STATS_MAPPERS.forQuery(FIND_ALL_WITH_STATS_SQL, rs);
+                while (rs.next()) {
+                    visited++;
+                    if (!visitor.test(mapper.map(rs))) {
+                        LOGGER.fine("Game stream stopped by visitor after " + visited + " rows.");
+                        stopped = true;
+                        DatabaseManager.cancelStatement(pstmt); // Otherwise closing the result reads the rest
+                        break;
+                    }
                 }
             }
-        }
-
-        // Map stats if requested
-        if (includeStatsData) {
-            if (hasColumn(rs, "total_spins")) { // Use total_spins from new query
-                game.setTotalSpins(rs.getLong("total_spins"));
-            }
-            if (hasColumn(rs, "max_payout")) { // Map max_payout from new query
-                game.setMaxPayout(rs.getBigDecimal("max_payout"));
+            return visited;
+        } catch (SQLException e) {
+            if (stopped) { // The cancelled query may fail while its result is closed
+                LOGGER.log(Level.FINE, "Cancelled game stream ended with: " + e.getMessage());
+                return visited;
             }
-        } else if (includeJoinData && hasColumn(rs, "spin_count")) {
-            // Compatibility for older calls that used spin_count alias in JOINs
-            game.setTotalSpins(rs.getLong("spin_count"));
+            LOGGER.log(Level.SEVERE, "Error streaming games with stats after " + visited + " rows", e);
+            return -1;
         }
+    }
 
-
-        return game;
+    /**
+     * Counts all games, e.g. as the total for export progress.
+     *
+     * @return The number of games, or -1 on DB error.
+     */
+    public long countAll() {
+        try (Connection conn = DatabaseManager.getReadConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(COUNT_ALL_SQL)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error counting games", e);
+            return -1;
+        }
     }
+    // --- END NEW METHOD ---
 
 
-    /** Utility to check if a column exists in the ResultSet metadata */
-    private boolean hasColumn(ResultSet rs, String columnName) throws SQLException {
-        ResultSetMetaData rsmd = rs.getMetaData();
-        int columns = rsmd.getColumnCount();
-        for (int x = 1; x <= columns; x++) {
-            if (columnName.equalsIgnoreCase(rsmd.getColumnLabel(x))) {
-                return true;
+    /**
+     * Compiles the Game mapper for one query shape. Joined columns (creator username, cover, spin count)
+     * and stats columns are mapped when the query has them; indices are resolved once here, not per row.
+     * Package-private for the row mapping benchmark.
+     */
+    static RowMapper<Game> compileGameMapper(ColumnIndex columns, boolean includeStatsData) throws SQLException {
+        int id = columns.require("id");
+        int name = columns.require("name");
+        int description = columns.require("description");
+        int gameType = columns.require("game_type");
+        int minStake = columns.require("min_stake");
+        int maxStake = columns.require("max_stake");
+        int volatility = columns.require("volatility");
+        int backgroundColor = columns.require("background_color");
+        int createdByAdminId = columns.require("created_by_admin_id");
+        int isActive = columns.require("is_active");
+        int createdAt = columns.require("created_at");
+        int adminUsername = columns.find("admin_username");
+        // Only map cover if needed (not for stats export)
+        int coverAssetId = includeStatsData ? 0 : columns.find("cover_asset_id");
+        int coverHash = coverAssetId > 0 ? columns.require("cover_hash") : 0;
+        int coverSize = coverAssetId > 0 ? columns.require("cover_size") : 0;
+        int totalSpins = includeStatsData ? columns.find("total_spins") : 0;
+        int maxPayout = includeStatsData ? columns.find("max_payout") : 0;
+        // Compatibility for older calls that used spin_count alias in JOINs
+        int spinCount = includeStatsData ? 0 : columns.find("spin_count");
+
+        return rs -> {
+            Game game = Game.builder()
+                    .id(rs.getInt(id))
+                    .name(rs.getString(name))
+                    .description(rs.getString(description))
+                    .gameType(GameType.valueOf(rs.getString(gameType)))
+                    .minStake(rs.getBigDecimal(minStake))
+                    .maxStake(rs.getBigDecimal(maxStake))
+                    .volatility(rs.getInt(volatility))
+                    .backgroundColor(rs.getString(backgroundColor))
+                    .createdByAdminId(rs.getInt(createdByAdminId))
+                    .isActive(rs.getBoolean(isActive))
+                    .createdAt(rs.getTimestamp(createdAt))
+                    .build();
+
+            if (adminUsername > 0) {
+                game.setCreatedByAdminUsername(rs.getString(adminUsername));
             }
-        }
-        return false;
+            if (coverAssetId > 0) {
+                int coverId = rs.getInt(coverAssetId);
+                if (!rs.wasNull()) {
+                    game.setCoverAsset(AssetRef.builder()
+                            .assetId(coverId)
+                            .contentHash(rs.getString(coverHash))
+                            .sizeBytes(rs.getLong(coverSize))
+                            .build());
+                }
+            }
+            if (totalSpins > 0) {
+                game.setTotalSpins(rs.getLong(totalSpins));
+            }
+            if (maxPayout > 0) {
+                game.setMaxPayout(rs.getBigDecimal(maxPayout));
+            }
+            if (spinCount > 0) {
+                game.setTotalSpins(rs.getLong(spinCount));
+            }
+            return game;
+        };
     }
 }
@@ -0,0 +1,98 @@
+package sk.vava.royalmate.data;
+
+import sk.vava.royalmate.model.Game;
+import sk.vava.royalmate.model.GameAsset;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Bulk inserts for the game import: a chunk of games and all their assets go in with two batched
+ * statements in a single transaction, instead of one round trip (and commit) per row.
+ */
+public class GameImportDAO {
+
+    private static final Logger LOGGER = Logger.getLogger(GameImportDAO.class.getName());
+
+    /** A game to insert together with its assets (their gameId is set on insert). */
+    public record Entry(Game game, List<GameAsset> assets) {}
+
+    private final GameAssetDAO gameAssetDAO;
+
+    public GameImportDAO() {
+        this(new GameAssetDAO());
+    }
+
+    // Constructor for testing/DI
+    public GameImportDAO(GameAssetDAO gameAssetDAO) {
+        this.gameAssetDAO = gameAssetDAO;
+    }
+
+    /**
+     * Inserts games and their assets in one transaction (all or none). A game's own createdAt is
+     * kept when set, otherwise the current time is used.
+     *
+     * @param entries Games to insert (valid, without ID). Game and asset IDs are set on success.
+     * @throws SQLException if the insert failed; nothing was saved.
+     * @throws IOException  if writing an image to the asset store failed; nothing was saved.
+     */
+    public void saveAll(List<Entry> entries) throws SQLException, IOException {
+        if (entries.isEmpty()) return;
+        try (Connection conn = AssetSchema.getConnection()) {
+            DatabaseManager.disableQueryTimeout(conn); // Large batched inserts
+            conn.setAutoCommit(false);
+            try {
+                insertGames(conn, entries);
+                List<GameAsset> assets = new ArrayList<>();
+                for (Entry entry : entries) {
+                    for (GameAsset asset : entry.assets()) {
+                        asset.setGameId(entry.game().getId());
+                        assets.add(asset);
+                    }
+                }
+                if (!assets.isEmpty()) {
+                    gameAssetDAO.insertAll(conn, assets);
+                }
+                conn.commit();
+                DatabaseManager.recordWrite(conn);
+                LOGGER.fine("Imported " + entries.size() + " games with " + assets.size() + " assets.");
+            } catch (SQLException | IOException | RuntimeException e) {
+                conn.rollback();
+                for (Entry entry : entries) {
+                    entry.game().setId(0); // IDs from the rolled back insert are void
+                }
+                throw e;
+            }
+        }
+    }
+
+    private void insertGames(Connection conn, List<Entry> entries) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(GameDAO.INSERT_GAME_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            for (Entry entry : entries) {
+                Game game = entry.game();
+                GameDAO.bindInsert(pstmt, game, game.getCreatedAt() != null ? game.getCreatedAt() : now);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+
+            int index = 0;
+            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                while (generatedKeys.next() && index < entries.size()) {
+                    entries.get(index++).game().setId(generatedKeys.getInt(1));
+                }
+            }
+            if (index != entries.size()) {
+                throw new SQLException("Expected " + entries.size() + " generated game IDs, got " + index + ".");
+            }
+        }
+    }
+}
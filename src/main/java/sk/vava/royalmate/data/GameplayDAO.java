@@ -1,5 +1,6 @@
 package sk.vava.royalmate.data;
 
+import sk.vava.royalmate.model.AssetRef;
 import sk.vava.royalmate.model.GameType;
 import sk.vava.royalmate.model.Gameplay;
 import sk.vava.royalmate.model.UserStatistics; // Import UserStatistics
@@ -10,12 +11,14 @@ import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class GameplayDAO {
 
     private static final Logger LOGGER = Logger.getLogger(GameplayDAO.class.getName());
+    private static final MapperCache<Gameplay> GAMEPLAY_MAPPERS = new MapperCache<>(GameplayDAO::compileGameplayMapper);
     private static final String TABLE_NAME = "game_plays";
     private static final String ACCOUNT_TABLE_NAME = "accounts";
     private static final String GAME_TABLE_NAME = "games"; // <-- ADDED
@@ -36,6 +39,10 @@ public class GameplayDAO {
             "WHERE gp.game_id = ? AND gp.payout_amount > 0 " +
             "ORDER BY gp.timestamp DESC LIMIT ?";
 
+    // Bulk export: plain columns only, in id (= insertion) order so the primary key is scanned without sorting
+    private static final String STREAM_PLAYS_SELECT = "SELECT id, account_id, game_id, stake_amount, outcome, payout_amount, timestamp " +
+            "FROM " + TABLE_NAME;
+
     // --- NEW SQL ---
     // Query to calculate all required statistics for a user in one go
     private static final String GET_USER_STATS_SQL =
@@ -56,7 +63,8 @@ public class GameplayDAO {
                     "gp.id, gp.account_id, gp.game_id, gp.stake_amount, gp.outcome, gp.payout_amount, gp.timestamp, " +
                     "a.username, " +
                     "g.name as game_name, " +
-                    "ga.image_data as cover_image, " + // <-- SELECT cover image
+                    "ga.id as cover_asset_id, COALESCE(ga.content_hash, SHA2(ga.image_data, 256)) as cover_hash, " + // Cover reference, not the BLOB
+                    "COALESCE(ga.content_size, LENGTH(ga.image_data)) as cover_size, " +
                     "CASE " +
                     "WHEN gp.stake_amount IS NULL OR gp.stake_amount = 0 THEN 0.00 " +
                     "ELSE gp.payout_amount / gp.stake_amount " +
@@ -100,6 +108,7 @@ public class GameplayDAO {
             pstmt.setBigDecimal(5, BigDecimal.ZERO); // Initial payout
 
             int affectedRows = pstmt.executeUpdate();
+            DatabaseManager.recordWrite(conn);
 
             if (affectedRows > 0) {
                 generatedKeys = pstmt.getGeneratedKeys();
@@ -141,6 +150,7 @@ public class GameplayDAO {
             pstmt.setLong(3, gameplayId);
 
             int affectedRows = pstmt.executeUpdate();
+            DatabaseManager.recordWrite(conn);
             if (affectedRows > 0) {
                 LOGGER.fine("Successfully updated play result for gameplay ID: " + gameplayId);
                 return true;
@@ -164,15 +174,16 @@ public class GameplayDAO {
     public List<Gameplay> findRecentWinsByGame(int gameId, int limit) {
         LOGGER.fine("Finding recent " + limit + " wins for game ID: " + gameId);
         List<Gameplay> wins = new ArrayList<>();
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(FIND_RECENT_WINS_BY_GAME_SQL)) {
 
             pstmt.setInt(1, gameId);
             pstmt.setInt(2, limit);
 
             try (ResultSet rs = pstmt.executeQuery()) {
+                RowMapper<Gameplay> mapper = GAMEPLAY_MAPPERS.forQuery(FIND_RECENT_WINS_BY_GAME_SQL, rs);
                 while (rs.next()) {
-                    wins.add(mapResultSetToGameplay(rs));
+                    wins.add(mapper.map(rs));
                 }
             }
             LOGGER.fine("Found " + wins.size() + " recent wins for game ID: " + gameId);
@@ -198,7 +209,7 @@ public class GameplayDAO {
         // Safely replace placeholder in the template
         String finalSQL = FIND_TOP_PLAYS_SQL_TEMPLATE.replace("{orderByClause}", orderByClause);
 
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = AssetSchema.getReadConnection(); // Cover columns need the content hash schema
              PreparedStatement pstmt = conn.prepareStatement(finalSQL)) {
 
             pstmt.setString(1, gameType.name());
@@ -209,8 +220,9 @@ public class GameplayDAO {
                 long queryEndTime = System.currentTimeMillis();
                 LOGGER.fine("SQL query execution time: " + (queryEndTime - startTime) + " ms");
 
+                RowMapper<Gameplay> mapper = GAMEPLAY_MAPPERS.forQuery(finalSQL, rs); // One mapper per ORDER BY variant
                 while (rs.next()) {
-                    topPlays.add(mapResultSetToGameplay(rs)); // Use updated mapper
+                    topPlays.add(mapper.map(rs));
                 }
                 long mapEndTime = System.currentTimeMillis();
                 LOGGER.fine("Result set mapping time: " + (mapEndTime - queryEndTime) + " ms");
@@ -223,38 +235,109 @@ public class GameplayDAO {
         return topPlays;
     }
 
-    /** Helper method to map ResultSet to Gameplay object (MODIFIED) */
-    private Gameplay mapResultSetToGameplay(ResultSet rs) throws SQLException {
-        Gameplay play = Gameplay.builder()
-                .id(rs.getLong("id"))
-                .accountId(rs.getInt("account_id"))
-                .gameId(rs.getInt("game_id"))
-                .stakeAmount(rs.getBigDecimal("stake_amount"))
-                .outcome(rs.getString("outcome"))
-                .payoutAmount(rs.getBigDecimal("payout_amount"))
-                .timestamp(rs.getTimestamp("timestamp"))
-                .build();
-
-        if (hasColumn(rs, "username")) { play.setUsername(rs.getString("username")); }
-        if (hasColumn(rs, "game_name")) { play.setGameName(rs.getString("game_name")); }
-        if (hasColumn(rs, "multiplier")) {
-            play.setMultiplier(rs.getBigDecimal("multiplier").setScale(2, RoundingMode.HALF_UP));
-        } else { /* Calculate fallback */ }
-
-        // --- ADDED: Map Cover Image ---
-        if (hasColumn(rs, "cover_image")) {
-            Blob coverBlob = rs.getBlob("cover_image");
-            if (coverBlob != null) {
-                try {
-                    play.setCoverImageData(coverBlob.getBytes(1, (int) coverBlob.length()));
-                } finally {
-                    coverBlob.free(); // Release resources
+    /**
+     * Compiles the Gameplay mapper for one query shape. Joined columns (username, game name, multiplier, cover)
+     * are mapped when the query has them; indices are resolved once here, not per row.
+     * Package-private for the row mapping benchmark.
+     */
+    static RowMapper<Gameplay> compileGameplayMapper(ColumnIndex columns) throws SQLException {
+        int id = columns.require("id");
+        int accountId = columns.require("account_id");
+        int gameId = columns.require("game_id");
+        int stakeAmount = columns.require("stake_amount");
+        int outcome = columns.require("outcome");
+        int payoutAmount = columns.require("payout_amount");
+        int timestamp = columns.require("timestamp");
+        int username = columns.find("username");
+        int gameName = columns.find("game_name");
+        int multiplier = columns.find("multiplier");
+        int coverAssetId = columns.find("cover_asset_id");
+        int coverHash = coverAssetId > 0 ? columns.require("cover_hash") : 0;
+        int coverSize = coverAssetId > 0 ? columns.require("cover_size") : 0;
+
+        return rs -> {
+            Gameplay play = Gameplay.builder()
+                    .id(rs.getLong(id))
+                    .accountId(rs.getInt(accountId))
+                    .gameId(rs.getInt(gameId))
+                    .stakeAmount(rs.getBigDecimal(stakeAmount))
+                    .outcome(rs.getString(outcome))
+                    .payoutAmount(rs.getBigDecimal(payoutAmount))
+                    .timestamp(rs.getTimestamp(timestamp))
+                    .build();
+
+            if (username > 0) { play.setUsername(rs.getString(username)); }
+            if (gameName > 0) { play.setGameName(rs.getString(gameName)); }
+            if (multiplier > 0) {
+                play.setMultiplier(rs.getBigDecimal(multiplier).setScale(2, RoundingMode.HALF_UP));
+            }
+            if (coverAssetId > 0) {
+                int coverId = rs.getInt(coverAssetId);
+                if (!rs.wasNull()) {
+                    play.setCoverAsset(AssetRef.builder()
+                            .assetId(coverId)
+                            .contentHash(rs.getString(coverHash))
+                            .sizeBytes(rs.getLong(coverSize))
+                            .build());
                 }
             }
-        }
-        // ------------------------------
+            return play;
+        };
+    }
 
-        return play;
+    /**
+     * Streams the plays matching a filter, one row at a time: the driver is asked for a forward-only,
+     * row-by-row result set, so memory use does not depend on the number of rows.
+     * The connection is busy until the stream ends, so the visitor must not query the DB itself.
+     *
+     * @param filter  Which plays to read.
+     * @param visitor Gets each play (a new object per row, no joined fields); returns false to stop early.
+     * @return Number of plays visited, or -1 on DB error.
+     */
+    public long streamPlays(GameplayFilter filter, Predicate<Gameplay> visitor) {
+        List<String> conditions = new ArrayList<>(4);
+        if (filter.getFrom() != null) conditions.add("timestamp >= ?");
+        if (filter.getTo() != null) conditions.add("timestamp < ?");
+        if (filter.getGameId() != null) conditions.add("game_id = ?");
+        if (filter.getAccountId() != null) conditions.add("account_id = ?");
+        String sql = STREAM_PLAYS_SELECT + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions))
+                + " ORDER BY id";
+        LOGGER.fine("Streaming plays: " + filter);
+
+        long visited = 0;
+        boolean stopped = false;
+        try (Connection conn = DatabaseManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            int param = 1;
+            if (filter.getFrom() != null) pstmt.setTimestamp(param++, filter.getFrom());
+            if (filter.getTo() != null) pstmt.setTimestamp(param++, filter.getTo());
+            if (filter.getGameId() != null) pstmt.setInt(param++, filter.getGameId());
+            if (filter.getAccountId() != null) pstmt.setInt(param, filter.getAccountId());
+            pstmt.setFetchSize(Integer.MIN_VALUE); // Connector/J: stream rows instead of buffering the result
+            DatabaseManager.disableQueryTimeout(conn); // A filtered scan may take long to send its first row
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                RowMapper<Gameplay> mapper = GAMEPLAY_MAPPERS.forQuery(sql, rs);
+                while (rs.next()) {
+                    visited++;
+                    if (!visitor.test(mapper.map(rs))) {
+                        LOGGER.fine("Play stream stopped by visitor after " + visited + " rows.");
+                        stopped = true;
+                        DatabaseManager.cancelStatement(pstmt); // Otherwise closing the result reads the rest
+                        break;
+                    }
+                }
+            }
+            return visited;
+        } catch (SQLException e) {
+            if (stopped) { // The cancelled query may fail while its result is closed
+                LOGGER.log(Level.FINE, "Cancelled play stream ended with: " + e.getMessage());
+                return visited;
+            }
+            LOGGER.log(Level.SEVERE, "Error streaming plays after " + visited + " rows: " + filter, e);
+            return -1;
+        }
     }
 
     // --- NEW METHOD ---
@@ -266,7 +349,7 @@ public class GameplayDAO {
      */
     public Optional<UserStatistics> getUserStatistics(int accountId) {
         LOGGER.fine("Calculating statistics for account ID: " + accountId);
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(GET_USER_STATS_SQL)) {
 
             pstmt.setInt(1, accountId);
@@ -301,17 +384,4 @@ public class GameplayDAO {
         }
     }
     // --- END NEW METHOD --
-
-
-    /** Utility to check if a column exists in the ResultSet metadata */
-    private boolean hasColumn(ResultSet rs, String columnName) throws SQLException {
-        ResultSetMetaData rsmd = rs.getMetaData();
-        int columns = rsmd.getColumnCount();
-        for (int x = 1; x <= columns; x++) {
-            if (columnName.equalsIgnoreCase(rsmd.getColumnLabel(x))) {
-                return true;
-            }
-        }
-        return false;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package sk.vava.royalmate.data;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.sql.Timestamp;
+
+/**
+ * Selects game_plays rows for bulk reads. Every criterion is optional; null means "any".
+ */
+@Value
+@Builder
+public class GameplayFilter {
+    Timestamp from;     // Inclusive
+    Timestamp to;       // Exclusive
+    Integer gameId;
+    Integer accountId;
+}
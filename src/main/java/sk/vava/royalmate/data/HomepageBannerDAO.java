@@ -3,8 +3,11 @@ package sk.vava.royalmate.data;
 import sk.vava.royalmate.model.HomepageBanner;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.sql.*;
 import java.util.Optional;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -17,11 +20,29 @@ public class HomepageBannerDAO {
     private static final int MAIN_BANNER_POSITION = 1; // Fixed position for now
 
     private static final String FIND_BANNER_SQL = "SELECT * FROM homepage_banners WHERE id = ?";
+    // Image only leaves the server when the caller's hash differs
+    private static final String FIND_BANNER_IF_CHANGED_SQL =
+            "SELECT id, name, position, is_active, uploaded_by_admin_id, uploaded_at, content_hash, " +
+                    "(content_hash IS NOT NULL AND content_hash = ?) as unchanged, " +
+                    "CASE WHEN content_hash = ? THEN NULL ELSE image_data END as image_data " +
+                    "FROM homepage_banners WHERE id = ?";
     private static final String UPSERT_BANNER_SQL =
-            "INSERT INTO homepage_banners (id, name, image_data, position, is_active, uploaded_by_admin_id, uploaded_at) " +
-                    "VALUES (?, ?, ?, ?, true, ?, CURRENT_TIMESTAMP) " +
+            "INSERT INTO homepage_banners (id, name, image_data, content_hash, content_size, position, is_active, uploaded_by_admin_id, uploaded_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, true, ?, CURRENT_TIMESTAMP) " +
                     "ON DUPLICATE KEY UPDATE " +
-                    "name = VALUES(name), image_data = VALUES(image_data), uploaded_by_admin_id = VALUES(uploaded_by_admin_id), uploaded_at = VALUES(uploaded_at)";
+                    "name = VALUES(name), image_data = VALUES(image_data), content_hash = VALUES(content_hash), content_size = VALUES(content_size), " +
+                    "uploaded_by_admin_id = VALUES(uploaded_by_admin_id), uploaded_at = VALUES(uploaded_at)";
+
+    private final AssetStore assetStore; // Null when images are kept as BLOBs
+
+    public HomepageBannerDAO() {
+        this(FileAssetStore.configured());
+    }
+
+    // Constructor for testing/DI
+    public HomepageBannerDAO(AssetStore assetStore) {
+        this.assetStore = assetStore;
+    }
 
     /**
      * Finds the main homepage banner (assuming ID = 1).
@@ -30,7 +51,7 @@ public class HomepageBannerDAO {
      */
     public Optional<HomepageBanner> findMainBanner() {
         LOGGER.fine("Attempting to find main homepage banner (ID: " + MAIN_BANNER_ID + ")");
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = AssetSchema.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(FIND_BANNER_SQL)) {
 
             pstmt.setInt(1, MAIN_BANNER_ID);
@@ -49,6 +70,36 @@ public class HomepageBannerDAO {
         }
     }
 
+    /**
+     * Fetches the main banner only if its image differs from the one the caller already holds.
+     *
+     * @param knownHash Content hash of the caller's copy, or null if it has none.
+     * @return UNCHANGED with metadata only, CHANGED with the full banner, NOT_FOUND, or FAILED on a DB error.
+     */
+    public FetchResult<HomepageBanner> findMainBannerIfChanged(String knownHash) {
+        LOGGER.fine("Conditionally fetching main banner (ID: " + MAIN_BANNER_ID + "), known hash: " + knownHash);
+        try (Connection conn = AssetSchema.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(FIND_BANNER_IF_CHANGED_SQL)) {
+
+            pstmt.setString(1, knownHash);
+            pstmt.setString(2, knownHash);
+            pstmt.setInt(3, MAIN_BANNER_ID);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return FetchResult.notFound();
+                }
+                if (rs.getBoolean("unchanged")) {
+                    return FetchResult.unchanged(mapBannerMetadata(rs));
+                }
+                return FetchResult.changed(mapResultSetToHomepageBanner(rs));
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error conditionally fetching main banner (ID: " + MAIN_BANNER_ID + ")", e);
+            return FetchResult.failed();
+        }
+    }
+
     /**
      * Saves or updates the main banner (ID = 1).
      *
@@ -64,17 +115,24 @@ public class HomepageBannerDAO {
             return false;
         }
 
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = AssetSchema.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(UPSERT_BANNER_SQL)) {
 
             pstmt.setInt(1, MAIN_BANNER_ID); // Fixed ID
             pstmt.setString(2, name);
-            // Set BLOB using InputStream
-            try (ByteArrayInputStream bis = new ByteArrayInputStream(imageData)) {
-                pstmt.setBinaryStream(3, bis, imageData.length);
+            if (assetStore != null) {
+                pstmt.setNull(3, Types.BLOB);
+                pstmt.setString(4, assetStore.put(imageData));
+            } else {
+                // Set BLOB using InputStream
+                try (ByteArrayInputStream bis = new ByteArrayInputStream(imageData)) {
+                    pstmt.setBinaryStream(3, bis, imageData.length);
+                }
+                pstmt.setString(4, FileAssetStore.hash(imageData));
             }
-            pstmt.setInt(4, MAIN_BANNER_POSITION); // Fixed position
-            pstmt.setInt(5, adminId);
+            pstmt.setInt(5, imageData.length);
+            pstmt.setInt(6, MAIN_BANNER_POSITION); // Fixed position
+            pstmt.setInt(7, adminId);
 
             int affectedRows = pstmt.executeUpdate();
 
@@ -95,28 +153,63 @@ public class HomepageBannerDAO {
         }
     }
 
+    /**
+     * Moves banner BLOBs still stored in the DB into the given store, keeping only their hash.
+     *
+     * @param store     The target store.
+     * @param batchSize Rows per transaction.
+     * @param hashes    Collects the content hashes written.
+     * @return Number of banners migrated.
+     * @throws SQLException if a batch could not be read or committed.
+     * @throws IOException  if a file could not be written.
+     */
+    public int migrateToStore(AssetStore store, int batchSize, Set<String> hashes) throws SQLException, IOException {
+        return AssetSchema.migrateTable("homepage_banners", store, batchSize, hashes);
+    }
+
     /**
      * Helper method to map a ResultSet row to a HomepageBanner object.
      */
     private HomepageBanner mapResultSetToHomepageBanner(ResultSet rs) throws SQLException {
-        HomepageBanner banner = HomepageBanner.builder()
-                .id(rs.getInt("id"))
-                .name(rs.getString("name"))
-                .position(rs.getInt("position")) // Already int
-                .isActive(rs.getBoolean("is_active"))
-                .uploadedByAdminId(rs.getInt("uploaded_by_admin_id"))
-                .uploadedAt(rs.getTimestamp("uploaded_at"))
-                .build();
+        HomepageBanner banner = mapBannerMetadata(rs);
 
         // Retrieve BLOB data separately (can be large)
         Blob imageBlob = rs.getBlob("image_data");
         if (imageBlob != null) {
-            banner.setImageData(imageBlob.getBytes(1, (int) imageBlob.length()));
+            banner.setImageData(ByteBuffer.wrap(imageBlob.getBytes(1, (int) imageBlob.length())).asReadOnlyBuffer());
             imageBlob.free(); // Release BLOB resources
         } else {
-            banner.setImageData(null);
+            banner.setImageData(readFromStore(banner.getContentHash()));
         }
 
         return banner;
     }
-}
\ No newline at end of file
+
+    private HomepageBanner mapBannerMetadata(ResultSet rs) throws SQLException {
+        return HomepageBanner.builder()
+                .id(rs.getInt("id"))
+                .name(rs.getString("name"))
+                .position(rs.getInt("position")) // Already int
+                .isActive(rs.getBoolean("is_active"))
+                .uploadedByAdminId(rs.getInt("uploaded_by_admin_id"))
+                .uploadedAt(rs.getTimestamp("uploaded_at"))
+                .contentHash(rs.getString("content_hash"))
+                .build();
+    }
+
+    private ByteBuffer readFromStore(String contentHash) {
+        if (contentHash == null) {
+            return null;
+        }
+        if (assetStore == null) {
+            LOGGER.warning("Banner image is kept in the asset store, but no store is configured (" + FileAssetStore.STORE_DIR_PROPERTY + ").");
+            return null;
+        }
+        try {
+            return assetStore.read(contentHash); // Mapped, not copied onto the heap
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.log(Level.WARNING, "Could not read banner image from the asset store.", e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package sk.vava.royalmate.data;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiles a {@link RowMapper} once per SQL string: column indices (and which optional columns exist)
+ * are resolved from the first ResultSet of that query, later queries only compare the column labels
+ * (once per query, not per row). Replaces per-row name lookups and ResultSetMetaData scans.
+ */
+final class MapperCache<T> {
+
+    /** Builds a mapper for one query shape. */
+    @FunctionalInterface
+    interface Compiler<T> {
+        RowMapper<T> compile(ColumnIndex columns) throws SQLException;
+    }
+
+    private record Compiled<T>(RowMapper<T> mapper, String[] labels) {
+
+        boolean matches(ResultSetMetaData meta) throws SQLException {
+            if (meta.getColumnCount() != labels.length) {
+                return false;
+            }
+            for (int i = 0; i < labels.length; i++) {
+                if (!labels[i].equals(meta.getColumnLabel(i + 1))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private final Compiler<T> compiler;
+    private final Map<String, Compiled<T>> mappers = new ConcurrentHashMap<>();
+
+    MapperCache(Compiler<T> compiler) {
+        this.compiler = compiler;
+    }
+
+    /**
+     * Gets the mapper for a query, compiling it from the ResultSet metadata on first use.
+     *
+     * @param sql The query the ResultSet was produced by (cache key).
+     * @param rs  The ResultSet, before or on its first row.
+     * @return The mapper.
+     * @throws SQLException if the metadata cannot be read or a required column is missing.
+     */
+    RowMapper<T> forQuery(String sql, ResultSet rs) throws SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        Compiled<T> compiled = mappers.get(sql);
+        if (compiled == null || !compiled.matches(meta)) {
+            // Recompiled if the shape changed, e.g. a SELECT * after a schema migration added or reordered columns
+            ColumnIndex columns = new ColumnIndex(meta);
+            String[] labels = new String[columns.columnCount()];
+            for (int i = 0; i < labels.length; i++) {
+                labels[i] = meta.getColumnLabel(i + 1);
+            }
+            compiled = new Compiled<>(compiler.compile(columns), labels);
+            mappers.put(sql, compiled);
+        }
+        return compiled.mapper();
+    }
+}
@@ -0,0 +1,25 @@
+package sk.vava.royalmate.data;
+
+import lombok.Value;
+import sk.vava.royalmate.model.Account;
+
+import java.util.List;
+
+/**
+ * One page of the admin player list. Accounts carry only the listed columns (id, username, email,
+ * balance, admin flag), never the password hash.
+ */
+@Value
+public class PlayerPage {
+
+    /** Keyset position: the (username, id) of the last row of a page; the next page starts after it. */
+    public record Cursor(String username, int id) {}
+
+    List<Account> players;
+    Cursor next; // Null on the last page
+
+    /** @return true if there are more rows after this page. */
+    public boolean hasMore() {
+        return next != null;
+    }
+}
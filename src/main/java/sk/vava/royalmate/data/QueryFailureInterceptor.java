@@ -0,0 +1,64 @@
+package sk.vava.royalmate.data;
+
+import com.mysql.cj.exceptions.ExceptionInterceptor;
+import com.mysql.cj.log.Log;
+
+import java.net.SocketTimeoutException;
+import java.sql.SQLException;
+import java.util.Properties;
+
+/**
+ * Connector/J exception interceptor on primary connections: a communication failure (SQLState class 08)
+ * during a query counts against the endpoint's circuit breaker, like a failed connect does.
+ * Counted once per connection, since an 08 failure leaves the connection broken (and the driver may
+ * report it more than once). Failures while connecting are left to {@link DatabaseManager}, which counts those itself.
+ * An expired socket timeout is not counted either: it means a slow query on a live server, not a lost endpoint.
+ * Public with a no-arg constructor because the driver instantiates it by name, once per connection.
+ */
+public final class QueryFailureInterceptor implements ExceptionInterceptor {
+
+    /** Connection property naming the endpoint (its index in failover order). */
+    static final String ENDPOINT_PROPERTY = "royalmateEndpoint";
+
+    private int endpointIndex = -1;
+    private boolean counted;
+
+    @Override
+    public ExceptionInterceptor init(Properties props, Log log) {
+        String index = props.getProperty(ENDPOINT_PROPERTY);
+        if (index != null) {
+            try {
+                endpointIndex = Integer.parseInt(index);
+            } catch (NumberFormatException ignored) {
+                // Not one of ours; leave failures uncounted
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public void destroy() {
+    }
+
+    @Override
+    public Exception interceptException(Exception error) {
+        if (endpointIndex >= 0 && error instanceof SQLException sqlError) {
+            String sqlState = sqlError.getSQLState();
+            if (sqlState != null && sqlState.startsWith("08") && !counted && !DatabaseManager.isConnecting()
+                    && !isSocketTimeout(sqlError)) {
+                counted = true;
+                DatabaseManager.queryFailed(endpointIndex, sqlError);
+            }
+        }
+        return error; // Thrown as is
+    }
+
+    /** @return true if the failure was caused by the socketTimeout expiring (Connector/J keeps it as a cause). */
+    private static boolean isSocketTimeout(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SocketTimeoutException) return true;
+            if (cause.getCause() == cause) break;
+        }
+        return false;
+    }
+}
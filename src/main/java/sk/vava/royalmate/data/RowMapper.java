@@ -0,0 +1,13 @@
+package sk.vava.royalmate.data;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps the current row of a ResultSet. Mappers compiled by a {@link MapperCache} read columns
+ * by the indices resolved for their query, so they only fit ResultSets of that query.
+ */
+@FunctionalInterface
+interface RowMapper<T> {
+    T map(ResultSet rs) throws SQLException;
+}
@@ -0,0 +1,21 @@
+package sk.vava.royalmate.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Lightweight reference to an image stored in game_assets.
+ * List queries return these instead of the BLOB; the image is fetched on demand
+ * (see AssetImageService) and cached by content hash.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssetRef {
+    private int assetId;
+    private String contentHash; // Hex digest of image_data
+    private long sizeBytes;
+}
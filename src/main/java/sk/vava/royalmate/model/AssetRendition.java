@@ -0,0 +1,38 @@
+package sk.vava.royalmate.model;
+
+/**
+ * Pre-scaled versions of an uploaded image, generated once at upload time.
+ * Each rendition fits into a square box of {@code maxSide} pixels (aspect ratio is kept, never upscaled).
+ */
+public enum AssetRendition {
+    THUMBNAIL(128), // Leaderboard/list thumbnails, slot symbol cells
+    CARD(256),      // Homepage and search grid cards
+    FULL(1280);     // Largest size shown anywhere
+
+    private final int maxSide;
+
+    AssetRendition(int maxSide) {
+        this.maxSide = maxSide;
+    }
+
+    public int getMaxSide() {
+        return maxSide;
+    }
+
+    /**
+     * Picks the smallest rendition that covers the given display size.
+     *
+     * @param width  Display width in pixels.
+     * @param height Display height in pixels.
+     * @return The rendition to request.
+     */
+    public static AssetRendition forDisplaySize(double width, double height) {
+        double needed = Math.max(width, height);
+        for (AssetRendition rendition : values()) {
+            if (needed <= rendition.maxSide) {
+                return rendition;
+            }
+        }
+        return FULL;
+    }
+}
@@ -9,7 +9,7 @@ import java.math.BigDecimal;
 import java.sql.Timestamp;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Game {
@@ -28,6 +28,6 @@ public class Game {
     // --- Fields populated by JOINs or separate queries ---
     private String createdByAdminUsername;
     private long totalSpins;
-    private byte[] coverImageData;
+    private AssetRef coverAsset; // Cover image reference, bytes are loaded on demand
     private BigDecimal maxPayout; // <-- ADDED
 }
\ No newline at end of file
@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
 import java.sql.Timestamp;
 
 @Data
@@ -17,7 +18,8 @@ public class GameAsset {
     private int gameId;
     private AssetType assetType;
     private String assetName; // e.g., "Symbol 7", "Cherry", "Cover Image"
-    private byte[] imageData; // BLOB data
+    private ByteBuffer imageData; // Encoded image, read-only; memory-mapped when read from the asset store
+    private String contentHash; // Hash of the original image, identifies it in caches (null for unsaved assets)
     private BigDecimal symbolPayoutMultiplier; // Nullable, only for SYMBOL type
     private Timestamp uploadedAt;
 }
\ No newline at end of file
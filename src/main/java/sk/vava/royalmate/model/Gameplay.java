@@ -6,7 +6,6 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
-import java.sql.Blob; // Import Blob if directly using (though DAO handles it)
 import java.sql.Timestamp;
 
 @Data
@@ -26,5 +25,5 @@ public class Gameplay {
     private transient String username;
     private transient String gameName;
     private transient BigDecimal multiplier;
-    private transient byte[] coverImageData; // <-- ADDED
+    private transient AssetRef coverAsset; // Cover image reference, bytes are loaded on demand
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.nio.ByteBuffer;
 import java.sql.Timestamp;
 
 @Data
@@ -15,7 +16,8 @@ public class HomepageBanner {
 
     private int id;
     private String name;
-    private byte[] imageData; // Store image data as byte array
+    private ByteBuffer imageData; // Encoded image, read-only; memory-mapped when read from the asset store
+    private String contentHash; // SHA-256 of the image, used for conditional fetches
     private int position; // Use int for TINYINT UNSIGNED
     private boolean isActive;
     private int uploadedByAdminId;
@@ -2,18 +2,27 @@ package sk.vava.royalmate.service;
 
 import sk.vava.royalmate.data.*; // Import all DAOs from the package
 import sk.vava.royalmate.model.*; // Import all models from the package
+import sk.vava.royalmate.util.PrefixTrie;
 import sk.vava.royalmate.util.SessionManager;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 
 public class AdminService {
     private static final Logger LOGGER = Logger.getLogger(AdminService.class.getName());
+    public static final int PLAYER_PAGE_SIZE = 50;
+    private static final long USERNAME_INDEX_TTL_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    // Shared type-ahead index over all usernames; guarded by AdminService.class
+    private static PrefixTrie usernameIndex;
+    private static long usernameIndexBuiltAt;
 
     // DAOs - Final makes sure they are initialized in the constructor
     private final AccountDAO accountDAO;
@@ -21,6 +30,9 @@ public class AdminService {
     private final ChatMessageDAO chatMessageDAO;
     private final GameDAO gameDAO;
     private final GameAssetDAO gameAssetDAO;
+    private final CatalogService catalogService;
+    private final AssetRenditionService renditionService;
+    private final BannerService bannerService;
 
     public AdminService() {
         // Instantiate all DAOs
@@ -29,17 +41,67 @@ public class AdminService {
         this.chatMessageDAO = new ChatMessageDAO();
         this.gameDAO = new GameDAO();
         this.gameAssetDAO = new GameAssetDAO();
+        this.catalogService = CatalogService.getInstance();
+        this.renditionService = AssetRenditionService.getInstance();
+        this.bannerService = BannerService.getInstance();
     }
 
     // --- Player Management ---
 
     /**
-     * Retrieves all accounts from the database, ordered by username.
-     * @return A List of Account objects. Returns an empty list on error.
+     * Reads one page of the player list, filtered and sorted by the database.
+     *
+     * @param prefix     Username or email prefix (any case); blank for all players.
+     * @param descending true to sort Z to A.
+     * @param after      Cursor from the previous page, or null for the first page.
+     * @return The page (listed columns only). Empty if unauthorized.
+     */
+    public PlayerPage getPlayerPage(String prefix, boolean descending, PlayerPage.Cursor after) {
+        if (!SessionManager.isAdmin()) {
+            LOGGER.warning("Unauthorized attempt to list players.");
+            return new PlayerPage(List.of(), null);
+        }
+        return accountDAO.findPlayerPage(prefix, descending, after, PLAYER_PAGE_SIZE);
+    }
+
+    /**
+     * Completes a username prefix from an in-memory index of all usernames, refreshed every few minutes.
+     * The first call (and the first after a refresh is due) reads the usernames from the DB.
+     *
+     * @param prefix Username prefix, any case.
+     * @param limit  Maximum number of suggestions.
+     * @return Matching usernames in alphabetical order. Empty if unauthorized.
      */
-    public List<Account> getAllPlayers() {
-        LOGGER.fine("Fetching all players.");
-        return accountDAO.findAll();
+    public List<String> suggestUsernames(String prefix, int limit) {
+        if (!SessionManager.isAdmin()) {
+            return List.of();
+        }
+        return usernameIndex().complete(prefix, limit);
+    }
+
+    /**
+     * Looks up a player by exact username (case-insensitive).
+     * @param username The username.
+     * @return The account, or empty if not found or unauthorized.
+     */
+    public Optional<Account> findPlayerByUsername(String username) {
+        if (!SessionManager.isAdmin() || username == null || username.isBlank()) {
+            return Optional.empty();
+        }
+        return accountDAO.findByUsername(username.trim());
+    }
+
+    private PrefixTrie usernameIndex() {
+        synchronized (AdminService.class) {
+            if (usernameIndex == null || System.nanoTime() - usernameIndexBuiltAt > USERNAME_INDEX_TTL_NANOS) {
+                long start = System.nanoTime();
+                usernameIndex = new PrefixTrie(accountDAO.findAllUsernames());
+                usernameIndexBuiltAt = System.nanoTime();
+                LOGGER.fine("Username index built with " + usernameIndex.size() + " names in "
+                        + (usernameIndexBuiltAt - start) / 1_000_000 + " ms.");
+            }
+            return usernameIndex;
+        }
     }
 
     /**
@@ -107,7 +169,13 @@ public class AdminService {
             return false;
         }
         LOGGER.warning("Admin deleting account ID: " + targetAccountId);
-        return accountDAO.deleteAccount(targetAccountId);
+        boolean deleted = accountDAO.deleteAccount(targetAccountId);
+        if (deleted) {
+            synchronized (AdminService.class) {
+                usernameIndex = null; // Rebuilt on the next suggestion
+            }
+        }
+        return deleted;
     }
 
     // --- Chat Management ---
@@ -148,15 +216,60 @@ public class AdminService {
         return success;
     }
 
+    /**
+     * Gets the banned chat term list used by the moderation filter.
+     * @return List of banned terms.
+     */
+    public List<String> getBannedChatTerms() {
+        LOGGER.fine("Fetching banned chat terms.");
+        return ModerationService.getInstance().getBannedTerms();
+    }
+
+    /**
+     * Replaces the banned chat term list. The moderation filter is rebuilt in the background.
+     * @param terms The new list of terms.
+     * @return true if successful, false otherwise.
+     */
+    public boolean updateBannedChatTerms(List<String> terms) {
+        Account currentAdmin = SessionManager.getCurrentAccount();
+        if (currentAdmin == null || !currentAdmin.isAdmin()) {
+            LOGGER.warning("Unauthorized attempt to update banned chat terms.");
+            return false;
+        }
+        LOGGER.info("Admin ID " + currentAdmin.getId() + " updating banned chat terms.");
+        return ModerationService.getInstance().updateBannedTerms(terms, currentAdmin.getId());
+    }
+
+    /**
+     * Starts building the chat search index in the background so the first search is fast.
+     */
+    public void prepareChatSearch() {
+        ChatSearchService.getInstance();
+    }
+
+    /**
+     * Searches the chat history (admin only). Query tokens are matched as prefixes.
+     * @param query          Free text query.
+     * @param usernamePrefix Optional sender username prefix.
+     * @return Matching messages, newest first. Empty list if unauthorized.
+     */
+    public List<ChatMessage> searchChatMessages(String query, String usernamePrefix) {
+        if (!SessionManager.isAdmin()) {
+            LOGGER.warning("Unauthorized attempt to search chat history.");
+            return List.of();
+        }
+        return ChatSearchService.getInstance().search(query, usernamePrefix, ChatSearchService.DEFAULT_RESULT_LIMIT);
+    }
+
     // --- Banner Management ---
 
     /**
-     * Gets the main homepage banner.
+     * Gets the main homepage banner. The image is only transferred if it changed since it was last loaded.
      * @return Optional containing the HomepageBanner if found.
      */
     public Optional<HomepageBanner> getMainBanner() {
         LOGGER.fine("Fetching main banner.");
-        return bannerDAO.findMainBanner();
+        return bannerService.getMainBanner();
     }
 
     /**
@@ -177,7 +290,9 @@ public class AdminService {
         }
         LOGGER.info("Admin ID " + currentAdmin.getId() + " updating main banner.");
         boolean success = bannerDAO.saveOrUpdateMainBanner(bannerName, imageData, currentAdmin.getId());
-        if (!success) {
+        if (success) {
+            bannerService.onBannerSaved(bannerName, imageData);
+        } else {
             LOGGER.severe("Failed to update/insert main banner in DAO layer.");
         }
         return success;
@@ -186,23 +301,19 @@ public class AdminService {
     // --- Game Management ---
 
     /**
-     * Gets all games sorted by creation date, including creator username and cover image.
+     * Gets all games sorted by creation date, including creator username and cover reference.
+     * Served from the shared catalog snapshot, which is reloaded after every game change made here.
      * @return List of Game objects.
      */
     public List<Game> getAllGames() {
         LOGGER.fine("Fetching all games.");
-        return gameDAO.findAllSortedByDateDesc();
-    }
-
-    // --- NEW METHOD for Export ---
-    public List<Game> getAllGamesWithStats() {
-        LOGGER.fine("Fetching all games with stats for export.");
-        return gameDAO.findAllWithStats(); // Call the new DAO method
+        return catalogService.getSnapshot().getAllGames();
     }
 
     /**
      * Creates a new game along with its cover image and symbol assets.
-     * NOTE: Does not use transactions with raw JDBC for simplicity. Partial creation possible on error.
+     * NOTE: The game row and its assets (one batched insert) are separate transactions; if the assets fail,
+     * the game row is deleted again (best effort).
      *
      * @param gameData   The core game data (name, type, stakes etc.)
      * @param coverAsset The GameAsset object for the cover image. Must not be null.
@@ -215,7 +326,7 @@ public class AdminService {
             LOGGER.warning("Unauthorized attempt to create game.");
             return false;
         }
-        if (coverAsset == null || coverAsset.getImageData() == null || coverAsset.getImageData().length == 0) {
+        if (coverAsset == null || coverAsset.getImageData() == null || !coverAsset.getImageData().hasRemaining()) {
             LOGGER.severe("Game creation failed: Cover image data is mandatory.");
             return false; // Require cover image
         }
@@ -233,34 +344,30 @@ public class AdminService {
             return false;
         }
 
-        // Save the cover asset (mandatory)
+        // Cover and symbols go in with one batched insert; without its assets the game row is removed again
+        List<GameAsset> assets = new ArrayList<>();
         coverAsset.setGameId(gameId);
         coverAsset.setAssetType(AssetType.COVER);
-        if (!gameAssetDAO.save(coverAsset)) {
-            LOGGER.severe("Failed to save MANDATORY COVER asset for new game ID: " + gameId + ". Attempting cleanup.");
-            // Try to delete the game row since cover failed (Best effort cleanup without transaction)
-            gameDAO.delete(gameId);
-            return false;
-        }
-
-        // Save symbol assets (optional)
-        if (symbolAssets != null && !symbolAssets.isEmpty()) {
-            LOGGER.fine("Saving " + symbolAssets.size() + " symbol assets for game ID: " + gameId);
-            int symbolsSavedCount = 0;
+        assets.add(coverAsset);
+        if (symbolAssets != null) {
             for (GameAsset symbol : symbolAssets) {
                 if (symbol != null && symbol.getImageData() != null) {
                     symbol.setGameId(gameId);
                     symbol.setAssetType(AssetType.SYMBOL);
-                    if (gameAssetDAO.save(symbol)) {
-                        symbolsSavedCount++;
-                    } else {
-                        LOGGER.warning("Failed to save a SYMBOL asset for game ID: " + gameId + ". Name: " + symbol.getAssetName());
-                    }
+                    assets.add(symbol);
                 }
             }
-            LOGGER.info("Saved " + symbolsSavedCount + "/" + symbolAssets.size() + " symbol assets for game ID: " + gameId);
         }
+        if (!gameAssetDAO.saveAll(assets)) {
+            LOGGER.severe("Failed to save assets for new game ID: " + gameId + ". Attempting cleanup.");
+            // Try to delete the game row since its assets failed (Best effort cleanup without transaction)
+            gameDAO.delete(gameId);
+            return false;
+        }
+        assets.forEach(renditionService::generateAsync);
+        LOGGER.info("Saved cover and " + (assets.size() - 1) + " symbol assets for game ID: " + gameId);
 
+        catalogService.invalidate();
         return true; // Game and mandatory cover saved
     }
 
@@ -277,7 +384,11 @@ public class AdminService {
         }
         LOGGER.warning("Admin ID " + currentAdmin.getId() + " attempting to delete game ID: " + gameId);
         // Deletion handles assets via ON DELETE CASCADE in DB schema
-        return gameDAO.delete(gameId);
+        boolean deleted = gameDAO.delete(gameId);
+        if (deleted) {
+            catalogService.invalidate();
+        }
+        return deleted;
     }
 
     // --- NEW METHODS FOR EDITING ---
@@ -336,22 +447,15 @@ public class AdminService {
             return false; // Stop if core update fails
         }
 
-        // 2. Handle Cover Image Update (if new one provided)
+        // 2. Collect the new cover (if provided); saved together with the symbols below
+        List<GameAsset> newAssets = new ArrayList<>();
         if (newCoverAsset.isPresent()) {
             GameAsset cover = newCoverAsset.get();
-            if (cover.getImageData() != null && cover.getImageData().length > 0) {
+            if (cover.getImageData() != null && cover.getImageData().hasRemaining()) {
                 LOGGER.fine("Updating cover image for game ID: " + gameId);
-                // Need to delete existing cover first or use INSERT...ON DUPLICATE logic?
-                // Simple approach: Just save/update (assuming only one cover allowed per game).
-                // For raw JDBC without ON DUPLICATE for assets, might need delete then insert.
-                // Let's assume a simple save handles potential replacement needs for now,
-                // or adjust GameAssetDAO save method if needed.
                 cover.setGameId(gameId);
                 cover.setAssetType(AssetType.COVER);
-                if (!gameAssetDAO.save(cover)) { // Adjust save method if needed
-                    LOGGER.warning("Failed to update/save COVER asset for game ID: " + gameId);
-                    // Continue, as core game data was updated.
-                }
+                newAssets.add(cover);
             }
         }
 
@@ -366,22 +470,15 @@ public class AdminService {
                 // Decide: Stop update? Continue? Continue for now.
             }
 
-            // 3b. Save new symbols (if any provided)
-            if (newSymbolAssets != null && !newSymbolAssets.isEmpty()) {
-                LOGGER.fine("Saving " + newSymbolAssets.size() + " new symbol assets for game ID: " + gameId);
-                int symbolsSavedCount = 0;
+            // 3b. Collect new symbols (if any provided)
+            if (newSymbolAssets != null) {
                 for (GameAsset symbol : newSymbolAssets) {
                     if (symbol != null && symbol.getImageData() != null) {
                         symbol.setGameId(gameId);
                         symbol.setAssetType(AssetType.SYMBOL);
-                        if (gameAssetDAO.save(symbol)) {
-                            symbolsSavedCount++;
-                        } else {
-                            LOGGER.warning("Failed to save a new SYMBOL asset during update for game ID: " + gameId + ". Name: " + symbol.getAssetName());
-                        }
+                        newAssets.add(symbol);
                     }
                 }
-                LOGGER.info("Saved " + symbolsSavedCount + "/" + newSymbolAssets.size() + " new symbol assets during update for game ID: " + gameId);
             }
         } else {
             // If game type changed away from SLOT, delete any existing symbols
@@ -389,6 +486,16 @@ public class AdminService {
             gameAssetDAO.deleteByGameIdAndType(gameId, AssetType.SYMBOL);
         }
 
+        // 4. Save new cover and symbols with one batched insert
+        if (gameAssetDAO.saveAll(newAssets)) {
+            newAssets.forEach(renditionService::generateAsync);
+            LOGGER.info("Saved " + newAssets.size() + " new assets during update for game ID: " + gameId);
+        } else {
+            LOGGER.warning("Failed to save new assets during update for game ID: " + gameId);
+            // Continue, as core game data was updated.
+        }
+
+        catalogService.invalidate();
         return true; // Core game data was updated
     }
 
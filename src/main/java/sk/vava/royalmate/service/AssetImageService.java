@@ -0,0 +1,263 @@
+package sk.vava.royalmate.service;
+
+import javafx.scene.image.Image;
+import sk.vava.royalmate.data.AssetDiskCache;
+import sk.vava.royalmate.data.AssetRenditionDAO;
+import sk.vava.royalmate.model.AssetRef;
+import sk.vava.royalmate.model.AssetRendition;
+import sk.vava.royalmate.util.ImageUtil;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Loads images behind {@link AssetRef} handles on demand and keeps the decoded results in an
+ * LRU cache bounded by pixel memory. Only the smallest stored rendition covering the requested display
+ * size is transferred, and it is decoded at that display size. Entries are keyed by content hash,
+ * so identical covers share one entry and replaced covers never hit a stale one.
+ * Encoded bytes are also kept in the {@link AssetDiskCache}, so after a restart images are read
+ * from local disk instead of the DB.
+ * Loading methods may query the DB and must be called off the FX thread.
+ */
+public class AssetImageService {
+
+    private static final Logger LOGGER = Logger.getLogger(AssetImageService.class.getName());
+    private static final long DEFAULT_MAX_CACHE_BYTES = 64L * 1024 * 1024;
+    private static final int MAX_IDS_PER_QUERY = 100;
+
+    private static final AssetImageService INSTANCE =
+            new AssetImageService(new AssetRenditionDAO(), AssetDiskCache.getShared(), DEFAULT_MAX_CACHE_BYTES);
+
+    private final AssetRenditionDAO renditionDAO;
+    private final AssetDiskCache diskCache; // Null if the disk cache could not be opened
+    private final long maxCacheBytes;
+    private final LinkedHashMap<String, Image> cache = new LinkedHashMap<>(128, 0.75f, true); // Guarded by this
+    private long cachedBytes; // Guarded by this
+
+    // Constructor for testing/DI
+    public AssetImageService(AssetRenditionDAO renditionDAO, AssetDiskCache diskCache, long maxCacheBytes) {
+        this.renditionDAO = renditionDAO;
+        this.diskCache = diskCache;
+        this.maxCacheBytes = maxCacheBytes;
+    }
+
+    /** @return The shared instance. */
+    public static AssetImageService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the image if it is already cached. Never touches the DB, safe on the FX thread.
+     *
+     * @param ref    The asset reference (may be null).
+     * @param width  Display width the image was requested at.
+     * @param height Display height the image was requested at.
+     * @return The cached image, or null.
+     */
+    public Image getIfCached(AssetRef ref, double width, double height) {
+        if (ref == null) return null;
+        synchronized (this) {
+            return cache.get(cacheKey(ref, width, height));
+        }
+    }
+
+    /**
+     * Loads a single image, from the cache if possible.
+     *
+     * @param ref    The asset reference (may be null).
+     * @param width  Display width to decode at.
+     * @param height Display height to decode at.
+     * @return The image, or null if there is none or it could not be loaded.
+     */
+    public Image load(AssetRef ref, double width, double height) {
+        if (ref == null) return null;
+        return loadAll(List.of(ref), width, height).get(ref.getAssetId());
+    }
+
+    /**
+     * Loads several images at the same size. Cache misses are fetched with as few queries as possible.
+     *
+     * @param refs   The asset references (nulls are skipped).
+     * @param width  Display width to decode at.
+     * @param height Display height to decode at.
+     * @return Map of asset ID to image; assets that could not be loaded are absent.
+     */
+    public Map<Integer, Image> loadAll(Collection<AssetRef> refs, double width, double height) {
+        Map<Integer, Image> result = new HashMap<>();
+        Map<Integer, AssetRef> missing = new LinkedHashMap<>();
+        synchronized (this) {
+            for (AssetRef ref : refs) {
+                if (ref == null) continue;
+                Image cached = cache.get(cacheKey(ref, width, height));
+                if (cached != null) {
+                    result.put(ref.getAssetId(), cached);
+                } else {
+                    missing.put(ref.getAssetId(), ref);
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        AssetRendition rendition = AssetRendition.forDisplaySize(width, height);
+        Map<Integer, ByteBuffer> data = fetchEncoded(missing.values(), rendition);
+        for (Map.Entry<Integer, ByteBuffer> entry : data.entrySet()) {
+            Image image = decodeAndCache(missing.get(entry.getKey()), entry.getValue(), width, height);
+            if (image != null) {
+                result.put(entry.getKey(), image);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Decodes bytes obtained from {@link #fetchEncoded} at display size and adds the result to the cache.
+     *
+     * @param ref    The asset the bytes belong to.
+     * @param data   The encoded image.
+     * @param width  Display width to decode at.
+     * @param height Display height to decode at.
+     * @return The image, or null if it could not be decoded.
+     */
+    public Image decodeAndCache(AssetRef ref, ByteBuffer data, double width, double height) {
+        Image image = decode(data, width, height);
+        if (image != null) {
+            put(cacheKey(ref, width, height), image);
+        }
+        return image;
+    }
+
+    /**
+     * Fetches the encoded bytes of assets in one rendition: from the disk cache where possible,
+     * the rest from the DB in as few queries as possible (and then added to the disk cache).
+     * Where the rendition does not exist the original upload is returned instead; it is cached under
+     * the original's key, so a rendition generated later is still picked up.
+     *
+     * @param refs      The asset references (nulls are skipped).
+     * @param rendition The rendition to fetch.
+     * @return Map of asset ID to encoded bytes; assets that could not be loaded are absent.
+     */
+    public Map<Integer, ByteBuffer> fetchEncoded(Collection<AssetRef> refs, AssetRendition rendition) {
+        Map<Integer, ByteBuffer> result = new HashMap<>();
+        Map<Integer, AssetRef> missing = new LinkedHashMap<>();
+        Map<Integer, ByteBuffer> cachedOriginals = new LinkedHashMap<>();
+        Map<Integer, AssetRef> refsById = new HashMap<>();
+        for (AssetRef ref : refs) {
+            if (ref == null) continue;
+            refsById.put(ref.getAssetId(), ref);
+            boolean cacheable = diskCache != null && ref.getContentHash() != null;
+            ByteBuffer cached = cacheable ? diskCache.get(diskKey(ref, rendition)) : null;
+            ByteBuffer original = cacheable && cached == null ? diskCache.get(originalDiskKey(ref)) : null;
+            if (cached != null) {
+                result.put(ref.getAssetId(), cached);
+            } else if (original != null) {
+                cachedOriginals.put(ref.getAssetId(), original);
+            } else {
+                missing.put(ref.getAssetId(), ref);
+            }
+        }
+        int diskHits = result.size();
+        if (missing.isEmpty() && cachedOriginals.isEmpty()) {
+            return result;
+        }
+
+        // Originals on disk: only ask whether the rendition exists by now, never re-transfer the original
+        List<Integer> originalIds = new ArrayList<>(cachedOriginals.keySet());
+        for (int from = 0; from < originalIds.size(); from += MAX_IDS_PER_QUERY) {
+            List<Integer> chunk = originalIds.subList(from, Math.min(from + MAX_IDS_PER_QUERY, originalIds.size()));
+            Map<Integer, ByteBuffer> renditions = renditionDAO.findRenditionDataByIds(chunk, rendition);
+            for (Integer id : chunk) {
+                ByteBuffer data = renditions.get(id);
+                if (data != null) {
+                    diskCache.put(diskKey(refsById.get(id), rendition), data);
+                    result.put(id, data);
+                } else {
+                    result.put(id, cachedOriginals.get(id));
+                }
+            }
+        }
+
+        List<Integer> ids = new ArrayList<>(missing.keySet());
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+            List<Integer> chunk = ids.subList(from, Math.min(from + MAX_IDS_PER_QUERY, ids.size()));
+            Map<Integer, AssetRenditionDAO.ImageData> data = renditionDAO.findImageDataByIds(chunk, rendition);
+            for (Map.Entry<Integer, AssetRenditionDAO.ImageData> entry : data.entrySet()) {
+                ByteBuffer bytes = entry.getValue().data();
+                result.put(entry.getKey(), bytes);
+                AssetRef ref = refsById.get(entry.getKey());
+                if (diskCache != null && ref != null && ref.getContentHash() != null) {
+                    diskCache.put(entry.getValue().rendition() ? diskKey(ref, rendition) : originalDiskKey(ref), bytes);
+                }
+            }
+        }
+        if (diskCache != null) {
+            diskCache.flush();
+        }
+        LOGGER.fine("Fetched " + rendition + " asset images: " + diskHits + " from disk cache, "
+                + cachedOriginals.size() + " originals from disk cache, "
+                + (result.size() - diskHits - cachedOriginals.size()) + " of " + missing.size() + " from DB.");
+        return result;
+    }
+
+    /** Drops all cached images, e.g. after assets were replaced in bulk. */
+    public synchronized void clear() {
+        cache.clear();
+        cachedBytes = 0;
+    }
+
+    private synchronized void put(String key, Image image) {
+        Image previous = cache.put(key, image);
+        if (previous != null) {
+            cachedBytes -= pixelBytes(previous);
+        }
+        cachedBytes += pixelBytes(image);
+        Iterator<Map.Entry<String, Image>> it = cache.entrySet().iterator();
+        while (cachedBytes > maxCacheBytes && it.hasNext()) {
+            Map.Entry<String, Image> eldest = it.next();
+            if (eldest.getValue() == image) continue; // Always keep the entry just added
+            cachedBytes -= pixelBytes(eldest.getValue());
+            it.remove();
+        }
+    }
+
+    private static Image decode(ByteBuffer data, double width, double height) {
+        try {
+            Image image = ImageUtil.byteBufferToImage(data, width, height);
+            if (image == null || image.isError()) {
+                LOGGER.warning("Asset image data could not be decoded.");
+                return null;
+            }
+            return image;
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to decode asset image.", e);
+            return null;
+        }
+    }
+
+    private static long pixelBytes(Image image) {
+        return (long) image.getWidth() * (long) image.getHeight() * 4; // 32-bit ARGB
+    }
+
+    private static String diskKey(AssetRef ref, AssetRendition rendition) {
+        return ref.getContentHash() + '/' + rendition.name();
+    }
+
+    private static String originalDiskKey(AssetRef ref) {
+        return ref.getContentHash(); // The content hash is computed over the original upload
+    }
+
+    private static String cacheKey(AssetRef ref, double width, double height) {
+        String content = ref.getContentHash() != null ? ref.getContentHash() : "#" + ref.getAssetId();
+        return content + '@' + (int) width + 'x' + (int) height;
+    }
+}
@@ -0,0 +1,121 @@
+package sk.vava.royalmate.service;
+
+import javafx.scene.image.Image;
+import sk.vava.royalmate.data.FileAssetStore;
+import sk.vava.royalmate.util.ImageHeader;
+import sk.vava.royalmate.util.ImageUtil;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Prepares image files chosen by an admin for storing: the header is checked first (format,
+ * file size, pixel size) so bad or oversized files are rejected without decoding them,
+ * then the image is decoded straight at its display size, re-encoded as PNG and hashed.
+ * Files are processed concurrently, so picking several symbols takes about as long as the slowest one.
+ */
+public class AssetIngestService {
+
+    private static final Logger LOGGER = Logger.getLogger(AssetIngestService.class.getName());
+    public static final long MAX_FILE_BYTES = 10L * 1024 * 1024;
+    public static final int MAX_DIMENSION = 8192;
+
+    private static final AssetIngestService INSTANCE =
+            new AssetIngestService(Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())));
+
+    private final ExecutorService ingestExecutor;
+
+    /** Thrown (as the cause of a failed future) when a file is readable but over the upload limits. */
+    public static class ImageTooLargeException extends IOException {
+        public ImageTooLargeException(String message) {
+            super(message);
+        }
+    }
+
+    // Constructor for testing/DI
+    public AssetIngestService(int threads) {
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.ingestExecutor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "asset-ingest-" + threadCounter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** @return The shared instance. */
+    public static AssetIngestService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Ingests one file in the background.
+     *
+     * @param file      The chosen image file.
+     * @param maxWidth  Width of the box the image is scaled down to fit (aspect ratio is kept, never upscaled).
+     * @param maxHeight Height of that box.
+     * @return Future with the ingested image; fails with an IOException cause (an {@link ImageTooLargeException}
+     *         if the file exceeds the limits).
+     */
+    public CompletableFuture<IngestedImage> ingest(Path file, double maxWidth, double maxHeight) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return ingestNow(file, maxWidth, maxHeight);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, ingestExecutor);
+    }
+
+    /**
+     * Ingests several files concurrently, all scaled to the same box.
+     *
+     * @param files     The chosen image files.
+     * @param maxWidth  Width of the box.
+     * @param maxHeight Height of the box.
+     * @return One future per file, in the same order.
+     */
+    public List<CompletableFuture<IngestedImage>> ingestAll(List<Path> files, double maxWidth, double maxHeight) {
+        List<CompletableFuture<IngestedImage>> futures = new ArrayList<>(files.size());
+        for (Path file : files) {
+            futures.add(ingest(file, maxWidth, maxHeight));
+        }
+        return futures;
+    }
+
+    private IngestedImage ingestNow(Path file, double maxWidth, double maxHeight) throws IOException {
+        long start = System.nanoTime();
+        ImageHeader header = ImageHeader.read(file);
+        if (header.getFileSize() > MAX_FILE_BYTES) {
+            throw new ImageTooLargeException(file.getFileName() + " has " + header.getFileSize() + " bytes.");
+        }
+        if (header.getWidth() <= 0 || header.getHeight() <= 0
+                || header.getWidth() > MAX_DIMENSION || header.getHeight() > MAX_DIMENSION) {
+            throw new ImageTooLargeException(file.getFileName() + " is " + header.getWidth() + "x" + header.getHeight() + " px.");
+        }
+
+        // Synchronous load on this worker thread, decoded directly at display size. The box is clamped to the
+        // image's own size, since Image scales small images up to fill it
+        Image image = new Image(file.toUri().toString(), Math.min(maxWidth, header.getWidth()),
+                Math.min(maxHeight, header.getHeight()), true, true);
+        if (image.isError()) {
+            throw new IOException("Failed to decode " + file.getFileName(), image.getException());
+        }
+        byte[] data = ImageUtil.imageToByteArray(image, header.getFormat().name());
+        if (data == null) {
+            throw new IOException("Failed to encode " + file.getFileName());
+        }
+        IngestedImage ingested = new IngestedImage(file.getFileName().toString(), header, data, FileAssetStore.hash(data));
+        LOGGER.fine("Ingested " + file.getFileName() + " (" + header.getFormat() + " " + header.getWidth() + "x"
+                + header.getHeight() + ", " + header.getFileSize() + " -> " + data.length + " bytes) in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms.");
+        return ingested;
+    }
+}
@@ -0,0 +1,120 @@
+package sk.vava.royalmate.service;
+
+import sk.vava.royalmate.data.AssetRenditionDAO;
+import sk.vava.royalmate.model.AssetRendition;
+import sk.vava.royalmate.model.GameAsset;
+import sk.vava.royalmate.util.RenditionEncoder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Generates and stores the {@link AssetRendition}s of newly uploaded assets.
+ * Runs on a background thread so saving a game is not slowed down by image scaling;
+ * until the renditions are stored, readers transparently get the original upload.
+ */
+public class AssetRenditionService {
+
+    private static final Logger LOGGER = Logger.getLogger(AssetRenditionService.class.getName());
+
+    private static final AssetRenditionService INSTANCE = new AssetRenditionService(new AssetRenditionDAO());
+
+    private final AssetRenditionDAO renditionDAO;
+    private final ExecutorService encoderExecutor;
+
+    // Constructor for testing/DI
+    public AssetRenditionService(AssetRenditionDAO renditionDAO) {
+        this.renditionDAO = renditionDAO;
+        this.encoderExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "asset-renditions");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** @return The shared instance. */
+    public static AssetRenditionService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Queues rendition generation for a saved asset.
+     *
+     * @param asset The saved asset (ID and image data must be set).
+     * @return Future completing with true if the renditions were stored.
+     */
+    public CompletableFuture<Boolean> generateAsync(GameAsset asset) {
+        if (asset == null || asset.getId() <= 0 || asset.getImageData() == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        int assetId = asset.getId();
+        ByteBuffer original = asset.getImageData();
+        return CompletableFuture.supplyAsync(() -> generate(assetId, original), encoderExecutor);
+    }
+
+    /**
+     * Queues rendition generation for a batch of saved assets, stored over one connection once all are
+     * encoded. Callers queueing many batches (imports) should wait for the previous future before queueing
+     * the next, so at most one batch of originals is held in memory.
+     *
+     * @param assets The saved assets (ID and image data must be set; others are skipped).
+     * @return Future completing with the number of assets whose renditions were stored; never completes exceptionally.
+     */
+    public CompletableFuture<Integer> generateAllAsync(List<GameAsset> assets) {
+        List<GameAsset> valid = assets.stream()
+                .filter(asset -> asset != null && asset.getId() > 0 && asset.getImageData() != null)
+                .toList();
+        if (valid.isEmpty()) {
+            return CompletableFuture.completedFuture(0);
+        }
+        return CompletableFuture.supplyAsync(() -> generateAll(valid), encoderExecutor)
+                .exceptionally(e -> {
+                    LOGGER.log(Level.WARNING, "Failed to store renditions for " + valid.size() + " assets.", e);
+                    return 0;
+                });
+    }
+
+    private int generateAll(List<GameAsset> assets) {
+        long start = System.nanoTime();
+        Map<Integer, Map<AssetRendition, byte[]>> renditions = new LinkedHashMap<>();
+        for (GameAsset asset : assets) {
+            try {
+                renditions.put(asset.getId(), RenditionEncoder.createRenditions(asset.getImageData()));
+            } catch (IOException | RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Failed to create renditions for asset ID " + asset.getId()
+                        + ", original will be served.", e);
+            }
+        }
+        if (!renditionDAO.saveAll(renditions)) {
+            return 0;
+        }
+        LOGGER.fine("Stored renditions for " + renditions.size() + " of " + assets.size() + " assets in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms.");
+        return renditions.size();
+    }
+
+    private boolean generate(int assetId, ByteBuffer original) {
+        try {
+            long start = System.nanoTime();
+            Map<AssetRendition, byte[]> renditions = RenditionEncoder.createRenditions(original);
+            boolean saved = renditionDAO.saveAll(assetId, renditions);
+            if (saved) {
+                long totalBytes = renditions.values().stream().mapToLong(b -> b.length).sum();
+                LOGGER.fine("Stored " + renditions.keySet() + " for asset ID " + assetId + " (" + original.remaining() + " -> "
+                        + totalBytes + " bytes total) in " + (System.nanoTime() - start) / 1_000_000 + " ms.");
+            }
+            return saved;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Failed to create renditions for asset ID " + assetId + ", original will be served.", e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package sk.vava.royalmate.service;
+
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.scene.Scene;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import sk.vava.royalmate.model.AssetRef;
+import sk.vava.royalmate.model.AssetRendition;
+import sk.vava.royalmate.util.ImageUtil;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Fills ImageViews without blocking the FX thread. A view immediately shows a cached image or a
+ * placeholder; fetching runs on a background thread (one query per batch) and decoding on a small pool,
+ * after which the decoded image is swapped in on the FX thread.
+ * A view's pending load is cancelled when it gets a new request or is removed from its scene
+ * (filtered out, navigated off); if the view is shown again before the image arrived, loading resumes.
+ * All public methods must be called on the FX thread.
+ */
+public class AsyncImageService {
+
+    private static final Logger LOGGER = Logger.getLogger(AsyncImageService.class.getName());
+    private static final int DECODE_THREADS = 2;
+    private static final Color PLACEHOLDER_COLOR = Color.web("#2b2b2b");
+    private static final Object REQUEST_KEY = new Object(); // Key of the pending request in ImageView properties
+
+    private static final AsyncImageService INSTANCE = new AsyncImageService(AssetImageService.getInstance());
+
+    private final AssetImageService assetImageService;
+    private final ExecutorService fetchExecutor;  // DB and disk cache reads, batches run one after another
+    private final ExecutorService decodeExecutor;
+    private final Map<String, Image> placeholders = new ConcurrentHashMap<>();
+
+    // Constructor for testing/DI
+    public AsyncImageService(AssetImageService assetImageService) {
+        this.assetImageService = assetImageService;
+        this.fetchExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "image-fetch");
+            t.setDaemon(true);
+            return t;
+        });
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.decodeExecutor = Executors.newFixedThreadPool(DECODE_THREADS, r -> {
+            Thread t = new Thread(r, "image-decode-" + threadCounter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** @return The shared instance. */
+    public static AsyncImageService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Loads one asset image into a view.
+     *
+     * @param view   The target view.
+     * @param ref    The asset reference (null clears the view).
+     * @param width  Display width to decode at.
+     * @param height Display height to decode at.
+     */
+    public void load(ImageView view, AssetRef ref, double width, double height) {
+        if (ref == null) {
+            cancel(view);
+            view.setImage(null);
+            return;
+        }
+        loadAll(Map.of(view, ref), width, height);
+    }
+
+    /**
+     * Loads asset images of the same display size into several views, fetching all misses with one query.
+     *
+     * @param requests Target view per asset reference (null references clear their view).
+     * @param width    Display width to decode at.
+     * @param height   Display height to decode at.
+     */
+    public void loadAll(Map<ImageView, AssetRef> requests, double width, double height) {
+        List<Request> pending = new ArrayList<>();
+        for (Map.Entry<ImageView, AssetRef> entry : requests.entrySet()) {
+            ImageView view = entry.getKey();
+            AssetRef ref = entry.getValue();
+            Image cached = assetImageService.getIfCached(ref, width, height);
+            if (ref == null || cached != null) {
+                cancel(view);
+                view.setImage(cached);
+                continue;
+            }
+            pending.add(start(view, ref, () -> assetImageService.load(ref, width, height), width, height));
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        fetchExecutor.execute(() -> {
+            List<AssetRef> refs = new ArrayList<>();
+            for (Request request : pending) {
+                if (!request.cancelled) refs.add(request.ref);
+            }
+            if (refs.isEmpty()) return;
+            Map<Integer, ByteBuffer> encoded = assetImageService.fetchEncoded(refs, AssetRendition.forDisplaySize(width, height));
+            for (Request request : pending) {
+                if (request.cancelled) continue;
+                ByteBuffer data = encoded.get(request.ref.getAssetId());
+                request.submit(() -> data != null ? assetImageService.decodeAndCache(request.ref, data, width, height) : null);
+            }
+        });
+    }
+
+    /**
+     * Decodes raw image bytes (e.g. an image being edited) into a view.
+     *
+     * @param view   The target view.
+     * @param data   The encoded image (null clears the view).
+     * @param width  Width to decode at (0 = original).
+     * @param height Height to decode at (0 = original).
+     */
+    public void decode(ImageView view, byte[] data, double width, double height) {
+        decode(view, data != null ? ByteBuffer.wrap(data) : null, width, height);
+    }
+
+    /**
+     * Decodes an encoded image held in a buffer (e.g. a memory-mapped asset) into a view, without copying it.
+     *
+     * @param view   The target view.
+     * @param data   The encoded image (null clears the view); its position is not changed.
+     * @param width  Width to decode at (0 = original).
+     * @param height Height to decode at (0 = original).
+     */
+    public void decode(ImageView view, ByteBuffer data, double width, double height) {
+        if (data == null || !data.hasRemaining()) {
+            cancel(view);
+            view.setImage(null);
+            return;
+        }
+        Request request = start(view, null, () -> {
+            Image image = ImageUtil.byteBufferToImage(data, width, height);
+            return image != null && !image.isError() ? image : null;
+        }, width, height);
+        request.submit(request.loader);
+    }
+
+    /**
+     * Cancels the view's pending load, if any. The view keeps whatever it currently shows.
+     * @param view The view.
+     */
+    public void cancel(ImageView view) {
+        Object previous = view.getProperties().remove(REQUEST_KEY);
+        if (previous instanceof Request request) {
+            request.finish();
+        }
+    }
+
+    /** Replaces any earlier request of the view and shows the placeholder. */
+    private Request start(ImageView view, AssetRef ref, Callable<Image> loader, double width, double height) {
+        cancel(view);
+        Request request = new Request(view, ref, loader);
+        view.getProperties().put(REQUEST_KEY, request);
+        view.sceneProperty().addListener(request);
+        view.setImage(placeholder(width, height));
+        return request;
+    }
+
+    private Image placeholder(double width, double height) {
+        if (width < 1 || height < 1) {
+            return null; // Size unknown, leave the view empty
+        }
+        return placeholders.computeIfAbsent((int) width + "x" + (int) height, key -> {
+            WritableImage image = new WritableImage((int) width, (int) height);
+            PixelWriter writer = image.getPixelWriter();
+            for (int y = 0; y < (int) height; y++) {
+                for (int x = 0; x < (int) width; x++) {
+                    writer.setColor(x, y, PLACEHOLDER_COLOR);
+                }
+            }
+            return image;
+        });
+    }
+
+    /** A load bound to one view. Lifecycle changes happen on the FX thread; workers only read {@link #cancelled}. */
+    private final class Request implements ChangeListener<Scene> {
+        final ImageView view;
+        final AssetRef ref;           // Null for raw byte decodes
+        final Callable<Image> loader; // Standalone load, used when resuming
+        volatile boolean cancelled;
+        volatile Future<?> future;
+        boolean finished;
+
+        Request(ImageView view, AssetRef ref, Callable<Image> loader) {
+            this.view = view;
+            this.ref = ref;
+            this.loader = loader;
+        }
+
+        /** Runs the job on the decode pool and publishes its result (may be called from the fetch thread). */
+        void submit(Callable<Image> job) {
+            future = decodeExecutor.submit(() -> {
+                if (cancelled) return;
+                Image image = null;
+                try {
+                    image = job.call();
+                } catch (Exception e) {
+                    LOGGER.log(Level.WARNING, "Image load failed.", e);
+                }
+                Image result = image;
+                Platform.runLater(() -> complete(result));
+            });
+            if (cancelled) {
+                future.cancel(false); // Cancelled while being submitted
+            }
+        }
+
+        void complete(Image image) {
+            if (cancelled || finished || view.getProperties().get(REQUEST_KEY) != this) {
+                return; // Superseded or scrolled/navigated away meanwhile
+            }
+            view.setImage(image);
+            view.getProperties().remove(REQUEST_KEY);
+            finish();
+        }
+
+        void suspend() {
+            cancelled = true;
+            Future<?> f = future;
+            if (f != null) {
+                f.cancel(false);
+            }
+        }
+
+        void finish() {
+            suspend();
+            finished = true;
+            view.sceneProperty().removeListener(this);
+        }
+
+        @Override
+        public void changed(ObservableValue<? extends Scene> observable, Scene oldScene, Scene newScene) {
+            if (finished) return;
+            if (newScene == null) {
+                suspend(); // View left the screen, stop working on it
+            } else if (cancelled) {
+                cancelled = false; // Shown again before its image arrived
+                submit(loader);
+            }
+        }
+    }
+}
@@ -38,7 +38,8 @@ public class AuthService {
     public Optional<Account> authenticate(String username, String password) {
         // ... keep existing implementation ...
         if (username == null || username.trim().isEmpty() || password == null || password.isEmpty()) { return Optional.empty(); }
-        Optional<Account> accountOpt = accountDAO.findByUsername(username);
+        // Never check credentials against the cache: a password changed or an account removed elsewhere must apply at once
+        Optional<Account> accountOpt = accountDAO.findByUsernameFresh(username);
         if (accountOpt.isPresent()) {
             Account account = accountOpt.get();
             if (PasswordUtil.checkPassword(password, account.getPasswordHash())) {
@@ -64,6 +65,16 @@ public class AuthService {
     }
 
 
+    /**
+     * Re-reads an account, e.g. to show its current balance.
+     *
+     * @param username The account's username.
+     * @return The stored account, or empty if not found or on DB error.
+     */
+    public Optional<Account> reloadAccount(String username) {
+        return accountDAO.findByUsernameFresh(username);
+    }
+
     /**
      * Retrieves calculated user statistics from the database.
      * THIS IS THE CORRECT METHOD.
@@ -80,7 +91,7 @@ public class AuthService {
     public boolean withdrawFunds(int accountId, BigDecimal amount) throws IllegalArgumentException, IllegalStateException {
         LOGGER.info("Withdrawal attempt for account ID: " + accountId + ", Amount: " + amount);
         if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) { throw new IllegalArgumentException("Withdrawal amount must be positive."); }
-        Account currentAccount = accountDAO.findByUsername(SessionManager.getCurrentAccount().getUsername()).orElseThrow(() -> new IllegalStateException("Cannot retrieve current account data for withdrawal."));
+        Account currentAccount = accountDAO.findByUsernameFresh(SessionManager.getCurrentAccount().getUsername()).orElseThrow(() -> new IllegalStateException("Cannot retrieve current account data for withdrawal."));
         BigDecimal currentBalance = currentAccount.getBalance(); if (currentBalance == null) { throw new IllegalStateException("Current account balance is unexpectedly null."); }
         if (currentBalance.compareTo(amount) < 0) { LOGGER.warning("Withdrawal failed for account ID: " + accountId + ". Insufficient funds."); return false; }
         boolean success = accountDAO.updateBalance(accountId, amount.negate());
@@ -92,8 +103,11 @@ public class AuthService {
     public boolean changePassword(int accountId, String oldPasswordPlain, String newPasswordPlain) throws IllegalArgumentException {
         LOGGER.info("Password change attempt for account ID: " + accountId);
         if (newPasswordPlain == null || newPasswordPlain.isEmpty()) { throw new IllegalArgumentException("New password cannot be empty."); }
-        Account currentAccount = SessionManager.getCurrentAccount();
-        if (currentAccount == null || currentAccount.getId() != accountId) { currentAccount = accountDAO.findByUsername(SessionManager.getCurrentAccount().getUsername()).filter(acc -> acc.getId() == accountId).orElse(null); if (currentAccount == null) { LOGGER.severe("Cannot find account to change password for ID: " + accountId); return false; }}
+        Account sessionAccount = SessionManager.getCurrentAccount();
+        if (sessionAccount == null) { LOGGER.severe("Cannot change password for account ID " + accountId + ": no user logged in."); return false; }
+        // Old password is checked against the stored hash, not the one cached in the session
+        Account currentAccount = accountDAO.findByUsernameFresh(sessionAccount.getUsername()).filter(acc -> acc.getId() == accountId).orElse(null);
+        if (currentAccount == null) { LOGGER.severe("Cannot find account to change password for ID: " + accountId); return false; }
         if (!PasswordUtil.checkPassword(oldPasswordPlain, currentAccount.getPasswordHash())) { LOGGER.warning("Password change failed for account ID: " + accountId + ". Old password incorrect."); return false; }
         String newPasswordHash = PasswordUtil.hashPassword(newPasswordPlain);
         boolean success = accountDAO.updatePasswordHash(accountId, newPasswordHash);
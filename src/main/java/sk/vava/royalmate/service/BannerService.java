@@ -0,0 +1,77 @@
+package sk.vava.royalmate.service;
+
+import sk.vava.royalmate.data.FetchResult;
+import sk.vava.royalmate.data.FileAssetStore;
+import sk.vava.royalmate.data.HomepageBannerDAO;
+import sk.vava.royalmate.model.HomepageBanner;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+/**
+ * Holds the main banner for the running client. Each read asks the DB with the hash of the
+ * held copy, so the image is only transferred again after another admin replaced it.
+ * Shared by the homepage and the admin settings preview.
+ */
+public class BannerService {
+
+    private static final Logger LOGGER = Logger.getLogger(BannerService.class.getName());
+
+    private static final BannerService INSTANCE = new BannerService(new HomepageBannerDAO());
+
+    private final HomepageBannerDAO bannerDAO;
+    private volatile HomepageBanner current; // Last banner with image data, null if none held
+
+    // Constructor for testing/DI
+    public BannerService(HomepageBannerDAO bannerDAO) {
+        this.bannerDAO = bannerDAO;
+    }
+
+    /** @return The shared instance. */
+    public static BannerService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Gets the main banner, transferring its image only if it changed since the last call.
+     * Falls back to the held copy if the DB cannot be reached.
+     *
+     * @return Optional containing the banner (with image data) if one exists.
+     */
+    public Optional<HomepageBanner> getMainBanner() {
+        HomepageBanner held = current;
+        FetchResult<HomepageBanner> result = bannerDAO.findMainBannerIfChanged(held != null ? held.getContentHash() : null);
+        switch (result.getStatus()) {
+            case UNCHANGED:
+                LOGGER.fine("Main banner unchanged, using held copy.");
+                return Optional.of(held);
+            case CHANGED:
+                HomepageBanner banner = result.getValue();
+                if (banner.getContentHash() != null && banner.getImageData() != null) {
+                    current = banner;
+                }
+                return Optional.of(banner);
+            case NOT_FOUND:
+                current = null;
+                return Optional.empty();
+            default:
+                return Optional.ofNullable(held);
+        }
+    }
+
+    /**
+     * Remembers a banner this client just uploaded, so it is not downloaded again.
+     *
+     * @param name      The banner name.
+     * @param imageData The uploaded image.
+     */
+    public void onBannerSaved(String name, byte[] imageData) {
+        current = HomepageBanner.builder()
+                .name(name)
+                .imageData(ByteBuffer.wrap(imageData).asReadOnlyBuffer())
+                .contentHash(FileAssetStore.hash(imageData))
+                .isActive(true)
+                .build();
+    }
+}
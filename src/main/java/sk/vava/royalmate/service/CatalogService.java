@@ -0,0 +1,192 @@
+package sk.vava.royalmate.service;
+
+import javafx.application.Platform;
+import sk.vava.royalmate.data.GameAssetDAO;
+import sk.vava.royalmate.data.GameDAO;
+import sk.vava.royalmate.model.AssetRef;
+import sk.vava.royalmate.model.AssetRendition;
+import sk.vava.royalmate.model.AssetType;
+import sk.vava.royalmate.model.Game;
+import sk.vava.royalmate.model.GameAsset;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Holds the shared {@link CatalogSnapshot} read by the homepage, game search, admin game list and game screens.
+ * The catalog is loaded with a single query, refreshed periodically on a background thread
+ * (picks up spin counts and changes made by other clients) and swapped in atomically.
+ * Local game changes call {@link #invalidate()}; background readers then wait for the reload so they never see
+ * the old catalog, while the FX thread keeps getting the previous snapshot instead of blocking.
+ * Symbol assets of launched games are memoized until the next swap; their images come through the
+ * {@link AssetImageService} disk cache, so relaunching a game after a restart transfers no image data.
+ */
+public class CatalogService {
+
+    private static final Logger LOGGER = Logger.getLogger(CatalogService.class.getName());
+    private static final long REFRESH_INTERVAL_SECONDS = 120;
+
+    private static volatile CatalogService instance;
+
+    private final GameDAO gameDAO;
+    private final GameAssetDAO gameAssetDAO;
+    private final AssetImageService assetImageService;
+    private final ScheduledExecutorService refresher;
+    private final AtomicReference<CatalogSnapshot> current = new AtomicReference<>(CatalogSnapshot.EMPTY);
+    private final AtomicLong versionCounter = new AtomicLong();
+    private final Map<Integer, List<GameAsset>> symbolCache = new ConcurrentHashMap<>();
+
+    // Reload readers must wait for (initial load or invalidation), null while the current snapshot is fresh
+    private CompletableFuture<CatalogSnapshot> pendingReload;
+
+    // Constructor for testing/DI
+    public CatalogService(GameDAO gameDAO, GameAssetDAO gameAssetDAO, AssetImageService assetImageService) {
+        this.gameDAO = gameDAO;
+        this.gameAssetDAO = gameAssetDAO;
+        this.assetImageService = assetImageService;
+        this.refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "catalog-refresh");
+            t.setDaemon(true);
+            return t;
+        });
+        invalidate(); // Initial load
+        refresher.scheduleWithFixedDelay(this::backgroundRefresh,
+                REFRESH_INTERVAL_SECONDS, REFRESH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Gets the shared instance. The first call starts loading the catalog in the background.
+     * @return The shared CatalogService.
+     */
+    public static CatalogService getInstance() {
+        if (instance == null) {
+            synchronized (CatalogService.class) {
+                if (instance == null) {
+                    instance = new CatalogService(new GameDAO(), new GameAssetDAO(), AssetImageService.getInstance());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Gets the current catalog. Off the FX thread this waits for the initial load or a reload
+     * after {@link #invalidate()} that is still running. On the FX thread it never waits and
+     * returns the previous snapshot (empty before the initial load finished).
+     *
+     * @return The current snapshot (empty if the catalog could not be loaded).
+     */
+    public CatalogSnapshot getSnapshot() {
+        CompletableFuture<CatalogSnapshot> reload;
+        synchronized (this) {
+            reload = pendingReload;
+        }
+        if (reload != null && Platform.isFxApplicationThread()) {
+            LOGGER.fine("Catalog reload still running, serving version " + current.get().getVersion() + " to the FX thread.");
+        } else if (reload != null) {
+            try {
+                return reload.join();
+            } catch (CompletionException e) {
+                LOGGER.log(Level.SEVERE, "Catalog reload failed, serving previous snapshot.", e.getCause());
+            }
+        }
+        return current.get();
+    }
+
+    /**
+     * Marks the catalog as stale after a local change (game created, updated or deleted)
+     * and reloads it in the background. Subsequent {@link #getSnapshot()} calls off the FX thread wait for the reload.
+     */
+    public void invalidate() {
+        CompletableFuture<CatalogSnapshot> reload = new CompletableFuture<>();
+        synchronized (this) {
+            pendingReload = reload;
+        }
+        refresher.execute(() -> {
+            try {
+                reload.complete(reload(false));
+            } catch (RuntimeException e) {
+                reload.completeExceptionally(e);
+            } finally {
+                synchronized (this) {
+                    if (pendingReload == reload) {
+                        pendingReload = null; // No newer invalidation queued behind this one
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Gets the symbol assets of a game sorted by ID (thumbnail rendition), loading them once per catalog version.
+     *
+     * @param gameId The game ID.
+     * @return A new mutable list (callers sort it in place), empty if the game has no symbols.
+     */
+    public List<GameAsset> getSymbolAssets(int gameId) {
+        List<GameAsset> symbols = symbolCache.get(gameId);
+        if (symbols == null) {
+            symbols = loadSymbolAssets(gameId);
+            boolean complete = !symbols.isEmpty() && symbols.stream().allMatch(a -> a.getImageData() != null);
+            if (complete) {
+                symbolCache.putIfAbsent(gameId, symbols); // Don't pin a failed/partial load
+            }
+        }
+        return new ArrayList<>(symbols);
+    }
+
+    private List<GameAsset> loadSymbolAssets(int gameId) {
+        List<GameAsset> loaded = new ArrayList<>(gameAssetDAO.findMetadataByGameIdAndType(gameId, AssetType.SYMBOL));
+        List<AssetRef> refs = new ArrayList<>();
+        for (GameAsset asset : loaded) {
+            refs.add(AssetRef.builder().assetId(asset.getId()).contentHash(asset.getContentHash()).build());
+        }
+        // Symbol cells are under 100 px, so the thumbnail rendition is enough
+        Map<Integer, ByteBuffer> images = assetImageService.fetchEncoded(refs, AssetRendition.THUMBNAIL);
+        for (GameAsset asset : loaded) {
+            asset.setImageData(images.get(asset.getId())); // Shared with the image caches, read-only
+        }
+        loaded.sort(Comparator.comparingInt(GameAsset::getId));
+        return Collections.unmodifiableList(loaded);
+    }
+
+    private void backgroundRefresh() {
+        try {
+            reload(true);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Periodic catalog refresh failed.", e);
+        }
+    }
+
+    /** Loads the catalog and swaps it in. Runs on the refresher thread only. */
+    private CatalogSnapshot reload(boolean periodic) {
+        long start = System.nanoTime();
+        List<Game> games = gameDAO.findAllForCatalog();
+        CatalogSnapshot previous = current.get();
+        if (periodic && games.isEmpty() && !previous.getAllGames().isEmpty()) {
+            // DAO returns an empty list on DB errors; keep serving the last good catalog
+            LOGGER.warning("Periodic catalog refresh returned no games, keeping version " + previous.getVersion() + ".");
+            return previous;
+        }
+        CatalogSnapshot snapshot = new CatalogSnapshot(versionCounter.incrementAndGet(), System.currentTimeMillis(), games);
+        current.set(snapshot);
+        symbolCache.clear();
+        LOGGER.fine("Catalog version " + snapshot.getVersion() + " loaded with " + games.size() + " games in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms.");
+        return snapshot;
+    }
+}
@@ -0,0 +1,98 @@
+package sk.vava.royalmate.service;
+
+import sk.vava.royalmate.model.Game;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable, versioned view of the whole game catalog (metadata, creator, spin count, cover reference).
+ * All derived lists and the search index are computed once when the snapshot is built,
+ * so screens reading from it do no queries and no sorting.
+ * The Game objects are shared between screens and must be treated as read-only.
+ */
+public final class CatalogSnapshot {
+
+    static final CatalogSnapshot EMPTY = new CatalogSnapshot(0, 0, Collections.emptyList());
+
+    private final long version;
+    private final long loadedAtMillis;
+    private final List<Game> allGames;     // All games, newest first (admin list)
+    private final List<Game> activeGames;  // Active games by name (search screen)
+    private final List<Game> popularGames; // Active games by spin count (homepage)
+    private final Map<Integer, Game> gamesById;
+    private final GameSearchIndex searchIndex;
+
+    CatalogSnapshot(long version, long loadedAtMillis, List<Game> gamesNewestFirst) {
+        this.version = version;
+        this.loadedAtMillis = loadedAtMillis;
+        this.allGames = List.copyOf(gamesNewestFirst);
+
+        Map<Integer, Game> byId = new HashMap<>();
+        List<Game> active = new ArrayList<>();
+        for (Game game : allGames) {
+            byId.put(game.getId(), game);
+            if (game.isActive()) {
+                active.add(game);
+            }
+        }
+        this.gamesById = Collections.unmodifiableMap(byId);
+
+        active.sort(Comparator.comparing(Game::getName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)));
+        this.activeGames = Collections.unmodifiableList(active);
+
+        List<Game> popular = new ArrayList<>(active);
+        popular.sort(Comparator.comparingLong(Game::getTotalSpins).reversed()); // Stable, ties keep name order
+        this.popularGames = Collections.unmodifiableList(popular);
+
+        this.searchIndex = GameSearchIndex.build(activeGames);
+    }
+
+    /** @return Monotonic snapshot version, 0 for the empty placeholder. */
+    public long getVersion() {
+        return version;
+    }
+
+    /** @return When the snapshot was loaded (epoch millis). */
+    public long getLoadedAtMillis() {
+        return loadedAtMillis;
+    }
+
+    /** @return All games (active or not), newest first. */
+    public List<Game> getAllGames() {
+        return allGames;
+    }
+
+    /** @return Active games ordered by name. */
+    public List<Game> getActiveGames() {
+        return activeGames;
+    }
+
+    /**
+     * Gets the most played active games.
+     * @param limit Maximum number of games.
+     * @return Active games ordered by spin count, descending.
+     */
+    public List<Game> getTopGames(int limit) {
+        return popularGames.subList(0, Math.min(Math.max(limit, 0), popularGames.size()));
+    }
+
+    /**
+     * Looks up a game by ID (active or not).
+     * @param gameId The game ID.
+     * @return Optional containing the game if it is in the catalog.
+     */
+    public Optional<Game> findById(int gameId) {
+        return Optional.ofNullable(gamesById.get(gameId));
+    }
+
+    /** @return Search index over the active games, built together with this snapshot. */
+    public GameSearchIndex getSearchIndex() {
+        return searchIndex;
+    }
+}
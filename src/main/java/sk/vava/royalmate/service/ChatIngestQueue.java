@@ -0,0 +1,131 @@
+package sk.vava.royalmate.service;
+
+import sk.vava.royalmate.data.ChatMessageDAO;
+import sk.vava.royalmate.model.ChatMessage;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Collects outgoing chat messages and writes them to the DB in multi-row batches.
+ * A single daemon thread drains the queue every few milliseconds, so a burst of sends
+ * costs one connection and one INSERT instead of one per message.
+ */
+public class ChatIngestQueue {
+
+    private static final Logger LOGGER = Logger.getLogger(ChatIngestQueue.class.getName());
+    private static final long FLUSH_INTERVAL_MS = 25;
+    private static final int MAX_BATCH_SIZE = 100;
+
+    private final ChatMessageDAO chatMessageDAO;
+    private final ConcurrentLinkedQueue<PendingMessage> pending = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService flusher;
+
+    public ChatIngestQueue(ChatMessageDAO chatMessageDAO) {
+        this.chatMessageDAO = chatMessageDAO;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "chat-ingest-flusher");
+            t.setDaemon(true); // Don't keep the app alive on exit
+            return t;
+        });
+        this.flusher.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queues a message for the next batch.
+     *
+     * @param senderId       The ID of the sending account.
+     * @param senderUsername The username of the sending account (used by the search index).
+     * @param messageText    The message text.
+     * @return Future completed with true once the batch containing this message was written, false on DB error.
+     */
+    public CompletableFuture<Boolean> submit(int senderId, String senderUsername, String messageText) {
+        ChatMessage msg = ChatMessage.builder()
+                .senderId(senderId)
+                .messageText(messageText)
+                .sentAt(new Timestamp(System.currentTimeMillis()))
+                .build();
+        msg.setSenderUsername(senderUsername);
+        PendingMessage entry = new PendingMessage(msg, new CompletableFuture<>());
+        pending.add(entry);
+        return entry.result;
+    }
+
+    /** Drains the queue in chunks of MAX_BATCH_SIZE. Runs on the flusher thread only. */
+    private void flush() {
+        while (!pending.isEmpty()) {
+            List<PendingMessage> batch = new ArrayList<>(MAX_BATCH_SIZE);
+            PendingMessage next;
+            while (batch.size() < MAX_BATCH_SIZE && (next = pending.poll()) != null) {
+                batch.add(next);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            List<ChatMessage> messages = new ArrayList<>(batch.size());
+            for (PendingMessage p : batch) {
+                messages.add(p.message);
+            }
+            boolean success = insert(messages);
+            if (batch.size() > 1) {
+                LOGGER.fine("Flushed chat batch of " + batch.size() + " messages. Success: " + success);
+            }
+            if (success) {
+                ChatSearchService.onMessagesInserted(messages);
+                for (PendingMessage p : batch) {
+                    p.result.complete(true);
+                }
+            } else if (batch.size() == 1) {
+                batch.get(0).result.complete(false);
+            } else {
+                // One bad row fails the whole multi-row INSERT; retry row by row so only it is lost
+                LOGGER.warning("Chat batch of " + batch.size() + " messages failed, retrying individually.");
+                for (PendingMessage p : batch) {
+                    boolean stored = insert(List.of(p.message));
+                    if (stored) {
+                        ChatSearchService.onMessagesInserted(List.of(p.message));
+                    }
+                    p.result.complete(stored);
+                }
+            }
+        }
+    }
+
+    private boolean insert(List<ChatMessage> messages) {
+        try {
+            return chatMessageDAO.insertRegularMessages(messages);
+        } catch (Exception e) {
+            // Never let an exception kill the scheduled task or leave futures hanging
+            LOGGER.log(Level.SEVERE, "Unexpected error while flushing chat ingest queue.", e);
+            return false;
+        }
+    }
+
+    /**
+     * Stops the flusher thread after writing whatever is still queued.
+     * Only needed for queues created outside of ChatService's shared instance.
+     */
+    public void shutdown() {
+        flusher.execute(this::flush);
+        flusher.shutdown();
+    }
+
+    private static final class PendingMessage {
+        private final ChatMessage message;
+        private final CompletableFuture<Boolean> result;
+
+        private PendingMessage(ChatMessage message, CompletableFuture<Boolean> result) {
+            this.message = message;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package sk.vava.royalmate.service;
+
+import sk.vava.royalmate.data.ChatMessageDAO;
+import sk.vava.royalmate.model.ChatMessage;
+import sk.vava.royalmate.util.TextNormalizer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Admin chat history search backed by an in-memory inverted index (token -> sorted message IDs).
+ * The index is built once from the DB, kept up to date with locally inserted messages and
+ * caught up with messages from other clients before each search. Hits are hydrated from an
+ * LRU message cache, falling back to a single IN query for cache misses.
+ * Only the newest {@link #MAX_INDEXED_MESSAGES} messages are indexed; older ones are pruned
+ * and no longer found by searches.
+ */
+public class ChatSearchService {
+
+    private static final Logger LOGGER = Logger.getLogger(ChatSearchService.class.getName());
+    private static final int BUILD_CHUNK_SIZE = 1000;
+    private static final int MESSAGE_CACHE_SIZE = 2000;
+    public static final int MAX_INDEXED_MESSAGES = 200_000;
+    // Pruning walks the whole index, so it only runs once this many messages over the cap
+    private static final int PRUNE_SLACK = 20_000;
+    public static final int DEFAULT_RESULT_LIMIT = 50;
+
+    private static volatile ChatSearchService instance;
+
+    private final ChatMessageDAO chatMessageDAO;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Sorted maps so prefix queries are a subMap range scan
+    private final TreeMap<String, Postings> tokenIndex = new TreeMap<>();
+    private final TreeMap<String, Postings> usernameIndex = new TreeMap<>();
+    private final Postings indexedIds = new Postings();
+    private long oldestIndexedId = 0; // Messages below this ID were pruned
+    private final Map<Long, ChatMessage> messageCache = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, ChatMessage> eldest) {
+            return size() > MESSAGE_CACHE_SIZE;
+        }
+    };
+    private final CompletableFuture<Void> initialBuild;
+
+    // Highest ID reached by an ordered DB scan; local inserts never advance it so gaps get caught up
+    private long lastSyncedId = 0;
+
+    // Constructor for testing/DI
+    public ChatSearchService(ChatMessageDAO chatMessageDAO) {
+        this.chatMessageDAO = chatMessageDAO;
+        this.initialBuild = CompletableFuture.runAsync(this::catchUp)
+                .exceptionally(ex -> {
+                    LOGGER.log(Level.SEVERE, "Failed to build chat search index.", ex);
+                    return null;
+                });
+    }
+
+    /**
+     * Gets the shared instance. The first call starts building the index in the background.
+     * @return The shared ChatSearchService.
+     */
+    public static ChatSearchService getInstance() {
+        if (instance == null) {
+            synchronized (ChatSearchService.class) {
+                if (instance == null) {
+                    instance = new ChatSearchService(new ChatMessageDAO());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Adds freshly inserted messages to the index if the index is in use. Cheap no-op otherwise.
+     * @param messages Messages with their generated IDs set.
+     */
+    public static void onMessagesInserted(List<ChatMessage> messages) {
+        ChatSearchService current = instance;
+        if (current != null) {
+            current.index(messages);
+        }
+    }
+
+    /**
+     * Searches chat history. Every query token is treated as a prefix and all tokens must match.
+     *
+     * @param query          Free text query (may be blank if a username filter is given).
+     * @param usernamePrefix Optional sender username prefix filter (may be null/blank).
+     * @param limit          Maximum number of hits.
+     * @return Matching messages, newest first.
+     */
+    public List<ChatMessage> search(String query, String usernamePrefix, int limit) {
+        initialBuild.join(); // Only waits on the very first search
+        catchUp();
+
+        List<String> tokens = TextNormalizer.tokenize(query);
+        String userFilter = TextNormalizer.fold(usernamePrefix == null ? "" : usernamePrefix.trim());
+        if (tokens.isEmpty() && userFilter.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        long[] hits = null;
+        lock.readLock().lock();
+        try {
+            for (String token : tokens) {
+                hits = hits == null ? unionPrefix(tokenIndex, token) : intersect(hits, unionPrefix(tokenIndex, token));
+                if (hits.length == 0) break;
+            }
+            if (!userFilter.isEmpty() && (hits == null || hits.length > 0)) {
+                long[] byUser = unionPrefix(usernameIndex, userFilter);
+                hits = hits == null ? byUser : intersect(hits, byUser);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Newest messages have the highest IDs
+        List<Long> topIds = new ArrayList<>();
+        for (int i = hits.length - 1; i >= 0 && topIds.size() < limit; i--) {
+            topIds.add(hits[i]);
+        }
+        LOGGER.fine("Chat search '" + query + "' user='" + userFilter + "' matched " + hits.length + " messages.");
+        return hydrate(topIds);
+    }
+
+    /**
+     * Pulls messages newer than the last synced ID from the DB and indexes them. The first build starts
+     * {@link #MAX_INDEXED_MESSAGES} IDs below the newest message instead of at the beginning of the history,
+     * which would only be pruned again (ID gaps make the first window somewhat smaller, never larger).
+     */
+    private void catchUp() {
+        long afterId;
+        synchronized (this) {
+            afterId = lastSyncedId;
+        }
+        if (afterId == 0) {
+            long maxId = chatMessageDAO.findMaxId();
+            if (maxId < 0) return; // DB error, retried before the next search
+            afterId = Math.max(0, maxId - MAX_INDEXED_MESSAGES);
+        }
+        int total = 0;
+        while (true) {
+            List<ChatMessage> chunk = chatMessageDAO.findRegularMessagesAfterId(afterId, BUILD_CHUNK_SIZE);
+            if (chunk.isEmpty()) break;
+            index(chunk);
+            afterId = chunk.get(chunk.size() - 1).getId();
+            total += chunk.size();
+            if (chunk.size() < BUILD_CHUNK_SIZE) break;
+        }
+        synchronized (this) {
+            lastSyncedId = Math.max(lastSyncedId, afterId);
+        }
+        if (total > 0) {
+            LOGGER.info("Chat search index synced " + total + " messages (last ID " + afterId + ").");
+        }
+    }
+
+    private void index(Collection<ChatMessage> messages) {
+        lock.writeLock().lock();
+        try {
+            for (ChatMessage msg : messages) {
+                // Skips messages already indexed (local insert seen again by catch-up) or older than the window
+                if (msg.getId() <= 0 || msg.getId() < oldestIndexedId || !indexedIds.add(msg.getId())) continue;
+                for (String token : TextNormalizer.tokenize(msg.getMessageText())) {
+                    tokenIndex.computeIfAbsent(token, k -> new Postings()).add(msg.getId());
+                }
+                if (msg.getSenderUsername() != null) {
+                    usernameIndex.computeIfAbsent(TextNormalizer.fold(msg.getSenderUsername()), k -> new Postings()).add(msg.getId());
+                }
+            }
+            if (indexedIds.size > MAX_INDEXED_MESSAGES + PRUNE_SLACK) {
+                prune();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        synchronized (messageCache) {
+            for (ChatMessage msg : messages) {
+                if (msg.getId() > 0) messageCache.put(msg.getId(), msg);
+            }
+        }
+    }
+
+    /** Drops all but the newest MAX_INDEXED_MESSAGES messages. Caller holds the write lock. */
+    private void prune() {
+        long floor = indexedIds.ids[indexedIds.size - MAX_INDEXED_MESSAGES];
+        pruneBelow(tokenIndex, floor);
+        pruneBelow(usernameIndex, floor);
+        indexedIds.removeBelow(floor);
+        oldestIndexedId = floor;
+        LOGGER.fine("Chat search index pruned to " + indexedIds.size + " messages (oldest ID " + floor + ").");
+    }
+
+    private static void pruneBelow(TreeMap<String, Postings> index, long floor) {
+        index.values().removeIf(postings -> {
+            postings.removeBelow(floor);
+            return postings.size == 0;
+        });
+    }
+
+    private List<ChatMessage> hydrate(List<Long> ids) {
+        Map<Long, ChatMessage> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        synchronized (messageCache) {
+            for (Long id : ids) {
+                ChatMessage cached = messageCache.get(id);
+                if (cached != null) found.put(id, cached); else missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            List<ChatMessage> loaded = chatMessageDAO.findByIds(missing);
+            synchronized (messageCache) {
+                for (ChatMessage msg : loaded) {
+                    messageCache.put(msg.getId(), msg);
+                    found.put(msg.getId(), msg);
+                }
+            }
+        }
+        List<ChatMessage> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ChatMessage msg = found.get(id);
+            if (msg != null) result.add(msg); // Deleted messages are skipped
+        }
+        return result;
+    }
+
+    private static long[] unionPrefix(TreeMap<String, Postings> index, String prefix) {
+        NavigableMap<String, Postings> range = index.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        if (range.isEmpty()) return new long[0];
+        if (range.size() == 1) return range.firstEntry().getValue().toArray();
+        int total = 0;
+        for (Postings p : range.values()) total += p.size;
+        long[] all = new long[total];
+        int pos = 0;
+        for (Postings p : range.values()) {
+            System.arraycopy(p.ids, 0, all, pos, p.size);
+            pos += p.size;
+        }
+        Arrays.sort(all);
+        int unique = 0;
+        for (int i = 0; i < all.length; i++) {
+            if (i == 0 || all[i] != all[i - 1]) all[unique++] = all[i];
+        }
+        return Arrays.copyOf(all, unique);
+    }
+
+    private static long[] intersect(long[] a, long[] b) {
+        long[] out = new long[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else { out[n++] = a[i]; i++; j++; }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    /** Sorted, duplicate-free list of message IDs. */
+    private static final class Postings {
+        private long[] ids = new long[4];
+        private int size;
+
+        /** @return false if the ID was already present. */
+        boolean add(long id) {
+            if (size > 0 && ids[size - 1] >= id) {
+                // Out-of-order insert (catch-up of another client's message); keep sorted
+                int pos = Arrays.binarySearch(ids, 0, size, id);
+                if (pos >= 0) return false; // Already indexed
+                pos = -pos - 1;
+                ensureCapacity();
+                System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+                ids[pos] = id;
+                size++;
+                return true;
+            }
+            ensureCapacity();
+            ids[size++] = id;
+            return true;
+        }
+
+        void removeBelow(long floor) {
+            int pos = Arrays.binarySearch(ids, 0, size, floor);
+            int cut = pos >= 0 ? pos : -pos - 1;
+            if (cut == 0) return;
+            size -= cut;
+            if (size < ids.length / 4) {
+                ids = Arrays.copyOfRange(ids, cut, cut + Math.max(size * 2, 4));
+            } else {
+                System.arraycopy(ids, cut, ids, 0, size);
+            }
+        }
+
+        private void ensureCapacity() {
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
@@ -1,12 +1,19 @@
 package sk.vava.royalmate.service;
 
 import sk.vava.royalmate.data.ChatMessageDAO;
+import sk.vava.royalmate.model.Account;
 import sk.vava.royalmate.model.ChatMessage;
 import sk.vava.royalmate.util.SessionManager;
+import sk.vava.royalmate.util.TokenBucket;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -15,15 +22,32 @@ public class ChatService {
     private static final Logger LOGGER = Logger.getLogger(ChatService.class.getName());
     private static final int RECENT_MESSAGES_LIMIT = 100; // <-- Updated limit
 
+    // Flood protection: burst of 5 messages, then 1 message per second
+    private static final int SEND_BURST_CAPACITY = 5;
+    private static final double SEND_REFILL_PER_SECOND = 1.0;
+    // Full buckets are dropped at most this often, so the map only holds recent senders
+    private static final long BUCKET_SWEEP_INTERVAL_NANOS = 60_000_000_000L;
+
+    // Shared across all ChatService instances (controllers create their own service)
+    private static final ChatIngestQueue SHARED_INGEST_QUEUE = new ChatIngestQueue(new ChatMessageDAO());
+    private static final Map<Integer, TokenBucket> SEND_BUCKETS = new ConcurrentHashMap<>();
+    private static final AtomicLong LAST_BUCKET_SWEEP = new AtomicLong(System.nanoTime());
+
     private final ChatMessageDAO chatMessageDAO;
+    private final ChatIngestQueue ingestQueue;
+    private final ModerationService moderationService;
 
     public ChatService() {
         this.chatMessageDAO = new ChatMessageDAO();
+        this.ingestQueue = SHARED_INGEST_QUEUE;
+        this.moderationService = ModerationService.getInstance();
     }
 
-    // Constructor for testing/DI
-    public ChatService(ChatMessageDAO chatMessageDAO) {
+    // Constructor for testing/DI; the caller owns the queue and shuts it down
+    public ChatService(ChatMessageDAO chatMessageDAO, ChatIngestQueue ingestQueue, ModerationService moderationService) {
         this.chatMessageDAO = chatMessageDAO;
+        this.ingestQueue = ingestQueue;
+        this.moderationService = moderationService;
     }
 
     /**
@@ -46,22 +70,71 @@ public class ChatService {
 
     /**
      * Sends a new chat message from the currently logged-in user.
+     * Blocks until the message was written; prefer {@link #sendMessageAsync(String)} from UI code.
      *
      * @param messageText The text of the message.
-     * @return true if sending was successful, false otherwise.
+     * @return true if sending was successful, false otherwise (including when rate limited).
      */
     public boolean sendMessage(String messageText) {
+        try {
+            return sendMessageAsync(messageText).join();
+        } catch (CompletionException e) {
+            LOGGER.log(Level.WARNING, "Chat message was not sent: " + e.getCause().getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Queues a new chat message from the currently logged-in user for the next batched insert.
+     * Floods are rejected by a per-account token bucket before anything reaches the DB,
+     * banned terms are masked by the moderation filter.
+     *
+     * @param messageText The text of the message.
+     * @return Future completed with true when stored, false on validation/DB failure.
+     *         Completes exceptionally with IllegalStateException if the sender is rate limited.
+     */
+    public CompletableFuture<Boolean> sendMessageAsync(String messageText) {
         if (!SessionManager.isLoggedIn()) {
             LOGGER.warning("Attempted to send chat message while not logged in.");
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
         if (messageText == null || messageText.trim().isEmpty()) {
             LOGGER.warning("Attempted to send empty chat message.");
-            return false;
+            return CompletableFuture.completedFuture(false);
+        }
+
+        Account sender = SessionManager.getCurrentAccount();
+        int senderId = sender.getId();
+        evictIdleBuckets();
+        TokenBucket bucket = SEND_BUCKETS.computeIfAbsent(senderId,
+                id -> new TokenBucket(SEND_BURST_CAPACITY, SEND_REFILL_PER_SECOND));
+        if (!bucket.tryConsume()) {
+            LOGGER.warning("Chat message from user ID " + senderId + " rejected by rate limiter.");
+            return CompletableFuture.failedFuture(new IllegalStateException("Chat rate limit exceeded."));
+        }
+
+        String trimmed = messageText.trim();
+        String filtered = moderationService.filter(trimmed);
+        if (filtered != trimmed) { // Same instance is returned when nothing matched
+            LOGGER.info("Chat message from user ID " + senderId + " contained banned terms and was filtered.");
         }
 
-        int senderId = SessionManager.getCurrentAccount().getId();
-        LOGGER.fine("Sending message from user ID: " + senderId);
-        return chatMessageDAO.insertRegularMessage(senderId, messageText);
+        LOGGER.fine("Queueing message from user ID: " + senderId);
+        return ingestQueue.submit(senderId, sender.getUsername(), filtered);
+    }
+
+    /**
+     * Drops the rate limit buckets of senders that have been quiet long enough to refill.
+     * Runs at most once per sweep interval, from whichever send gets there first.
+     */
+    private static void evictIdleBuckets() {
+        long now = System.nanoTime();
+        long last = LAST_BUCKET_SWEEP.get();
+        if (now - last < BUCKET_SWEEP_INTERVAL_NANOS || !LAST_BUCKET_SWEEP.compareAndSet(last, now)) {
+            return;
+        }
+        int before = SEND_BUCKETS.size();
+        SEND_BUCKETS.values().removeIf(TokenBucket::isFull);
+        LOGGER.fine("Evicted " + (before - SEND_BUCKETS.size()) + " idle chat rate limit buckets.");
     }
-}
\ No newline at end of file
+}
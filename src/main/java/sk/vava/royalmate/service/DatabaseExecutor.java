@@ -0,0 +1,150 @@
+package sk.vava.royalmate.service;
+
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+import javafx.concurrent.Worker;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs service/DAO calls for controllers off the FX thread. Interactive work shares one small pool, so at most
+ * {@link #MAX_CONCURRENT_QUERIES} statements run against the DB at once and the rest queue up.
+ * Bulk jobs (exports, imports) run on a separate {@link #getBulkInstance() bulk pool}, so a long export
+ * never holds the workers that bets and screen loads wait for.
+ * Results are CompletableFutures which can complete on the FX thread, so UI code can chain on them directly.
+ * Cancelling a future skips work that has not started yet and interrupts work that has.
+ */
+public class DatabaseExecutor {
+
+    private static final Logger LOGGER = Logger.getLogger(DatabaseExecutor.class.getName());
+    public static final int MAX_CONCURRENT_QUERIES = 4;
+    public static final int MAX_CONCURRENT_BULK_JOBS = 1;
+
+    private static final DatabaseExecutor INSTANCE = new DatabaseExecutor(MAX_CONCURRENT_QUERIES, "db-worker");
+    private static final DatabaseExecutor BULK_INSTANCE = new DatabaseExecutor(MAX_CONCURRENT_BULK_JOBS, "db-bulk");
+
+    private final ExecutorService workers;
+
+    // Constructor for testing/DI
+    public DatabaseExecutor(int maxConcurrentQueries) {
+        this(maxConcurrentQueries, "db-worker");
+    }
+
+    private DatabaseExecutor(int maxConcurrentQueries, String threadPrefix) {
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(maxConcurrentQueries, r -> {
+            Thread t = new Thread(r, threadPrefix + "-" + threadCounter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** @return The shared instance for interactive work. */
+    public static DatabaseExecutor getInstance() {
+        return INSTANCE;
+    }
+
+    /** @return The shared instance for bulk exports and imports; jobs beyond {@link #MAX_CONCURRENT_BULK_JOBS} queue up. */
+    public static DatabaseExecutor getBulkInstance() {
+        return BULK_INSTANCE;
+    }
+
+    /**
+     * Runs work on a DB worker; the future completes on the FX thread, so non-async dependent
+     * stages (thenAccept, whenComplete, ...) run there too.
+     *
+     * @param work The blocking call.
+     * @return Future of its result; completed exceptionally if the work threw.
+     */
+    public <T> CompletableFuture<T> supplyOnFx(Callable<T> work) {
+        return submit(work, true);
+    }
+
+    /**
+     * Runs work on a DB worker; the future completes on that worker.
+     *
+     * @param work The blocking call.
+     * @return Future of its result; completed exceptionally if the work threw.
+     */
+    public <T> CompletableFuture<T> supply(Callable<T> work) {
+        return submit(work, false);
+    }
+
+    /**
+     * Runs a JavaFX Task on a DB worker instead of a thread of its own.
+     * Its handlers keep running on the FX thread as usual.
+     * @param task The task.
+     */
+    public void execute(Task<?> task) {
+        workers.execute(task);
+    }
+
+    /**
+     * Runs a JavaFX Task on a DB worker and calls {@code stopped} on the FX thread once the worker is done with it.
+     * Unlike the task's own onCancelled handler, which runs as soon as cancel() is called, this waits until
+     * call() has returned; a task cancelled while still queued is never run and reports right away.
+     * Must be called on the FX thread.
+     *
+     * @param task    The task.
+     * @param stopped Runs after the task's state handlers, when no worker touches the task any more.
+     */
+    public void execute(Task<?> task, Runnable stopped) {
+        AtomicBoolean claimed = new AtomicBoolean(); // Set by whichever side reports: the worker or a queued cancel
+        task.stateProperty().addListener((obs, oldState, state) -> {
+            if (state == Worker.State.CANCELLED && claimed.compareAndSet(false, true)) {
+                stopped.run(); // Cancelled before a worker picked it up
+            }
+        });
+        workers.execute(() -> {
+            if (!claimed.compareAndSet(false, true)) return;
+            try {
+                task.run();
+            } finally {
+                Platform.runLater(stopped); // Queued after the task's own state updates
+            }
+        });
+    }
+
+    private <T> CompletableFuture<T> submit(Callable<T> work, boolean completeOnFx) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> running = workers.submit(() -> {
+            if (result.isDone()) return; // Cancelled while queued
+            try {
+                T value = work.call();
+                complete(result, value, null, completeOnFx);
+            } catch (Exception e) {
+                LOGGER.log(Level.FINE, "Database work failed.", e);
+                complete(result, null, e, completeOnFx);
+            }
+        });
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                running.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private static <T> void complete(CompletableFuture<T> result, T value, Throwable error, boolean onFx) {
+        Runnable completion = () -> {
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(value);
+            }
+        };
+        if (onFx && !Platform.isFxApplicationThread()) {
+            Platform.runLater(completion);
+        } else {
+            completion.run();
+        }
+    }
+}
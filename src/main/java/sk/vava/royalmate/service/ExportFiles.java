@@ -0,0 +1,66 @@
+package sk.vava.royalmate.service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Output plumbing shared by the exporters: a buffered (optionally gzip-compressed) stream over a file
+ * channel, written under a temporary name and moved into place only once complete, so a cancelled or
+ * failed export leaves nothing behind.
+ */
+final class ExportFiles {
+
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    /** Writes the export body. */
+    @FunctionalInterface
+    interface Body<T> {
+        T write(OutputStream out) throws IOException;
+    }
+
+    private ExportFiles() {}
+
+    /**
+     * @param file Target file; replaced if it exists.
+     * @param gzip true to gzip-compress the output.
+     * @param body Writes the content; exceptions (including unchecked ones) discard the partial file.
+     * @return What the body returned.
+     * @throws IOException if writing or moving the file failed.
+     */
+    static <T> T writeAtomically(Path file, boolean gzip, Body<T> body) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".part");
+        T result;
+        try (OutputStream out = open(temp, gzip)) {
+            result = body.write(out);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return result;
+    }
+
+    private static OutputStream open(Path file, boolean gzip) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        OutputStream out = Channels.newOutputStream(channel);
+        if (gzip) {
+            // Writers emit many tiny chunks; buffer them before the deflater, not just after it
+            out = new GZIPOutputStream(new BufferedOutputStream(out, BUFFER_SIZE), BUFFER_SIZE);
+        }
+        return new BufferedOutputStream(out, BUFFER_SIZE);
+    }
+}
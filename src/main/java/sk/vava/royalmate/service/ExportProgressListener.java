@@ -0,0 +1,11 @@
+package sk.vava.royalmate.service;
+
+/** Receives the progress of an export or import, on the thread doing it. */
+@FunctionalInterface
+public interface ExportProgressListener {
+    /**
+     * @param exported Rows written (or imported) so far.
+     * @param total    Rows expected, or -1 if unknown.
+     */
+    void progress(long exported, long total);
+}
@@ -0,0 +1,210 @@
+package sk.vava.royalmate.service;
+
+import sk.vava.royalmate.data.GameAssetDAO;
+import sk.vava.royalmate.data.GameDAO;
+import sk.vava.royalmate.model.Game;
+import sk.vava.royalmate.model.GameAsset;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Exports the game list with stats as XML. Rows are streamed from the DB and written through a
+ * StAX writer straight into a buffered (optionally gzip-compressed) file, so memory use is the same
+ * for ten games or a million. Images are optional: with them, each game carries its assets as
+ * base64 {@code <asset>} elements, which {@link GameImportService} reads back.
+ */
+public class GameExportService {
+
+    private static final Logger LOGGER = Logger.getLogger(GameExportService.class.getName());
+    private static final DateTimeFormatter XML_TIMESTAMP_FORMAT = DateTimeFormatter.ISO_OFFSET_DATE_TIME; // ISO 8601 format
+    private static final int PROGRESS_EVERY_ROWS = 100;
+
+    private final GameDAO gameDAO;
+    private final GameAssetDAO gameAssetDAO;
+    private final XMLOutputFactory xmlOutputFactory = XMLOutputFactory.newInstance();
+
+    public GameExportService() {
+        this.gameDAO = new GameDAO();
+        this.gameAssetDAO = new GameAssetDAO();
+    }
+
+    // Constructor for testing/DI
+    public GameExportService(GameDAO gameDAO, GameAssetDAO gameAssetDAO) {
+        this.gameDAO = gameDAO;
+        this.gameAssetDAO = gameAssetDAO;
+    }
+
+    /**
+     * Writes all games to an XML file.
+     *
+     * @param file      Target file; replaced if it exists.
+     * @param gzip      true to gzip-compress the output.
+     * @param withAssets true to include each game's images (read per game, so much slower and larger).
+     * @param listener  Progress callback, called on the exporting thread.
+     * @param cancelled Polled between rows; the export stops once it returns true.
+     * @return Number of games exported.
+     * @throws IOException           if the DB read or the file write failed.
+     * @throws CancellationException if the export was cancelled.
+     */
+    public long exportGames(Path file, boolean gzip, boolean withAssets, ExportProgressListener listener,
+                            BooleanSupplier cancelled) throws IOException {
+        long start = System.nanoTime();
+        long total = gameDAO.countAll();
+        long exported = ExportFiles.writeAtomically(file, gzip, out -> writeXml(out, total, withAssets, listener, cancelled));
+        LOGGER.info("Exported " + exported + " games to " + file + " in " + (System.nanoTime() - start) / 1_000_000 + " ms.");
+        return exported;
+    }
+
+    private long writeXml(OutputStream out, long total, boolean withAssets, ExportProgressListener listener,
+                          BooleanSupplier cancelled) throws IOException {
+        XMLStreamWriter xml = null;
+        try {
+            xml = xmlOutputFactory.createXMLStreamWriter(out, "UTF-8");
+            XMLStreamWriter writer = xml;
+            xml.writeStartDocument("UTF-8", "1.0");
+            xml.writeCharacters("\n");
+            xml.writeStartElement("games");
+
+            XMLStreamException[] writeError = new XMLStreamException[1];
+            SQLException[] assetError = new SQLException[1];
+            long[] exported = new long[1];
+            listener.progress(0, total);
+            long streamed = gameDAO.streamAllWithStats(game -> {
+                if (cancelled.getAsBoolean()) return false;
+                try {
+                    writeGame(writer, game, withAssets);
+                } catch (XMLStreamException e) {
+                    writeError[0] = e;
+                    return false;
+                } catch (SQLException e) {
+                    assetError[0] = e;
+                    return false;
+                }
+                if (++exported[0] % PROGRESS_EVERY_ROWS == 0) {
+                    listener.progress(exported[0], total);
+                }
+                return true;
+            });
+            if (writeError[0] != null) {
+                throw new IOException("Writing XML failed after " + exported[0] + " games.", writeError[0]);
+            }
+            if (assetError[0] != null) {
+                throw new IOException("Reading assets failed after " + exported[0] + " games.", assetError[0]);
+            }
+            if (streamed < 0) {
+                throw new IOException("Reading games failed after " + exported[0] + " games.");
+            }
+            if (cancelled.getAsBoolean()) {
+                throw new CancellationException("Export cancelled after " + exported[0] + " games.");
+            }
+
+            xml.writeCharacters("\n");
+            xml.writeEndElement();
+            xml.writeEndDocument();
+            xml.flush();
+            listener.progress(exported[0], total);
+            return exported[0];
+        } catch (XMLStreamException e) {
+            throw new IOException("Writing XML failed.", e);
+        } finally {
+            if (xml != null) {
+                try {
+                    xml.close(); // Does not close the underlying stream
+                } catch (XMLStreamException e) {
+                    LOGGER.log(Level.FINE, "Closing XML writer failed.", e);
+                }
+            }
+        }
+    }
+
+    private void writeGame(XMLStreamWriter xml, Game game, boolean withAssets) throws XMLStreamException, SQLException {
+        xml.writeCharacters("\n    ");
+        xml.writeStartElement("game");
+        xml.writeAttribute("id", String.valueOf(game.getId()));
+        xml.writeAttribute("name", game.getName() != null ? game.getName() : "");
+        xml.writeAttribute("type", game.getGameType() != null ? game.getGameType().name() : "");
+        xml.writeAttribute("active", String.valueOf(game.isActive()));
+
+        writeChild(xml, "description", game.getDescription());
+        writeChild(xml, "minStake", formatBigDecimal(game.getMinStake()));
+        writeChild(xml, "maxStake", formatBigDecimal(game.getMaxStake()));
+        writeChild(xml, "volatility", String.valueOf(game.getVolatility()));
+        writeChild(xml, "backgroundColor", game.getBackgroundColor());
+        writeChild(xml, "createdByAdminUsername", game.getCreatedByAdminUsername());
+        writeChild(xml, "createdAt", formatTimestamp(game.getCreatedAt()));
+        // Stats
+        writeChild(xml, "totalSpins", String.valueOf(game.getTotalSpins()));
+        writeChild(xml, "maxPayout", formatBigDecimal(game.getMaxPayout()));
+        if (withAssets) {
+            writeAssets(xml, game.getId());
+        }
+
+        xml.writeCharacters("\n    ");
+        xml.writeEndElement();
+    }
+
+    /**
+     * Writes the game's images, one base64 {@code <asset>} per image; assets without image data are skipped.
+     * A failed asset query is thrown, so the export fails instead of writing an empty {@code <assets/>}.
+     */
+    private void writeAssets(XMLStreamWriter xml, int gameId) throws XMLStreamException, SQLException {
+        List<GameAsset> assets = gameAssetDAO.findByGameIdChecked(gameId); // Own connection; the game stream keeps its cursor
+        xml.writeCharacters("\n        ");
+        xml.writeStartElement("assets");
+        for (GameAsset asset : assets) {
+            if (asset.getImageData() == null) continue;
+            xml.writeCharacters("\n            ");
+            xml.writeStartElement("asset");
+            xml.writeAttribute("type", asset.getAssetType().name());
+            xml.writeAttribute("name", asset.getAssetName() != null ? asset.getAssetName() : "");
+            if (asset.getSymbolPayoutMultiplier() != null) {
+                xml.writeAttribute("multiplier", asset.getSymbolPayoutMultiplier().toPlainString());
+            }
+            ByteBuffer encoded = Base64.getEncoder().encode(asset.getImageData().duplicate()); // Reads the mapping directly
+            xml.writeCharacters(new String(encoded.array(), 0, encoded.limit(), StandardCharsets.US_ASCII));
+            xml.writeEndElement();
+        }
+        xml.writeCharacters("\n        ");
+        xml.writeEndElement();
+    }
+
+    /** Writes a child element with text content; skipped if the value is null. */
+    private void writeChild(XMLStreamWriter xml, String tagName, String textContent) throws XMLStreamException {
+        if (textContent == null) return;
+        xml.writeCharacters("\n        ");
+        xml.writeStartElement(tagName);
+        xml.writeCharacters(textContent);
+        xml.writeEndElement();
+    }
+
+    /** Formats BigDecimal for XML (plain string, 2 decimal places) */
+    private static String formatBigDecimal(BigDecimal value) {
+        if (value == null) return "0.00";
+        return value.setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+
+    /** Formats Timestamp for XML (ISO 8601 format) */
+    private static String formatTimestamp(Timestamp timestamp) {
+        if (timestamp == null) return null;
+        return timestamp.toInstant().atZone(ZoneId.systemDefault()).format(XML_TIMESTAMP_FORMAT);
+    }
+}
@@ -0,0 +1,338 @@
+package sk.vava.royalmate.service;
+
+import sk.vava.royalmate.data.AccountDAO;
+import sk.vava.royalmate.data.GameImportDAO;
+import sk.vava.royalmate.model.Account;
+import sk.vava.royalmate.model.AssetType;
+import sk.vava.royalmate.model.Game;
+import sk.vava.royalmate.model.GameAsset;
+import sk.vava.royalmate.model.GameType;
+import sk.vava.royalmate.util.SessionManager;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Imports games (and their images, if the file has them) from the XML written by
+ * {@link GameExportService}, plain or gzipped. The file is read with a streaming parser and saved in
+ * chunks of {@value #CHUNK_SIZE} games, each chunk one transaction with batched inserts. Invalid
+ * records are skipped and reported; if a chunk is rejected by the DB its games are retried one by one
+ * so only the offending records are lost. Game IDs and stats in the file are ignored.
+ */
+public class GameImportService {
+
+    private static final Logger LOGGER = Logger.getLogger(GameImportService.class.getName());
+    public static final int CHUNK_SIZE = 200;
+    private static final int MAX_REPORTED_ERRORS = 1000; // Further errors are only counted
+    private static final int MIN_VOLATILITY = 1;
+    private static final int MAX_VOLATILITY = 5;
+
+    /** Why a record (1-based position of its {@code <game>} in the file) was not imported. */
+    public record RecordError(int record, String name, String message) {}
+
+    /**
+     * @param imported   Games saved.
+     * @param skipped    Records not saved; the first {@value #MAX_REPORTED_ERRORS} are listed in {@code errors}.
+     * @param reassigned Games whose creating admin was not found here, attributed to the importing admin.
+     * @param errors     Per-record errors, in file order.
+     */
+    public record Result(int imported, int skipped, int reassigned, List<RecordError> errors) {}
+
+    private final GameImportDAO gameImportDAO;
+    private final AccountDAO accountDAO;
+    private final CatalogService catalogService;
+    private final AssetRenditionService renditionService;
+    private final XMLInputFactory xmlInputFactory;
+
+    public GameImportService() {
+        this(new GameImportDAO(), new AccountDAO(), CatalogService.getInstance(), AssetRenditionService.getInstance());
+    }
+
+    // Constructor for testing/DI
+    public GameImportService(GameImportDAO gameImportDAO, AccountDAO accountDAO, CatalogService catalogService,
+                             AssetRenditionService renditionService) {
+        this.gameImportDAO = gameImportDAO;
+        this.accountDAO = accountDAO;
+        this.catalogService = catalogService;
+        this.renditionService = renditionService;
+        this.xmlInputFactory = XMLInputFactory.newInstance();
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false); // No entity expansion or external fetches
+        xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+    }
+
+    /**
+     * Imports all games of an export file (admin only). Chunks saved before a cancellation or a
+     * malformed part of the file stay saved; a malformed file is reported as an error of the record
+     * being read.
+     *
+     * @param file      Export file, plain or gzipped XML.
+     * @param listener  Progress callback (games imported so far; total unknown, -1).
+     * @param cancelled Polled between records; the import stops once it returns true.
+     * @return What was imported and what was not.
+     * @throws IOException           if the file cannot be read.
+     * @throws CancellationException if the import was cancelled.
+     * @throws SecurityException     if the current user is not an admin.
+     */
+    public Result importGames(Path file, ExportProgressListener listener, BooleanSupplier cancelled) throws IOException {
+        Account importer = SessionManager.getCurrentAccount();
+        if (importer == null || !importer.isAdmin()) {
+            LOGGER.warning("Unauthorized attempt to import games.");
+            throw new SecurityException("Only admins can import games.");
+        }
+        long start = System.nanoTime();
+        Run run = new Run(importer.getId(), listener);
+        try {
+            try (InputStream in = open(file)) {
+                XMLStreamReader xml = xmlInputFactory.createXMLStreamReader(in);
+                try {
+                    while (xml.hasNext()) {
+                        if (cancelled.getAsBoolean()) {
+                            throw new CancellationException("Import cancelled after " + run.imported + " games.");
+                        }
+                        if (xml.next() == XMLStreamConstants.START_ELEMENT && "game".equals(xml.getLocalName())) {
+                            run.record++;
+                            readGame(xml, run);
+                        }
+                    }
+                } finally {
+                    xml.close(); // Does not close the underlying stream
+                }
+            } catch (XMLStreamException e) {
+                LOGGER.log(Level.WARNING, "Malformed import file " + file + " at record " + run.record, e);
+                run.fail(null, "Malformed XML: " + e.getMessage());
+            }
+            run.flush(); // Records read before a parse error are still valid
+        } finally {
+            if (run.imported > 0) {
+                catalogService.invalidate();
+            }
+        }
+        LOGGER.info("Imported " + run.imported + " games (" + run.skipped + " skipped, " + run.reassigned
+                + " reassigned) from " + file + " in " + (System.nanoTime() - start) / 1_000_000 + " ms.");
+        return new Result(run.imported, run.skipped, run.reassigned, run.errors);
+    }
+
+    private static InputStream open(Path file) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(file), ExportFiles.BUFFER_SIZE);
+        in.mark(2);
+        boolean gzip = in.read() == 0x1f && in.read() == 0x8b; // GZIP magic, independent of the file name
+        in.reset();
+        return gzip ? new BufferedInputStream(new GZIPInputStream(in, ExportFiles.BUFFER_SIZE), ExportFiles.BUFFER_SIZE) : in;
+    }
+
+    /** Reads one {@code <game>} element (the reader is on its start tag) and queues it if valid. */
+    private void readGame(XMLStreamReader xml, Run run) throws XMLStreamException {
+        String name = trimToNull(xml.getAttributeValue(null, "name"));
+        String type = trimToNull(xml.getAttributeValue(null, "type"));
+        String active = trimToNull(xml.getAttributeValue(null, "active"));
+        Map<String, String> fields = new HashMap<>();
+        List<GameAsset> assets = new ArrayList<>();
+        String assetError = null;
+
+        while (xml.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            if ("assets".equals(xml.getLocalName())) {
+                while (xml.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                    String error = readAsset(xml, assets);
+                    if (assetError == null) assetError = error;
+                }
+            } else {
+                fields.put(xml.getLocalName(), xml.getElementText());
+            }
+        }
+
+        Game.GameBuilder game = Game.builder().name(name).isActive(active == null || Boolean.parseBoolean(active));
+        if (name == null || type == null) {
+            run.fail(name, "Missing name or type.");
+            return;
+        }
+        try {
+            game.gameType(GameType.valueOf(type.toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException e) {
+            run.fail(name, "Invalid game type: " + type);
+            return;
+        }
+        try {
+            BigDecimal minStake = new BigDecimal(fields.getOrDefault("minStake", "").trim());
+            BigDecimal maxStake = new BigDecimal(fields.getOrDefault("maxStake", "").trim());
+            int volatility = Integer.parseInt(fields.getOrDefault("volatility", "").trim());
+            if (minStake.signum() <= 0 || minStake.compareTo(maxStake) >= 0) {
+                run.fail(name, "Stakes must be positive and minStake below maxStake.");
+                return;
+            }
+            if (volatility < MIN_VOLATILITY || volatility > MAX_VOLATILITY) {
+                run.fail(name, "Volatility must be between " + MIN_VOLATILITY + " and " + MAX_VOLATILITY + ".");
+                return;
+            }
+            game.minStake(minStake).maxStake(maxStake).volatility(volatility);
+        } catch (NumberFormatException e) {
+            run.fail(name, "Invalid number for stakes/volatility.");
+            return;
+        }
+        String createdAt = trimToNull(fields.get("createdAt"));
+        if (createdAt != null) {
+            try {
+                game.createdAt(Timestamp.from(OffsetDateTime.parse(createdAt).toInstant()));
+            } catch (DateTimeParseException e) {
+                run.fail(name, "Invalid createdAt: " + createdAt);
+                return;
+            }
+        }
+        if (assetError != null) {
+            run.fail(name, assetError);
+            return;
+        }
+        game.description(fields.get("description"))
+                .backgroundColor(trimToNull(fields.get("backgroundColor")))
+                .createdByAdminId(run.adminId(trimToNull(fields.get("createdByAdminUsername"))));
+        run.add(new GameImportDAO.Entry(game.build(), assets));
+    }
+
+    /** Reads one {@code <asset>} element into the list; returns an error message if it is invalid. */
+    private static String readAsset(XMLStreamReader xml, List<GameAsset> assets) throws XMLStreamException {
+        String type = trimToNull(xml.getAttributeValue(null, "type"));
+        String name = xml.getAttributeValue(null, "name");
+        String multiplier = trimToNull(xml.getAttributeValue(null, "multiplier"));
+        String data = xml.getElementText();
+        try {
+            AssetType assetType = AssetType.valueOf(String.valueOf(type).toUpperCase(Locale.ROOT));
+            byte[] imageData = Base64.getMimeDecoder().decode(data); // Ignores line breaks and indentation
+            if (imageData.length == 0) {
+                return "Empty image in asset '" + name + "'.";
+            }
+            assets.add(GameAsset.builder()
+                    .assetType(assetType)
+                    .assetName(name)
+                    .imageData(ByteBuffer.wrap(imageData).asReadOnlyBuffer())
+                    .symbolPayoutMultiplier(multiplier != null ? new BigDecimal(multiplier) : null)
+                    .build());
+            return null;
+        } catch (IllegalArgumentException e) { // Also NumberFormatException
+            return "Invalid asset '" + name + "': " + e.getMessage();
+        }
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) return null;
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    /** State of one import: the chunk being collected, resolved admins and the tallies. */
+    private final class Run {
+        private final int importerId;
+        private final ExportProgressListener listener;
+        private final Map<String, Integer> adminIds = new HashMap<>(); // Lower-cased username -> ID, -1 if not an admin here
+        private final List<GameImportDAO.Entry> chunk = new ArrayList<>(CHUNK_SIZE);
+        private final List<Integer> chunkRecords = new ArrayList<>(CHUNK_SIZE);
+        private final List<RecordError> errors = new ArrayList<>();
+        private final List<GameAsset> savedAssets = new ArrayList<>(); // Of the current chunk, for its renditions
+        private CompletableFuture<Integer> renditions = CompletableFuture.completedFuture(0); // Of the previous chunk
+        private int record;
+        private int imported;
+        private int skipped;
+        private int reassigned;
+
+        Run(int importerId, ExportProgressListener listener) {
+            this.importerId = importerId;
+            this.listener = listener;
+            listener.progress(0, -1);
+        }
+
+        int adminId(String username) {
+            int id = username == null ? -1 : adminIds.computeIfAbsent(username.toLowerCase(Locale.ROOT),
+                    key -> accountDAO.findByUsername(username).filter(Account::isAdmin).map(Account::getId).orElse(-1));
+            if (id > 0) return id;
+            reassigned++;
+            return importerId;
+        }
+
+        void add(GameImportDAO.Entry entry) {
+            chunk.add(entry);
+            chunkRecords.add(record);
+            if (chunk.size() == CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        void fail(String name, String message) {
+            skipped++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new RecordError(record, name, message));
+            }
+        }
+
+        /** Saves the collected chunk; if the DB rejects it, saves its games one by one. */
+        void flush() {
+            if (chunk.isEmpty()) return;
+            try {
+                gameImportDAO.saveAll(chunk);
+                saved(chunk);
+            } catch (SQLException | IOException e) {
+                LOGGER.log(Level.WARNING, "Import chunk ending at record " + chunkRecords.get(chunkRecords.size() - 1)
+                        + " failed, retrying its games one by one.", e);
+                for (int i = 0; i < chunk.size(); i++) {
+                    GameImportDAO.Entry entry = chunk.get(i);
+                    try {
+                        gameImportDAO.saveAll(List.of(entry));
+                        saved(List.of(entry));
+                    } catch (SQLException | IOException single) {
+                        skipped++;
+                        if (errors.size() < MAX_REPORTED_ERRORS) {
+                            errors.add(new RecordError(chunkRecords.get(i), entry.game().getName(), single.getMessage()));
+                        }
+                    }
+                }
+                errors.sort((a, b) -> Integer.compare(a.record(), b.record())); // Retried errors land after later skips
+            }
+            chunk.clear();
+            chunkRecords.clear();
+            queueRenditions();
+            listener.progress(imported, -1);
+        }
+
+        private void saved(List<GameImportDAO.Entry> entries) {
+            imported += entries.size();
+            for (GameImportDAO.Entry entry : entries) {
+                savedAssets.addAll(entry.assets());
+            }
+        }
+
+        /**
+         * Queues the renditions of the chunk just saved, after waiting for the previous chunk's. Only one
+         * chunk of images waits for the encoder, so a large import neither piles up every image in memory
+         * nor outruns the encoder; readers get the originals until the renditions are stored.
+         */
+        private void queueRenditions() {
+            if (savedAssets.isEmpty()) return;
+            renditions.join(); // Never completes exceptionally
+            renditions = renditionService.generateAllAsync(List.copyOf(savedAssets));
+            savedAssets.clear();
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package sk.vava.royalmate.service;
+
+import sk.vava.royalmate.model.Game;
+import sk.vava.royalmate.model.GameType;
+import sk.vava.royalmate.util.TextNormalizer;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable search index over a game catalog.
+ * Names and descriptions are folded (lowercase, no diacritics) and indexed by trigrams,
+ * game types are kept as bitmaps. A query intersects the posting lists of its trigrams,
+ * verifies the candidates with a substring check and ranks by relevance, then popularity.
+ */
+public final class GameSearchIndex {
+
+    private static final int SCORE_NAME_PREFIX = 4;
+    private static final int SCORE_NAME = 3;
+    private static final int SCORE_DESCRIPTION = 1;
+
+    private final List<Game> games; // Doc ID = index in this list
+    private final String[] foldedNames;
+    private final String[] foldedDescriptions;
+    private final Map<Long, BitSet> nameTrigrams;
+    private final Map<Long, BitSet> descriptionTrigrams;
+    private final EnumMap<GameType, BitSet> typeBitmaps;
+
+    private GameSearchIndex(List<Game> games) {
+        this.games = List.copyOf(games);
+        int n = this.games.size();
+        this.foldedNames = new String[n];
+        this.foldedDescriptions = new String[n];
+        this.nameTrigrams = new HashMap<>();
+        this.descriptionTrigrams = new HashMap<>();
+        this.typeBitmaps = new EnumMap<>(GameType.class);
+        for (GameType type : GameType.values()) {
+            typeBitmaps.put(type, new BitSet(n));
+        }
+
+        for (int doc = 0; doc < n; doc++) {
+            Game game = this.games.get(doc);
+            foldedNames[doc] = TextNormalizer.fold(game.getName());
+            foldedDescriptions[doc] = TextNormalizer.fold(game.getDescription());
+            addTrigrams(nameTrigrams, foldedNames[doc], doc);
+            addTrigrams(descriptionTrigrams, foldedDescriptions[doc], doc);
+            if (game.getGameType() != null) {
+                typeBitmaps.get(game.getGameType()).set(doc);
+            }
+        }
+    }
+
+    /**
+     * Builds an index over the given games. The list order is kept for empty queries.
+     *
+     * @param games The games to index (typically all active games).
+     * @return The index.
+     */
+    public static GameSearchIndex build(List<Game> games) {
+        return new GameSearchIndex(games == null ? Collections.emptyList() : games);
+    }
+
+    /** @return Number of indexed games. */
+    public int size() {
+        return games.size();
+    }
+
+    /** @return All indexed games in their original order. */
+    public List<Game> getGames() {
+        return games;
+    }
+
+    /**
+     * Searches the index. Every query word must appear in the name or the description.
+     *
+     * @param query Free text query, blank matches everything.
+     * @param types Allowed game types.
+     * @return Matching games ranked by relevance and popularity (original order for blank queries).
+     */
+    public List<Game> search(String query, Set<GameType> types) {
+        return query(query, types, null).getGames();
+    }
+
+    /**
+     * Same as {@link #search(String, Set)}, but only considers games contained in a previous result.
+     * Used when the user extends the query: "rul" -> "rule" can only narrow the result set.
+     *
+     * @param query      Free text query, blank matches everything.
+     * @param types      Allowed game types.
+     * @param narrowFrom Previous result to narrow (null = whole catalog). Must come from this index.
+     * @return The result, including the matched doc set for further narrowing.
+     */
+    public Result query(String query, Set<GameType> types, Result narrowFrom) {
+        BitSet allowed = typeMask(types);
+        if (narrowFrom != null) {
+            allowed.and(narrowFrom.docs);
+        }
+        List<String> words = TextNormalizer.tokenize(query);
+        if (words.isEmpty()) {
+            List<Game> result = new ArrayList<>(allowed.cardinality());
+            for (int doc = allowed.nextSetBit(0); doc >= 0; doc = allowed.nextSetBit(doc + 1)) {
+                result.add(games.get(doc));
+            }
+            return new Result(result, allowed);
+        }
+
+        // Narrow down candidates with trigram postings, then verify with a substring check
+        BitSet candidates = allowed;
+        for (String word : words) {
+            if (word.length() < 3) continue; // Too short for trigrams, verified below
+            BitSet matching = trigramCandidates(nameTrigrams, word);
+            matching.or(trigramCandidates(descriptionTrigrams, word));
+            candidates = and(candidates, matching);
+            if (candidates.isEmpty()) return new Result(new ArrayList<>(), candidates);
+        }
+
+        List<ScoredGame> scored = new ArrayList<>();
+        BitSet matchedDocs = new BitSet(games.size());
+        for (int doc = candidates.nextSetBit(0); doc >= 0; doc = candidates.nextSetBit(doc + 1)) {
+            int score = score(doc, words);
+            if (score > 0) {
+                scored.add(new ScoredGame(games.get(doc), score));
+                matchedDocs.set(doc);
+            }
+        }
+        scored.sort((a, b) -> {
+            if (a.score != b.score) return Integer.compare(b.score, a.score);
+            if (a.game.getTotalSpins() != b.game.getTotalSpins()) return Long.compare(b.game.getTotalSpins(), a.game.getTotalSpins());
+            return String.valueOf(a.game.getName()).compareToIgnoreCase(String.valueOf(b.game.getName()));
+        });
+
+        List<Game> result = new ArrayList<>(scored.size());
+        for (ScoredGame sg : scored) {
+            result.add(sg.game);
+        }
+        return new Result(result, matchedDocs);
+    }
+
+    /**
+     * Advanced mode: filters by a user-supplied regular expression on name or description.
+     * A pathological pattern can backtrack for a very long time, so the matcher reads the text through
+     * a sequence that gives up when the thread is interrupted or the time budget runs out.
+     *
+     * @param pattern      The compiled pattern.
+     * @param types        Allowed game types.
+     * @param budgetMillis Time the whole search may take.
+     * @return Matching games in original order.
+     * @throws CancellationException if the thread was interrupted or the budget ran out
+     *                               (the interrupt status is cleared).
+     */
+    public List<Game> searchRegex(Pattern pattern, Set<GameType> types, long budgetMillis) {
+        BitSet allowed = typeMask(types);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        List<Game> result = new ArrayList<>();
+        for (int doc = allowed.nextSetBit(0); doc >= 0; doc = allowed.nextSetBit(doc + 1)) {
+            Game game = games.get(doc);
+            if (pattern.matcher(new BoundedCharSequence(game.getName(), deadline)).find()
+                    || pattern.matcher(new BoundedCharSequence(game.getDescription(), deadline)).find()) {
+                result.add(game);
+            }
+        }
+        return result;
+    }
+
+    /** Text for regex matching that throws CancellationException once interrupted or past a deadline. */
+    private static final class BoundedCharSequence implements CharSequence {
+        private static final int DEADLINE_CHECK_INTERVAL = 1024; // nanoTime calls are cheap, but not free
+        private final String text;
+        private final long deadlineNanos;
+        private int reads;
+
+        BoundedCharSequence(String text, long deadlineNanos) {
+            this.text = text != null ? text : "";
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (Thread.interrupted()) {
+                throw new CancellationException("Regex search interrupted.");
+            }
+            if (++reads % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() - deadlineNanos > 0) {
+                throw new CancellationException("Regex search ran out of time.");
+            }
+            return text.charAt(index);
+        }
+
+        @Override
+        public int length() {
+            return text.length();
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new BoundedCharSequence(text.substring(start, end), deadlineNanos);
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+
+    private int score(int doc, List<String> words) {
+        int total = 0;
+        for (String word : words) {
+            int wordScore;
+            if (foldedNames[doc].startsWith(word)) wordScore = SCORE_NAME_PREFIX;
+            else if (foldedNames[doc].contains(word)) wordScore = SCORE_NAME;
+            else if (foldedDescriptions[doc].contains(word)) wordScore = SCORE_DESCRIPTION;
+            else return 0; // Every word must match somewhere
+            total += wordScore;
+        }
+        return total;
+    }
+
+    private BitSet typeMask(Collection<GameType> types) {
+        BitSet mask = new BitSet(games.size());
+        if (types != null) {
+            for (GameType type : types) {
+                mask.or(typeBitmaps.get(type));
+            }
+        }
+        return mask;
+    }
+
+    private static BitSet trigramCandidates(Map<Long, BitSet> index, String word) {
+        BitSet result = null;
+        for (int i = 0; i + 3 <= word.length(); i++) {
+            BitSet postings = index.get(trigramKey(word, i));
+            if (postings == null) return new BitSet();
+            if (result == null) {
+                result = (BitSet) postings.clone();
+            } else {
+                result.and(postings);
+            }
+            if (result.isEmpty()) break;
+        }
+        return result == null ? new BitSet() : result;
+    }
+
+    private static BitSet and(BitSet a, BitSet b) {
+        BitSet result = (BitSet) a.clone();
+        result.and(b);
+        return result;
+    }
+
+    private static void addTrigrams(Map<Long, BitSet> index, String text, int doc) {
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            index.computeIfAbsent(trigramKey(text, i), k -> new BitSet()).set(doc);
+        }
+    }
+
+    private static long trigramKey(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+
+    /** Ranked games plus the matched doc set (for incremental narrowing). */
+    public static final class Result {
+        private final List<Game> games;
+        private final BitSet docs;
+
+        private Result(List<Game> games, BitSet docs) {
+            this.games = games;
+            this.docs = docs;
+        }
+
+        public List<Game> getGames() {
+            return games;
+        }
+    }
+
+    private static final class ScoredGame {
+        private final Game game;
+        private final int score;
+
+        private ScoredGame(Game game, int score) {
+            this.game = game;
+            this.score = score;
+        }
+    }
+}
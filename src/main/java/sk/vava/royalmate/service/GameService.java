@@ -2,7 +2,6 @@ package sk.vava.royalmate.service;
 
 import sk.vava.royalmate.data.AccountDAO; // Need AccountDAO
 import sk.vava.royalmate.data.GameAssetDAO; // Need GameAssetDAO
-import sk.vava.royalmate.data.GameDAO;
 import sk.vava.royalmate.data.GameplayDAO; // Need GameplayDAO
 import sk.vava.royalmate.model.Account; // Need Account
 import sk.vava.royalmate.model.AssetType;
@@ -12,11 +11,9 @@ import sk.vava.royalmate.model.Gameplay; // Need Gameplay
 import sk.vava.royalmate.util.SessionManager; // Need SessionManager
 
 import java.math.BigDecimal;
-import java.util.Collections;
 import java.util.Comparator; // For sorting symbols
 import java.util.List;
 import java.util.Optional;
-import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors; // For sorting symbols
 
@@ -25,34 +22,36 @@ public class GameService {
     private static final Logger LOGGER = Logger.getLogger(GameService.class.getName());
     private static final int LEADERBOARD_LIMIT = 10; // For recent wins display
 
-    private final GameDAO gameDAO;
     private final GameAssetDAO gameAssetDAO; // Added
     private final AccountDAO accountDAO; // Added
     private final GameplayDAO gameplayDAO; // Added
+    private final CatalogService catalogService;
 
     // Constructor for testing/DI
     public GameService() {
-        this.gameDAO = new GameDAO();
         this.gameAssetDAO = new GameAssetDAO(); // Instantiate
         this.accountDAO = new AccountDAO();     // Instantiate
         this.gameplayDAO = new GameplayDAO();   // Instantiate
+        this.catalogService = CatalogService.getInstance();
     }
 
     /**
      * Gets all active games suitable for display in the user game list/search.
-     * Includes cover image data.
+     * Includes the cover reference. Served from the shared catalog snapshot.
      *
-     * @return A list of active games, or an empty list on error.
+     * @return A list of active games ordered by name, or an empty list on error.
      */
     public List<Game> getAllActiveGamesWithCovers() {
         LOGGER.fine("GameService fetching all active games with covers.");
-        try {
-            return gameDAO.findAllActiveWithCovers();
-        } catch (Exception e) {
-            // Catch potential exceptions from DAO layer if they are thrown
-            LOGGER.log(Level.SEVERE, "Error fetching active games from DAO", e);
-            return Collections.emptyList(); // Return empty list on error
-        }
+        return catalogService.getSnapshot().getActiveGames();
+    }
+
+    /**
+     * Gets the search index over active games, built together with the current catalog snapshot.
+     * @return The search index.
+     */
+    public GameSearchIndex getActiveGamesIndex() {
+        return catalogService.getSnapshot().getSearchIndex();
     }
 
 // --- NEW METHODS ---
@@ -65,7 +64,7 @@ public class GameService {
      */
     public Optional<Game> getGameDetails(int gameId) {
         LOGGER.fine("GameService fetching details for game ID: " + gameId);
-        Optional<Game> gameOpt = gameDAO.findById(gameId);
+        Optional<Game> gameOpt = catalogService.getSnapshot().findById(gameId);
         // Ensure game is active before returning
         return gameOpt.filter(Game::isActive);
     }
@@ -80,6 +79,9 @@ public class GameService {
      */
     public List<GameAsset> getGameAssets(int gameId, AssetType assetType) {
         LOGGER.fine("GameService fetching " + assetType + " assets for game ID: " + gameId);
+        if (assetType == AssetType.SYMBOL) {
+            return catalogService.getSymbolAssets(gameId); // Already sorted, cached per catalog version
+        }
         List<GameAsset> assets = gameAssetDAO.findByGameIdAndType(gameId, assetType);
         // Sort by ID - assumes lower ID means lower rarity/payout for symbols
         assets.sort(Comparator.comparingInt(GameAsset::getId));
@@ -103,8 +105,8 @@ public class GameService {
             LOGGER.severe("Bet placement attempted without valid session for account ID " + accountId);
             return -1L; // Should not happen if called from controller correctly
         }
-        // Fetch latest balance from DB for critical check
-        Optional<Account> latestAccountOpt = accountDAO.findByUsername(currentAccount.getUsername());
+        // Fetch latest balance from DB for critical check (bypasses the account cache)
+        Optional<Account> latestAccountOpt = accountDAO.findByUsernameFresh(currentAccount.getUsername());
         if(latestAccountOpt.isEmpty()) {
             LOGGER.severe("Could not fetch latest account data for balance check.");
             return -1L;
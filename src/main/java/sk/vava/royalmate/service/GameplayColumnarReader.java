@@ -0,0 +1,235 @@
+package sk.vava.royalmate.service;
+
+import sk.vava.royalmate.model.Gameplay;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Arrays;
+
+/**
+ * Reads files in the columnar "RMGP" format written by {@link GameplayColumnarWriter} (version 1 only).
+ * Decodes one block at a time, so memory use is bounded by one block like the writer's.
+ * The trailer's row count is checked against the rows read; truncated or corrupt files throw.
+ * Not thread-safe.
+ */
+final class GameplayColumnarReader {
+
+    private final DataInputStream in;
+    private final int decimalScale;
+    private final long[] ids = new long[GameplayColumnarWriter.BLOCK_ROWS];
+    private final int[] accountIds = new int[GameplayColumnarWriter.BLOCK_ROWS];
+    private final int[] gameIds = new int[GameplayColumnarWriter.BLOCK_ROWS];
+    private final BigDecimal[] stakes = new BigDecimal[GameplayColumnarWriter.BLOCK_ROWS];
+    private final BigDecimal[] payouts = new BigDecimal[GameplayColumnarWriter.BLOCK_ROWS];
+    private final String[] outcomes = new String[GameplayColumnarWriter.BLOCK_ROWS];
+    private final Timestamp[] timestamps = new Timestamp[GameplayColumnarWriter.BLOCK_ROWS];
+    private final ColumnReader column = new ColumnReader();
+    private int rows;
+    private int position;
+    private long totalRows;
+    private boolean finished;
+
+    GameplayColumnarReader(InputStream in) throws IOException {
+        this.in = new DataInputStream(in);
+        byte[] magic = new byte[GameplayColumnarWriter.MAGIC.length];
+        this.in.readFully(magic);
+        if (!Arrays.equals(magic, GameplayColumnarWriter.MAGIC)) {
+            throw new IOException("Not a columnar gameplay file.");
+        }
+        int version = this.in.readUnsignedByte();
+        if (version != GameplayColumnarWriter.VERSION) {
+            throw new IOException("Unsupported columnar gameplay version: " + version);
+        }
+        this.decimalScale = this.in.readUnsignedByte();
+    }
+
+    /**
+     * Reads the next play.
+     *
+     * @return The play (a new object, no joined fields), or null after the last one.
+     * @throws IOException if the file is truncated or corrupt.
+     */
+    Gameplay next() throws IOException {
+        if (position == rows && !readBlock()) {
+            return null;
+        }
+        int i = position++;
+        return Gameplay.builder()
+                .id(ids[i])
+                .accountId(accountIds[i])
+                .gameId(gameIds[i])
+                .stakeAmount(stakes[i])
+                .outcome(outcomes[i])
+                .payoutAmount(payouts[i])
+                .timestamp(timestamps[i])
+                .build();
+    }
+
+    /** Number of plays read so far. */
+    long rowsRead() {
+        return totalRows - rows + position;
+    }
+
+    /** Reads the next block; false (after checking the trailer) at the end of the file. */
+    private boolean readBlock() throws IOException {
+        if (finished) return false;
+        int count = in.readInt();
+        if (count == 0) {
+            long expected = in.readLong();
+            finished = true;
+            if (expected != totalRows) {
+                throw new IOException("Row count mismatch: trailer says " + expected + ", read " + totalRows);
+            }
+            return false;
+        }
+        if (count < 0 || count > GameplayColumnarWriter.BLOCK_ROWS) {
+            throw new IOException("Corrupt block row count: " + count);
+        }
+
+        readColumn();
+        long id = column.readSigned();
+        ids[0] = id;
+        for (int i = 1; i < count; i++) {
+            id += column.readSigned();
+            ids[i] = id;
+        }
+        endColumn("id");
+
+        readColumn();
+        for (int i = 0; i < count; i++) accountIds[i] = Math.toIntExact(column.readSigned());
+        endColumn("account_id");
+
+        readColumn();
+        for (int i = 0; i < count; i++) gameIds[i] = Math.toIntExact(column.readSigned());
+        endColumn("game_id");
+
+        readDecimalColumn(stakes, count, "stake_amount");
+        readDecimalColumn(payouts, count, "payout_amount");
+        readOutcomeColumn(count);
+        readTimestampColumn(count);
+
+        rows = count;
+        position = 0;
+        totalRows += count;
+        return true;
+    }
+
+    private void readDecimalColumn(BigDecimal[] values, int count, String name) throws IOException {
+        readColumn();
+        int bitmap = column.skipBitmap(count);
+        for (int i = 0; i < count; i++) {
+            values[i] = column.isSet(bitmap, i) ? BigDecimal.valueOf(column.readSigned(), decimalScale) : null;
+        }
+        endColumn(name);
+    }
+
+    private void readOutcomeColumn(int count) throws IOException {
+        readColumn();
+        int entries = Math.toIntExact(column.readUnsigned());
+        if (entries > count) {
+            throw new IOException("Corrupt outcome dictionary size: " + entries);
+        }
+        String[] dictionary = new String[entries];
+        for (int e = 0; e < entries; e++) {
+            dictionary[e] = column.readString();
+        }
+        for (int i = 0; i < count; i++) {
+            long code = column.readUnsigned();
+            if (code > entries) {
+                throw new IOException("Corrupt outcome code: " + code);
+            }
+            outcomes[i] = code == 0 ? null : dictionary[(int) code - 1];
+        }
+        endColumn("outcome");
+    }
+
+    private void readTimestampColumn(int count) throws IOException {
+        readColumn();
+        int bitmap = column.skipBitmap(count);
+        long previous = 0;
+        boolean first = true;
+        for (int i = 0; i < count; i++) {
+            if (!column.isSet(bitmap, i)) {
+                timestamps[i] = null;
+                continue;
+            }
+            long value = column.readSigned();
+            previous = first ? value : previous + value;
+            first = false;
+            timestamps[i] = new Timestamp(previous);
+        }
+        endColumn("timestamp");
+    }
+
+    private void readColumn() throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Corrupt column length: " + length);
+        }
+        column.load(in, length);
+    }
+
+    private void endColumn(String name) throws IOException {
+        if (column.position != column.size) {
+            throw new IOException("Column " + name + " has " + (column.size - column.position) + " trailing bytes.");
+        }
+    }
+
+    /** Cursor over one column's bytes, reused for each column. */
+    private static final class ColumnReader {
+        byte[] bytes = new byte[GameplayColumnarWriter.BLOCK_ROWS * 2];
+        int size;
+        int position;
+
+        void load(DataInputStream in, int length) throws IOException {
+            if (length > bytes.length) {
+                bytes = new byte[Math.max(bytes.length * 2, length)];
+            }
+            in.readFully(bytes, 0, length);
+            size = length;
+            position = 0;
+        }
+
+        long readUnsigned() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (position == size) throw new EOFException("Varint runs past the column.");
+                byte b = bytes[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return value;
+            }
+            throw new IOException("Varint longer than 10 bytes.");
+        }
+
+        long readSigned() throws IOException {
+            long value = readUnsigned();
+            return (value >>> 1) ^ -(value & 1); // Undo zigzag
+        }
+
+        String readString() throws IOException {
+            int length = Math.toIntExact(readUnsigned());
+            if (length > size - position) throw new EOFException("String runs past the column.");
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        /** Skips the presence bitmap of a column; returns its offset for {@link #isSet}. */
+        int skipBitmap(int count) throws IOException {
+            int offset = position;
+            int length = (count + 7) / 8;
+            if (length > size - position) throw new EOFException("Bitmap runs past the column.");
+            position += length;
+            return offset;
+        }
+
+        boolean isSet(int bitmap, int row) {
+            return (bytes[bitmap + row / 8] & (1 << (row % 8))) != 0;
+        }
+    }
+}
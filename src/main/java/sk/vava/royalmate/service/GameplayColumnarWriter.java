@@ -0,0 +1,215 @@
+package sk.vava.royalmate.service;
+
+import sk.vava.royalmate.model.Gameplay;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes plays in the compact columnar "RMGP" format. Rows are buffered into blocks of
+ * {@value #BLOCK_ROWS}; each block stores every column separately, so memory use is bounded by one
+ * block no matter how many rows are written. Layout (big-endian, varints are unsigned LEB128,
+ * signed values are zigzag-encoded first):
+ * <pre>
+ * file      := "RMGP" u8:version(1) u8:decimalScale(2) block* u32:0 i64:totalRows
+ * block     := u32:rowCount column{7}           columns in order: id, account_id, game_id,
+ * column    := u32:byteLength bytes             stake_amount, payout_amount, outcome, timestamp
+ * id        := varint(first) varint(delta)*     deltas to the previous row (ids ascend, so deltas are small)
+ * account_id, game_id := varint*
+ * stake_amount, payout_amount := bitmap varint(unscaled)*   only non-null values; bitmap bit set = present
+ * outcome   := varint:n (varint:len utf8)*n varint(code)*   per-block dictionary; code 0 = null, i+1 = entry i
+ * timestamp := bitmap varint(epochMillis) varint(delta)*    first present value absolute, then deltas
+ * bitmap    := ceil(rowCount / 8) bytes, row i is bit (i % 8) of byte i / 8
+ * </pre>
+ * Read back with {@link GameplayColumnarReader}. Not thread-safe.
+ */
+final class GameplayColumnarWriter {
+
+    static final byte[] MAGIC = {'R', 'M', 'G', 'P'};
+    static final int VERSION = 1;
+    static final int DECIMAL_SCALE = 2;
+    static final int BLOCK_ROWS = 65_536;
+
+    private final DataOutputStream out;
+    private final long[] ids = new long[BLOCK_ROWS];
+    private final int[] accountIds = new int[BLOCK_ROWS];
+    private final int[] gameIds = new int[BLOCK_ROWS];
+    private final BigDecimal[] stakes = new BigDecimal[BLOCK_ROWS];
+    private final BigDecimal[] payouts = new BigDecimal[BLOCK_ROWS];
+    private final String[] outcomes = new String[BLOCK_ROWS];
+    private final Timestamp[] timestamps = new Timestamp[BLOCK_ROWS];
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final ColumnBuffer column = new ColumnBuffer();
+    private int rows;
+    private long totalRows;
+
+    GameplayColumnarWriter(OutputStream out) throws IOException {
+        this.out = new DataOutputStream(out);
+        this.out.write(MAGIC);
+        this.out.writeByte(VERSION);
+        this.out.writeByte(DECIMAL_SCALE);
+    }
+
+    void add(Gameplay play) throws IOException {
+        ids[rows] = play.getId();
+        accountIds[rows] = play.getAccountId();
+        gameIds[rows] = play.getGameId();
+        stakes[rows] = play.getStakeAmount();
+        payouts[rows] = play.getPayoutAmount();
+        outcomes[rows] = play.getOutcome();
+        timestamps[rows] = play.getTimestamp();
+        if (++rows == BLOCK_ROWS) {
+            flushBlock();
+        }
+    }
+
+    /** Writes the last block and the trailer, then flushes. Does not close the stream. */
+    void finish() throws IOException {
+        flushBlock();
+        out.writeInt(0);
+        out.writeLong(totalRows);
+        out.flush();
+    }
+
+    private void flushBlock() throws IOException {
+        if (rows == 0) return;
+        out.writeInt(rows);
+
+        column.reset();
+        column.writeSigned(ids[0]);
+        for (int i = 1; i < rows; i++) {
+            column.writeSigned(ids[i] - ids[i - 1]);
+        }
+        writeColumn();
+
+        column.reset();
+        for (int i = 0; i < rows; i++) column.writeSigned(accountIds[i]);
+        writeColumn();
+
+        column.reset();
+        for (int i = 0; i < rows; i++) column.writeSigned(gameIds[i]);
+        writeColumn();
+
+        writeDecimalColumn(stakes);
+        writeDecimalColumn(payouts);
+        writeOutcomeColumn();
+        writeTimestampColumn();
+
+        totalRows += rows;
+        Arrays.fill(stakes, 0, rows, null); // Drop references to the block's objects
+        Arrays.fill(payouts, 0, rows, null);
+        Arrays.fill(outcomes, 0, rows, null);
+        Arrays.fill(timestamps, 0, rows, null);
+        rows = 0;
+    }
+
+    private void writeDecimalColumn(BigDecimal[] values) throws IOException {
+        column.reset();
+        column.writeBitmap(values, rows);
+        for (int i = 0; i < rows; i++) {
+            if (values[i] != null) {
+                column.writeSigned(values[i].setScale(DECIMAL_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+            }
+        }
+        writeColumn();
+    }
+
+    private void writeOutcomeColumn() throws IOException {
+        dictionary.clear();
+        int[] codes = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            if (outcomes[i] != null) {
+                codes[i] = dictionary.computeIfAbsent(outcomes[i], key -> dictionary.size() + 1);
+            }
+        }
+        String[] entries = new String[dictionary.size()];
+        dictionary.forEach((value, code) -> entries[code - 1] = value);
+
+        column.reset();
+        column.writeUnsigned(entries.length);
+        for (String entry : entries) {
+            byte[] bytes = entry.getBytes(StandardCharsets.UTF_8);
+            column.writeUnsigned(bytes.length);
+            column.write(bytes);
+        }
+        for (int i = 0; i < rows; i++) {
+            column.writeUnsigned(codes[i]);
+        }
+        writeColumn();
+    }
+
+    private void writeTimestampColumn() throws IOException {
+        column.reset();
+        column.writeBitmap(timestamps, rows);
+        long previous = 0;
+        boolean first = true;
+        for (int i = 0; i < rows; i++) {
+            if (timestamps[i] == null) continue;
+            long millis = timestamps[i].getTime();
+            column.writeSigned(first ? millis : millis - previous);
+            previous = millis;
+            first = false;
+        }
+        writeColumn();
+    }
+
+    private void writeColumn() throws IOException {
+        out.writeInt(column.size);
+        out.write(column.bytes, 0, column.size);
+    }
+
+    /** Growable byte buffer reused for each column. */
+    private static final class ColumnBuffer {
+        byte[] bytes = new byte[BLOCK_ROWS * 2];
+        int size;
+
+        void reset() {
+            size = 0;
+        }
+
+        void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+
+        void write(byte[] data) {
+            ensure(data.length);
+            System.arraycopy(data, 0, bytes, size, data.length);
+            size += data.length;
+        }
+
+        void writeUnsigned(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        void writeSigned(long value) {
+            writeUnsigned((value << 1) ^ (value >> 63)); // Zigzag: small magnitudes stay short
+        }
+
+        void writeBitmap(Object[] values, int count) {
+            int length = (count + 7) / 8;
+            ensure(length);
+            Arrays.fill(bytes, size, size + length, (byte) 0);
+            for (int i = 0; i < count; i++) {
+                if (values[i] != null) {
+                    bytes[size + i / 8] |= (byte) (1 << (i % 8));
+                }
+            }
+            size += length;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package sk.vava.royalmate.service;
+
+import sk.vava.royalmate.data.GameplayDAO;
+import sk.vava.royalmate.data.GameplayFilter;
+import sk.vava.royalmate.model.Gameplay;
+import sk.vava.royalmate.util.SessionManager;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Logger;
+
+/**
+ * Exports gameplay history (game_plays) for analysis, as CSV or in the compact columnar format of
+ * {@link GameplayColumnarWriter}. Rows are streamed from a server-side cursor straight into the file,
+ * so exports of any size (100M rows included) run in constant memory.
+ */
+public class GameplayExportService {
+
+    private static final Logger LOGGER = Logger.getLogger(GameplayExportService.class.getName());
+    private static final int PROGRESS_EVERY_ROWS = 10_000;
+    private static final String CSV_HEADER = "id,account_id,game_id,stake_amount,outcome,payout_amount,timestamp\n";
+
+    /** Output formats. */
+    public enum Format {
+        /** RFC 4180 CSV with a header row; timestamps as ISO-8601 UTC instants. */
+        CSV,
+        /** Columnar binary, see {@link GameplayColumnarWriter}. */
+        COLUMNAR
+    }
+
+    private final GameplayDAO gameplayDAO;
+
+    public GameplayExportService() {
+        this.gameplayDAO = new GameplayDAO();
+    }
+
+    // Constructor for testing/DI
+    public GameplayExportService(GameplayDAO gameplayDAO) {
+        this.gameplayDAO = gameplayDAO;
+    }
+
+    /**
+     * Exports the plays matching a filter (admin only).
+     *
+     * @param file      Target file; replaced if it exists.
+     * @param format    Output format.
+     * @param gzip      true to gzip-compress the output.
+     * @param filter    Which plays to export.
+     * @param listener  Progress callback (total is unknown, -1).
+     * @param cancelled Polled between rows; the export stops once it returns true.
+     * @return Number of plays exported.
+     * @throws IOException           if the DB read or the file write failed.
+     * @throws CancellationException if the export was cancelled.
+     * @throws SecurityException     if the current user is not an admin.
+     */
+    public long exportPlays(Path file, Format format, boolean gzip, GameplayFilter filter,
+                            ExportProgressListener listener, BooleanSupplier cancelled) throws IOException {
+        if (!SessionManager.isAdmin()) {
+            LOGGER.warning("Unauthorized attempt to export gameplay history.");
+            throw new SecurityException("Only admins can export gameplay history.");
+        }
+        long start = System.nanoTime();
+        long exported = ExportFiles.writeAtomically(file, gzip, out -> format == Format.CSV
+                ? writeCsv(out, filter, listener, cancelled)
+                : writeColumnar(out, filter, listener, cancelled));
+        LOGGER.info("Exported " + exported + " plays (" + format + ", " + filter + ") to " + file + " in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms.");
+        return exported;
+    }
+
+    private long writeCsv(OutputStream out, GameplayFilter filter, ExportProgressListener listener,
+                          BooleanSupplier cancelled) throws IOException {
+        Writer csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), ExportFiles.BUFFER_SIZE);
+        csv.write(CSV_HEADER);
+        StringBuilder line = new StringBuilder(128);
+        long exported = stream(filter, listener, cancelled, play -> {
+            line.setLength(0);
+            line.append(play.getId()).append(',')
+                    .append(play.getAccountId()).append(',')
+                    .append(play.getGameId()).append(',')
+                    .append(plain(play.getStakeAmount())).append(',');
+            appendCsvField(line, play.getOutcome());
+            line.append(',').append(plain(play.getPayoutAmount())).append(',')
+                    .append(play.getTimestamp() != null ? play.getTimestamp().toInstant().toString() : "")
+                    .append('\n');
+            csv.append(line);
+        });
+        csv.flush();
+        return exported;
+    }
+
+    private long writeColumnar(OutputStream out, GameplayFilter filter, ExportProgressListener listener,
+                               BooleanSupplier cancelled) throws IOException {
+        GameplayColumnarWriter columnar = new GameplayColumnarWriter(out);
+        long exported = stream(filter, listener, cancelled, columnar::add);
+        columnar.finish();
+        return exported;
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(Gameplay play) throws IOException;
+    }
+
+    /** Streams the plays into a row writer, turning stream stops into the matching exceptions. */
+    private long stream(GameplayFilter filter, ExportProgressListener listener, BooleanSupplier cancelled,
+                        RowWriter writer) throws IOException {
+        IOException[] writeError = new IOException[1];
+        long[] exported = new long[1];
+        listener.progress(0, -1);
+        long streamed = gameplayDAO.streamPlays(filter, play -> {
+            if (cancelled.getAsBoolean()) return false;
+            try {
+                writer.write(play);
+            } catch (IOException e) {
+                writeError[0] = e;
+                return false;
+            }
+            if (++exported[0] % PROGRESS_EVERY_ROWS == 0) {
+                listener.progress(exported[0], -1);
+            }
+            return true;
+        });
+        if (writeError[0] != null) {
+            throw writeError[0];
+        }
+        if (streamed < 0) {
+            throw new IOException("Reading plays failed after " + exported[0] + " rows.");
+        }
+        if (cancelled.getAsBoolean()) {
+            throw new CancellationException("Export cancelled after " + exported[0] + " plays.");
+        }
+        listener.progress(exported[0], -1);
+        return exported[0];
+    }
+
+    private static String plain(BigDecimal value) {
+        return value != null ? value.toPlainString() : "";
+    }
+
+    /** Appends a CSV field, quoted only when it contains a separator, quote or line break. */
+    private static void appendCsvField(StringBuilder line, String value) {
+        if (value == null) return;
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') line.append('"');
+            line.append(c);
+        }
+        line.append('"');
+    }
+}
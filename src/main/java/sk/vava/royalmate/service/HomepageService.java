@@ -1,7 +1,5 @@
 package sk.vava.royalmate.service;
 
-import sk.vava.royalmate.data.GameDAO;
-import sk.vava.royalmate.data.HomepageBannerDAO;
 import sk.vava.royalmate.model.Game;
 import sk.vava.royalmate.model.HomepageBanner;
 
@@ -14,35 +12,35 @@ public class HomepageService {
     private static final Logger LOGGER = Logger.getLogger(HomepageService.class.getName());
     private static final int DEFAULT_TOP_GAMES_LIMIT = 16; // For 4x4 grid
 
-    private final HomepageBannerDAO bannerDAO;
-    private final GameDAO gameDAO;
+    private final BannerService bannerService;
+    private final CatalogService catalogService;
 
     public HomepageService() {
-        this.bannerDAO = new HomepageBannerDAO();
-        this.gameDAO = new GameDAO();
+        this.bannerService = BannerService.getInstance();
+        this.catalogService = CatalogService.getInstance();
     }
 
     // Constructor for testing/DI
-    public HomepageService(HomepageBannerDAO bannerDAO, GameDAO gameDAO) {
-        this.bannerDAO = bannerDAO;
-        this.gameDAO = gameDAO;
+    public HomepageService(BannerService bannerService, CatalogService catalogService) {
+        this.bannerService = bannerService;
+        this.catalogService = catalogService;
     }
 
     /**
-     * Gets the main banner for the homepage.
+     * Gets the main banner for the homepage. The image is only transferred if it changed since the last visit.
      * @return Optional containing the banner if found.
      */
     public Optional<HomepageBanner> getMainBanner() {
         LOGGER.fine("HomepageService fetching main banner.");
-        return bannerDAO.findMainBanner(); // Assuming findMainBanner exists and works
+        return bannerService.getMainBanner();
     }
 
     /**
-     * Gets the list of top games for the homepage grid.
+     * Gets the list of top games for the homepage grid from the shared catalog.
      * @return List of top Game objects (up to the limit).
      */
     public List<Game> getTopGames() {
         LOGGER.fine("HomepageService fetching top " + DEFAULT_TOP_GAMES_LIMIT + " games.");
-        return gameDAO.findTopGames(DEFAULT_TOP_GAMES_LIMIT); // Use the new DAO method
+        return catalogService.getSnapshot().getTopGames(DEFAULT_TOP_GAMES_LIMIT);
     }
 }
\ No newline at end of file
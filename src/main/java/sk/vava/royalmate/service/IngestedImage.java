@@ -0,0 +1,15 @@
+package sk.vava.royalmate.service;
+
+import lombok.Value;
+import sk.vava.royalmate.util.ImageHeader;
+
+/**
+ * An uploaded image after ingestion: validated, scaled to its display box and re-encoded as PNG.
+ */
+@Value
+public class IngestedImage {
+    String fileName;
+    ImageHeader sourceHeader; // Format and size of the chosen file
+    byte[] data;              // PNG bytes to store
+    String contentHash;       // SHA-256 of data
+}
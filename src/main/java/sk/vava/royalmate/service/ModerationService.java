@@ -0,0 +1,128 @@
+package sk.vava.royalmate.service;
+
+import sk.vava.royalmate.data.BannedTermDAO;
+import sk.vava.royalmate.util.AhoCorasickMatcher;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Chat moderation backed by an Aho-Corasick automaton over the admin-managed banned term list.
+ * The automaton is rebuilt on a background thread and swapped in atomically,
+ * so filtering never waits for a rebuild and always sees a complete automaton.
+ */
+public class ModerationService {
+
+    private static final Logger LOGGER = Logger.getLogger(ModerationService.class.getName());
+    private static final char MASK_CHAR = '*';
+
+    private static final ModerationService INSTANCE = new ModerationService(new BannedTermDAO());
+
+    private final BannedTermDAO bannedTermDAO;
+    private final AtomicReference<AhoCorasickMatcher> matcher = new AtomicReference<>(AhoCorasickMatcher.empty());
+    private final ExecutorService rebuildExecutor;
+
+    // Constructor for testing/DI
+    public ModerationService(BannedTermDAO bannedTermDAO) {
+        this.bannedTermDAO = bannedTermDAO;
+        this.rebuildExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "moderation-rebuild");
+            t.setDaemon(true);
+            return t;
+        });
+        reloadAsync(); // Initial load of the term list
+    }
+
+    /** @return The shared instance used by chat and admin screens. */
+    public static ModerationService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Masks all banned terms in the text with '*' in a single pass.
+     *
+     * @param text The message text.
+     * @return The filtered text (same instance if nothing matched).
+     */
+    public String filter(String text) {
+        return matcher.get().mask(text, MASK_CHAR);
+    }
+
+    /**
+     * Checks if the text contains any banned term.
+     *
+     * @param text The message text.
+     * @return true if at least one banned term was found.
+     */
+    public boolean isFlagged(String text) {
+        return matcher.get().containsAny(text);
+    }
+
+    /**
+     * Gets the currently stored banned terms.
+     * @return List of terms, empty on error.
+     */
+    public List<String> getBannedTerms() {
+        return bannedTermDAO.findAllTerms();
+    }
+
+    /**
+     * Stores a new banned term list and rebuilds the automaton in the background.
+     * Authorization is checked by the caller (AdminService).
+     *
+     * @param terms   The new terms. Blank entries and duplicates are dropped.
+     * @param adminId The ID of the admin making the change.
+     * @return true if the list was stored, false otherwise.
+     */
+    public boolean updateBannedTerms(Collection<String> terms, int adminId) {
+        Set<String> cleaned = new LinkedHashSet<>();
+        if (terms != null) {
+            for (String term : terms) {
+                if (term != null && !term.isBlank()) {
+                    cleaned.add(AhoCorasickMatcher.fold(term.trim()));
+                }
+            }
+        }
+        boolean saved = bannedTermDAO.replaceAll(cleaned, adminId);
+        if (saved) {
+            rebuildAsync(cleaned);
+        }
+        return saved;
+    }
+
+    /**
+     * Reloads the term list from the DB and swaps in a fresh automaton.
+     * @return Future completed when the new automaton is active.
+     */
+    public CompletableFuture<Void> reloadAsync() {
+        return CompletableFuture.runAsync(() -> swap(bannedTermDAO.findAllTerms()), rebuildExecutor)
+                .exceptionally(ex -> {
+                    LOGGER.log(Level.SEVERE, "Failed to reload banned chat terms.", ex);
+                    return null;
+                });
+    }
+
+    private void rebuildAsync(Collection<String> terms) {
+        CompletableFuture.runAsync(() -> swap(terms), rebuildExecutor)
+                .exceptionally(ex -> {
+                    LOGGER.log(Level.SEVERE, "Failed to rebuild moderation automaton.", ex);
+                    return null;
+                });
+    }
+
+    private void swap(Collection<String> terms) {
+        long start = System.nanoTime();
+        AhoCorasickMatcher compiled = AhoCorasickMatcher.compile(terms);
+        matcher.set(compiled);
+        LOGGER.info("Moderation automaton rebuilt with " + terms.size() + " terms in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms.");
+    }
+}
@@ -0,0 +1,142 @@
+package sk.vava.royalmate.service;
+
+import javafx.application.Platform;
+import javafx.scene.Node;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Loads the data of one screen: each independent query is forked onto the {@link DatabaseExecutor}
+ * at once and rendered as soon as it arrives, so the screen is complete after its slowest query
+ * instead of after the sum of all of them.
+ * <p>
+ * The loader owns its forks: when the deadline passes, every query still running is cancelled and
+ * its failure handler gets a {@link TimeoutException}; after {@link #close()} (or once the bound
+ * node leaves its scene) nothing is rendered anymore. Must be used from the FX thread.
+ */
+public final class ScreenLoader {
+
+    private static final Logger LOGGER = Logger.getLogger(ScreenLoader.class.getName());
+
+    private static final ScheduledExecutorService DEADLINES = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "screen-deadline");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final String screen;
+    private final DatabaseExecutor executor;
+    private final ScheduledFuture<?> deadlineTimer;
+    private final long startNanos = System.nanoTime();
+    private final List<CompletableFuture<?>> forks = new ArrayList<>();
+    private int running;
+    private boolean timedOut;
+    private boolean closed;
+
+    private ScreenLoader(String screen, Duration deadline, DatabaseExecutor executor) {
+        this.screen = screen;
+        this.executor = executor;
+        this.deadlineTimer = DEADLINES.schedule(() -> Platform.runLater(this::expire),
+                deadline.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens a loader whose queries run on the shared {@link DatabaseExecutor}.
+     *
+     * @param screen   Name used in log messages.
+     * @param deadline Time after which queries still running are given up.
+     * @return The loader.
+     */
+    public static ScreenLoader open(String screen, Duration deadline) {
+        return new ScreenLoader(screen, deadline, DatabaseExecutor.getInstance());
+    }
+
+    /**
+     * Starts one query of the screen. Exactly one of the handlers runs, on the FX thread,
+     * unless the loader was closed before the query finished.
+     *
+     * @param part      Name of the part, for log messages.
+     * @param query     The blocking call, run on a DB worker.
+     * @param onResult  Renders the result.
+     * @param onFailure Renders the error state; gets the cause (a TimeoutException after the deadline).
+     * @return This loader.
+     */
+    public <T> ScreenLoader fork(String part, Callable<T> query, Consumer<? super T> onResult,
+                                 Consumer<? super Throwable> onFailure) {
+        if (closed) return this;
+        CompletableFuture<T> future = executor.supplyOnFx(query);
+        forks.add(future);
+        running++;
+        future.whenComplete((value, error) -> {
+            if (closed) return;
+            running--;
+            if (error == null) {
+                try {
+                    onResult.accept(value);
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.SEVERE, "Rendering " + screen + "/" + part + " failed.", e);
+                    onFailure.accept(e);
+                }
+            } else {
+                Throwable cause = timedOut && error instanceof CancellationException
+                        ? new TimeoutException(screen + "/" + part + " missed the load deadline.")
+                        : unwrap(error);
+                LOGGER.log(Level.WARNING, "Loading " + screen + "/" + part + " failed.", cause);
+                onFailure.accept(cause);
+            }
+            if (running == 0) {
+                deadlineTimer.cancel(false);
+                LOGGER.fine("Screen " + screen + " loaded in " + (System.nanoTime() - startNanos) / 1_000_000 + " ms.");
+            }
+        });
+        return this;
+    }
+
+    /**
+     * Closes the loader once the node is removed from its scene, e.g. when the user navigates away.
+     * @param node Root node of the screen.
+     * @return This loader.
+     */
+    public ScreenLoader closeWhenDetached(Node node) {
+        node.sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if (oldScene != null && newScene == null) {
+                close();
+            }
+        });
+        return this;
+    }
+
+    /** Cancels all queries still running; no handler runs afterwards. */
+    public void close() {
+        if (closed) return;
+        closed = true;
+        deadlineTimer.cancel(false);
+        forks.forEach(f -> f.cancel(true));
+        forks.clear();
+    }
+
+    private void expire() {
+        if (closed || running == 0) return;
+        LOGGER.warning("Screen " + screen + " hit its load deadline with " + running + " queries still running.");
+        timedOut = true;
+        new ArrayList<>(forks).forEach(f -> f.cancel(true)); // Failure handlers run now
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
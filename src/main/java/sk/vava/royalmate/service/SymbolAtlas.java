@@ -0,0 +1,34 @@
+package sk.vava.royalmate.service;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.Image;
+
+import java.util.Map;
+
+/**
+ * One decoded texture holding all symbols of a slot game, plus the cell of each symbol.
+ * Grid cells share the image and only switch their ImageView viewport to show a different symbol.
+ */
+public final class SymbolAtlas {
+
+    private final Image image;
+    private final Map<Integer, Rectangle2D> viewportsByAssetId;
+
+    SymbolAtlas(Image image, Map<Integer, Rectangle2D> viewportsByAssetId) {
+        this.image = image;
+        this.viewportsByAssetId = Map.copyOf(viewportsByAssetId);
+    }
+
+    /** @return The shared atlas image. */
+    public Image getImage() {
+        return image;
+    }
+
+    /**
+     * @param assetId The symbol asset ID.
+     * @return The symbol's cell in the atlas, or null if the symbol is not part of it.
+     */
+    public Rectangle2D getViewport(int assetId) {
+        return viewportsByAssetId.get(assetId);
+    }
+}
@@ -0,0 +1,173 @@
+package sk.vava.royalmate.service;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import sk.vava.royalmate.data.AssetDiskCache;
+import sk.vava.royalmate.model.AssetRendition;
+import sk.vava.royalmate.model.GameAsset;
+import sk.vava.royalmate.util.ByteBufferInputStream;
+import sk.vava.royalmate.util.ImageUtil;
+import sk.vava.royalmate.util.PngEncoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Packs the symbols of a slot game into a {@link SymbolAtlas} the first time the game is opened.
+ * The encoded atlas is kept as a single entry in the {@link AssetDiskCache}, keyed by the symbols' content
+ * hashes (a changed symbol yields a new atlas), and the decoded atlas of recently played games stays in memory.
+ * Building (JavaFX {@link WritableImage} plus {@link PngEncoder}, no AWT) and decoding happen on the calling
+ * thread, which must not be the FX thread.
+ */
+public class SymbolAtlasService {
+
+    private static final Logger LOGGER = Logger.getLogger(SymbolAtlasService.class.getName());
+    private static final int CELL_SIZE = AssetRendition.THUMBNAIL.getMaxSide(); // Symbols are loaded as thumbnails
+    private static final int MAX_CACHED_ATLASES = 8;
+
+    private static final SymbolAtlasService INSTANCE = new SymbolAtlasService(AssetDiskCache.getShared());
+
+    private final AssetDiskCache diskCache; // Null if the disk cache could not be opened
+    private final Map<String, SymbolAtlas> atlases = new LinkedHashMap<>(16, 0.75f, true) { // Guarded by this
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, SymbolAtlas> eldest) {
+            return size() > MAX_CACHED_ATLASES;
+        }
+    };
+
+    // Constructor for testing/DI
+    public SymbolAtlasService(AssetDiskCache diskCache) {
+        this.diskCache = diskCache;
+    }
+
+    /** @return The shared instance. */
+    public static SymbolAtlasService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Gets the atlas for a game's symbols, building it if needed.
+     *
+     * @param symbols The symbols in display order (image data and content hash set).
+     * @return The atlas.
+     * @throws IOException if the symbols cannot be packed or the atlas cannot be decoded.
+     */
+    public SymbolAtlas getAtlas(List<GameAsset> symbols) throws IOException {
+        String key = atlasKey(symbols);
+        synchronized (this) {
+            SymbolAtlas cached = atlases.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        ByteBuffer encoded = diskCache != null ? diskCache.get(key) : null;
+        if (encoded == null) {
+            long start = System.nanoTime();
+            List<ByteBuffer> images = new ArrayList<>(symbols.size());
+            for (GameAsset symbol : symbols) {
+                images.add(symbol.getImageData());
+            }
+            encoded = ByteBuffer.wrap(packAtlas(images, CELL_SIZE));
+            if (diskCache != null) {
+                diskCache.put(key, encoded);
+                diskCache.flush();
+            }
+            LOGGER.fine("Packed " + symbols.size() + " symbols into a " + encoded.remaining() + " byte atlas in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms.");
+        }
+
+        Image image = ImageUtil.byteBufferToImage(encoded, 0, 0);
+        if (image == null || image.isError()) {
+            throw new IOException("Symbol atlas could not be decoded.");
+        }
+        SymbolAtlas atlas = new SymbolAtlas(image, viewports(symbols));
+        synchronized (this) {
+            atlases.put(key, atlas);
+        }
+        return atlas;
+    }
+
+    /**
+     * Packs slot symbols into one sprite atlas: a grid of square cells, {@link #atlasColumns(int)} wide,
+     * filled row by row in list order. Each symbol is scaled down to fit its cell (never up) and centered.
+     *
+     * @param symbols  Encoded symbol images (null entries leave an empty cell).
+     * @param cellSize Cell edge in pixels.
+     * @return The atlas as PNG.
+     * @throws IOException if a symbol cannot be decoded or the atlas cannot be encoded.
+     */
+    private static byte[] packAtlas(List<ByteBuffer> symbols, int cellSize) throws IOException {
+        int columns = atlasColumns(symbols.size());
+        int rows = Math.max(1, (symbols.size() + columns - 1) / columns);
+        WritableImage atlas = new WritableImage(columns * cellSize, rows * cellSize); // Fully transparent
+        PixelWriter writer = atlas.getPixelWriter();
+        for (int i = 0; i < symbols.size(); i++) {
+            if (symbols.get(i) == null) continue;
+            Image symbol = decode(symbols.get(i), 0);
+            if (symbol != null && Math.max(symbol.getWidth(), symbol.getHeight()) > cellSize) {
+                symbol = decode(symbols.get(i), cellSize); // Scaled while decoding
+            }
+            if (symbol == null || symbol.isError() || symbol.getPixelReader() == null) {
+                throw new IOException("Unsupported symbol image format at index " + i + ".");
+            }
+            int width = Math.min(cellSize, (int) symbol.getWidth());
+            int height = Math.min(cellSize, (int) symbol.getHeight());
+            int x = (i % columns) * cellSize + (cellSize - width) / 2;
+            int y = (i / columns) * cellSize + (cellSize - height) / 2;
+            writer.setPixels(x, y, width, height, symbol.getPixelReader(), 0, 0);
+        }
+        return new PngEncoder().encode(atlas); // Encoder buffers are not thread-safe; atlases are built rarely
+    }
+
+    private static Image decode(ByteBuffer data, int box) throws IOException {
+        try (InputStream in = new ByteBufferInputStream(data)) {
+            return new Image(in, box, box, true, true);
+        }
+    }
+
+    /**
+     * @param symbolCount Number of symbols in the atlas.
+     * @return Number of cell columns in the atlas (roughly square layout).
+     */
+    static int atlasColumns(int symbolCount) {
+        return Math.max(1, (int) Math.ceil(Math.sqrt(symbolCount)));
+    }
+
+    private static Map<Integer, Rectangle2D> viewports(List<GameAsset> symbols) {
+        int columns = atlasColumns(symbols.size());
+        Map<Integer, Rectangle2D> viewports = new HashMap<>();
+        for (int i = 0; i < symbols.size(); i++) {
+            viewports.put(symbols.get(i).getId(),
+                    new Rectangle2D((i % columns) * CELL_SIZE, (i / columns) * CELL_SIZE, CELL_SIZE, CELL_SIZE));
+        }
+        return viewports;
+    }
+
+    /** Key changes whenever the set, order or content of the symbols changes. */
+    private static String atlasKey(List<GameAsset> symbols) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            for (GameAsset symbol : symbols) {
+                String hash = symbol.getContentHash() != null ? symbol.getContentHash() : "#" + symbol.getId();
+                md.update((symbol.getId() + ":" + hash + ";").getBytes(StandardCharsets.UTF_8));
+            }
+            return "atlas/" + HexFormat.of().formatHex(md.digest()) + "/" + CELL_SIZE;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
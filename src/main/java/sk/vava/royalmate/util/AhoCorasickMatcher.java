@@ -0,0 +1,192 @@
+package sk.vava.royalmate.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable Aho-Corasick automaton for finding many terms in a text with a single linear pass.
+ * Matching is case-insensitive. The automaton is compiled into a dense DFA table
+ * (state x alphabet), so scanning costs one array lookup per character.
+ */
+public final class AhoCorasickMatcher {
+
+    private static final AhoCorasickMatcher EMPTY = new AhoCorasickMatcher(new String[0]);
+
+    // Maps a (lowercased) char to its alphabet index, 0 = "not in any term"
+    private final char[] charClass;
+    private final int alphabetSize;
+    private final int[] transitions; // [state * alphabetSize + class] -> next state
+    // Length of the longest term ending in each state (including via suffix links), 0 = none
+    private final int[] longestMatch;
+
+    private AhoCorasickMatcher(String[] terms) {
+        // 1. Build the alphabet from the characters actually used in terms
+        char[] classes = new char[Character.MAX_VALUE + 1];
+        int nextClass = 1;
+        for (String term : terms) {
+            for (int i = 0; i < term.length(); i++) {
+                char c = term.charAt(i);
+                if (classes[c] == 0) {
+                    classes[c] = (char) nextClass++;
+                }
+            }
+        }
+        this.charClass = classes;
+        this.alphabetSize = nextClass;
+
+        // 2. Build the trie
+        List<int[]> trie = new ArrayList<>();
+        List<Integer> depthOfLongest = new ArrayList<>();
+        trie.add(newRow(alphabetSize));
+        depthOfLongest.add(0);
+        for (String term : terms) {
+            int state = 0;
+            for (int i = 0; i < term.length(); i++) {
+                int cls = classes[term.charAt(i)];
+                int next = trie.get(state)[cls];
+                if (next < 0) {
+                    next = trie.size();
+                    trie.add(newRow(alphabetSize));
+                    depthOfLongest.add(0);
+                    trie.get(state)[cls] = next;
+                }
+                state = next;
+            }
+            depthOfLongest.set(state, Math.max(depthOfLongest.get(state), term.length()));
+        }
+
+        // 3. BFS to compute failure links and turn the trie into a full DFA
+        int stateCount = trie.size();
+        int[] table = new int[stateCount * alphabetSize];
+        int[] fail = new int[stateCount];
+        int[] longest = new int[stateCount];
+        for (int s = 0; s < stateCount; s++) {
+            System.arraycopy(trie.get(s), 0, table, s * alphabetSize, alphabetSize);
+            longest[s] = depthOfLongest.get(s);
+        }
+
+        int[] queue = new int[stateCount];
+        int head = 0, tail = 0;
+        for (int cls = 0; cls < alphabetSize; cls++) {
+            int next = table[cls];
+            if (next < 0) {
+                table[cls] = 0;
+            } else {
+                fail[next] = 0;
+                queue[tail++] = next;
+            }
+        }
+        while (head < tail) {
+            int state = queue[head++];
+            longest[state] = Math.max(longest[state], longest[fail[state]]);
+            int base = state * alphabetSize;
+            int failBase = fail[state] * alphabetSize;
+            for (int cls = 0; cls < alphabetSize; cls++) {
+                int next = table[base + cls];
+                if (next < 0) {
+                    table[base + cls] = table[failBase + cls];
+                } else {
+                    fail[next] = table[failBase + cls];
+                    queue[tail++] = next;
+                }
+            }
+        }
+        this.transitions = table;
+        this.longestMatch = longest;
+    }
+
+    private static int[] newRow(int size) {
+        int[] row = new int[size];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    /**
+     * Compiles a matcher for the given terms. Blank terms are ignored, terms are lowercased and trimmed.
+     *
+     * @param terms The terms to search for.
+     * @return A ready-to-use matcher (never null).
+     */
+    public static AhoCorasickMatcher compile(Collection<String> terms) {
+        if (terms == null || terms.isEmpty()) {
+            return EMPTY;
+        }
+        Map<String, Boolean> unique = new HashMap<>();
+        for (String term : terms) {
+            if (term != null && !term.isBlank()) {
+                unique.put(fold(term.trim()), Boolean.TRUE);
+            }
+        }
+        return unique.isEmpty() ? EMPTY : new AhoCorasickMatcher(unique.keySet().toArray(new String[0]));
+    }
+
+    /** @return An empty matcher that never matches. */
+    public static AhoCorasickMatcher empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Checks whether the text contains any of the terms.
+     * @param text The text to scan.
+     * @return true on the first match found.
+     */
+    public boolean containsAny(String text) {
+        if (text == null || alphabetSize == 1) {
+            return false;
+        }
+        int state = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            state = transitions[state * alphabetSize + charClass[Character.toLowerCase(text.charAt(i))]];
+            if (longestMatch[state] > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Replaces every character covered by a matched term with the mask character.
+     *
+     * @param text The text to filter.
+     * @param mask The replacement character (e.g. '*').
+     * @return The filtered text, or the same instance if nothing matched.
+     */
+    public String mask(String text, char mask) {
+        if (text == null || alphabetSize == 1) {
+            return text;
+        }
+        char[] out = null;
+        int state = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            state = transitions[state * alphabetSize + charClass[Character.toLowerCase(text.charAt(i))]];
+            int len = longestMatch[state];
+            if (len > 0) {
+                if (out == null) {
+                    out = text.toCharArray();
+                }
+                Arrays.fill(out, i - len + 1, i + 1, mask);
+            }
+        }
+        return out == null ? text : new String(out);
+    }
+
+    /**
+     * Folds a term to the case the matcher compares in. Lowercases char by char, independent of the default
+     * locale (no Turkish dotless i) and without length changes, so indices stay aligned with the scanned text.
+     * Terms stored for the matcher should be folded with this, so the stored list matches what is scanned.
+     *
+     * @param term The term.
+     * @return The folded term.
+     */
+    public static String fold(String term) {
+        char[] chars = term.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+}
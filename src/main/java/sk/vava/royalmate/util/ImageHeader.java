@@ -0,0 +1,98 @@
+package sk.vava.royalmate.util;
+
+import lombok.Value;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Format and pixel size of an image file, read from its header only (a few bytes per JPEG segment),
+ * so uploads can be rejected before anything is decoded or loaded into memory.
+ */
+@Value
+public class ImageHeader {
+
+    public enum Format { PNG, JPEG, GIF, BMP }
+
+    private static final int MAX_JPEG_SEGMENTS = 512; // Guards against looping over malformed files
+
+    Format format;
+    int width;
+    int height;
+    long fileSize;
+
+    /**
+     * Reads the header of an image file.
+     *
+     * @param file The image file.
+     * @return The header.
+     * @throws IOException if the file cannot be read or is not a supported image.
+     */
+    public static ImageHeader read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer head = readAt(channel, 0, (int) Math.min(32, size));
+
+            if (startsWith(head, 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n') && head.limit() >= 24) {
+                return new ImageHeader(Format.PNG, head.getInt(16), head.getInt(20), size); // IHDR is always first
+            }
+            if (startsWith(head, 'G', 'I', 'F', '8') && head.limit() >= 10) {
+                head.order(ByteOrder.LITTLE_ENDIAN);
+                return new ImageHeader(Format.GIF, head.getShort(6) & 0xFFFF, head.getShort(8) & 0xFFFF, size);
+            }
+            if (startsWith(head, 'B', 'M') && head.limit() >= 26) {
+                head.order(ByteOrder.LITTLE_ENDIAN);
+                return new ImageHeader(Format.BMP, head.getInt(18), Math.abs(head.getInt(22)), size); // Negative = top-down
+            }
+            if (startsWith(head, 0xFF, 0xD8)) {
+                return readJpeg(channel, size);
+            }
+        }
+        throw new IOException("Unsupported image format: " + file.getFileName());
+    }
+
+    /** Walks the JPEG segments up to the first SOFn marker, which holds the frame size. */
+    private static ImageHeader readJpeg(FileChannel channel, long size) throws IOException {
+        long position = 2;
+        for (int i = 0; i < MAX_JPEG_SEGMENTS && position + 4 <= size; i++) {
+            ByteBuffer segment = readAt(channel, position, (int) Math.min(9, size - position));
+            if ((segment.get(0) & 0xFF) != 0xFF) break;
+            int marker = segment.get(1) & 0xFF;
+            if (marker == 0xFF) { // Fill byte
+                position++;
+                continue;
+            }
+            int length = segment.getShort(2) & 0xFFFF;
+            boolean startOfFrame = marker >= 0xC0 && marker <= 0xCF && marker != 0xC4 && marker != 0xC8 && marker != 0xCC;
+            if (startOfFrame && segment.limit() >= 9) {
+                return new ImageHeader(Format.JPEG, segment.getShort(7) & 0xFFFF, segment.getShort(5) & 0xFFFF, size);
+            }
+            if (marker == 0xD9 || marker == 0xDA || length < 2) break; // End of image / scan data before a frame
+            position += 2 + length;
+        }
+        throw new IOException("JPEG file has no frame header.");
+    }
+
+    private static ByteBuffer readAt(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Image file is truncated.");
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static boolean startsWith(ByteBuffer buffer, int... bytes) {
+        if (buffer.limit() < bytes.length) return false;
+        for (int i = 0; i < bytes.length; i++) {
+            if ((buffer.get(i) & 0xFF) != bytes[i]) return false;
+        }
+        return true;
+    }
+}
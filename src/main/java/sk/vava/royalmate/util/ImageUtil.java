@@ -1,14 +1,11 @@
 package sk.vava.royalmate.util;
 
-import javafx.embed.swing.SwingFXUtils;
 import javafx.scene.image.Image;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.List;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -16,36 +13,35 @@ public class ImageUtil {
 
     private static final Logger LOGGER = Logger.getLogger(ImageUtil.class.getName());
 
+    // Uploads are re-encoded on the asset-ingest pool and (banners) a DB worker; one encoder per thread,
+    // whose buffers are trimmed after each image so idle threads keep at most a preview-sized set
+    private static final ThreadLocal<PngEncoder> PNG_ENCODER = ThreadLocal.withInitial(PngEncoder::new);
+    private static final int RETAINED_ENCODER_PIXELS = 512 * 512;
+
     /**
      * Converts a JavaFX Image object to a byte array.
+     * Always encodes PNG (lossless); the format of the source file is only used for logging.
      *
      * @param image The JavaFX Image.
-     * @param format The desired image format ("png", "jpg", etc.).
-     * @return Byte array, or null on error.
+     * @param format The format of the source file ("png", "jpg", etc.).
+     * @return PNG byte array, or null on error.
      */
     public static byte[] imageToByteArray(Image image, String format) {
         if (image == null || format == null || format.isBlank()) {
             return null;
         }
-        BufferedImage bImage = SwingFXUtils.fromFXImage(image, null);
-        if (bImage == null) {
-            LOGGER.warning("Failed to convert JavaFX Image to BufferedImage.");
+        if (image.isError()) {
+            LOGGER.warning("Cannot convert an image that failed to load.");
             return null;
         }
-        try (ByteArrayOutputStream s = new ByteArrayOutputStream()) {
-            // Ensure format is valid for ImageIO
-            String validFormat = format.toLowerCase();
-            if (!List.of("png", "jpg", "jpeg", "gif", "bmp").contains(validFormat)) {
-                LOGGER.warning("Unsupported image format for saving: " + format + ". Defaulting to png.");
-                validFormat = "png"; // Default to PNG if format is weird
-            }
-            if ("jpg".equals(validFormat)) validFormat = "jpeg"; // ImageIO often prefers "jpeg"
-
-            ImageIO.write(bImage, validFormat, s);
-            return s.toByteArray();
-        } catch (IOException e) {
-            LOGGER.log(Level.SEVERE, "Error converting image to byte array (format: " + format + ")", e);
+        PngEncoder encoder = PNG_ENCODER.get();
+        try {
+            return encoder.encode(image);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Error converting image to byte array (source format: " + format + ")", e);
             return null;
+        } finally {
+            encoder.trimBuffers(RETAINED_ENCODER_PIXELS);
         }
     }
 
@@ -65,6 +61,44 @@ public class ImageUtil {
         }
     }
 
+    /**
+     * Converts a byte array to a JavaFX Image scaled down to fit the given box while decoding,
+     * so thumbnails don't keep full-resolution pixels in memory.
+     *
+     * @param imageData The image byte array.
+     * @param width     Target width in pixels (0 = original).
+     * @param height    Target height in pixels (0 = original).
+     * @return JavaFX Image, or null on error.
+     * @throws IOException if the byte array is invalid image data.
+     */
+    public static Image byteArrayToImage(byte[] imageData, double width, double height) throws IOException {
+        if (imageData == null || imageData.length == 0) {
+            return null;
+        }
+        try (ByteArrayInputStream bis = new ByteArrayInputStream(imageData)) {
+            return new Image(bis, width, height, true, true);
+        }
+    }
+
+    /**
+     * Decodes image content held in a ByteBuffer (e.g. a memory-mapped asset store file)
+     * scaled down to fit the given box, without copying the encoded bytes first.
+     *
+     * @param imageData The encoded image; its position is not changed.
+     * @param width     Target width in pixels (0 = original).
+     * @param height    Target height in pixels (0 = original).
+     * @return JavaFX Image, or null on error.
+     * @throws IOException if the buffer is invalid image data.
+     */
+    public static Image byteBufferToImage(ByteBuffer imageData, double width, double height) throws IOException {
+        if (imageData == null || !imageData.hasRemaining()) {
+            return null;
+        }
+        try (InputStream in = new ByteBufferInputStream(imageData)) {
+            return new Image(in, width, height, true, true);
+        }
+    }
+
     /**
      * Extracts the file extension (lowercase) from a filename.
      * @param filename The full filename (e.g., "image.PNG").
@@ -0,0 +1,200 @@
+package sk.vava.royalmate.util;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelReader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Encodes JavaFX images as PNG using only {@link PixelReader} and {@link Deflater},
+ * so re-encoding uploads does not pull in javafx.swing / AWT.
+ * Fully opaque images are written as RGB, others as RGBA; each row uses the PNG filter
+ * with the smallest sum of absolute differences (the usual libpng heuristic).
+ * Pixel and row buffers are reused between calls, so an instance is not thread-safe;
+ * {@link #trimBuffers(int)} drops them after an unusually large image.
+ */
+public class PngEncoder {
+
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final int COLOR_TYPE_RGB = 2;
+    private static final int COLOR_TYPE_RGBA = 6;
+    private static final int FILTER_COUNT = 5; // None, Sub, Up, Average, Paeth
+
+    private final Deflater deflater;
+    private int[] pixels = new int[0];
+    private byte[] currentRow = new byte[0];
+    private byte[] previousRow = new byte[0];
+    private byte[][] filteredRows = new byte[FILTER_COUNT][0];
+
+    /** Creates an encoder with the default compression level. */
+    public PngEncoder() {
+        this(Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Creates an encoder.
+     * @param compressionLevel Deflater level, 0 (none, fastest) to 9 (smallest), or -1 for the default.
+     */
+    public PngEncoder(int compressionLevel) {
+        if (compressionLevel < Deflater.DEFAULT_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Invalid compression level: " + compressionLevel);
+        }
+        this.deflater = new Deflater(compressionLevel);
+    }
+
+    /**
+     * Encodes an image as PNG.
+     *
+     * @param image A fully loaded image.
+     * @return The PNG bytes.
+     * @throws IOException if the image has no readable pixels.
+     */
+    public byte[] encode(Image image) throws IOException {
+        PixelReader reader = image.getPixelReader();
+        int width = (int) image.getWidth();
+        int height = (int) image.getHeight();
+        if (reader == null || width <= 0 || height <= 0) {
+            throw new IOException("Image pixels are not available.");
+        }
+
+        int pixelCount = width * height;
+        if (pixels.length < pixelCount) {
+            pixels = new int[pixelCount];
+        }
+        reader.getPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+        boolean opaque = isOpaque(pixelCount);
+        int bytesPerPixel = opaque ? 3 : 4;
+
+        ByteArrayOutputStream png = new ByteArrayOutputStream(pixelCount * bytesPerPixel / 4 + 1024);
+        DataOutputStream out = new DataOutputStream(png);
+        out.write(SIGNATURE);
+
+        ByteArrayOutputStream header = new ByteArrayOutputStream(13);
+        DataOutputStream headerOut = new DataOutputStream(header);
+        headerOut.writeInt(width);
+        headerOut.writeInt(height);
+        headerOut.writeByte(8); // Bit depth
+        headerOut.writeByte(opaque ? COLOR_TYPE_RGB : COLOR_TYPE_RGBA);
+        headerOut.writeByte(0); // Compression: deflate
+        headerOut.writeByte(0); // Filter method: adaptive
+        headerOut.writeByte(0); // No interlace
+        writeChunk(out, "IHDR", header.toByteArray(), header.size());
+
+        ByteArrayOutputStream idat = new ByteArrayOutputStream(pixelCount * bytesPerPixel / 4 + 64);
+        deflater.reset();
+        try (DeflaterOutputStream deflated = new DeflaterOutputStream(idat, deflater, 64 * 1024)) {
+            writeRows(deflated, width, height, bytesPerPixel);
+        }
+        writeChunk(out, "IDAT", idat.toByteArray(), idat.size());
+        writeChunk(out, "IEND", new byte[0], 0);
+        return png.toByteArray();
+    }
+
+    /**
+     * Drops the reused buffers if they are sized for more than the given number of pixels,
+     * so a long-lived encoder does not keep the memory of the largest image it ever encoded.
+     *
+     * @param maxPixels Largest pixel count whose buffers are kept.
+     */
+    public void trimBuffers(int maxPixels) {
+        if (pixels.length > maxPixels) {
+            pixels = new int[0];
+            currentRow = new byte[0];
+            previousRow = new byte[0];
+            filteredRows = new byte[FILTER_COUNT][0];
+        }
+    }
+
+    private void writeRows(DeflaterOutputStream out, int width, int height, int bytesPerPixel) throws IOException {
+        int rowLength = width * bytesPerPixel;
+        if (currentRow.length < rowLength) {
+            currentRow = new byte[rowLength];
+            previousRow = new byte[rowLength];
+            for (int f = 0; f < FILTER_COUNT; f++) {
+                filteredRows[f] = new byte[rowLength];
+            }
+        }
+        Arrays.fill(previousRow, 0, rowLength, (byte) 0); // Row above the first row is all zero
+
+        for (int y = 0; y < height; y++) {
+            int offset = y * width;
+            for (int x = 0, i = 0; x < width; x++) {
+                int argb = pixels[offset + x];
+                currentRow[i++] = (byte) (argb >>> 16);
+                currentRow[i++] = (byte) (argb >>> 8);
+                currentRow[i++] = (byte) argb;
+                if (bytesPerPixel == 4) {
+                    currentRow[i++] = (byte) (argb >>> 24);
+                }
+            }
+            int filter = filterRow(rowLength, bytesPerPixel);
+            out.write(filter);
+            out.write(filteredRows[filter], 0, rowLength);
+
+            byte[] swap = previousRow;
+            previousRow = currentRow;
+            currentRow = swap;
+        }
+    }
+
+    /** Applies every filter to the current row and returns the one with the smallest sum of absolute values. */
+    private int filterRow(int rowLength, int bpp) {
+        byte[] none = filteredRows[0], sub = filteredRows[1], up = filteredRows[2], avg = filteredRows[3], paeth = filteredRows[4];
+        long[] sums = new long[FILTER_COUNT];
+        for (int i = 0; i < rowLength; i++) {
+            int x = currentRow[i] & 0xFF;
+            int a = i >= bpp ? currentRow[i - bpp] & 0xFF : 0;
+            int b = previousRow[i] & 0xFF;
+            int c = i >= bpp ? previousRow[i - bpp] & 0xFF : 0;
+
+            none[i] = (byte) x;
+            sub[i] = (byte) (x - a);
+            up[i] = (byte) (x - b);
+            avg[i] = (byte) (x - ((a + b) >>> 1));
+            paeth[i] = (byte) (x - paethPredictor(a, b, c));
+            for (int f = 0; f < FILTER_COUNT; f++) {
+                sums[f] += Math.abs((int) filteredRows[f][i]); // Bytes as signed values
+            }
+        }
+        int best = 0;
+        for (int f = 1; f < FILTER_COUNT; f++) {
+            if (sums[f] < sums[best]) best = f;
+        }
+        return best;
+    }
+
+    private static int paethPredictor(int a, int b, int c) {
+        int p = a + b - c;
+        int pa = Math.abs(p - a);
+        int pb = Math.abs(p - b);
+        int pc = Math.abs(p - c);
+        if (pa <= pb && pa <= pc) return a;
+        return pb <= pc ? b : c;
+    }
+
+    private boolean isOpaque(int pixelCount) {
+        for (int i = 0; i < pixelCount; i++) {
+            if ((pixels[i] >>> 24) != 0xFF) return false;
+        }
+        return true;
+    }
+
+    private static void writeChunk(DataOutputStream out, String type, byte[] data, int length) throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data, 0, length);
+        out.writeInt(length);
+        out.write(typeBytes);
+        out.write(data, 0, length);
+        out.writeInt((int) crc.getValue());
+    }
+}
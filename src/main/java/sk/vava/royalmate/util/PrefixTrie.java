@@ -0,0 +1,135 @@
+package sk.vava.royalmate.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Case-insensitive prefix tree of words for type-ahead: completing a prefix walks only the prefix
+ * and the first {@code limit} words below it, independent of how many words are stored.
+ * Completions come back in alphabetical (lower-cased) order. All methods are thread-safe.
+ */
+public class PrefixTrie {
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private static final class Node {
+        char[] keys = NO_KEYS;          // Sorted
+        Node[] children = NO_CHILDREN;  // Parallel to keys
+        List<String> words;             // Words ending here (several if they differ only in case)
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node childOrCreate(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            if (i >= 0) return children[i];
+            int at = -i - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[keys.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            newKeys[at] = c;
+            newChildren[at] = new Node();
+            System.arraycopy(keys, at, newKeys, at + 1, keys.length - at);
+            System.arraycopy(children, at, newChildren, at + 1, keys.length - at);
+            keys = newKeys;
+            children = newChildren;
+            return newChildren[at];
+        }
+    }
+
+    private final Node root = new Node();
+    private int size;
+
+    public PrefixTrie() {
+    }
+
+    /** @param words Initial words. */
+    public PrefixTrie(Collection<String> words) {
+        words.forEach(this::add);
+    }
+
+    /** @param word Word to add; duplicates are ignored. */
+    public synchronized void add(String word) {
+        if (word == null || word.isEmpty()) return;
+        Node node = root;
+        String key = word.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < key.length(); i++) {
+            node = node.childOrCreate(key.charAt(i));
+        }
+        if (node.words == null) {
+            node.words = new ArrayList<>(1);
+        }
+        if (!node.words.contains(word)) {
+            node.words.add(word);
+            size++;
+        }
+    }
+
+    /**
+     * @param word Word to remove (exact case). Emptied branches are left in place.
+     * @return true if it was stored.
+     */
+    public synchronized boolean remove(String word) {
+        if (word == null) return false;
+        Node node = find(word.toLowerCase(Locale.ROOT));
+        if (node == null || node.words == null || !node.words.remove(word)) {
+            return false;
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * Completes a prefix.
+     *
+     * @param prefix Prefix, any case; empty completes from the start.
+     * @param limit  Maximum number of words returned.
+     * @return Up to {@code limit} stored words starting with the prefix, in alphabetical order.
+     */
+    public synchronized List<String> complete(String prefix, int limit) {
+        List<String> result = new ArrayList<>(Math.min(limit, 16));
+        Node start = find(prefix == null ? "" : prefix.toLowerCase(Locale.ROOT));
+        if (start != null && limit > 0) {
+            collect(start, limit, result);
+        }
+        return result;
+    }
+
+    /** @return Number of stored words. */
+    public synchronized int size() {
+        return size;
+    }
+
+    private Node find(String key) {
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        return node;
+    }
+
+    private static void collect(Node start, int limit, List<String> out) {
+        // Iterative pre-order walk, children visited in key order
+        List<Node> stack = new ArrayList<>();
+        stack.add(start);
+        while (!stack.isEmpty() && out.size() < limit) {
+            Node node = stack.remove(stack.size() - 1);
+            if (node.words != null) {
+                for (String word : node.words) {
+                    if (out.size() == limit) return;
+                    out.add(word);
+                }
+            }
+            for (int i = node.children.length - 1; i >= 0; i--) {
+                stack.add(node.children[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package sk.vava.royalmate.util;
+
+import sk.vava.royalmate.model.AssetRendition;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Creates the {@link AssetRendition}s of an uploaded image.
+ * Opaque images (covers, most backgrounds) are stored as JPEG, images with transparency
+ * (slot symbols) as PNG. Uses plain ImageIO/Java2D, no JavaFX, so it can run on any thread.
+ */
+public class RenditionEncoder {
+
+    private static final float JPEG_QUALITY = 0.85f;
+
+    /**
+     * Scales and encodes the image for every rendition. A rendition is skipped when the image already
+     * fits its box and re-encoding would not make it smaller (the original is served instead).
+     *
+     * @param original The uploaded image bytes (position and limit are not changed).
+     * @return Encoded bytes per rendition (may be empty, never null).
+     * @throws IOException if the image cannot be read or encoded.
+     */
+    public static Map<AssetRendition, byte[]> createRenditions(ByteBuffer original) throws IOException {
+        BufferedImage source = ImageIO.read(new ByteBufferInputStream(original));
+        if (source == null) {
+            throw new IOException("Unsupported image format.");
+        }
+        boolean opaque = isOpaque(source);
+
+        Map<AssetRendition, byte[]> renditions = new EnumMap<>(AssetRendition.class);
+        for (AssetRendition rendition : AssetRendition.values()) {
+            boolean fitsAlready = Math.max(source.getWidth(), source.getHeight()) <= rendition.getMaxSide();
+            BufferedImage scaled = fitsAlready ? source : scaleToFit(source, rendition.getMaxSide(), opaque);
+            byte[] encoded = opaque ? encodeJpeg(scaled) : encodePng(scaled);
+            if (fitsAlready && encoded.length >= original.remaining()) {
+                continue; // Original is already the best version for this size
+            }
+            renditions.put(rendition, encoded);
+        }
+        return renditions;
+    }
+
+    private static BufferedImage scaleToFit(BufferedImage source, int maxSide, boolean opaque) {
+        double scale = (double) maxSide / Math.max(source.getWidth(), source.getHeight());
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        BufferedImage target = new BufferedImage(width, height, opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private static boolean isOpaque(BufferedImage image) {
+        if (!image.getColorModel().hasAlpha()) {
+            return true;
+        }
+        int[] row = new int[image.getWidth()];
+        for (int y = 0; y < image.getHeight(); y++) {
+            image.getRGB(0, y, row.length, 1, row, 0, row.length);
+            for (int argb : row) {
+                if ((argb >>> 24) != 0xFF) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static byte[] encodePng(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (!ImageIO.write(image, "png", out)) {
+            throw new IOException("No PNG writer available.");
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image) throws IOException {
+        BufferedImage rgb = image;
+        if (image.getType() != BufferedImage.TYPE_INT_RGB) {
+            // JPEG writer rejects alpha channels; opaque ARGB sources are flattened first
+            rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = rgb.createGraphics();
+            try {
+                g.drawImage(image, 0, 0, null);
+            } finally {
+                g.dispose();
+            }
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(ios);
+            writer.write(null, new IIOImage(rgb, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    // Private constructor to prevent instantiation
+    private RenditionEncoder() {}
+}
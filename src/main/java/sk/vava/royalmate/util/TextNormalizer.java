@@ -0,0 +1,68 @@
+package sk.vava.royalmate.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Normalization helpers for search indexes: lowercasing, diacritic folding and tokenization.
+ * "Šťastná Ruleta" -> "stastna ruleta" -> ["stastna", "ruleta"].
+ */
+public class TextNormalizer {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    /**
+     * Lowercases the text and strips diacritics.
+     *
+     * @param text The input text (may be null).
+     * @return The folded text, empty string for null.
+     */
+    public static String fold(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        boolean ascii = true;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 0x7F) {
+                ascii = false;
+                break;
+            }
+        }
+        String lower = text.toLowerCase();
+        if (ascii) {
+            return lower; // Fast path, nothing to decompose
+        }
+        String decomposed = Normalizer.normalize(lower, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("");
+    }
+
+    /**
+     * Folds the text and splits it into alphanumeric tokens.
+     *
+     * @param text The input text.
+     * @return List of tokens (no empty tokens), empty list for blank input.
+     */
+    public static List<String> tokenize(String text) {
+        String folded = fold(text);
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (start < 0) start = i;
+            } else if (start >= 0) {
+                tokens.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        if (start >= 0) {
+            tokens.add(folded.substring(start));
+        }
+        return tokens;
+    }
+
+    // Private constructor to prevent instantiation
+    private TextNormalizer() {}
+}
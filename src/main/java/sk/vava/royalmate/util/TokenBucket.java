@@ -0,0 +1,59 @@
+package sk.vava.royalmate.util;
+
+/**
+ * Simple token bucket used for cheap rate limiting.
+ * Tokens are refilled lazily based on elapsed time, so no background thread is needed.
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerNano;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    /**
+     * @param capacity        Maximum number of tokens (burst size).
+     * @param refillPerSecond Number of tokens added back every second.
+     */
+    public TokenBucket(int capacity, double refillPerSecond) {
+        if (capacity <= 0 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Capacity and refill rate must be positive.");
+        }
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000.0;
+        this.tokens = capacity; // Start full
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Tries to take a single token from the bucket.
+     * @return true if a token was available, false if the caller should be rejected.
+     */
+    public synchronized boolean tryConsume() {
+        refill();
+        if (tokens >= 1.0) {
+            tokens -= 1.0;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Whether the bucket has refilled to capacity. A full bucket behaves exactly like a
+     * newly created one, so owners can drop it without changing any caller's limit.
+     */
+    public synchronized boolean isFull() {
+        refill();
+        return tokens >= capacity;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        long elapsed = now - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * refillPerNano);
+            lastRefillNanos = now;
+        }
+    }
+}